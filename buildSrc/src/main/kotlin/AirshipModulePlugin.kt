@@ -87,6 +87,15 @@ class AirshipModulePlugin : Plugin<Project> {
             }
 
             testOptions.unitTests.isIncludeAndroidResources = true
+
+            // Benchmarks only run with -PairshipBenchmarks and report their results to the test output
+            testOptions.unitTests.all { test ->
+                val benchmarksEnabled = project.hasProperty("airshipBenchmarks")
+                test.systemProperty("com.urbanairship.benchmarks", benchmarksEnabled)
+                if (benchmarksEnabled) {
+                    test.testLogging.showStandardStreams = true
+                }
+            }
         }
     }
 }
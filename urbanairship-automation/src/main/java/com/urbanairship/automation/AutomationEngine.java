@@ -39,7 +39,9 @@ import com.urbanairship.automation.storage.FullSchedule;
 import com.urbanairship.automation.storage.LegacyDataMigrator;
 import com.urbanairship.automation.storage.ScheduleEntity;
 import com.urbanairship.automation.storage.ScheduleState;
+import com.urbanairship.automation.storage.ScheduleSummary;
 import com.urbanairship.automation.storage.TriggerEntity;
+import com.urbanairship.automation.storage.TriggerProgressBuffer;
 import com.urbanairship.config.AirshipRuntimeConfig;
 import com.urbanairship.iam.InAppActivityMonitor;
 import com.urbanairship.json.JsonSerializable;
@@ -62,6 +64,7 @@ import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -79,6 +82,22 @@ import java.util.concurrent.atomic.AtomicBoolean;
 public class AutomationEngine {
 
     private long SCHEDULE_LIMIT = 1000;
+
+    /**
+     * Max time trigger progress is held in memory before being written to the database.
+     */
+    private static final long TRIGGER_PROGRESS_FLUSH_DELAY_MS = 5000;
+
+    /**
+     * Max number of triggers with unwritten progress.
+     */
+    private static final int MAX_PENDING_TRIGGER_PROGRESS = 50;
+
+    /**
+     * Max time a prepared schedule waits for higher priority schedules from the same trigger to
+     * finish preparing before it is allowed to execute out of order.
+     */
+    private static final long PREPARE_ORDER_TIMEOUT_MS = 10000;
     private final List<Integer> COMPOUND_TRIGGER_TYPES = Arrays.asList(Trigger.ACTIVE_SESSION, Trigger.VERSION);
 
     /**
@@ -120,6 +139,18 @@ public class AutomationEngine {
     private Scheduler backgroundScheduler;
     private final AutomationDao dao;
 
+    // Only accessed on the background handler
+    private final TriggerIndex triggerIndex = new TriggerIndex();
+    private final TriggerProgressBuffer triggerProgressBuffer = new TriggerProgressBuffer();
+    private boolean isTriggerProgressFlushScheduled;
+
+    private final Runnable flushTriggerProgressRunnable = new Runnable() {
+        @Override
+        public void run() {
+            flushTriggerProgress();
+        }
+    };
+
     private final ApplicationListener applicationListener = new ApplicationListener() {
         @Override
         public void onForeground(long time) {
@@ -131,6 +162,9 @@ public class AutomationEngine {
         public void onBackground(long time) {
             AutomationEngine.this.onEventAdded(JsonValue.NULL, Trigger.LIFE_CYCLE_BACKGROUND, 1.00);
             onScheduleConditionsChanged();
+
+            // The process may be killed at any time once backgrounded
+            backgroundHandler.post(flushTriggerProgressRunnable);
         }
     };
 
@@ -337,7 +371,16 @@ public class AutomationEngine {
         analytics.removeAnalyticsListener(analyticsListener);
         networkMonitor.teardown();
         cancelAlarms();
-        backgroundThread.quit();
+
+        // Quit after any pending work so buffered trigger progress is written
+        final HandlerThread thread = backgroundThread;
+        backgroundHandler.post(new Runnable() {
+            @Override
+            public void run() {
+                flushTriggerProgress();
+                thread.quit();
+            }
+        });
         backgroundThread = null;
         isStarted = false;
     }
@@ -365,6 +408,7 @@ public class AutomationEngine {
 
                 FullSchedule entry = ScheduleConverters.convert(schedule);
                 dao.insert(entry);
+                triggerIndex.invalidate();
                 subscribeStateObservables(Collections.singletonList(entry));
 
                 notifyNewSchedule(Collections.<Schedule<? extends ScheduleData>>singletonList(schedule));
@@ -405,6 +449,7 @@ public class AutomationEngine {
                 }
 
                 dao.insert(entries);
+                triggerIndex.invalidate();
                 subscribeStateObservables(entries);
 
                 Collection<Schedule<? extends ScheduleData>> result = convertSchedulesUnknownTypes(entries);
@@ -440,6 +485,7 @@ public class AutomationEngine {
                 Logger.verbose("Cancelled schedules: %s", ids);
 
                 dao.deleteSchedules(entries);
+                triggerIndex.invalidate();
                 notifyCancelledSchedule(entries);
                 cancelScheduleAlarms(ids);
                 pendingResult.setResult(true);
@@ -469,6 +515,7 @@ public class AutomationEngine {
 
                 Logger.verbose("Cancelled schedules: %s", ids);
                 dao.deleteSchedules(entries);
+                triggerIndex.invalidate();
                 notifyCancelledSchedule(entries);
                 cancelScheduleAlarms(ids);
                 pendingResult.setResult(true);
@@ -498,6 +545,7 @@ public class AutomationEngine {
                     pendingResult.setResult(false);
                 } else {
                     dao.deleteSchedules(entries);
+                    triggerIndex.invalidate();
                     cancelGroupAlarms(Collections.singletonList(group));
                     notifyCancelledSchedule(entries);
                 }
@@ -640,36 +688,64 @@ public class AutomationEngine {
                     return;
                 }
 
-                applyEdits(entry, edits);
+                long stateChangeTimeStamp = entry.schedule.executionStateChangeDate;
+                boolean subscribeForStateChanges = applyEditsAndUpdateState(entry, edits);
 
-                boolean subscribeForStateChanges = false;
-                long stateChangeTimeStamp = -1;
+                dao.update(entry);
 
-                boolean isOverLimit = isOverLimit(entry);
-                boolean isExpired = isExpired(entry);
+                if (subscribeForStateChanges) {
+                    subscribeStateObservables(entry, stateChangeTimeStamp);
+                }
 
-                // Check if the schedule needs to be rehabilitated or finished due to the edits
-                if (entry.schedule.executionState == ScheduleState.FINISHED && !isOverLimit && !isExpired) {
-                    subscribeForStateChanges = true;
-                    stateChangeTimeStamp = entry.schedule.executionStateChangeDate;
-                    updateExecutionState(entry, ScheduleState.IDLE);
-                } else if (entry.schedule.executionState != ScheduleState.FINISHED && (isOverLimit || isExpired)) {
-                    updateExecutionState(entry, ScheduleState.FINISHED);
+                Logger.verbose("Updated schedule: %s", scheduleId);
+                pendingResult.setResult(true);
+            }
+        });
+
+        return pendingResult;
+    }
+
+    /**
+     * Edits schedules. All of the edited schedules are written in a single transaction.
+     *
+     * @param edits A map of schedule ID to schedule edits.
+     * @return Pending result with {@code true} if any schedule was edited, otherwise {@code false}.
+     */
+    @NonNull
+    public PendingResult<Boolean> editSchedules(@NonNull final Map<String, ScheduleEdits<? extends ScheduleData>> edits) {
+        final PendingResult<Boolean> pendingResult = new PendingResult<>();
+
+        backgroundHandler.post(new Runnable() {
+            @Override
+            public void run() {
+                List<FullSchedule> entries = dao.getSchedules(edits.keySet());
+                if (entries.size() < edits.size()) {
+                    Logger.error("AutomationEngine - %s schedules no longer exist. Unable to edit them.", edits.size() - entries.size());
+                }
+
+                if (entries.isEmpty()) {
+                    pendingResult.setResult(false);
+                    return;
+                }
+
+                List<FullSchedule> resubscribeEntries = new ArrayList<>();
+                List<Long> resubscribeTimeStamps = new ArrayList<>();
 
-                    if (isOverLimit) {
-                        notifyScheduleLimitReached(entry);
-                    } else {
-                        notifyExpiredSchedules(Collections.singleton(entry));
+                for (FullSchedule entry : entries) {
+                    long stateChangeTimeStamp = entry.schedule.executionStateChangeDate;
+                    if (applyEditsAndUpdateState(entry, edits.get(entry.schedule.scheduleId))) {
+                        resubscribeEntries.add(entry);
+                        resubscribeTimeStamps.add(stateChangeTimeStamp);
                     }
                 }
 
-                dao.update(entry);
+                dao.updateSchedules(entries);
 
-                if (subscribeForStateChanges) {
-                    subscribeStateObservables(entry, stateChangeTimeStamp);
+                for (int i = 0; i < resubscribeEntries.size(); i++) {
+                    subscribeStateObservables(resubscribeEntries.get(i), resubscribeTimeStamps.get(i));
                 }
 
-                Logger.verbose("Updated schedule: %s", scheduleId);
+                Logger.verbose("Updated %s schedules", entries.size());
                 pendingResult.setResult(true);
             }
         });
@@ -677,6 +753,39 @@ public class AutomationEngine {
         return pendingResult;
     }
 
+    /**
+     * Applies edits to a schedule entry and rehabilitates or finishes the schedule if the edits
+     * changed its limit or end. The entry is not saved.
+     *
+     * @param entry The schedule entry.
+     * @param edits The schedule edits.
+     * @return {@code true} if the schedule was rehabilitated and needs to subscribe for state changes,
+     * otherwise {@code false}.
+     */
+    @WorkerThread
+    private boolean applyEditsAndUpdateState(@NonNull FullSchedule entry, @NonNull ScheduleEdits<? extends ScheduleData> edits) {
+        applyEdits(entry, edits);
+
+        boolean isOverLimit = isOverLimit(entry);
+        boolean isExpired = isExpired(entry);
+
+        // Check if the schedule needs to be rehabilitated or finished due to the edits
+        if (entry.schedule.executionState == ScheduleState.FINISHED && !isOverLimit && !isExpired) {
+            updateExecutionState(entry, ScheduleState.IDLE);
+            return true;
+        } else if (entry.schedule.executionState != ScheduleState.FINISHED && (isOverLimit || isExpired)) {
+            updateExecutionState(entry, ScheduleState.FINISHED);
+
+            if (isOverLimit) {
+                notifyScheduleLimitReached(entry);
+            } else {
+                notifyExpiredSchedules(Collections.singleton(entry));
+            }
+        }
+
+        return false;
+    }
+
     /**
      * Triggers the engine to recheck all pending schedules.
      */
@@ -921,32 +1030,33 @@ public class AutomationEngine {
     @WorkerThread
     private void cleanSchedules() {
         List<FullSchedule> expired = dao.getActiveExpiredSchedules();
-        List<FullSchedule> finished = dao.getSchedulesWithStates(ScheduleState.FINISHED);
+        // Finished schedules only need their state columns to decide if they can be deleted
+        List<ScheduleSummary> finished = dao.getScheduleSummariesWithStates(ScheduleState.FINISHED);
 
         handleExpiredEntries(expired);
 
-        Set<FullSchedule> schedulesToDelete = new HashSet<>();
-        for (FullSchedule entry : finished) {
+        Set<String> schedulesToDelete = new HashSet<>();
+        for (ScheduleSummary summary : finished) {
             long finishDate;
 
             // If grace period is unset - use the executionStateChangeDate as finishDate to avoid unnecessarily keeping schedules around
-            if (entry.schedule.editGracePeriod == 0) {
-                finishDate = entry.schedule.executionStateChangeDate;
-            } else if (entry.schedule.scheduleEnd >= 0) {
-                finishDate = entry.schedule.scheduleEnd + entry.schedule.editGracePeriod;
+            if (summary.editGracePeriod == 0) {
+                finishDate = summary.executionStateChangeDate;
+            } else if (summary.scheduleEnd >= 0) {
+                finishDate = summary.scheduleEnd + summary.editGracePeriod;
             } else {
                 // no end date, keep it around for edits
                 continue;
             }
 
             if (System.currentTimeMillis() >= finishDate) {
-                schedulesToDelete.add(entry);
+                schedulesToDelete.add(summary.scheduleId);
             }
         }
 
         if (!schedulesToDelete.isEmpty()) {
             Logger.verbose("Deleting finished schedules: %s", schedulesToDelete);
-            dao.deleteSchedules(schedulesToDelete);
+            dao.deleteSchedulesWithIds(schedulesToDelete);
         }
     }
 
@@ -1084,6 +1194,10 @@ public class AutomationEngine {
             @Override
             public void run() {
                 Logger.debug("Updating triggers with type: %s", type);
+                if (!mayMatchTriggers(type, json)) {
+                    return;
+                }
+
                 List<TriggerEntity> triggerEntities = dao.getActiveTriggers(type);
                 if (triggerEntities.isEmpty()) {
                     return;
@@ -1093,6 +1207,27 @@ public class AutomationEngine {
         });
     }
 
+    /**
+     * Checks the trigger index to see if any trigger could match the event, rebuilding the index
+     * if it has been invalidated.
+     *
+     * @param type The event type.
+     * @param json The event data.
+     * @return {@code false} if no trigger can match the event, {@code true} if one might.
+     */
+    private boolean mayMatchTriggers(int type, @NonNull JsonSerializable json) {
+        if (!triggerIndex.isValid()) {
+            List<TriggerEntity> triggers = dao.getTriggers();
+            if (triggers == null) {
+                // Unable to build the index, fallback to querying the active triggers
+                return true;
+            }
+            triggerIndex.rebuild(triggers);
+        }
+
+        return triggerIndex.mayMatch(type, json.toJsonValue());
+    }
+
     /**
      * Iterates through a list of triggers that need to respond to an event or state. If a trigger goal
      * is achieved, the correlated schedule is retrieved and the action is applied. The trigger progress
@@ -1115,9 +1250,13 @@ public class AutomationEngine {
                 Map<String, TriggerContext> triggerContextMap = new HashMap<>();
 
                 List<TriggerEntity> triggersToUpdate = new ArrayList<>();
+                JsonValue jsonValue = json.toJsonValue();
+
+                // The entities may have been read before the last buffered update
+                triggerProgressBuffer.apply(triggerEntities);
 
                 for (TriggerEntity trigger : triggerEntities) {
-                    if (trigger.jsonPredicate != null && !trigger.jsonPredicate.apply(json)) {
+                    if (trigger.jsonPredicate != null && !trigger.jsonPredicate.compile().apply(jsonValue)) {
                         continue;
                     }
 
@@ -1132,12 +1271,22 @@ public class AutomationEngine {
                             cancelScheduleAlarms(Collections.singletonList(trigger.parentScheduleId));
                         } else {
                             triggeredSchedules.add(trigger.parentScheduleId);
-                            triggerContextMap.put(trigger.parentScheduleId, new TriggerContext(ScheduleConverters.convert(trigger), json.toJsonValue()));
+                            triggerContextMap.put(trigger.parentScheduleId, new TriggerContext(ScheduleConverters.convert(trigger), jsonValue));
                         }
                     }
                 }
 
-                dao.updateTriggers(triggersToUpdate);
+                triggerProgressBuffer.add(triggersToUpdate);
+
+                // Write through once a goal is reached or the app is in the background, so the
+                // schedule updates below are never followed by stale trigger progress
+                boolean reachedGoal = !cancelledSchedules.isEmpty() || !triggeredSchedules.isEmpty();
+                if (reachedGoal || !activityMonitor.isAppForegrounded() || triggerProgressBuffer.size() >= MAX_PENDING_TRIGGER_PROGRESS) {
+                    flushTriggerProgress();
+                } else if (triggerProgressBuffer.size() > 0 && !isTriggerProgressFlushScheduled) {
+                    isTriggerProgressFlushScheduled = true;
+                    backgroundHandler.postDelayed(flushTriggerProgressRunnable, TRIGGER_PROGRESS_FLUSH_DELAY_MS);
+                }
 
                 if (!cancelledSchedules.isEmpty()) {
                     handleCancelledSchedules(dao.getSchedules(cancelledSchedules));
@@ -1150,6 +1299,23 @@ public class AutomationEngine {
         });
     }
 
+    /**
+     * Writes any buffered trigger progress to the database.
+     * <p>
+     * Progress is buffered to avoid a write transaction per event. If the process dies before a
+     * flush, progress made since the last flush is lost, so counting triggers may need a few more
+     * events to reach their goal. A reached goal is always written before the schedule is
+     * triggered, so a schedule is never triggered twice for the same progress.
+     */
+    @WorkerThread
+    private void flushTriggerProgress() {
+        if (isTriggerProgressFlushScheduled) {
+            backgroundHandler.removeCallbacks(flushTriggerProgressRunnable);
+            isTriggerProgressFlushScheduled = false;
+        }
+        triggerProgressBuffer.flush(dao);
+    }
+
     /**
      * Processes a list of cancelled schedule entries.
      *
@@ -1235,59 +1401,33 @@ public class AutomationEngine {
         }
 
         sortSchedulesByPriority(entries);
+
+        // The driver prepares the schedules in parallel, the batch applies the results in priority order
+        final PrepareBatch batch = new PrepareBatch();
+        List<Schedule<? extends ScheduleData>> schedules = new ArrayList<>();
+        List<TriggerContext> triggerContexts = new ArrayList<>();
         for (FullSchedule entry : entries) {
             Schedule<? extends ScheduleData> schedule = convert(entry);
             if (schedule == null) {
                 continue;
             }
 
-            final String scheduleId = schedule.getId();
-            driver.onPrepareSchedule(schedule, entry.schedule.triggerContext, new AutomationDriver.PrepareScheduleCallback() {
+            schedules.add(schedule);
+            triggerContexts.add(entry.schedule.triggerContext);
+            batch.operations.add(new PrepareOperation(schedule.getId()));
+        }
+
+        for (int i = 0; i < schedules.size(); i++) {
+            final PrepareOperation operation = batch.operations.get(i);
+            driver.onPrepareSchedule(schedules.get(i), triggerContexts.get(i), new AutomationDriver.PrepareScheduleCallback() {
                 @Override
                 public void onFinish(@AutomationDriver.PrepareResult final int result) {
                     backgroundHandler.post(new Runnable() {
                         @Override
                         public void run() {
-
-                            // Grab the updated entry
-                            FullSchedule entry = dao.getSchedule(scheduleId);
-
-                            // Make sure we are still suppose to be preparing the schedule
-                            if (entry == null || entry.schedule.executionState != ScheduleState.PREPARING_SCHEDULE) {
-                                return;
-                            }
-
-                            // Verify the schedule is not expired
-                            if (isExpired(entry)) {
-                                handleExpiredEntry(entry);
-                                return;
-                            }
-
-                            switch (result) {
-                                case AutomationDriver.PREPARE_RESULT_CANCEL:
-                                    dao.delete(entry);
-                                    notifyCancelledSchedule(Collections.singleton(entry));
-                                    break;
-
-                                case AutomationDriver.PREPARE_RESULT_CONTINUE:
-                                    updateExecutionState(entry, ScheduleState.WAITING_SCHEDULE_CONDITIONS);
-                                    dao.update(entry);
-                                    attemptExecution(entry);
-                                    break;
-
-                                case AutomationDriver.PREPARE_RESULT_SKIP:
-                                    updateExecutionState(entry, ScheduleState.IDLE);
-                                    dao.update(entry);
-                                    break;
-
-                                case AutomationDriver.PREPARE_RESULT_PENALIZE:
-                                    onScheduleFinishedExecuting(entry);
-                                    break;
-
-                                case AutomationDriver.PREPARE_RESULT_INVALIDATE:
-                                    prepareSchedules(Collections.singletonList(entry));
-                                    break;
-                            }
+                            operation.result = result;
+                            operation.isFinished = true;
+                            applyPrepareResults(batch);
                         }
                     });
                 }
@@ -1295,6 +1435,85 @@ public class AutomationEngine {
         }
     }
 
+    /**
+     * Applies the finished prepare results of a batch. A result is held while a higher priority
+     * schedule in the batch is still preparing, until the batch times out.
+     *
+     * @param batch The prepare batch.
+     */
+    @WorkerThread
+    private void applyPrepareResults(@NonNull final PrepareBatch batch) {
+        boolean isBlocked = false;
+        Iterator<PrepareOperation> iterator = batch.operations.iterator();
+        while (iterator.hasNext()) {
+            PrepareOperation operation = iterator.next();
+            if (!operation.isFinished) {
+                isBlocked = true;
+                continue;
+            }
+
+            if (isBlocked && !batch.isOrderReleased) {
+                if (!batch.isTimeoutScheduled) {
+                    batch.isTimeoutScheduled = true;
+                    backgroundHandler.postDelayed(new Runnable() {
+                        @Override
+                        public void run() {
+                            batch.isOrderReleased = true;
+                            applyPrepareResults(batch);
+                        }
+                    }, PREPARE_ORDER_TIMEOUT_MS);
+                }
+                return;
+            }
+
+            iterator.remove();
+            onPrepareResult(operation.scheduleId, operation.result);
+        }
+    }
+
+    @WorkerThread
+    private void onPrepareResult(@NonNull String scheduleId, @AutomationDriver.PrepareResult int result) {
+        // Grab the updated entry
+        FullSchedule entry = dao.getSchedule(scheduleId);
+
+        // Make sure we are still suppose to be preparing the schedule
+        if (entry == null || entry.schedule.executionState != ScheduleState.PREPARING_SCHEDULE) {
+            return;
+        }
+
+        // Verify the schedule is not expired
+        if (isExpired(entry)) {
+            handleExpiredEntry(entry);
+            return;
+        }
+
+        switch (result) {
+            case AutomationDriver.PREPARE_RESULT_CANCEL:
+                dao.delete(entry);
+                notifyCancelledSchedule(Collections.singleton(entry));
+                break;
+
+            case AutomationDriver.PREPARE_RESULT_CONTINUE:
+                updateExecutionState(entry, ScheduleState.WAITING_SCHEDULE_CONDITIONS);
+                dao.update(entry);
+                attemptExecution(entry);
+                break;
+
+            case AutomationDriver.PREPARE_RESULT_SKIP:
+                updateExecutionState(entry, ScheduleState.IDLE);
+                dao.update(entry);
+                break;
+
+            case AutomationDriver.PREPARE_RESULT_PENALIZE:
+                onScheduleFinishedExecuting(entry);
+                break;
+
+            case AutomationDriver.PREPARE_RESULT_INVALIDATE:
+                prepareSchedules(Collections.singletonList(entry));
+                break;
+        }
+    }
+
     @Nullable
     private <T extends ScheduleData> Schedule<T> convert(@Nullable FullSchedule entry) {
         if (entry == null) {
@@ -1730,6 +1949,29 @@ public class AutomationEngine {
 
     }
 
+    /**
+     * Schedules sent to the driver to prepare together, in priority order.
+     */
+    private static class PrepareBatch {
+
+        final List<PrepareOperation> operations = new ArrayList<>();
+        boolean isTimeoutScheduled;
+        boolean isOrderReleased;
+
+    }
+
+    private static class PrepareOperation {
+
+        final String scheduleId;
+        int result;
+        boolean isFinished;
+
+        PrepareOperation(String scheduleId) {
+            this.scheduleId = scheduleId;
+        }
+
+    }
+
     private static abstract class ScheduleRunnable<T> implements Runnable {
 
         final String scheduleId;
@@ -1774,14 +2016,20 @@ public class AutomationEngine {
         scheduleEntity.scheduleStart = edits.getStart() == null ? scheduleEntity.scheduleStart : edits.getStart();
         scheduleEntity.scheduleEnd = edits.getEnd() == null ? scheduleEntity.scheduleEnd : edits.getEnd();
         scheduleEntity.limit = edits.getLimit() == null ? scheduleEntity.limit : edits.getLimit();
-        scheduleEntity.data = edits.getData() == null ? scheduleEntity.data : edits.getData().toJsonValue();
+        if (edits.getData() != null) {
+            scheduleEntity.setData(edits.getData().toJsonValue());
+        }
         scheduleEntity.priority = edits.getPriority() == null ? scheduleEntity.priority : edits.getPriority();
         scheduleEntity.interval = edits.getInterval() == null ? scheduleEntity.interval : edits.getInterval();
         scheduleEntity.editGracePeriod = edits.getEditGracePeriod() == null ? scheduleEntity.editGracePeriod : edits.getEditGracePeriod();
         scheduleEntity.metadata = edits.getMetadata() == null ? scheduleEntity.metadata : edits.getMetadata();
         scheduleEntity.scheduleType = edits.getType() == null ? scheduleEntity.scheduleType : edits.getType();
-        scheduleEntity.audience = edits.getAudience() == null ? scheduleEntity.audience : edits.getAudience();
-        scheduleEntity.campaigns = edits.getCampaigns() == null ? scheduleEntity.campaigns : edits.getCampaigns();
+        if (edits.getAudience() != null) {
+            scheduleEntity.setAudience(edits.getAudience());
+        }
+        if (edits.getCampaigns() != null) {
+            scheduleEntity.setCampaigns(edits.getCampaigns());
+        }
         scheduleEntity.reportingContext = edits.getReportingContext() == null ? scheduleEntity.reportingContext : edits.getReportingContext();
         scheduleEntity.frequencyConstraintIds = edits.getFrequencyConstraintIds() == null ? scheduleEntity.frequencyConstraintIds : edits.getFrequencyConstraintIds();
     }
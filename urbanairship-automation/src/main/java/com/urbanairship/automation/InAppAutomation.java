@@ -62,6 +62,9 @@ public class InAppAutomation extends AirshipComponent implements InAppAutomation
      */
     private final static String PAUSE_KEY = "com.urbanairship.iam.paused";
 
+    // Max number of schedules preparing at the same time
+    private static final int MAX_CONCURRENT_PREPARES = 4;
+
     // State
     private final InAppRemoteDataObserver remoteDataSubscriber;
     private final AirshipChannel airshipChannel;
@@ -76,10 +79,10 @@ public class InAppAutomation extends AirshipComponent implements InAppAutomation
     private final ActionsScheduleDelegate actionScheduleDelegate;
     private final InAppMessageScheduleDelegate inAppMessageScheduleDelegate;
 
-    private final Map<String, ScheduleDelegate<?>> scheduleDelegateMap = new HashMap<>();
-    private final Map<String, FrequencyChecker> frequencyCheckerMap = new HashMap<>();
+    private final Map<String, ScheduleDelegate<?>> scheduleDelegateMap = Collections.synchronizedMap(new HashMap<String, ScheduleDelegate<?>>());
+    private final Map<String, FrequencyChecker> frequencyCheckerMap = Collections.synchronizedMap(new HashMap<String, FrequencyChecker>());
 
-    private final Map<String, Uri> redirectURLs = new HashMap<>();
+    private final Map<String, Uri> redirectURLs = Collections.synchronizedMap(new HashMap<String, Uri>());
 
     private final AtomicBoolean isStarted = new AtomicBoolean(false);
     private Subscription subscription;
@@ -115,8 +118,8 @@ public class InAppAutomation extends AirshipComponent implements InAppAutomation
 
         @Override
         @NonNull
-        public PendingResult<Boolean> editSchedule(@NonNull String scheduleId, @NonNull ScheduleEdits<? extends ScheduleData> edits) {
-            return InAppAutomation.this.editSchedule(scheduleId, edits);
+        public PendingResult<Boolean> editSchedules(@NonNull Map<String, ScheduleEdits<? extends ScheduleData>> edits) {
+            return InAppAutomation.this.editSchedules(edits);
         }
 
         @NonNull
@@ -175,7 +178,7 @@ public class InAppAutomation extends AirshipComponent implements InAppAutomation
         this.remoteDataSubscriber = new InAppRemoteDataObserver(preferenceDataStore, remoteData);
         this.inAppMessageManager = new InAppMessageManager(context, preferenceDataStore, analytics, automationEngine::checkPendingSchedules);
 
-        this.retryingExecutor = RetryingExecutor.newSerialExecutor(Looper.getMainLooper());
+        this.retryingExecutor = RetryingExecutor.newBoundedExecutor(Looper.getMainLooper(), MAX_CONCURRENT_PREPARES);
 
         this.deferredScheduleClient = new DeferredScheduleClient(runtimeConfig, new AuthManager(runtimeConfig, airshipChannel));
         this.actionScheduleDelegate = new ActionsScheduleDelegate();
@@ -459,6 +462,20 @@ public class InAppAutomation extends AirshipComponent implements InAppAutomation
         return automationEngine.editSchedule(scheduleId, edits);
     }
 
+    /**
+     * Edits multiple schedules in a single transaction.
+     *
+     * @param edits A map of schedule ID to schedule edits.
+     * @return Pending result with {@code true} if any schedule was edited, otherwise {@code false}.
+     * @hide
+     */
+    @NonNull
+    @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+    public PendingResult<Boolean> editSchedules(@NonNull Map<String, ScheduleEdits<? extends ScheduleData>> edits) {
+        ensureStarted();
+        return automationEngine.editSchedules(edits);
+    }
+
     /**
      * Pauses or unpauses automations.
      *
@@ -32,7 +32,9 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
@@ -87,6 +89,8 @@ class InAppRemoteDataObserver {
     private static final String LAST_PAYLOAD_TIMESTAMP_KEY = "com.urbanairship.iam.data.LAST_PAYLOAD_TIMESTAMP";
     private static final String LAST_PAYLOAD_METADATA = "com.urbanairship.iam.data.LAST_PAYLOAD_METADATA";
     private static final String SCHEDULE_NEW_USER_CUTOFF_TIME_KEY = "com.urbanairship.iam.data.NEW_USER_TIME";
+    private static final String LAST_FINGERPRINTS_KEY = "com.urbanairship.iam.data.LAST_FINGERPRINTS";
+    private static final String LAST_CONSTRAINTS_FINGERPRINT_KEY = "com.urbanairship.iam.data.LAST_CONSTRAINTS_FINGERPRINT";
     static final String REMOTE_DATA_METADATA = "com.urbanairship.iaa.REMOTE_DATA_METADATA";
     static final String LAST_SDK_VERSION_KEY = "com.urbanairship.iaa.last_sdk_version";
 
@@ -110,7 +114,7 @@ class InAppRemoteDataObserver {
         PendingResult<Collection<Schedule<? extends ScheduleData>>> getSchedules();
 
         @NonNull
-        PendingResult<Boolean> editSchedule(@NonNull String scheduleId, @NonNull ScheduleEdits<? extends ScheduleData> edits);
+        PendingResult<Boolean> editSchedules(@NonNull Map<String, ScheduleEdits<? extends ScheduleData>> edits);
 
         @NonNull
         PendingResult<Boolean> schedule(@NonNull List<Schedule<? extends ScheduleData>> schedules);
@@ -201,6 +205,11 @@ class InAppRemoteDataObserver {
 
     /**
      * Processes a payload.
+     * <p>
+     * Each message is fingerprinted by its ID, last updated time and content hash. When the
+     * payload metadata and SDK version have not changed since the last payload, only messages whose
+     * fingerprint changed are parsed, and the schedules are only loaded if a message changed or was
+     * removed. Otherwise every message is processed.
      *
      * @param payload The remote data payload.
      * @param delegate The delegate.
@@ -208,26 +217,108 @@ class InAppRemoteDataObserver {
     private void processPayload(@NonNull RemoteDataPayload payload, @NonNull Delegate delegate) throws ExecutionException, InterruptedException {
         long lastUpdate = preferenceDataStore.getLong(LAST_PAYLOAD_TIMESTAMP_KEY, -1);
         JsonMap lastPayloadMetadata = getLastPayloadMetadata();
-
-        JsonMap scheduleMetadata = JsonMap.newBuilder()
-                                          .put(REMOTE_DATA_METADATA, payload.getMetadata())
-                                          .build();
+        String lastSdkVersion = preferenceDataStore.getString(LAST_SDK_VERSION_KEY, null);
 
         boolean isMetadataUpToDate = payload.getMetadata().equals(lastPayloadMetadata);
-        List<Schedule<? extends ScheduleData>> newSchedules = new ArrayList<>();
+
+        // Fingerprints are only valid for the metadata and SDK version they were stored with
+        JsonMap lastFingerprints = null;
+        if (isMetadataUpToDate && sdkVersion.equals(lastSdkVersion)) {
+            JsonValue storedFingerprints = preferenceDataStore.getJsonValue(LAST_FINGERPRINTS_KEY);
+            lastFingerprints = storedFingerprints.isJsonMap() ? storedFingerprints.optMap() : null;
+        }
+
+        JsonList constraintsJson = payload.getData().opt(CONSTRAINTS_JSON_KEY).optList();
+        String constraintsFingerprint = Integer.toHexString(constraintsJson.hashCode());
+        boolean isConstraintsUpToDate = lastFingerprints != null &&
+                constraintsFingerprint.equals(preferenceDataStore.getString(LAST_CONSTRAINTS_FINGERPRINT_KEY, null));
+
+        JsonMap.Builder fingerprints = JsonMap.newBuilder();
+        List<JsonValue> changedMessages = new ArrayList<>();
         List<String> incomingScheduleIds = new ArrayList<>();
-        Set<String> scheduledRemoteIds = filterRemoteSchedules(delegate.getSchedules().get());
-        Collection<FrequencyConstraint> constraints = parseConstraints(payload.getData().opt(CONSTRAINTS_JSON_KEY).optList());
+
+        for (JsonValue messageJson : payload.getData().opt(MESSAGES_JSON_KEY).optList()) {
+            String scheduleId = parseScheduleId(messageJson);
+            if (UAStringUtil.isEmpty(scheduleId)) {
+                Logger.error("Missing schedule ID: %s", messageJson);
+                continue;
+            }
+
+            incomingScheduleIds.add(scheduleId);
+
+            String fingerprint = createFingerprint(messageJson);
+            fingerprints.put(scheduleId, fingerprint);
+            if (lastFingerprints == null || !fingerprint.equals(lastFingerprints.opt(scheduleId).getString())) {
+                changedMessages.add(messageJson);
+            }
+        }
+
+        boolean hasRemovedMessages = false;
+        if (lastFingerprints != null) {
+            Set<String> removed = new HashSet<>(lastFingerprints.keySet());
+            removed.removeAll(incomingScheduleIds);
+            hasRemovedMessages = !removed.isEmpty();
+        }
 
         // Update constraints
-        if (!delegate.updateConstraints(constraints).get()) {
+        if (!isConstraintsUpToDate && !delegate.updateConstraints(parseConstraints(constraintsJson)).get()) {
             return;
         }
 
-        String lastSdkVersion = preferenceDataStore.getString(LAST_SDK_VERSION_KEY, null);
+        if (lastFingerprints == null || !changedMessages.isEmpty() || hasRemovedMessages) {
+            reconcileSchedules(payload, delegate, changedMessages, incomingScheduleIds,
+                    lastFingerprints == null && isMetadataUpToDate, lastUpdate, lastSdkVersion);
+        } else {
+            Logger.verbose("In-app automations are up to date.");
+        }
+
+        // Store data
+        preferenceDataStore.put(LAST_PAYLOAD_TIMESTAMP_KEY, payload.getTimestamp());
+        preferenceDataStore.put(LAST_PAYLOAD_METADATA, payload.getMetadata());
+        preferenceDataStore.put(LAST_SDK_VERSION_KEY, sdkVersion);
+        preferenceDataStore.put(LAST_FINGERPRINTS_KEY, fingerprints.build());
+        preferenceDataStore.put(LAST_CONSTRAINTS_FINGERPRINT_KEY, constraintsFingerprint);
+
+        synchronized (listeners) {
+            if (!listeners.isEmpty()) {
+                List<Listener> listeners = new ArrayList<>(this.listeners);
+                for (Listener listener : listeners) {
+                    listener.onSchedulesUpdated();
+                }
+            }
+        }
+    }
+
+    /**
+     * Schedules new messages, edits updated ones and ends the schedules for messages that are no
+     * longer in the payload.
+     *
+     * @param payload The remote data payload.
+     * @param delegate The delegate.
+     * @param messages The messages to process.
+     * @param incomingScheduleIds The IDs of every message in the payload.
+     * @param skipUnchanged {@code true} to skip messages that have not been updated since the last payload.
+     * @param lastUpdate The last payload timestamp.
+     * @param lastSdkVersion The SDK version of the last payload.
+     */
+    private void reconcileSchedules(@NonNull RemoteDataPayload payload,
+                                    @NonNull Delegate delegate,
+                                    @NonNull List<JsonValue> messages,
+                                    @NonNull List<String> incomingScheduleIds,
+                                    boolean skipUnchanged,
+                                    long lastUpdate,
+                                    @Nullable String lastSdkVersion) throws ExecutionException, InterruptedException {
+
+        JsonMap scheduleMetadata = JsonMap.newBuilder()
+                                          .put(REMOTE_DATA_METADATA, payload.getMetadata())
+                                          .build();
+
+        List<Schedule<? extends ScheduleData>> newSchedules = new ArrayList<>();
+        Map<String, ScheduleEdits<? extends ScheduleData>> scheduleEdits = new LinkedHashMap<>();
+        Set<String> scheduledRemoteIds = filterRemoteSchedules(delegate.getSchedules().get());
 
         // Parse messages
-        for (JsonValue messageJson : payload.getData().opt(MESSAGES_JSON_KEY).optList()) {
+        for (JsonValue messageJson : messages) {
             long createdTimeStamp, lastUpdatedTimeStamp;
 
             try {
@@ -239,24 +330,17 @@ class InAppRemoteDataObserver {
             }
 
             String scheduleId = parseScheduleId(messageJson);
-            if (UAStringUtil.isEmpty(scheduleId)) {
-                Logger.error("Missing schedule ID: %s", messageJson);
-                continue;
-            }
-
-            incomingScheduleIds.add(scheduleId);
 
             // Ignore any messages that have not updated since the last payload
-            if (isMetadataUpToDate && lastUpdatedTimeStamp <= lastUpdate) {
+            if (skipUnchanged && lastUpdatedTimeStamp <= lastUpdate) {
                 continue;
             }
+
             if (scheduledRemoteIds.contains(scheduleId)) {
                 try {
                     ScheduleEdits<?> edits = parseEdits(messageJson, scheduleMetadata);
-                    Boolean edited = delegate.editSchedule(scheduleId, edits).get();
-                    if (edited != null && edited) {
-                        Logger.debug("Updated in-app automation: %s with edits: %s", scheduleId, edits);
-                    }
+                    scheduleEdits.put(scheduleId, edits);
+                    Logger.debug("Updating in-app automation: %s with edits: %s", scheduleId, edits);
                 } catch (JsonException e) {
                     Logger.error(e, "Failed to parse in-app automation edits: %s", scheduleId);
                 }
@@ -297,25 +381,30 @@ class InAppRemoteDataObserver {
                                                                        .build();
 
             for (String scheduleId : schedulesToRemove) {
-                delegate.editSchedule(scheduleId, edits).get();
+                scheduleEdits.put(scheduleId, edits);
             }
         }
 
-        // Store data
-        preferenceDataStore.put(LAST_PAYLOAD_TIMESTAMP_KEY, payload.getTimestamp());
-        preferenceDataStore.put(LAST_PAYLOAD_METADATA, payload.getMetadata());
-        preferenceDataStore.put(LAST_SDK_VERSION_KEY, sdkVersion);
-
-        synchronized (listeners) {
-            if (!listeners.isEmpty()) {
-                List<Listener> listeners = new ArrayList<>(this.listeners);
-                for (Listener listener : listeners) {
-                    listener.onSchedulesUpdated();
-                }
+        // Apply all edits and ends in a single transaction
+        if (!scheduleEdits.isEmpty()) {
+            Boolean edited = delegate.editSchedules(scheduleEdits).get();
+            if (edited != null && edited) {
+                Logger.debug("Updated %s in-app automations", scheduleEdits.size());
             }
         }
     }
 
+    /**
+     * Creates a message fingerprint from its last updated time and content hash.
+     *
+     * @param messageJson The message JSON.
+     * @return The fingerprint.
+     */
+    @NonNull
+    private static String createFingerprint(@NonNull JsonValue messageJson) {
+        return messageJson.optMap().opt(UPDATED_JSON_KEY).optString() + ":" + Integer.toHexString(messageJson.hashCode());
+    }
+
     @NonNull
     private Collection<FrequencyConstraint> parseConstraints(@NonNull JsonList constraintsJson) {
         List<FrequencyConstraint> constraints = new ArrayList<>();
@@ -35,7 +35,7 @@ class ScheduleConverters {
 
     @NonNull
     static <T extends ScheduleData> Schedule<T> convert(@NonNull FullSchedule entry) throws JsonException, IllegalArgumentException, ClassCastException {
-        Schedule.Builder<T> scheduleBuilder = createScheduleBuilder(entry.schedule.data, entry.schedule.scheduleType);
+        Schedule.Builder<T> scheduleBuilder = createScheduleBuilder(entry.schedule.getData(), entry.schedule.scheduleType);
 
         scheduleBuilder = scheduleBuilder.setId(entry.schedule.scheduleId)
                                          .setMetadata(entry.schedule.metadata)
@@ -46,8 +46,8 @@ class ScheduleConverters {
                                          .setPriority(entry.schedule.priority)
                                          .setInterval(entry.schedule.interval, TimeUnit.MILLISECONDS)
                                          .setEditGracePeriod(entry.schedule.editGracePeriod, TimeUnit.MILLISECONDS)
-                                         .setAudience(entry.schedule.audience)
-                                         .setCampaigns(entry.schedule.campaigns)
+                                         .setAudience(entry.schedule.getAudience())
+                                         .setCampaigns(entry.schedule.getCampaigns())
                                          .setReportingContext(entry.schedule.reportingContext)
                                          .setFrequencyConstraintIds(entry.schedule.frequencyConstraintIds);
 
@@ -87,10 +87,10 @@ class ScheduleConverters {
         entity.priority = schedule.getPriority();
         entity.interval = schedule.getInterval();
         entity.editGracePeriod = schedule.getEditGracePeriod();
-        entity.audience = schedule.getAudience();
+        entity.setAudience(schedule.getAudience());
         entity.scheduleType = schedule.getType();
-        entity.data = schedule.getDataAsJson();
-        entity.campaigns = schedule.getCampaigns();
+        entity.setData(schedule.getDataAsJson());
+        entity.setCampaigns(schedule.getCampaigns());
         entity.reportingContext = schedule.getReportingContext();
         entity.frequencyConstraintIds = schedule.getFrequencyConstraintIds();
 
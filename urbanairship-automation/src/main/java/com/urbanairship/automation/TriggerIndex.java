@@ -0,0 +1,202 @@
+/* Copyright Airship and Contributors */
+
+package com.urbanairship.automation;
+
+import com.urbanairship.analytics.CustomEvent;
+import com.urbanairship.automation.storage.TriggerEntity;
+import com.urbanairship.json.JsonMap;
+import com.urbanairship.json.JsonPredicate;
+import com.urbanairship.json.JsonValue;
+import com.urbanairship.json.matchers.ExactValueMatcher;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * In-memory index of the stored triggers by trigger type and, for custom event and screen
+ * triggers, by the event or screen name their predicate requires.
+ * <p>
+ * The index answers whether any stored trigger could match an event, letting the engine skip the
+ * active trigger query for events nothing listens to. It may over-report but never under-report:
+ * triggers whose predicate does not pin down a name match every event of their type, and removed
+ * triggers only drop out on the next rebuild. Callers must invalidate the index whenever triggers
+ * are added.
+ */
+class TriggerIndex {
+
+    private static final String KEY = "key";
+    private static final String SCOPE = "scope";
+    private static final String VALUE = "value";
+    private static final String IGNORE_CASE = "ignore_case";
+
+    private final Map<Integer, Entry> entries = new HashMap<>();
+    private boolean isValid = false;
+
+    /**
+     * Checks if the index needs to be rebuilt.
+     *
+     * @return {@code true} if the index is valid, otherwise {@code false}.
+     */
+    boolean isValid() {
+        return isValid;
+    }
+
+    /**
+     * Invalidates the index.
+     */
+    void invalidate() {
+        isValid = false;
+        entries.clear();
+    }
+
+    /**
+     * Rebuilds the index.
+     *
+     * @param triggers All stored triggers.
+     */
+    void rebuild(@NonNull Collection<TriggerEntity> triggers) {
+        entries.clear();
+
+        for (TriggerEntity trigger : triggers) {
+            Entry entry = entries.get(trigger.triggerType);
+            if (entry == null) {
+                entry = new Entry();
+                entries.put(trigger.triggerType, entry);
+            }
+
+            if (entry.matchesAnyName) {
+                continue;
+            }
+
+            String nameKey = nameKey(trigger.triggerType);
+            Set<String> names = null;
+            if (nameKey != null && trigger.jsonPredicate != null) {
+                names = requiredNames(trigger.jsonPredicate.toJsonValue(), nameKey);
+            }
+
+            if (names == null) {
+                entry.matchesAnyName = true;
+                entry.names.clear();
+            } else {
+                entry.names.addAll(names);
+            }
+        }
+
+        isValid = true;
+    }
+
+    /**
+     * Checks if any indexed trigger could match the event.
+     *
+     * @param type The trigger type.
+     * @param json The event.
+     * @return {@code false} if no trigger can match the event, {@code true} if one might.
+     */
+    boolean mayMatch(int type, @NonNull JsonValue json) {
+        Entry entry = entries.get(type);
+        if (entry == null) {
+            return false;
+        }
+
+        if (entry.matchesAnyName) {
+            return true;
+        }
+
+        String nameKey = nameKey(type);
+        String name = nameKey == null || nameKey.isEmpty() ? json.getString() : json.optMap().opt(nameKey).getString();
+        return name != null && entry.names.contains(name);
+    }
+
+    /**
+     * Gets the key of the name a trigger type is indexed by.
+     *
+     * @param type The trigger type.
+     * @return The key, an empty string if the event is the name itself, or {@code null} if the type
+     * is not indexed by name.
+     */
+    @Nullable
+    private static String nameKey(int type) {
+        switch (type) {
+            case Trigger.CUSTOM_EVENT_COUNT:
+            case Trigger.CUSTOM_EVENT_VALUE:
+                return CustomEvent.EVENT_NAME;
+            case Trigger.SCREEN_VIEW:
+                return "";
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Finds the names a predicate requires.
+     *
+     * @param predicate The predicate JSON.
+     * @param nameKey The name key, or an empty string if the event is the name itself.
+     * @return The set of names one of which must match, or {@code null} if the predicate can match
+     * any name.
+     */
+    @Nullable
+    private static Set<String> requiredNames(@NonNull JsonValue predicate, @NonNull String nameKey) {
+        JsonMap map = predicate.optMap();
+
+        if (map.containsKey(JsonPredicate.AND_PREDICATE_TYPE)) {
+            // Any constrained child constrains the whole predicate
+            for (JsonValue child : map.opt(JsonPredicate.AND_PREDICATE_TYPE).optList()) {
+                Set<String> names = requiredNames(child, nameKey);
+                if (names != null) {
+                    return names;
+                }
+            }
+            return null;
+        }
+
+        if (map.containsKey(JsonPredicate.OR_PREDICATE_TYPE)) {
+            // Every child has to be constrained
+            Set<String> names = new HashSet<>();
+            for (JsonValue child : map.opt(JsonPredicate.OR_PREDICATE_TYPE).optList()) {
+                Set<String> childNames = requiredNames(child, nameKey);
+                if (childNames == null) {
+                    return null;
+                }
+                names.addAll(childNames);
+            }
+            return names.isEmpty() ? null : names;
+        }
+
+        if (map.containsKey(JsonPredicate.NOT_PREDICATE_TYPE)) {
+            return null;
+        }
+
+        if (!map.opt(SCOPE).optList().isEmpty() || map.opt(IGNORE_CASE).getBoolean(false)) {
+            return null;
+        }
+
+        String key = map.opt(KEY).getString();
+        boolean keyMatches = nameKey.isEmpty() ? key == null : nameKey.equals(key);
+        if (!keyMatches) {
+            return null;
+        }
+
+        JsonValue expected = map.opt(VALUE).optMap().opt(ExactValueMatcher.EQUALS_VALUE_KEY);
+        if (!expected.isString()) {
+            return null;
+        }
+
+        return Collections.singleton(expected.optString());
+    }
+
+    private static class Entry {
+
+        boolean matchesAnyName;
+        final Set<String> names = new HashSet<>();
+
+    }
+
+}
@@ -23,7 +23,6 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.WeakHashMap;
 import java.util.concurrent.Executor;
 import java.util.concurrent.Future;
 
@@ -34,6 +33,11 @@ import androidx.annotation.VisibleForTesting;
 
 /**
  * Frequency limit manager.
+ * <p>
+ * Each constraint keeps a ring buffer of its most recent occurrence timestamps, loaded from the
+ * database the first time a checker needs it and shared by every checker created until the
+ * constraint changes. Occurrences are written to the database in batches, and occurrences that
+ * fall outside a constraint's range are pruned when the constraint is loaded or updated.
  *
  * @hide
  */
@@ -41,10 +45,11 @@ import androidx.annotation.VisibleForTesting;
 public class FrequencyLimitManager {
 
     /*
-     * A frequency checker will have a strong reference to the list of constraints entities. Once
-     * the checker is cleaned up this should remove the values from the map.
+     * Occurrence buffers by constraint Id. A frequency checker holds a strong reference to the
+     * buffers it was created with, so a buffer removed when its constraint changes stays valid
+     * for older checkers.
      */
-    private final Map<ConstraintEntity, List<OccurrenceEntity>> occurrencesMap = new WeakHashMap<>();
+    private final Map<String, OccurrenceBuffer> occurrenceBuffers = new HashMap<>();
 
     /*
      * List of pending occurrences to write to the database.
@@ -83,7 +88,7 @@ public class FrequencyLimitManager {
             @Override
             public void run() {
                 try {
-                    final Collection<ConstraintEntity> constraints = fetchConstraints(constraintIds);
+                    final Collection<OccurrenceBuffer> constraints = fetchConstraints(constraintIds);
                     FrequencyChecker checker = new FrequencyChecker() {
                         @Override
                         public boolean isOverLimit() {
@@ -137,6 +142,11 @@ public class FrequencyLimitManager {
                                 dao.insert(entity);
                             } else {
                                 dao.update(entity);
+                                dao.deleteOccurrences(entity.constraintId, clock.currentTimeMillis() - entity.range);
+                            }
+
+                            if (existing.range != entity.range || existing.count != entity.count) {
+                                removeOccurrenceBuffer(entity.constraintId);
                             }
                         } else {
                             dao.insert(entity);
@@ -144,6 +154,9 @@ public class FrequencyLimitManager {
                     }
 
                     dao.delete(constraintEntityMap.keySet());
+                    for (String constraintId : constraintEntityMap.keySet()) {
+                        removeOccurrenceBuffer(constraintId);
+                    }
                     pendingResult.setResult(true);
                 } catch (Exception e) {
                     Logger.error(e, "Failed to update constraints");
@@ -155,7 +168,7 @@ public class FrequencyLimitManager {
         return pendingResult;
     }
 
-    private boolean checkAndIncrement(@NonNull Collection<ConstraintEntity> constraints) {
+    private boolean checkAndIncrement(@NonNull Collection<OccurrenceBuffer> constraints) {
         if (constraints.isEmpty()) {
             return true;
         }
@@ -164,19 +177,20 @@ public class FrequencyLimitManager {
             if (isOverLimit(constraints)) {
                 return false;
             }
-            recordOccurrence(getConstraintIds(constraints));
+            recordOccurrence(constraints);
             return true;
         }
     }
 
-    private boolean isOverLimit(@NonNull Collection<ConstraintEntity> constraints) {
+    private boolean isOverLimit(@NonNull Collection<OccurrenceBuffer> constraints) {
         if (constraints.isEmpty()) {
             return false;
         }
 
+        long timeMillis = clock.currentTimeMillis();
         synchronized (lock) {
-            for (ConstraintEntity constraint : constraints) {
-                if (isConstraintOverLimit(constraint)) {
+            for (OccurrenceBuffer constraint : constraints) {
+                if (constraint.isOverLimit(timeMillis)) {
                     return true;
                 }
             }
@@ -184,29 +198,30 @@ public class FrequencyLimitManager {
         }
     }
 
-    private void recordOccurrence(@NonNull Set<String> constraintIds) {
-        if (constraintIds.isEmpty()) {
-            return;
-        }
-
+    private void recordOccurrence(@NonNull Collection<OccurrenceBuffer> constraints) {
         long timeMillis = clock.currentTimeMillis();
 
-        for (String id : constraintIds) {
+        for (String id : getConstraintIds(constraints)) {
             OccurrenceEntity occurrence = new OccurrenceEntity();
             occurrence.parentConstraintId = id;
             occurrence.timeStamp = timeMillis;
 
             pendingOccurrences.add(occurrence);
+        }
 
-            // Update any constraints that are still active
-            for (Map.Entry<ConstraintEntity, List<OccurrenceEntity>> entry : occurrencesMap.entrySet()) {
-                ConstraintEntity constraint = entry.getKey();
-                if (constraint != null && id.equals(constraint.constraintId)) {
-                    entry.getValue().add(occurrence);
-                }
+        Set<OccurrenceBuffer> buffers = new HashSet<>(constraints);
+        for (OccurrenceBuffer constraint : constraints) {
+            // Keep the shared buffer current if the checker is holding an older one
+            OccurrenceBuffer current = occurrenceBuffers.get(constraint.constraintId);
+            if (current != null) {
+                buffers.add(current);
             }
         }
 
+        for (OccurrenceBuffer buffer : buffers) {
+            buffer.add(timeMillis);
+        }
+
         // Save to database
         executor.execute(new Runnable() {
             @Override
@@ -217,35 +232,90 @@ public class FrequencyLimitManager {
     }
 
     @NonNull
-    private Collection<ConstraintEntity> fetchConstraints(@Nullable Collection<String> constraintIds) {
+    private Collection<OccurrenceBuffer> fetchConstraints(@Nullable Collection<String> constraintIds) {
         if (constraintIds == null || constraintIds.isEmpty()) {
             return Collections.emptyList();
         }
 
         Collection<ConstraintEntity> constraints = dao.getConstraints(constraintIds);
+        List<OccurrenceBuffer> buffers = new ArrayList<>();
 
         for (ConstraintEntity constraint : constraints) {
-            List<OccurrenceEntity> occurrences = dao.getOccurrences(constraint.constraintId);
+            OccurrenceBuffer buffer;
             synchronized (lock) {
-                for (OccurrenceEntity entity : pendingOccurrences) {
-                    if (entity.parentConstraintId.equals(constraint.constraintId)) {
-                        occurrences.add(entity);
+                buffer = occurrenceBuffers.get(constraint.constraintId);
+            }
+
+            if (buffer == null || buffer.count != constraint.count || buffer.range != constraint.range) {
+                // Load outside the lock so checkers are not blocked on the database
+                buffer = loadOccurrenceBuffer(constraint);
+
+                synchronized (lock) {
+                    // Occurrences recorded while loading are still pending, writes run on this executor
+                    for (OccurrenceEntity entity : pendingOccurrences) {
+                        if (entity.parentConstraintId.equals(constraint.constraintId)) {
+                            buffer.add(entity.timeStamp);
+                        }
                     }
+                    occurrenceBuffers.put(constraint.constraintId, buffer);
                 }
-                occurrencesMap.put(constraint, occurrences);
             }
+
+            buffers.add(buffer);
+        }
+
+        return buffers;
+    }
+
+    /**
+     * Loads the buffer for a constraint from the database. Occurrences not written yet are added
+     * by the caller.
+     *
+     * @param constraint The constraint.
+     * @return The occurrence buffer.
+     */
+    @NonNull
+    private OccurrenceBuffer loadOccurrenceBuffer(@NonNull ConstraintEntity constraint) {
+        OccurrenceBuffer buffer = new OccurrenceBuffer(constraint);
+
+        try {
+            dao.deleteOccurrences(constraint.constraintId, clock.currentTimeMillis() - constraint.range);
+        } catch (SQLiteException e) {
+            Logger.verbose(e);
         }
 
-        return constraints;
+        List<Long> timeStamps = dao.getRecentOccurrenceTimeStamps(constraint.constraintId, constraint.count);
+        for (int i = timeStamps.size() - 1; i >= 0; i--) {
+            buffer.add(timeStamps.get(i));
+        }
+
+        return buffer;
+    }
+
+    private void removeOccurrenceBuffer(@NonNull String constraintId) {
+        synchronized (lock) {
+            occurrenceBuffers.remove(constraintId);
+        }
     }
 
     private void writePendingOccurrences() {
         List<OccurrenceEntity> pending;
         synchronized (lock) {
+            if (pendingOccurrences.isEmpty()) {
+                return;
+            }
             pending = new ArrayList<>(pendingOccurrences);
             pendingOccurrences.clear();
         }
 
+        try {
+            dao.insert(pending);
+            return;
+        } catch (SQLiteException e) {
+            Logger.verbose(e);
+        }
+
+        // The batch fails as a whole if one of its constraints was removed, retry one at a time
         for (OccurrenceEntity occurrence : pending) {
             try {
                 dao.insert(occurrence);
@@ -255,24 +325,59 @@ public class FrequencyLimitManager {
         }
     }
 
-    private boolean isConstraintOverLimit(@NonNull ConstraintEntity constraint) {
-        List<OccurrenceEntity> occurrences = occurrencesMap.get(constraint);
-
-        if (occurrences == null || occurrences.size() < constraint.count) {
-            return false;
-        }
-
-        long timeSinceOccurrence = clock.currentTimeMillis() - occurrences.get(occurrences.size() - constraint.count).timeStamp;
-        return timeSinceOccurrence <= constraint.range;
-    }
-
     @NonNull
-    private Set<String> getConstraintIds(@NonNull Collection<ConstraintEntity> constraints) {
+    private Set<String> getConstraintIds(@NonNull Collection<OccurrenceBuffer> constraints) {
         Set<String> constraintIds = new HashSet<>();
-        for (ConstraintEntity constraint : constraints) {
+        for (OccurrenceBuffer constraint : constraints) {
             constraintIds.add(constraint.constraintId);
         }
         return constraintIds;
     }
 
+    /**
+     * Ring buffer of a constraint's most recent occurrence timestamps. Holds up to the
+     * constraint count, which is all that is needed to check the limit.
+     */
+    private static class OccurrenceBuffer {
+
+        private final String constraintId;
+        private final int count;
+        private final long range;
+        private final long[] timeStamps;
+        private int start;
+        private int size;
+
+        OccurrenceBuffer(@NonNull ConstraintEntity constraint) {
+            this.constraintId = constraint.constraintId;
+            this.count = constraint.count;
+            this.range = constraint.range;
+            this.timeStamps = new long[Math.max(0, constraint.count)];
+        }
+
+        void add(long timeStamp) {
+            if (timeStamps.length == 0) {
+                return;
+            }
+
+            if (size < timeStamps.length) {
+                timeStamps[(start + size) % timeStamps.length] = timeStamp;
+                size++;
+            } else {
+                // Overwrite the oldest
+                timeStamps[start] = timeStamp;
+                start = (start + 1) % timeStamps.length;
+            }
+        }
+
+        boolean isOverLimit(long timeMillis) {
+            if (size == 0 || size < count) {
+                return false;
+            }
+
+            // The oldest of the last count occurrences
+            return timeMillis - timeStamps[start] <= range;
+        }
+
+    }
+
 }
@@ -2,6 +2,7 @@
 
 package com.urbanairship.automation.storage;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 
@@ -26,6 +27,9 @@ import androidx.room.Update;
 @Dao
 public abstract class AutomationDao {
 
+    // Keeps the bound arguments of a single delete under SQLite's 999 variable limit
+    private static final int DELETE_BATCH_SIZE = 500;
+
     @Transaction
     @Insert(onConflict = OnConflictStrategy.REPLACE)
     public abstract void insert(@NonNull ScheduleEntity entity, @NonNull List<TriggerEntity> entities);
@@ -90,6 +94,11 @@ public abstract class AutomationDao {
     @NonNull
     public abstract List<FullSchedule> getSchedulesWithStates(int... executionStates);
 
+    @Query("SELECT scheduleId, executionState, executionStateChangeDate, scheduleEnd, editGracePeriod " +
+            "FROM schedules WHERE (executionState IN (:executionStates))")
+    @NonNull
+    public abstract List<ScheduleSummary> getScheduleSummariesWithStates(int... executionStates);
+
     @Transaction
     @Query("SELECT * FROM schedules " +
             "WHERE (executionState != " + ScheduleState.FINISHED + ") " +
@@ -117,6 +126,13 @@ public abstract class AutomationDao {
     @NonNull
     public abstract List<TriggerEntity> getActiveTriggers(int type);
 
+    @Query("DELETE FROM schedules WHERE (scheduleId IN (:scheduleIds))")
+    abstract void deleteSchedulesWithIdsBatch(@NonNull Collection<String> scheduleIds);
+
+    @Query("SELECT * FROM triggers")
+    @Nullable
+    public abstract List<TriggerEntity> getTriggers();
+
     @Transaction
     public void insert(@NonNull Collection<FullSchedule> entries) {
         for (FullSchedule entry : entries) {
@@ -130,6 +146,7 @@ public abstract class AutomationDao {
         insert(entry.schedule, entry.triggers);
     }
 
+    @Transaction
     public void updateSchedules(@NonNull Collection<FullSchedule> entries) {
         for (FullSchedule entry : entries) {
             if (entry != null) {
@@ -146,6 +163,7 @@ public abstract class AutomationDao {
         delete(entry.schedule);
     }
 
+    @Transaction
     public void deleteSchedules(@NonNull Collection<FullSchedule> entries) {
         for (FullSchedule entry : entries) {
             if (entry != null) {
@@ -154,4 +172,12 @@ public abstract class AutomationDao {
         }
     }
 
+    @Transaction
+    public void deleteSchedulesWithIds(@NonNull Collection<String> scheduleIds) {
+        List<String> ids = new ArrayList<>(scheduleIds);
+        for (int i = 0; i < ids.size(); i += DELETE_BATCH_SIZE) {
+            deleteSchedulesWithIdsBatch(ids.subList(i, Math.min(ids.size(), i + DELETE_BATCH_SIZE)));
+        }
+    }
+
 }
@@ -171,6 +171,17 @@ public class AutomationDaoWrapper extends AutomationDao {
         }
     }
 
+    @NonNull
+    @Override
+    public List<ScheduleSummary> getScheduleSummariesWithStates(int... executionStates) {
+        try {
+            return dao.getScheduleSummariesWithStates(executionStates);
+        } catch (Exception e) {
+            Logger.error(e, "Failed to get schedule summaries with state %s", executionStates);
+            return Collections.emptyList();
+        }
+    }
+
     @NonNull
     @Override
     public List<FullSchedule> getActiveExpiredSchedules() {
@@ -204,4 +215,63 @@ public class AutomationDaoWrapper extends AutomationDao {
         }
     }
 
+    @Nullable
+    @Override
+    public List<TriggerEntity> getTriggers() {
+        try {
+            return dao.getTriggers();
+        } catch (Exception e) {
+            Logger.error(e, "Failed to get triggers");
+            return null;
+        }
+    }
+
+    // The bulk methods are forwarded so they run in the wrapped dao's transaction instead of
+    // looping over the single entry methods of this wrapper.
+
+    @Override
+    public void insert(@NonNull Collection<FullSchedule> entries) {
+        try {
+            dao.insert(entries);
+        } catch (Exception e) {
+            Logger.error(e, "Failed to insert schedules %s", entries);
+        }
+    }
+
+    @Override
+    public void updateSchedules(@NonNull Collection<FullSchedule> entries) {
+        try {
+            dao.updateSchedules(entries);
+        } catch (Exception e) {
+            Logger.error(e, "Failed to update schedules %s", entries);
+        }
+    }
+
+    @Override
+    public void deleteSchedules(@NonNull Collection<FullSchedule> entries) {
+        try {
+            dao.deleteSchedules(entries);
+        } catch (Exception e) {
+            Logger.error(e, "Failed to delete schedules %s", entries);
+        }
+    }
+
+    @Override
+    void deleteSchedulesWithIdsBatch(@NonNull Collection<String> scheduleIds) {
+        try {
+            dao.deleteSchedulesWithIdsBatch(scheduleIds);
+        } catch (Exception e) {
+            Logger.error(e, "Failed to delete schedules %s", scheduleIds);
+        }
+    }
+
+    @Override
+    public void deleteSchedulesWithIds(@NonNull Collection<String> scheduleIds) {
+        try {
+            dao.deleteSchedulesWithIds(scheduleIds);
+        } catch (Exception e) {
+            Logger.error(e, "Failed to delete schedules %s", scheduleIds);
+        }
+    }
+
 }
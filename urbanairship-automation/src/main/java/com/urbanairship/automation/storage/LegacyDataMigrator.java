@@ -135,7 +135,7 @@ public class LegacyDataMigrator {
                     scheduleEntity.seconds = cursor.getLong(cursor.getColumnIndex(LegacyDataManager.ScheduleTable.COLUMN_NAME_SECONDS));
                     scheduleEntity.screens = parseScreens(JsonValue.parseString(cursor.getString(cursor.getColumnIndex(LegacyDataManager.ScheduleTable.COLUMN_NAME_SCREEN))));
                     JsonValue dataJson = JsonValue.parseString(cursor.getString(cursor.getColumnIndex(LegacyDataManager.ScheduleTable.COLUMN_NAME_DATA)));
-                    scheduleEntity.data = dataJson;
+                    scheduleEntity.setData(dataJson);
                 } catch (JsonException e) {
                     Logger.error(e, "Failed to parse schedule entry.");
                     continue;
@@ -234,20 +234,19 @@ public class LegacyDataMigrator {
 
             // Fix any known remote schedules
             if (knownRemoteScheduleIds.contains(scheduleEntity.scheduleId)) {
-                scheduleEntity.data = JsonMap.newBuilder()
-                                             .putAll(scheduleEntity.data.optMap())
-                                             .put("source", InAppMessage.SOURCE_REMOTE_DATA)
-                                             .build()
-                                             .toJsonValue();
+                scheduleEntity.setData(JsonMap.newBuilder(scheduleEntity.getData().optMap())
+                                              .put("source", InAppMessage.SOURCE_REMOTE_DATA)
+                                              .build()
+                                              .toJsonValue());
             }
 
             // Set the message ID as the schedule ID
-            String messageId = scheduleEntity.data.optMap().opt("message_id").getString(scheduleEntity.scheduleId);
+            String messageId = scheduleEntity.getData().optMap().opt("message_id").getString(scheduleEntity.scheduleId);
 
-            if (InAppMessage.SOURCE_APP_DEFINED.equals(scheduleEntity.data.optMap().opt("source").optString())) {
+            if (InAppMessage.SOURCE_APP_DEFINED.equals(scheduleEntity.getData().optMap().opt("source").optString())) {
                 // Add the old schedule ID as metadata just in case devs have no way of
                 // mapping the old schedule ID.
-                scheduleEntity.metadata = JsonMap.newBuilder().putAll(scheduleEntity.metadata)
+                scheduleEntity.metadata = JsonMap.newBuilder(scheduleEntity.metadata)
                                                  .put("com.urbanairship.original_schedule_id", scheduleEntity.scheduleId)
                                                  .put("com.urbanairship.original_message_id", messageId)
                                                  .build();
@@ -264,10 +263,10 @@ public class LegacyDataMigrator {
             messageIds.add(messageId);
 
             // Migrate audience to schedule
-            JsonValue audienceJson = scheduleEntity.data.optMap().get("audience");
+            JsonValue audienceJson = scheduleEntity.getData().optMap().get("audience");
             if (audienceJson != null) {
                 try {
-                    scheduleEntity.audience = Audience.fromJson(audienceJson);
+                    scheduleEntity.setAudience(Audience.fromJson(audienceJson));
                 } catch (JsonException e) {
                     Logger.error(e, "Unable to schedule due to audience JSON");
                     return;
@@ -2,19 +2,29 @@
 
 package com.urbanairship.automation.storage;
 
+import com.urbanairship.Logger;
 import com.urbanairship.automation.Audience;
 import com.urbanairship.automation.TriggerContext;
+import com.urbanairship.json.JsonException;
 import com.urbanairship.json.JsonMap;
 import com.urbanairship.json.JsonValue;
 
 import java.util.List;
 
+import androidx.annotation.Nullable;
 import androidx.annotation.RestrictTo;
+import androidx.room.ColumnInfo;
 import androidx.room.Entity;
+import androidx.room.Ignore;
 import androidx.room.Index;
 import androidx.room.PrimaryKey;
 
 /**
+ * Schedule entity.
+ * <p>
+ * The data, audience and campaigns columns can be large, so they are loaded as raw JSON and only
+ * parsed the first time they are read through their getters.
+ *
  * @hide
  */
 @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
@@ -34,7 +44,10 @@ public class ScheduleEntity {
     public long editGracePeriod;
     public long interval;
     public String scheduleType;
-    public JsonValue data;
+
+    @ColumnInfo(name = "data")
+    String rawData;
+
     public int count;
     public int executionState;
     public long executionStateChangeDate;
@@ -43,12 +56,131 @@ public class ScheduleEntity {
     public List<String> screens;
     public long seconds;
     public String regionId;
-    public Audience audience;
-    public JsonValue campaigns;
+
+    @ColumnInfo(name = "audience")
+    String rawAudience;
+
+    @ColumnInfo(name = "campaigns")
+    String rawCampaigns;
+
     public JsonValue reportingContext;
 
     public List<String> frequencyConstraintIds;
 
+    @Ignore
+    private JsonValue data;
+
+    @Ignore
+    private Audience audience;
+
+    @Ignore
+    private JsonValue campaigns;
+
+    @Ignore
+    private boolean isDataParsed;
+
+    @Ignore
+    private boolean isAudienceParsed;
+
+    @Ignore
+    private boolean isCampaignsParsed;
+
+    /**
+     * Gets the schedule data.
+     *
+     * @return The data.
+     */
+    @Nullable
+    public JsonValue getData() {
+        if (!isDataParsed) {
+            data = parseJson(rawData);
+            isDataParsed = true;
+        }
+        return data;
+    }
+
+    /**
+     * Sets the schedule data.
+     *
+     * @param data The data.
+     */
+    public void setData(@Nullable JsonValue data) {
+        this.data = data;
+        this.rawData = data == null ? null : data.toString();
+        this.isDataParsed = true;
+    }
+
+    /**
+     * Gets the audience.
+     *
+     * @return The audience.
+     */
+    @Nullable
+    public Audience getAudience() {
+        if (!isAudienceParsed) {
+            JsonValue json = parseJson(rawAudience);
+            if (json != null) {
+                try {
+                    audience = Audience.fromJson(json);
+                } catch (JsonException e) {
+                    Logger.error(e, "Unable to parse audience: " + rawAudience);
+                }
+            }
+            isAudienceParsed = true;
+        }
+        return audience;
+    }
+
+    /**
+     * Sets the audience.
+     *
+     * @param audience The audience.
+     */
+    public void setAudience(@Nullable Audience audience) {
+        this.audience = audience;
+        this.rawAudience = audience == null ? null : audience.toJsonValue().toString();
+        this.isAudienceParsed = true;
+    }
+
+    /**
+     * Gets the campaigns.
+     *
+     * @return The campaigns.
+     */
+    @Nullable
+    public JsonValue getCampaigns() {
+        if (!isCampaignsParsed) {
+            campaigns = parseJson(rawCampaigns);
+            isCampaignsParsed = true;
+        }
+        return campaigns;
+    }
+
+    /**
+     * Sets the campaigns.
+     *
+     * @param campaigns The campaigns.
+     */
+    public void setCampaigns(@Nullable JsonValue campaigns) {
+        this.campaigns = campaigns;
+        this.rawCampaigns = campaigns == null ? null : campaigns.toString();
+        this.isCampaignsParsed = true;
+    }
+
+    @Nullable
+    private static JsonValue parseJson(@Nullable String value) {
+        if (value == null) {
+            return null;
+        }
+
+        try {
+            return JsonValue.parseString(value);
+        } catch (JsonException e) {
+            Logger.error(e, "Unable to parse json value: " + value);
+            return null;
+        }
+    }
+
     @Override
     public String toString() {
         return "ScheduleEntity{" +
@@ -63,7 +195,7 @@ public class ScheduleEntity {
                 ", editGracePeriod=" + editGracePeriod +
                 ", interval=" + interval +
                 ", scheduleType='" + scheduleType + '\'' +
-                ", data=" + data +
+                ", data=" + rawData +
                 ", count=" + count +
                 ", executionState=" + executionState +
                 ", executionStateChangeDate=" + executionStateChangeDate +
@@ -72,8 +204,8 @@ public class ScheduleEntity {
                 ", screens=" + screens +
                 ", seconds=" + seconds +
                 ", regionId='" + regionId + '\'' +
-                ", audience=" + audience +
-                ", campaigns=" + campaigns +
+                ", audience=" + rawAudience +
+                ", campaigns=" + rawCampaigns +
                 ", reportingContext=" + reportingContext +
                 ", frequencyConstraintIds=" + frequencyConstraintIds +
                 '}';
@@ -0,0 +1,33 @@
+/* Copyright Airship and Contributors */
+
+package com.urbanairship.automation.storage;
+
+import androidx.annotation.RestrictTo;
+
+/**
+ * Schedule projection that only loads the state columns, for bookkeeping queries that do not need
+ * the schedule data, audience or triggers.
+ *
+ * @hide
+ */
+@RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+public class ScheduleSummary {
+
+    public String scheduleId;
+    public int executionState;
+    public long executionStateChangeDate;
+    public long scheduleEnd;
+    public long editGracePeriod;
+
+    @Override
+    public String toString() {
+        return "ScheduleSummary{" +
+                "scheduleId='" + scheduleId + '\'' +
+                ", executionState=" + executionState +
+                ", executionStateChangeDate=" + executionStateChangeDate +
+                ", scheduleEnd=" + scheduleEnd +
+                ", editGracePeriod=" + editGracePeriod +
+                '}';
+    }
+
+}
@@ -0,0 +1,80 @@
+/* Copyright Airship and Contributors */
+
+package com.urbanairship.automation.storage;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.RestrictTo;
+
+/**
+ * Holds trigger progress updates that have not been written to the database yet.
+ * <p>
+ * Triggers are keyed by their row id, so re-reading a trigger from the database and calling
+ * {@link #apply(Collection)} restores the buffered progress. Not thread safe.
+ *
+ * @hide
+ */
+@RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+public class TriggerProgressBuffer {
+
+    private final Map<Integer, TriggerEntity> pending = new LinkedHashMap<>();
+
+    /**
+     * Buffers trigger updates. A later update for the same trigger replaces the earlier one.
+     *
+     * @param triggers The updated triggers.
+     */
+    public void add(@NonNull Collection<TriggerEntity> triggers) {
+        for (TriggerEntity trigger : triggers) {
+            pending.put(trigger.id, trigger);
+        }
+    }
+
+    /**
+     * Applies the buffered progress to triggers read from the database.
+     *
+     * @param triggers The triggers.
+     */
+    public void apply(@NonNull Collection<TriggerEntity> triggers) {
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        for (TriggerEntity trigger : triggers) {
+            TriggerEntity buffered = pending.get(trigger.id);
+            if (buffered != null) {
+                trigger.progress = buffered.progress;
+            }
+        }
+    }
+
+    /**
+     * Gets the number of buffered triggers.
+     *
+     * @return The number of buffered triggers.
+     */
+    public int size() {
+        return pending.size();
+    }
+
+    /**
+     * Writes the buffered updates to the database in a single transaction and clears the buffer.
+     *
+     * @param dao The dao.
+     */
+    public void flush(@NonNull AutomationDao dao) {
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        List<TriggerEntity> triggers = new ArrayList<>(pending.values());
+        pending.clear();
+        dao.updateTriggers(triggers);
+    }
+
+}
@@ -3,6 +3,7 @@
 package com.urbanairship.iam;
 
 import android.content.Context;
+import android.os.Handler;
 import android.os.Looper;
 import android.view.Display;
 
@@ -20,6 +21,7 @@ import com.urbanairship.iam.html.HtmlAdapterFactory;
 import com.urbanairship.iam.layout.AirshipLayoutAdapterFactory;
 import com.urbanairship.iam.modal.ModalAdapterFactory;
 import com.urbanairship.json.JsonValue;
+import com.urbanairship.util.KeyedSerialExecutor;
 import com.urbanairship.util.RetryingExecutor;
 
 import java.util.ArrayList;
@@ -81,10 +83,16 @@ public class InAppMessageManager {
      */
     private static final String DISPLAY_INTERVAL_KEY = "com.urbanairship.iam.displayinterval";
 
+    // Max number of messages preparing assets at the same time
+    private static final int MAX_CONCURRENT_PREPARES = 4;
+
     // State
     private final Map<String, AdapterWrapper> adapterWrappers = Collections.synchronizedMap(new HashMap<String, AdapterWrapper>());
 
     private final RetryingExecutor executor;
+    private final RetryingExecutor prepareExecutor;
+    private final KeyedSerialExecutor scheduleExecutor;
+    private final Handler retryHandler = new Handler(Looper.getMainLooper());
     private final ActionRunRequestFactory actionRunRequestFactory;
     private final Analytics analytics;
 
@@ -124,6 +132,7 @@ public class InAppMessageManager {
                                @NonNull Analytics analytics,
                                @NonNull Delegate delegate) {
         this(context, dataStore, analytics, RetryingExecutor.newSerialExecutor(Looper.getMainLooper()),
+                RetryingExecutor.newBoundedExecutor(Looper.getMainLooper(), MAX_CONCURRENT_PREPARES),
                 new ActionRunRequestFactory(), new AssetManager(context), delegate);
     }
 
@@ -135,11 +144,26 @@ public class InAppMessageManager {
                         @NonNull ActionRunRequestFactory runRequestFactory,
                         @NonNull AssetManager assetManager,
                         @NonNull Delegate delegate) {
+        this(context, dataStore, analytics, executor, executor, runRequestFactory, assetManager, delegate);
+    }
+
+    @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+    InAppMessageManager(@NonNull Context context,
+                        @NonNull PreferenceDataStore dataStore,
+                        @NonNull Analytics analytics,
+                        @NonNull RetryingExecutor executor,
+                        @NonNull RetryingExecutor prepareExecutor,
+                        @NonNull ActionRunRequestFactory runRequestFactory,
+                        @NonNull AssetManager assetManager,
+                        @NonNull Delegate delegate) {
 
         this.context = context;
         this.dataStore = dataStore;
         this.analytics = analytics;
         this.executor = executor;
+        this.prepareExecutor = prepareExecutor;
+        // Asset work for a schedule runs in order, schedules still prepare in parallel
+        this.scheduleExecutor = new KeyedSerialExecutor(prepareExecutor);
         this.assetManager = assetManager;
         this.delegate = delegate;
         this.actionRunRequestFactory = runRequestFactory;
@@ -148,6 +172,7 @@ public class InAppMessageManager {
         this.immediateDisplayCoordinator = new ImmediateDisplayCoordinator();
 
         executor.setPaused(true);
+        prepareExecutor.setPaused(true);
         setAdapterFactory(InAppMessage.TYPE_BANNER, new BannerAdapterFactory());
         setAdapterFactory(InAppMessage.TYPE_FULLSCREEN, new FullScreenAdapterFactory());
         setAdapterFactory(InAppMessage.TYPE_MODAL, new ModalAdapterFactory());
@@ -250,6 +275,7 @@ public class InAppMessageManager {
     @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
     public void onAirshipReady() {
         executor.setPaused(false);
+        prepareExecutor.setPaused(false);
     }
 
     /**
@@ -315,8 +341,10 @@ public class InAppMessageManager {
             }
         };
 
-        // Execute the operations
-        executor.execute(prepareAssets, prepareAdapter);
+        // Execute the operations, messages prepare in parallel up to MAX_CONCURRENT_PREPARES but
+        // in order with the rest of the schedule's asset work
+        RetryingExecutor retryingExecutor = new RetryingExecutor(retryHandler, scheduleExecutor.getExecutor(scheduleId));
+        retryingExecutor.execute(prepareAssets, prepareAdapter);
     }
 
     /**
@@ -400,7 +428,7 @@ public class InAppMessageManager {
             return;
         }
 
-        executor.execute(() -> assetManager.onDisplayFinished(scheduleId, adapterWrapper.message));
+        scheduleExecutor.execute(scheduleId, () -> assetManager.onDisplayFinished(scheduleId, adapterWrapper.message));
     }
 
     /**
@@ -472,7 +500,7 @@ public class InAppMessageManager {
         // Finish the schedule
         callExecutionFinishedCallback(scheduleId);
         adapterWrapper.displayFinished();
-        executor.execute(() -> {
+        scheduleExecutor.execute(scheduleId, () -> {
             adapterWrapper.adapterFinished(context);
             // Notify the asset manager
             assetManager.onDisplayFinished(adapterWrapper.scheduleId, adapterWrapper.message);
@@ -495,7 +523,7 @@ public class InAppMessageManager {
 
     @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
     public void onMessageScheduleFinished(@NonNull final String scheduleId) {
-        executor.execute(new Runnable() {
+        scheduleExecutor.execute(scheduleId, new Runnable() {
             @Override
             public void run() {
                 assetManager.onFinish(scheduleId);
@@ -505,7 +533,7 @@ public class InAppMessageManager {
 
     @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
     public void onNewMessageSchedule(@NonNull final String scheduleId, @NonNull final InAppMessage message) {
-        executor.execute(() -> assetManager.onSchedule(scheduleId, () -> extendMessage(message)));
+        scheduleExecutor.execute(scheduleId, () -> assetManager.onSchedule(scheduleId, () -> extendMessage(message)));
     }
 
     /**
@@ -22,6 +22,7 @@ import com.urbanairship.automation.storage.AutomationDao;
 import com.urbanairship.automation.storage.AutomationDatabase;
 import com.urbanairship.automation.storage.FullSchedule;
 import com.urbanairship.automation.storage.LegacyDataMigrator;
+import com.urbanairship.automation.storage.ScheduleSummary;
 import com.urbanairship.automation.storage.ScheduleState;
 import com.urbanairship.json.JsonMap;
 import com.urbanairship.json.JsonValue;
@@ -481,6 +482,72 @@ public class AutomationEngineTest {
         assertEquals(expectedExecutionOrder, driver.priorityList);
     }
 
+    @Test
+    public void testPrepareResultsAppliedInPriorityOrder() throws Exception {
+        Schedule<Actions> high = Schedule.newBuilder(this.schedule)
+                                         .setId("high")
+                                         .setPriority(1)
+                                         .build();
+
+        Schedule<Actions> low = Schedule.newBuilder(this.schedule)
+                                        .setId("low")
+                                        .setPriority(2)
+                                        .build();
+
+        schedule(high);
+        schedule(low);
+
+        CustomEvent.newBuilder("event")
+                   .build()
+                   .track();
+        runLooperTasks();
+
+        // Both are preparing at the same time
+        assertTrue(driver.prepareCallbackMap.containsKey(high.getId()));
+        assertTrue(driver.prepareCallbackMap.containsKey(low.getId()));
+
+        // The lower priority schedule waits for the higher priority one
+        driver.prepareCallbackMap.get(low.getId()).onFinish(AutomationDriver.PREPARE_RESULT_CONTINUE);
+        runLooperTasksWithoutDelays();
+        verifyState(low, ScheduleState.PREPARING_SCHEDULE);
+
+        driver.prepareCallbackMap.get(high.getId()).onFinish(AutomationDriver.PREPARE_RESULT_CONTINUE);
+        runLooperTasksWithoutDelays();
+        verifyState(high, ScheduleState.EXECUTING);
+        verifyState(low, ScheduleState.EXECUTING);
+    }
+
+    @Test
+    public void testPrepareOrderTimeout() throws Exception {
+        Schedule<Actions> high = Schedule.newBuilder(this.schedule)
+                                         .setId("high")
+                                         .setPriority(1)
+                                         .build();
+
+        Schedule<Actions> low = Schedule.newBuilder(this.schedule)
+                                        .setId("low")
+                                        .setPriority(2)
+                                        .build();
+
+        schedule(high);
+        schedule(low);
+
+        CustomEvent.newBuilder("event")
+                   .build()
+                   .track();
+        runLooperTasks();
+
+        driver.prepareCallbackMap.get(low.getId()).onFinish(AutomationDriver.PREPARE_RESULT_CONTINUE);
+        runLooperTasksWithoutDelays();
+        verifyState(low, ScheduleState.PREPARING_SCHEDULE);
+
+        // The higher priority schedule taking too long no longer holds up the lower priority one
+        advanceAutomationLooperScheduler(10000);
+        runLooperTasksWithoutDelays();
+        verifyState(low, ScheduleState.EXECUTING);
+        verifyState(high, ScheduleState.PREPARING_SCHEDULE);
+    }
+
     @Test
     public void testExpiryListener() throws ExecutionException, InterruptedException {
         Schedule<Actions> schedule = Schedule.newBuilder(new Actions(JsonMap.EMPTY_MAP))
@@ -713,6 +780,47 @@ public class AutomationEngineTest {
         assertEquals(edits.getEnd().longValue(), updated.getEnd());
     }
 
+    @Test
+    public void testEditSchedules() throws Exception {
+        final Schedule<Actions> first = Schedule.newBuilder(this.schedule)
+                                                .setId("first")
+                                                .setEditGracePeriod(100, TimeUnit.SECONDS)
+                                                .build();
+
+        final Schedule<Actions> second = Schedule.newBuilder(this.schedule)
+                                                 .setId("second")
+                                                 .setEditGracePeriod(100, TimeUnit.SECONDS)
+                                                 .build();
+
+        schedule(first);
+        schedule(second);
+
+        Map<String, ScheduleEdits<? extends ScheduleData>> edits = new HashMap<>();
+        edits.put(first.getId(), ScheduleEdits.newBuilder().setPriority(300).build());
+        edits.put(second.getId(), ScheduleEdits.newBuilder().setEnd(System.currentTimeMillis()).build());
+        edits.put("missing", ScheduleEdits.newBuilder().setPriority(1).build());
+
+        Future<Boolean> future = automationEngine.editSchedules(edits);
+        runLooperTasks();
+        assertEquals(Boolean.TRUE, future.get());
+
+        assertEquals(300, dao.getSchedule(first.getId()).schedule.priority);
+        verifyState(first, ScheduleState.IDLE);
+
+        // Ending a schedule finishes it
+        verifyState(second, ScheduleState.FINISHED);
+    }
+
+    @Test
+    public void testEditSchedulesMissing() throws Exception {
+        Map<String, ScheduleEdits<? extends ScheduleData>> edits = new HashMap<>();
+        edits.put("missing", ScheduleEdits.newBuilder().setPriority(1).build());
+
+        Future<Boolean> future = automationEngine.editSchedules(edits);
+        runLooperTasks();
+        assertEquals(Boolean.FALSE, future.get());
+    }
+
     @Test
     public void testInterval() throws Exception {
         final Schedule schedule = Schedule.newBuilder(this.schedule)
@@ -973,6 +1081,169 @@ public class AutomationEngineTest {
         verifyState(schedule, ScheduleState.EXECUTING);
     }
 
+    @Test
+    public void testTriggerProgressWriteBehind() throws Exception {
+        activityMonitor.startActivity();
+        runLooperTasks();
+
+        Schedule<Actions> schedule = Schedule.newBuilder(new Actions(JsonMap.EMPTY_MAP))
+                                             .addTrigger(Triggers.newCustomEventTriggerBuilder()
+                                                                 .setCountGoal(3)
+                                                                 .setEventName("event")
+                                                                 .build())
+                                             .build();
+        schedule(schedule);
+
+        CustomEvent event = CustomEvent.newBuilder("event").build();
+        event.track();
+        event.track();
+        runLooperTasksWithoutDelays();
+
+        // Progress is only buffered
+        assertEquals(0.0, dao.getSchedule(schedule.getId()).triggers.get(0).progress, 0.0);
+        verifyState(schedule, ScheduleState.IDLE);
+
+        // Flushed after the delay
+        advanceAutomationLooperScheduler(5000);
+        assertEquals(2.0, dao.getSchedule(schedule.getId()).triggers.get(0).progress, 0.0);
+
+        // Reaching the goal writes through
+        event.track();
+        event.track();
+        event.track();
+        runLooperTasksWithoutDelays();
+
+        verifyState(schedule, ScheduleState.PREPARING_SCHEDULE);
+        assertEquals(0.0, dao.getSchedule(schedule.getId()).triggers.get(0).progress, 0.0);
+    }
+
+    @Test
+    public void testTriggerProgressWriteThroughInBackground() throws Exception {
+        Schedule<Actions> schedule = Schedule.newBuilder(new Actions(JsonMap.EMPTY_MAP))
+                                             .addTrigger(Triggers.newCustomEventTriggerBuilder()
+                                                                 .setCountGoal(3)
+                                                                 .setEventName("event")
+                                                                 .build())
+                                             .build();
+        schedule(schedule);
+
+        CustomEvent.newBuilder("event").build().track();
+        runLooperTasksWithoutDelays();
+
+        assertEquals(1.0, dao.getSchedule(schedule.getId()).triggers.get(0).progress, 0.0);
+    }
+
+    @Test
+    public void testTriggerProgressFlushedOnBackground() throws Exception {
+        activityMonitor.startActivity();
+        runLooperTasks();
+
+        Schedule<Actions> schedule = Schedule.newBuilder(new Actions(JsonMap.EMPTY_MAP))
+                                             .addTrigger(Triggers.newCustomEventTriggerBuilder()
+                                                                 .setCountGoal(3)
+                                                                 .setEventName("event")
+                                                                 .build())
+                                             .build();
+        schedule(schedule);
+
+        CustomEvent.newBuilder("event").build().track();
+        CustomEvent.newBuilder("event").build().track();
+        runLooperTasksWithoutDelays();
+        assertEquals(0.0, dao.getSchedule(schedule.getId()).triggers.get(0).progress, 0.0);
+
+        // Background before the flush delay
+        activityMonitor.stopActivity();
+        runLooperTasksWithoutDelays();
+
+        assertEquals(2.0, dao.getSchedule(schedule.getId()).triggers.get(0).progress, 0.0);
+    }
+
+    @Test
+    public void testTriggerProgressFlushedOnStop() throws Exception {
+        activityMonitor.startActivity();
+        runLooperTasks();
+
+        Schedule<Actions> schedule = Schedule.newBuilder(new Actions(JsonMap.EMPTY_MAP))
+                                             .addTrigger(Triggers.newCustomEventTriggerBuilder()
+                                                                 .setCountGoal(3)
+                                                                 .setEventName("event")
+                                                                 .build())
+                                             .build();
+        schedule(schedule);
+
+        CustomEvent.newBuilder("event").build().track();
+        CustomEvent.newBuilder("event").build().track();
+        runLooperTasksWithoutDelays();
+        assertEquals(0.0, dao.getSchedule(schedule.getId()).triggers.get(0).progress, 0.0);
+
+        ShadowLooper automationLooper = Shadows.shadowOf(automationEngine.backgroundThread.getLooper());
+        automationEngine.stop();
+        automationLooper.idle();
+
+        assertEquals(2.0, dao.getSchedule(schedule.getId()).triggers.get(0).progress, 0.0);
+    }
+
+    @Test
+    public void testGetScheduleSummariesWithStates() {
+        long now = System.currentTimeMillis();
+        dao.insert(createScheduleEntity("finished", ScheduleState.FINISHED, now, 100, 1000));
+        dao.insert(createScheduleEntity("idle", ScheduleState.IDLE, now, 0, -1));
+
+        List<ScheduleSummary> summaries = dao.getScheduleSummariesWithStates(ScheduleState.FINISHED);
+        assertEquals(1, summaries.size());
+
+        ScheduleSummary summary = summaries.get(0);
+        assertEquals("finished", summary.scheduleId);
+        assertEquals(ScheduleState.FINISHED, summary.executionState);
+        assertEquals(now, summary.executionStateChangeDate);
+        assertEquals(100, summary.editGracePeriod);
+        assertEquals(1000, summary.scheduleEnd);
+        assertTrue(summary.toString().contains("finished"));
+
+        assertEquals(2, dao.getScheduleSummariesWithStates(ScheduleState.FINISHED, ScheduleState.IDLE).size());
+    }
+
+    @Test
+    public void testDeleteSchedulesWithIds() {
+        // More IDs than a single delete batch
+        List<FullSchedule> entries = new ArrayList<>();
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 1001; i++) {
+            entries.add(createScheduleEntity("schedule-" + i, ScheduleState.FINISHED, 0, 0, -1));
+            ids.add("schedule-" + i);
+        }
+        entries.add(createScheduleEntity("kept", ScheduleState.FINISHED, 0, 0, -1));
+        dao.insert(entries);
+
+        dao.deleteSchedulesWithIds(ids);
+
+        assertEquals(1, dao.getScheduleCount());
+        assertNotNull(dao.getSchedule("kept"));
+    }
+
+    @Test
+    public void testCleanSchedules() {
+        long now = System.currentTimeMillis();
+
+        // No grace period, finished in the past
+        dao.insert(createScheduleEntity("no-grace-period", ScheduleState.FINISHED, now - 1000, 0, -1));
+        // Grace period without an end date is kept around for edits
+        dao.insert(createScheduleEntity("no-end", ScheduleState.FINISHED, now - 1000, 100, -1));
+        // End plus grace period has passed
+        dao.insert(createScheduleEntity("grace-period-passed", ScheduleState.FINISHED, now - 1000, 100, now - 1000));
+        // End plus grace period has not passed
+        dao.insert(createScheduleEntity("in-grace-period", ScheduleState.FINISHED, now - 1000, TimeUnit.DAYS.toMillis(1), now - 1000));
+
+        automationEngine.stop();
+        automationEngine.start(driver);
+        runLooperTasks();
+
+        assertNull(dao.getSchedule("no-grace-period"));
+        assertNotNull(dao.getSchedule("no-end"));
+        assertNull(dao.getSchedule("grace-period-passed"));
+        assertNotNull(dao.getSchedule("in-grace-period"));
+    }
+
     private void verifyDelay(ScheduleDelay delay, Runnable resolveDelay) throws Exception {
         final Schedule<Actions> schedule = Schedule.newBuilder(this.schedule)
                                                    .setDelay(delay)
@@ -1093,6 +1364,16 @@ public class AutomationEngineTest {
         while (mainLooper.getScheduler().areAnyRunnable() || automationLooper.getScheduler().areAnyRunnable());
     }
 
+    private void runLooperTasksWithoutDelays() {
+        ShadowLooper mainLooper = Shadows.shadowOf(Looper.getMainLooper());
+        ShadowLooper automationLooper = Shadows.shadowOf(automationEngine.backgroundThread.getLooper());
+
+        for (int i = 0; i < 5; i++) {
+            mainLooper.idle();
+            automationLooper.idle();
+        }
+    }
+
     private void advanceAutomationLooperScheduler(long millis) {
         ShadowLooper automationLooper = Shadows.shadowOf(automationEngine.backgroundThread.getLooper());
         automationLooper.getScheduler().advanceBy(millis, TimeUnit.MILLISECONDS);
@@ -1104,6 +1385,23 @@ public class AutomationEngineTest {
         assertTrue(future.get());
     }
 
+    private FullSchedule createScheduleEntity(String id, int state, long stateChangeDate, long editGracePeriod, long end) {
+        Schedule<Actions> schedule = Schedule.newBuilder(new Actions(JsonMap.EMPTY_MAP))
+                                             .setId(id)
+                                             .addTrigger(Triggers.newCustomEventTriggerBuilder()
+                                                                 .setCountGoal(1)
+                                                                 .setEventName("event")
+                                                                 .build())
+                                             .build();
+
+        FullSchedule entry = ScheduleConverters.convert(schedule);
+        entry.schedule.executionState = state;
+        entry.schedule.executionStateChangeDate = stateChangeDate;
+        entry.schedule.editGracePeriod = editGracePeriod;
+        entry.schedule.scheduleEnd = end;
+        return entry;
+    }
+
     private void verifyState(Schedule<?> schedule, int state) {
         assertEquals(dao.getSchedule(schedule.getId()).schedule.executionState, state);
     }
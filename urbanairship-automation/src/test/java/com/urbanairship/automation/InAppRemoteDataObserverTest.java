@@ -314,6 +314,9 @@ public class InAppRemoteDataObserverTest {
         ScheduleEdits<? extends ScheduleData> edits = delegate.getScheduleEdits("bar");
         assertEquals(Long.valueOf(payload.getTimestamp()), edits.getEnd());
         assertEquals(Long.valueOf(payload.getTimestamp()), edits.getStart());
+
+        // Verify the end was applied in a single batch
+        assertEquals(1, delegate.editBatches);
     }
 
     @Test
@@ -385,6 +388,98 @@ public class InAppRemoteDataObserverTest {
         assertEquals(campaigns, edits.getCampaigns());
     }
 
+    @Test
+    public void testUnchangedPayload() {
+        JsonMap metadata = JsonMap.newBuilder()
+                                  .putOpt("meta", "data").build();
+
+        JsonMap expectedMetadata = JsonMap.newBuilder()
+                                          .put("com.urbanairship.iaa.REMOTE_DATA_METADATA", metadata)
+                                          .build();
+
+        Schedule<InAppMessage> fooSchedule = Schedule.newBuilder(InAppMessage.newBuilder()
+                                                                             .setName("foo")
+                                                                             .setDisplayContent(new CustomDisplayContent(JsonValue.NULL))
+                                                                             .build())
+                                                     .addTrigger(Triggers.newAppInitTriggerBuilder()
+                                                                         .setGoal(1)
+                                                                         .build())
+                                                     .setId("foo")
+                                                     .setMetadata(expectedMetadata)
+                                                     .build();
+
+        RemoteDataPayload payload = new TestPayloadBuilder()
+                .addSchedule(fooSchedule, TimeUnit.DAYS.toMillis(1), TimeUnit.DAYS.toMillis(1))
+                .setTimeStamp(TimeUnit.DAYS.toMillis(1))
+                .setMetadata(metadata)
+                .build();
+
+        updates.onNext(payload);
+        assertEquals(fooSchedule, delegate.schedules.get("foo"));
+        assertEquals(1, delegate.getSchedulesCalls);
+        assertEquals(1, delegate.constraintUpdates.size());
+
+        // Refresh with the same messages
+        payload = new TestPayloadBuilder()
+                .addSchedule(fooSchedule, TimeUnit.DAYS.toMillis(1), TimeUnit.DAYS.toMillis(1))
+                .setTimeStamp(TimeUnit.DAYS.toMillis(2))
+                .setMetadata(metadata)
+                .build();
+
+        updates.onNext(payload);
+
+        // Verify nothing was loaded or edited
+        assertEquals(1, delegate.getSchedulesCalls);
+        assertEquals(1, delegate.constraintUpdates.size());
+        assertEquals(0, delegate.editBatches);
+    }
+
+    @Test
+    public void testChangedContentWithoutUpdatedTime() {
+        JsonMap metadata = JsonMap.newBuilder()
+                                  .putOpt("meta", "data").build();
+
+        JsonMap expectedMetadata = JsonMap.newBuilder()
+                                          .put("com.urbanairship.iaa.REMOTE_DATA_METADATA", metadata)
+                                          .build();
+
+        Schedule<InAppMessage> fooSchedule = Schedule.newBuilder(InAppMessage.newBuilder()
+                                                                             .setName("foo")
+                                                                             .setDisplayContent(new CustomDisplayContent(JsonValue.NULL))
+                                                                             .build())
+                                                     .addTrigger(Triggers.newAppInitTriggerBuilder()
+                                                                         .setGoal(1)
+                                                                         .build())
+                                                     .setId("foo")
+                                                     .setMetadata(expectedMetadata)
+                                                     .build();
+
+        RemoteDataPayload payload = new TestPayloadBuilder()
+                .addSchedule(fooSchedule, TimeUnit.DAYS.toMillis(1), TimeUnit.DAYS.toMillis(1))
+                .setTimeStamp(TimeUnit.DAYS.toMillis(1))
+                .setMetadata(metadata)
+                .build();
+
+        updates.onNext(payload);
+
+        // Change the priority without changing the last updated time
+        Schedule<InAppMessage> updatedFooSchedule = Schedule.newBuilder(fooSchedule)
+                                                            .setPriority(10)
+                                                            .build();
+
+        payload = new TestPayloadBuilder()
+                .addSchedule(updatedFooSchedule, TimeUnit.DAYS.toMillis(1), TimeUnit.DAYS.toMillis(1))
+                .setTimeStamp(TimeUnit.DAYS.toMillis(2))
+                .setMetadata(metadata)
+                .build();
+
+        updates.onNext(payload);
+
+        // The fingerprint catches the change
+        ScheduleEdits<? extends ScheduleData> edits = delegate.getScheduleEdits("foo");
+        assertEquals(Integer.valueOf(10), edits.getPriority());
+    }
+
     @Test
     public void testMetadataChange() {
         JsonMap metadata = JsonMap.newBuilder()
@@ -646,6 +741,8 @@ public class InAppRemoteDataObserverTest {
         private final Map<String, Schedule<? extends ScheduleData>> schedules = new HashMap<>();
         private final Map<String, ScheduleEdits<? extends ScheduleData>> scheduleEdits = new HashMap<>();
         private final List<Collection<FrequencyConstraint>> constraintUpdates = new ArrayList<>();
+        private int editBatches = 0;
+        private int getSchedulesCalls = 0;
 
         @NonNull
         @Override
@@ -669,6 +766,7 @@ public class InAppRemoteDataObserverTest {
         @NonNull
         @Override
         public PendingResult<Collection<Schedule<? extends ScheduleData>>> getSchedules() {
+            getSchedulesCalls++;
             PendingResult<Collection<Schedule<? extends ScheduleData>>> pendingResult = new PendingResult<>();
             pendingResult.setResult(schedules.values());
             return pendingResult;
@@ -676,17 +774,19 @@ public class InAppRemoteDataObserverTest {
 
         @NonNull
         @Override
-        public PendingResult<Boolean> editSchedule(@NonNull String scheduleId, @NonNull ScheduleEdits<? extends ScheduleData> edits) {
+        public PendingResult<Boolean> editSchedules(@NonNull Map<String, ScheduleEdits<? extends ScheduleData>> edits) {
             PendingResult<Boolean> result = new PendingResult<>();
-            Schedule<?> schedule = schedules.get(scheduleId);
+            boolean edited = false;
 
-            if (schedule != null) {
-                scheduleEdits.put(scheduleId, edits);
-                result.setResult(true);
-            } else {
-                result.setResult(false);
+            for (Map.Entry<String, ScheduleEdits<? extends ScheduleData>> entry : edits.entrySet()) {
+                if (schedules.containsKey(entry.getKey())) {
+                    scheduleEdits.put(entry.getKey(), entry.getValue());
+                    edited = true;
+                }
             }
 
+            editBatches++;
+            result.setResult(edited);
             return result;
         }
 
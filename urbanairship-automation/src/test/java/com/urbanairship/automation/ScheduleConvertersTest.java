@@ -59,4 +59,25 @@ public class ScheduleConvertersTest {
         assertEquals(scheduleList.get(0), ScheduleConverters.convert(storageSchedules.get(0)));
         assertEquals(scheduleList.get(1), ScheduleConverters.convert(storageSchedules.get(1)));
     }
+
+    @Test
+    public void testConvertAudienceAndCampaigns() throws JsonException {
+        Schedule<Actions> schedule = Schedule.newBuilder(new Actions(JsonMap.newBuilder().put("cool", "story").build()))
+                                             .setId("actions!")
+                                             .setAudience(Audience.newBuilder()
+                                                                  .setNewUser(true)
+                                                                  .build())
+                                             .setCampaigns(JsonMap.newBuilder()
+                                                                  .put("categories", "neat")
+                                                                  .build()
+                                                                  .toJsonValue())
+                                             .addTrigger(Triggers.newAppInitTriggerBuilder().setGoal(1).build())
+                                             .build();
+
+        FullSchedule entry = ScheduleConverters.convert(schedule);
+        assertEquals(schedule.getAudience(), entry.schedule.getAudience());
+        assertEquals(schedule.getCampaigns(), entry.schedule.getCampaigns());
+        assertEquals(schedule.getDataAsJson(), entry.schedule.getData());
+        assertEquals(schedule, ScheduleConverters.convert(entry));
+    }
 }
@@ -0,0 +1,160 @@
+/* Copyright Airship and Contributors */
+
+package com.urbanairship.automation;
+
+import com.urbanairship.analytics.CustomEvent;
+import com.urbanairship.automation.storage.TriggerEntity;
+import com.urbanairship.json.JsonException;
+import com.urbanairship.json.JsonMap;
+import com.urbanairship.json.JsonMatcher;
+import com.urbanairship.json.JsonPredicate;
+import com.urbanairship.json.JsonValue;
+import com.urbanairship.json.ValueMatcher;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(AndroidJUnit4.class)
+public class TriggerIndexTest {
+
+    private TriggerIndex index;
+
+    @Before
+    public void setup() {
+        index = new TriggerIndex();
+    }
+
+    @Test
+    public void testInvalidate() {
+        assertFalse(index.isValid());
+
+        index.rebuild(Collections.<TriggerEntity>emptyList());
+        assertTrue(index.isValid());
+
+        index.invalidate();
+        assertFalse(index.isValid());
+    }
+
+    @Test
+    public void testCustomEventNames() {
+        index.rebuild(Arrays.asList(
+                entity(Triggers.newCustomEventTriggerBuilder().setCountGoal(1).setEventName("purchase").build()),
+                entity(Triggers.newCustomEventTriggerBuilder().setCountGoal(1).setEventName("share").build())
+        ));
+
+        assertTrue(index.mayMatch(Trigger.CUSTOM_EVENT_COUNT, customEvent("purchase")));
+        assertTrue(index.mayMatch(Trigger.CUSTOM_EVENT_COUNT, customEvent("share")));
+        assertFalse(index.mayMatch(Trigger.CUSTOM_EVENT_COUNT, customEvent("other")));
+        assertFalse(index.mayMatch(Trigger.CUSTOM_EVENT_COUNT, JsonValue.NULL));
+
+        // No value triggers
+        assertFalse(index.mayMatch(Trigger.CUSTOM_EVENT_VALUE, customEvent("purchase")));
+    }
+
+    @Test
+    public void testCustomEventNoPredicate() {
+        index.rebuild(Arrays.asList(
+                entity(Triggers.newCustomEventTriggerBuilder().setCountGoal(1).setEventName("purchase").build()),
+                entity(Triggers.newCustomEventTriggerBuilder().setCountGoal(1).build())
+        ));
+
+        assertTrue(index.mayMatch(Trigger.CUSTOM_EVENT_COUNT, customEvent("purchase")));
+        assertTrue(index.mayMatch(Trigger.CUSTOM_EVENT_COUNT, customEvent("other")));
+    }
+
+    @Test
+    public void testScreenNames() {
+        index.rebuild(Collections.singletonList(
+                entity(Triggers.newScreenTriggerBuilder().setGoal(1).setScreenName("home").build())
+        ));
+
+        assertTrue(index.mayMatch(Trigger.SCREEN_VIEW, JsonValue.wrap("home")));
+        assertFalse(index.mayMatch(Trigger.SCREEN_VIEW, JsonValue.wrap("settings")));
+    }
+
+    @Test
+    public void testUnindexedTypes() {
+        index.rebuild(Collections.singletonList(
+                entity(Triggers.newForegroundTriggerBuilder().setGoal(1).build())
+        ));
+
+        assertTrue(index.mayMatch(Trigger.LIFE_CYCLE_FOREGROUND, JsonValue.NULL));
+        assertFalse(index.mayMatch(Trigger.LIFE_CYCLE_BACKGROUND, JsonValue.NULL));
+    }
+
+    @Test
+    public void testOrPredicate() {
+        JsonPredicate predicate = JsonPredicate.newBuilder()
+                                               .setPredicateType(JsonPredicate.OR_PREDICATE_TYPE)
+                                               .addMatcher(eventNameMatcher("purchase"))
+                                               .addMatcher(eventNameMatcher("share"))
+                                               .build();
+
+        index.rebuild(Collections.singletonList(entity(Trigger.CUSTOM_EVENT_COUNT, predicate)));
+
+        assertTrue(index.mayMatch(Trigger.CUSTOM_EVENT_COUNT, customEvent("purchase")));
+        assertTrue(index.mayMatch(Trigger.CUSTOM_EVENT_COUNT, customEvent("share")));
+        assertFalse(index.mayMatch(Trigger.CUSTOM_EVENT_COUNT, customEvent("other")));
+    }
+
+    @Test
+    public void testUnconstrainedPredicates() throws JsonException {
+        JsonPredicate ignoreCase = JsonPredicate.parse(JsonValue.parseString(
+                "{\"and\":[{\"key\":\"event_name\",\"value\":{\"equals\":\"purchase\"},\"ignore_case\":true}]}"));
+
+        JsonPredicate not = JsonPredicate.newBuilder()
+                                         .setPredicateType(JsonPredicate.NOT_PREDICATE_TYPE)
+                                         .addMatcher(eventNameMatcher("purchase"))
+                                         .build();
+
+        JsonPredicate or = JsonPredicate.newBuilder()
+                                        .setPredicateType(JsonPredicate.OR_PREDICATE_TYPE)
+                                        .addMatcher(eventNameMatcher("purchase"))
+                                        .addMatcher(JsonMatcher.newBuilder()
+                                                               .setKey("price")
+                                                               .setValueMatcher(ValueMatcher.newNumberRangeMatcher(1.0, 10.0))
+                                                               .build())
+                                        .build();
+
+        for (JsonPredicate predicate : Arrays.asList(ignoreCase, not, or)) {
+            index.rebuild(Collections.singletonList(entity(Trigger.CUSTOM_EVENT_COUNT, predicate)));
+            assertTrue(predicate.toString(), index.mayMatch(Trigger.CUSTOM_EVENT_COUNT, customEvent("other")));
+        }
+    }
+
+    private static JsonMatcher eventNameMatcher(String name) {
+        return JsonMatcher.newBuilder()
+                          .setKey(CustomEvent.EVENT_NAME)
+                          .setValueMatcher(ValueMatcher.newValueMatcher(JsonValue.wrap(name)))
+                          .build();
+    }
+
+    private static JsonValue customEvent(String name) {
+        return JsonMap.newBuilder()
+                      .put(CustomEvent.EVENT_NAME, name)
+                      .build()
+                      .toJsonValue();
+    }
+
+    private static TriggerEntity entity(Trigger trigger) {
+        return entity(trigger.getType(), trigger.getPredicate());
+    }
+
+    private static TriggerEntity entity(int type, JsonPredicate predicate) {
+        TriggerEntity entity = new TriggerEntity();
+        entity.triggerType = type;
+        entity.goal = 1;
+        entity.jsonPredicate = predicate;
+        return entity;
+    }
+
+}
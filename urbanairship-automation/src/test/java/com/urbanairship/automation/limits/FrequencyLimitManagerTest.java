@@ -298,6 +298,57 @@ public class FrequencyLimitManagerTest {
         assertEquals(1, dao.getOccurrences("foo").size());
     }
 
+    @Test
+    public void testStaleOccurrencesPruned() throws ExecutionException, InterruptedException {
+        this.limitManager = new FrequencyLimitManager(dao, clock, new Executor() {
+            @Override
+            public void execute(@NonNull Runnable command) {
+                command.run();
+            }
+        });
+
+        limitManager.updateConstraints(Collections.singletonList(FrequencyConstraint.newBuilder()
+                                                                                    .setCount(1)
+                                                                                    .setRange(TimeUnit.MILLISECONDS, 10)
+                                                                                    .setId("foo")
+                                                                                    .build()));
+
+        FrequencyChecker checker = limitManager.getFrequencyChecker(ids("foo")).get();
+
+        clock.currentTimeMillis = 0;
+        assertTrue(checker.checkAndIncrement());
+
+        clock.currentTimeMillis = 5;
+        assertFalse(checker.checkAndIncrement());
+
+        clock.currentTimeMillis = 20;
+        assertTrue(checker.checkAndIncrement());
+        assertEquals(2, dao.getOccurrences("foo").size());
+
+        // Update the count, occurrences outside of the range are removed
+        clock.currentTimeMillis = 25;
+        limitManager.updateConstraints(Collections.singletonList(FrequencyConstraint.newBuilder()
+                                                                                    .setCount(2)
+                                                                                    .setRange(TimeUnit.MILLISECONDS, 10)
+                                                                                    .setId("foo")
+                                                                                    .build()));
+
+        List<OccurrenceEntity> occurrences = dao.getOccurrences("foo");
+        assertEquals(1, occurrences.size());
+        assertEquals(20, occurrences.get(0).timeStamp);
+
+        // New checker picks up the new count with the remaining occurrence
+        checker = limitManager.getFrequencyChecker(ids("foo")).get();
+        assertFalse(checker.isOverLimit());
+        assertTrue(checker.checkAndIncrement());
+        assertTrue(checker.isOverLimit());
+
+        occurrences = dao.getOccurrences("foo");
+        assertEquals(2, occurrences.size());
+        assertEquals(20, occurrences.get(0).timeStamp);
+        assertEquals(25, occurrences.get(1).timeStamp);
+    }
+
     private static Collection<String> ids(String... ids) {
         return Arrays.asList(ids);
     }
@@ -23,11 +23,14 @@ import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.ArgumentMatcher;
+import org.mockito.InOrder;
 import org.mockito.Mockito;
 import org.robolectric.Shadows;
 import org.robolectric.annotation.Config;
 import org.robolectric.annotation.LooperMode;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
 import java.util.concurrent.Callable;
 import java.util.concurrent.Executor;
@@ -42,6 +45,7 @@ import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
@@ -452,4 +456,58 @@ public class InAppMessageManagerTest {
         verify(mockAssetManager, times(1)).onFinish(scheduleId);
     }
 
+    @Test
+    public void testScheduleFinishedWaitsForPrepare() {
+        final List<Runnable> pool = new ArrayList<>();
+        RetryingExecutor executor = new RetryingExecutor(new Handler(Looper.getMainLooper()), new Executor() {
+            @Override
+            public void execute(@NonNull Runnable runnable) {
+                runnable.run();
+            }
+        });
+        RetryingExecutor prepareExecutor = new RetryingExecutor(new Handler(Looper.getMainLooper()), new Executor() {
+            @Override
+            public void execute(@NonNull Runnable runnable) {
+                pool.add(runnable);
+            }
+        });
+
+        manager = new InAppMessageManager(TestApplication.getApplication(),
+                TestApplication.getApplication().preferenceDataStore, mockAnalytics,
+                executor, prepareExecutor, actionRunRequestFactory, mockAssetManager, mockDelegate);
+        manager.setAdapterFactory(InAppMessage.TYPE_CUSTOM, new InAppMessageAdapter.Factory() {
+            @NonNull
+            @Override
+            public InAppMessageAdapter createAdapter(@NonNull InAppMessage message) {
+                return mockAdapter;
+            }
+        });
+        manager.onAirshipReady();
+
+        when(mockAssetManager.onPrepare(scheduleId, message)).thenReturn(AssetManager.PREPARE_RESULT_OK);
+        when(mockAdapter.onPrepare(any(Context.class), any(Assets.class))).thenReturn(InAppMessageAdapter.OK);
+
+        AutomationDriver.PrepareScheduleCallback mockPrepareCallback = mock(AutomationDriver.PrepareScheduleCallback.class);
+        manager.onPrepare(scheduleId, null, null, message, mockPrepareCallback);
+        manager.onMessageScheduleFinished(scheduleId);
+        manager.onMessageScheduleFinished("other-schedule");
+
+        // The finish waits for the prepare, other schedules are not blocked
+        assertEquals(2, pool.size());
+
+        pool.remove(0).run();
+        verify(mockAssetManager).onPrepare(scheduleId, message);
+        verify(mockAssetManager, never()).onFinish(scheduleId);
+
+        while (!pool.isEmpty()) {
+            pool.remove(0).run();
+        }
+
+        InOrder inOrder = inOrder(mockAssetManager);
+        inOrder.verify(mockAssetManager).onPrepare(scheduleId, message);
+        inOrder.verify(mockAssetManager).onFinish(scheduleId);
+        verify(mockAssetManager).onFinish("other-schedule");
+        verify(mockPrepareCallback).onFinish(AutomationDriver.PREPARE_RESULT_CONTINUE);
+    }
+
 }
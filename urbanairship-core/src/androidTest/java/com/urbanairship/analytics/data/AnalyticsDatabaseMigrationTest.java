@@ -55,6 +55,31 @@ public class AnalyticsDatabaseMigrationTest {
         assertFalse(hasDuplicates(db));
     }
 
+    @Test
+    public void migrate3to4() throws IOException {
+        SupportSQLiteDatabase db = helper.createDatabase(TEST_DB, 3);
+        insertEvent(db, "event-1", "session-1");
+        db.close();
+
+        db = helper.runMigrationsAndValidate(TEST_DB, 4, true, AnalyticsDatabase.MIGRATION_3_4);
+
+        // Existing events are moved to the normal priority lane.
+        Cursor cursor = db.query("SELECT priority FROM events");
+        assertTrue(cursor.moveToFirst());
+        assertEquals(1, cursor.getInt(0));
+        cursor.close();
+    }
+
+    @Test
+    public void migrate4to5() throws IOException {
+        SupportSQLiteDatabase db = helper.createDatabase(TEST_DB, 4);
+        insertEvent(db, "event-1", "session-1");
+        db.close();
+
+        db = helper.runMigrationsAndValidate(TEST_DB, 5, true, AnalyticsDatabase.MIGRATION_4_5);
+        assertEquals(1, getEventCount(db));
+    }
+
     @SuppressWarnings("SameParameterValue")
     private static void insertEvent(SupportSQLiteDatabase db, String eventId, String sessionId) {
         ContentValues values = new ContentValues();
@@ -8,6 +8,7 @@ import android.net.Uri;
 import com.urbanairship.job.JobInfo;
 import com.urbanairship.job.JobResult;
 import com.urbanairship.json.JsonMap;
+import com.urbanairship.util.KeyedSerialExecutor;
 
 import java.util.concurrent.Executor;
 
@@ -46,6 +47,8 @@ public abstract class AirshipComponent {
      */
     protected final Executor defaultExecutor = AirshipExecutors.newSerialExecutor();
 
+    private final KeyedSerialExecutor keyedJobExecutor = AirshipExecutors.newKeyedSerialExecutor();
+
     /**
      * Initialize the manager.
      * Called in {@link UAirship} during takeoff.
@@ -77,6 +80,9 @@ public abstract class AirshipComponent {
 
     /**
      * Gets the executor for the given job.
+     * <p>
+     * Jobs with an ordering key from {@link #getJobOrderingKey(JobInfo)} run on the shared job pool,
+     * one at a time per key. Other jobs run on the {@link #defaultExecutor}.
      *
      * @param jobInfo The jobInfo.
      * @return An executor that will be used to call {@link #onPerformJob(UAirship, JobInfo)}.
@@ -85,7 +91,26 @@ public abstract class AirshipComponent {
     @NonNull
     @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
     public Executor getJobExecutor(@NonNull JobInfo jobInfo) {
-        return defaultExecutor;
+        String orderingKey = getJobOrderingKey(jobInfo);
+        if (orderingKey == null) {
+            return defaultExecutor;
+        }
+        return keyedJobExecutor.getExecutor(orderingKey);
+    }
+
+    /**
+     * Gets the ordering key for the given job. Jobs with the same key run in order, jobs with
+     * different keys may run concurrently. Components should only return a key for jobs that do not
+     * need to be serialized with other work on the {@link #defaultExecutor}.
+     *
+     * @param jobInfo The jobInfo.
+     * @return The ordering key, or {@code null} to run the job on the {@link #defaultExecutor}.
+     * @hide
+     */
+    @Nullable
+    @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+    protected String getJobOrderingKey(@NonNull JobInfo jobInfo) {
+        return null;
     }
 
     /**
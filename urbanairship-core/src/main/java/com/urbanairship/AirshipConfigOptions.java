@@ -6,6 +6,7 @@ import android.content.Context;
 import android.net.Uri;
 import android.util.Log;
 
+import com.urbanairship.http.RequestTransport;
 import com.urbanairship.js.UrlAllowList;
 import com.urbanairship.push.PushMessage;
 import com.urbanairship.push.PushProvider;
@@ -254,6 +255,14 @@ public class AirshipConfigOptions {
     @Nullable
     public final PushProvider customPushProvider;
 
+    /**
+     * Custom HTTP transport for Airship requests.
+     *
+     * @hide
+     */
+    @Nullable
+    public final RequestTransport requestTransport;
+
     /**
      * List of URLs that are allowed to be used for various features, including:
      * Airship JS interface, open external URL action, wallet action, HTML in-app messages,
@@ -418,6 +427,31 @@ public class AirshipConfigOptions {
      */
     public final boolean requireInitialRemoteConfigEnabled;
 
+    /**
+     * Flag indicating whether jobs that can run immediately are run in process while the app is
+     * in the foreground instead of being scheduled with WorkManager.
+     * <p>
+     * Defaults to <code>false</code>.
+     */
+    public final boolean inProcessJobsEnabled;
+
+    /**
+     * The window in milliseconds that network jobs dispatched close together are held for so they
+     * can run back-to-back in a single worker. A value of 0 disables coalescing.
+     * <p>
+     * Defaults to <code>0</code>.
+     */
+    public final long jobCoalescingWindowMs;
+
+    /**
+     * Flag indicating whether remote data payloads are stored in a compact binary encoding instead
+     * of JSON text, so they do not need to be parsed again when loaded. Payloads stored in either
+     * format are always readable, but binary payloads can not be read by older SDK versions.
+     * <p>
+     * Defaults to <code>false</code>.
+     */
+    public final boolean remoteDataBinaryEncodingEnabled;
+
     /**
      * The Firebase app name to use for FCM instead of the default app.
      */
@@ -477,11 +511,15 @@ public class AirshipConfigOptions {
         this.notificationAccentColor = builder.notificationAccentColor;
         this.notificationChannel = builder.notificationChannel;
         this.customPushProvider = builder.customPushProvider;
+        this.requestTransport = builder.requestTransport;
         this.appStoreUri = builder.appStoreUri;
         this.dataCollectionOptInEnabled = builder.dataCollectionOptInEnabled;
         this.enabledFeatures = builder.enabledFeatures;
         this.extendedBroadcastsEnabled = builder.extendedBroadcastsEnabled;
         this.requireInitialRemoteConfigEnabled = builder.requireInitialRemoteConfigEnabled;
+        this.inProcessJobsEnabled = builder.inProcessJobsEnabled;
+        this.jobCoalescingWindowMs = builder.jobCoalescingWindowMs;
+        this.remoteDataBinaryEncodingEnabled = builder.remoteDataBinaryEncodingEnabled;
         this.fcmFirebaseAppName = builder.fcmFirebaseAppName;
         this.initialConfigUrl = builder.initialConfigUrl;
     }
@@ -643,6 +681,9 @@ public class AirshipConfigOptions {
         private static final String FIELD_EXTENDED_BROADCASTS_ENABLED = "extendedBroadcastsEnabled";
         private static final String FIELD_SUPPRESS_ALLOW_LIST_ERROR = "suppressAllowListError";
         private static final String FIELD_REQUIRE_INITIAL_REMOTE_CONFIG_ENABLED = "requireInitialRemoteConfigEnabled";
+        private static final String FIELD_IN_PROCESS_JOBS_ENABLED = "inProcessJobsEnabled";
+        private static final String FIELD_JOB_COALESCING_WINDOW_MS = "jobCoalescingWindowMs";
+        private static final String FIELD_REMOTE_DATA_BINARY_ENCODING_ENABLED = "remoteDataBinaryEncodingEnabled";
         private static final String FIELD_ENABLED_FEATURES = "enabledFeatures";
         private static final String FIELD_INITIAL_CONFIG_URL = "initialConfigUrl";
 
@@ -676,6 +717,7 @@ public class AirshipConfigOptions {
         private String walletUrl;
         private String notificationChannel;
         private PushProvider customPushProvider;
+        private RequestTransport requestTransport;
         private Uri appStoreUri;
         private boolean dataCollectionOptInEnabled;
         private boolean extendedBroadcastsEnabled;
@@ -687,6 +729,9 @@ public class AirshipConfigOptions {
 
         private boolean suppressAllowListError = false;
         private boolean requireInitialRemoteConfigEnabled = true;
+        private boolean inProcessJobsEnabled = false;
+        private long jobCoalescingWindowMs = 0;
+        private boolean remoteDataBinaryEncodingEnabled = false;
         private String fcmFirebaseAppName;
 
         private String initialConfigUrl;
@@ -996,6 +1041,18 @@ public class AirshipConfigOptions {
                             this.setRequireInitialRemoteConfigEnabled(configParser.getBoolean(name, false));
                             break;
 
+                        case FIELD_IN_PROCESS_JOBS_ENABLED:
+                            this.setInProcessJobsEnabled(configParser.getBoolean(name, false));
+                            break;
+
+                        case FIELD_JOB_COALESCING_WINDOW_MS:
+                            this.setJobCoalescingWindowMs(configParser.getLong(name, 0));
+                            break;
+
+                        case FIELD_REMOTE_DATA_BINARY_ENCODING_ENABLED:
+                            this.setRemoteDataBinaryEncodingEnabled(configParser.getBoolean(name, false));
+                            break;
+
                         case FIELD_ENABLED_FEATURES:
                             int value = -1;
                             try {
@@ -1507,6 +1564,20 @@ public class AirshipConfigOptions {
             return this;
         }
 
+        /**
+         * Used to set a custom HTTP transport for all Airship requests, e.g. one backed by
+         * a pooled HTTP/2 client. Defaults to an {@code HttpURLConnection} based transport.
+         *
+         * @param requestTransport The request transport.
+         * @return The config options builder.
+         * @hide
+         */
+        @NonNull
+        public Builder setRequestTransport(@Nullable RequestTransport requestTransport) {
+            this.requestTransport = requestTransport;
+            return this;
+        }
+
         /**
          * Sets the app store URI for the rate-app action. If not set,
          * the action will generate it using the app's current package name.
@@ -1618,6 +1689,43 @@ public class AirshipConfigOptions {
             return this;
         }
 
+        /**
+         * Sets the flag to run immediately runnable jobs in process while the app is in the foreground.
+         *
+         * @param inProcessJobsEnabled {@code true} to run jobs in process, otherwise {@code false}.
+         * @return The config options builder.
+         */
+        @NonNull
+        public Builder setInProcessJobsEnabled(boolean inProcessJobsEnabled) {
+            this.inProcessJobsEnabled = inProcessJobsEnabled;
+            return this;
+        }
+
+        /**
+         * Sets the window that network jobs dispatched close together are held for so they run
+         * back-to-back in a single worker.
+         *
+         * @param jobCoalescingWindowMs The window in milliseconds, or 0 to disable coalescing.
+         * @return The config options builder.
+         */
+        @NonNull
+        public Builder setJobCoalescingWindowMs(long jobCoalescingWindowMs) {
+            this.jobCoalescingWindowMs = jobCoalescingWindowMs;
+            return this;
+        }
+
+        /**
+         * Sets the flag to store remote data payloads in a compact binary encoding instead of JSON text.
+         *
+         * @param remoteDataBinaryEncodingEnabled {@code true} to store payloads in the binary encoding, otherwise {@code false}.
+         * @return The config options builder.
+         */
+        @NonNull
+        public Builder setRemoteDataBinaryEncodingEnabled(boolean remoteDataBinaryEncodingEnabled) {
+            this.remoteDataBinaryEncodingEnabled = remoteDataBinaryEncodingEnabled;
+            return this;
+        }
+
         /**
          * Builds the config options.
          *
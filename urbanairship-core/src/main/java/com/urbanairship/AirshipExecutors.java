@@ -3,11 +3,16 @@
 package com.urbanairship;
 
 import com.urbanairship.util.AirshipThreadFactory;
+import com.urbanairship.util.BoundedExecutor;
+import com.urbanairship.util.KeyedSerialExecutor;
 import com.urbanairship.util.SerialExecutor;
 
 import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.RestrictTo;
@@ -24,6 +29,13 @@ public class AirshipExecutors {
     private static final ExecutorService THREAD_POOL_EXECUTOR =
             Executors.newCachedThreadPool(AirshipThreadFactory.DEFAULT_THREAD_FACTORY);
 
+    // Jobs mostly wait on the network, so allow a few more threads than cores
+    private static final int JOB_POOL_SIZE = Math.max(2, Math.min(Runtime.getRuntime().availableProcessors() * 2, 8));
+    private static final long JOB_POOL_KEEP_ALIVE_SECONDS = 30;
+
+    @NonNull
+    private static final ExecutorService JOB_POOL_EXECUTOR = createJobPoolExecutor();
+
     /**
      * The shared thread pool executor.
      */
@@ -41,4 +53,38 @@ public class AirshipExecutors {
     public static Executor newSerialExecutor() {
         return new SerialExecutor(THREAD_POOL_EXECUTOR);
     }
+
+    /**
+     * Creates a new executor that shares threads with the {@link #THREAD_POOL_EXECUTOR} and runs at
+     * most {@code maxConcurrent} runnables at the same time.
+     *
+     * @param maxConcurrent The max number of runnables executing at the same time.
+     * @return A new bounded executor.
+     */
+    @NonNull
+    public static Executor newBoundedExecutor(int maxConcurrent) {
+        return new BoundedExecutor(THREAD_POOL_EXECUTOR, maxConcurrent);
+    }
+
+    /**
+     * Creates a new keyed serial executor that shares threads with the bounded job pool. The job
+     * pool queues work once all of its threads are busy, so it should only be used for work that
+     * does not block on other work submitted to it.
+     *
+     * @return A new keyed serial executor.
+     */
+    @NonNull
+    public static KeyedSerialExecutor newKeyedSerialExecutor() {
+        return new KeyedSerialExecutor(JOB_POOL_EXECUTOR);
+    }
+
+    @NonNull
+    private static ExecutorService createJobPoolExecutor() {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(JOB_POOL_SIZE, JOB_POOL_SIZE,
+                JOB_POOL_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<Runnable>(),
+                new AirshipThreadFactory("UrbanAirship-Job"));
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
 }
@@ -30,6 +30,23 @@ public abstract class PreferenceDataDao {
     @Query("DELETE FROM preferences WHERE (`_id` == :key)")
     public abstract void delete(@NonNull String key);
 
+    /**
+     * Saves and removes preferences in a single transaction.
+     *
+     * @param upserts The preferences to save.
+     * @param deletes The keys to remove.
+     */
+    @Transaction
+    public void write(@NonNull List<PreferenceData> upserts, @NonNull List<String> deletes) {
+        for (PreferenceData entity : upserts) {
+            upsert(entity);
+        }
+
+        for (String key : deletes) {
+            delete(key);
+        }
+    }
+
     @Query("DELETE FROM preferences")
     public abstract void deleteAll();
 
@@ -38,6 +55,16 @@ public abstract class PreferenceDataDao {
     @NonNull
     public abstract List<PreferenceData> getPreferences();
 
+    @Transaction
+    @Query("SELECT * FROM preferences WHERE length(value) <= :maxLength")
+    @NonNull
+    public abstract List<PreferenceData> getPreferencesWithMaxLength(int maxLength);
+
+    @Transaction
+    @Query("SELECT _id FROM preferences WHERE length(value) > :maxLength")
+    @NonNull
+    public abstract List<String> queryKeysExceedingLength(int maxLength);
+
     @Transaction
     @Query("SELECT * FROM preferences WHERE (`_id` == :key)")
     @NonNull
@@ -4,6 +4,8 @@ package com.urbanairship;
 
 import android.annotation.SuppressLint;
 import android.content.Context;
+import android.os.Handler;
+import android.os.SystemClock;
 
 import com.urbanairship.json.JsonException;
 import com.urbanairship.json.JsonSerializable;
@@ -12,8 +14,11 @@ import com.urbanairship.util.UAStringUtil;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.Executor;
 
 import androidx.annotation.NonNull;
@@ -23,6 +28,15 @@ import androidx.annotation.VisibleForTesting;
 
 /**
  * PreferenceDataStore stores and retrieves all the Airship preferences scoped at the app key.
+ * <p>
+ * Values are read from and written to memory. Writes are journaled and committed to the database
+ * in the background shortly after the first change, with every key changed since the last commit
+ * written in a single transaction, so repeated writes to the same key only cost one database
+ * write. Use
+ * {@link #flush()} to commit pending writes before the process might be killed.
+ * <p>
+ * Only preferences with short values are read when the store is loaded. Longer values, such as
+ * cached payloads and queues, are read the first time their key is accessed.
  *
  * @hide
  */
@@ -39,9 +53,48 @@ public final class PreferenceDataStore {
             "com.urbanairship.iam.tags.TAG_PREFER_LOCAL_DATA_TIME"
     };
 
+    /**
+     * Values longer than this are not read until their key is accessed.
+     */
+    private static final int MAX_PRELOAD_VALUE_LENGTH = 1024;
+
+    /**
+     * How long a commit waits for more changes after the first dirty key.
+     */
+    @VisibleForTesting
+    static final long FLUSH_DELAY_MS = 500;
+
     Executor executor = AirshipExecutors.newSerialExecutor();
+    private final Handler handler = new Handler(AirshipLoopers.getBackgroundLooper());
     private final Map<String, Preference> preferences = new HashMap<>();
 
+    // Stored keys whose values have not been read yet, guarded by preferences
+    private final Set<String> deferredKeys = new HashSet<>();
+    private long preloadTimeMs;
+    private long deferredLoadTimeMs;
+    private int deferredLoadCount;
+
+    // Preferences changed since the last commit, guarded by itself
+    private final Map<String, Preference> dirtyPreferences = new LinkedHashMap<>();
+    private boolean isFlushScheduled;
+
+    // Serializes commits so an older snapshot is never written after a newer one
+    private final Object flushLock = new Object();
+
+    private final Runnable flushRunnable = new Runnable() {
+        @Override
+        public void run() {
+            flush();
+        }
+    };
+
+    private final Runnable scheduleFlushRunnable = new Runnable() {
+        @Override
+        public void run() {
+            executor.execute(flushRunnable);
+        }
+    };
+
     private final PreferenceDataDao dao;
     private final PreferenceDataDatabase db;
 
@@ -108,20 +161,71 @@ public final class PreferenceDataStore {
         }
     }
 
-    private void loadPreferences() {
+    @VisibleForTesting
+    void loadPreferences() {
+        long start = SystemClock.elapsedRealtime();
         try {
-            List<PreferenceData> preferencesFromDao = dao.getPreferences();
+            List<PreferenceData> preferencesFromDao = dao.getPreferencesWithMaxLength(MAX_PRELOAD_VALUE_LENGTH);
+            List<String> deferred = dao.queryKeysExceedingLength(MAX_PRELOAD_VALUE_LENGTH);
 
             List<Preference> fromStore = new ArrayList<>();
             for (PreferenceData preferenceData : preferencesFromDao) {
                 fromStore.add(new Preference(preferenceData.getKey(), preferenceData.getValue()));
             }
 
+            synchronized (preferences) {
+                deferredKeys.addAll(deferred);
+            }
+
             finishLoad(fromStore);
         } catch (Exception e) {
             Logger.error(e, "Failed to load preferences. Retrying with fallback loading.");
+            synchronized (preferences) {
+                deferredKeys.clear();
+            }
             fallbackLoad();
         }
+
+        preloadTimeMs = SystemClock.elapsedRealtime() - start;
+        Logger.debug("Preferences loaded: %s", getLoadStats());
+    }
+
+    /**
+     * Reads a deferred value from the database. Must be called while holding the preferences lock.
+     *
+     * @param key The preference key.
+     * @return The value, or {@code null} if it could not be read.
+     */
+    @Nullable
+    private String loadDeferredValue(@NonNull String key) {
+        long start = SystemClock.elapsedRealtime();
+        try {
+            PreferenceData preferenceData = dao.queryValue(key);
+            return preferenceData == null ? null : preferenceData.getValue();
+        } catch (Exception e) {
+            Logger.error(e, "Failed to load preference %s. Deleting.", key);
+            try {
+                dao.delete(key);
+            } catch (Exception deleteException) {
+                Logger.error(deleteException, "Failed to delete preference %s", key);
+            }
+            return null;
+        } finally {
+            deferredLoadTimeMs += SystemClock.elapsedRealtime() - start;
+            deferredLoadCount++;
+        }
+    }
+
+    /**
+     * Gets the preference load timings, used to profile takeOff.
+     *
+     * @return The load stats.
+     */
+    @NonNull
+    public LoadStats getLoadStats() {
+        synchronized (preferences) {
+            return new LoadStats(preloadTimeMs, preferences.size(), deferredKeys.size(), deferredLoadTimeMs, deferredLoadCount);
+        }
     }
 
     private void fallbackLoad() {
@@ -175,9 +279,63 @@ public final class PreferenceDataStore {
      */
     public void tearDown() {
         listeners.clear();
+        flush();
         db.close();
     }
 
+    /**
+     * Commits any pending writes to the database in a single transaction. This method will block
+     * on the database write.
+     */
+    public void flush() {
+        synchronized (flushLock) {
+            List<PreferenceData> upserts = new ArrayList<>();
+            List<String> deletes = new ArrayList<>();
+
+            synchronized (dirtyPreferences) {
+                for (Preference preference : dirtyPreferences.values()) {
+                    String value = preference.get();
+                    if (value == null) {
+                        deletes.add(preference.key);
+                    } else {
+                        upserts.add(new PreferenceData(preference.key, value));
+                    }
+                }
+                dirtyPreferences.clear();
+                if (isFlushScheduled) {
+                    handler.removeCallbacks(scheduleFlushRunnable);
+                    isFlushScheduled = false;
+                }
+            }
+
+            if (upserts.isEmpty() && deletes.isEmpty()) {
+                return;
+            }
+
+            try {
+                Logger.verbose("Committing preferences. Saved: %s Removed: %s", upserts.size(), deletes.size());
+                dao.write(upserts, deletes);
+            } catch (Exception e) {
+                Logger.error(e, "Failed to write preferences %s, removing %s", upserts, deletes);
+            }
+        }
+    }
+
+    /**
+     * Marks the preference as changed and schedules a commit if one is not already pending.
+     *
+     * @param preference The preference.
+     */
+    private void markDirty(@NonNull Preference preference) {
+        synchronized (dirtyPreferences) {
+            dirtyPreferences.put(preference.key, preference);
+            if (!isFlushScheduled) {
+                isFlushScheduled = true;
+                handler.postDelayed(scheduleFlushRunnable, FLUSH_DELAY_MS);
+            }
+        }
+    }
+
     /**
      * Checks if the value is set.
      *
@@ -279,13 +437,22 @@ public final class PreferenceDataStore {
      */
     public void remove(@NonNull String key) {
         Preference preference = null;
+        boolean wasDeferred = false;
         synchronized (preferences) {
             if (preferences.containsKey(key)) {
                 preference = preferences.get(key);
+            } else if (deferredKeys.remove(key)) {
+                // Removed without reading the value
+                preference = new Preference(key, null);
+                preferences.put(key, preference);
+                wasDeferred = true;
             }
         }
 
-        if (preference != null) {
+        if (wasDeferred) {
+            markDirty(preference);
+            onPreferenceChanged(key);
+        } else if (preference != null) {
             preference.put(null);
         }
     }
@@ -399,13 +566,92 @@ public final class PreferenceDataStore {
         synchronized (preferences) {
             Preference preference = preferences.get(key);
             if (preference == null) {
-                preference = new Preference(key, null);
+                String value = deferredKeys.remove(key) ? loadDeferredValue(key) : null;
+                preference = new Preference(key, value);
                 preferences.put(key, preference);
             }
             return preference;
         }
     }
 
+    /**
+     * Preference load timings.
+     */
+    public static final class LoadStats {
+
+        private final long preloadTimeMs;
+        private final int loadedCount;
+        private final int deferredCount;
+        private final long deferredLoadTimeMs;
+        private final int deferredLoadCount;
+
+        LoadStats(long preloadTimeMs, int loadedCount, int deferredCount, long deferredLoadTimeMs, int deferredLoadCount) {
+            this.preloadTimeMs = preloadTimeMs;
+            this.loadedCount = loadedCount;
+            this.deferredCount = deferredCount;
+            this.deferredLoadTimeMs = deferredLoadTimeMs;
+            this.deferredLoadCount = deferredLoadCount;
+        }
+
+        /**
+         * Time spent loading the short values when the store was created.
+         *
+         * @return The time in milliseconds.
+         */
+        public long getPreloadTimeMs() {
+            return preloadTimeMs;
+        }
+
+        /**
+         * Number of preferences in memory.
+         *
+         * @return The count.
+         */
+        public int getLoadedCount() {
+            return loadedCount;
+        }
+
+        /**
+         * Number of stored preferences that have not been read yet.
+         *
+         * @return The count.
+         */
+        public int getDeferredCount() {
+            return deferredCount;
+        }
+
+        /**
+         * Time spent reading deferred values on first access.
+         *
+         * @return The time in milliseconds.
+         */
+        public long getDeferredLoadTimeMs() {
+            return deferredLoadTimeMs;
+        }
+
+        /**
+         * Number of deferred values read on first access.
+         *
+         * @return The count.
+         */
+        public int getDeferredLoadCount() {
+            return deferredLoadCount;
+        }
+
+        @NonNull
+        @Override
+        public String toString() {
+            return "LoadStats{" +
+                    "preloadTimeMs=" + preloadTimeMs +
+                    ", loadedCount=" + loadedCount +
+                    ", deferredCount=" + deferredCount +
+                    ", deferredLoadTimeMs=" + deferredLoadTimeMs +
+                    ", deferredLoadCount=" + deferredLoadCount +
+                    '}';
+        }
+
+    }
+
     /**
      * A helper class that handles fetching, writing, and syncing with the
      * preference provider.
@@ -438,12 +684,7 @@ public final class PreferenceDataStore {
          */
         void put(final String value) {
             if (setValue(value)) {
-                executor.execute(new Runnable() {
-                    @Override
-                    public void run() {
-                        writeValue(value);
-                    }
-                });
+                markDirty(this);
             }
         }
 
@@ -457,12 +698,14 @@ public final class PreferenceDataStore {
          * the database, otherwise <code>false</code>
          */
         boolean putSync(String value) {
-            synchronized (this) {
-                if (writeValue(value)) {
-                    setValue(value);
-                    return true;
+            synchronized (flushLock) {
+                synchronized (this) {
+                    if (writeValue(value)) {
+                        setValue(value);
+                        return true;
+                    }
+                    return false;
                 }
-                return false;
             }
         }
 
@@ -26,8 +26,11 @@ import com.urbanairship.config.AirshipRuntimeConfig;
 import com.urbanairship.config.AirshipUrlConfig;
 import com.urbanairship.config.RemoteAirshipUrlConfigProvider;
 import com.urbanairship.contacts.Contact;
+import com.urbanairship.http.Request;
 import com.urbanairship.images.DefaultImageLoader;
 import com.urbanairship.images.ImageLoader;
+import com.urbanairship.job.JobDispatcher;
+import com.urbanairship.job.JobMetrics;
 import com.urbanairship.js.UrlAllowList;
 import com.urbanairship.locale.LocaleManager;
 import com.urbanairship.modules.Module;
@@ -50,6 +53,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 import androidx.annotation.IntDef;
 import androidx.annotation.MainThread;
@@ -153,6 +157,7 @@ public class UAirship {
     PrivacyManager privacyManager;
     Contact contact;
     PermissionsManager permissionsManager;
+    JobMetrics jobMetrics;
 
     /**
      * Constructs an instance of UAirship.
@@ -409,6 +414,8 @@ public class UAirship {
         Logger.info("UA Version: %s / App key = %s Production = %s", getVersion(), options.appKey, options.inProduction);
         Logger.verbose(BuildConfig.SDK_VERSION);
 
+        Request.setDefaultTransport(options.requestTransport);
+
         sharedAirship = new UAirship(options);
 
         synchronized (airshipLock) {
@@ -702,6 +709,11 @@ public class UAirship {
         this.privacyManager = new PrivacyManager(preferenceDataStore, airshipConfigOptions.enabledFeatures);
         this.privacyManager.migrateData();
 
+        JobDispatcher jobDispatcher = JobDispatcher.shared(application);
+        this.jobMetrics = jobDispatcher.getMetrics();
+        jobDispatcher.setInProcessDispatchEnabled(airshipConfigOptions.inProcessJobsEnabled);
+        jobDispatcher.setCoalescingWindow(airshipConfigOptions.jobCoalescingWindowMs, TimeUnit.MILLISECONDS);
+
 
         this.permissionsManager = PermissionsManager.newPermissionsManager(application);
 
@@ -799,6 +811,8 @@ public class UAirship {
         for (AirshipComponent component : components) {
             component.init();
         }
+
+        Logger.debug("Preferences loaded during takeOff: %s", preferenceDataStore.getLoadStats());
     }
 
     private void processModule(@Nullable Module module) {
@@ -916,6 +930,17 @@ public class UAirship {
         return applicationMetrics;
     }
 
+    /**
+     * Returns the {@link JobMetrics} instance. Add a {@link JobMetrics.Listener} to receive
+     * background job starts, results, rate limit deferrals and reschedules.
+     *
+     * @return The {@link JobMetrics} instance.
+     */
+    @NonNull
+    public JobMetrics getJobMetrics() {
+        return jobMetrics;
+    }
+
     /**
      * The URL allow list is used to determine if a URL is allowed to be used for various features, including:
      * Airship JS interface, open external URL action, wallet action, HTML in-app messages, and landing pages.
@@ -122,8 +122,7 @@ public abstract class Event {
         JsonMap data = getEventData();
 
         // Copy the event data and add the session id
-        data = JsonMap.newBuilder()
-                      .putAll(data)
+        data = JsonMap.newBuilder(data)
                       .put(SESSION_ID_KEY, sessionId)
                       .build();
 
@@ -24,7 +24,7 @@ import androidx.sqlite.db.SupportSQLiteOpenHelper;
  * Analytics database.
  */
 @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
-@Database(entities = { EventEntity.class }, version = 3)
+@Database(entities = { EventEntity.class }, version = 5)
 @TypeConverters({ JsonTypeConverters.class })
 public abstract class AnalyticsDatabase extends RoomDatabase {
 
@@ -110,6 +110,34 @@ public abstract class AnalyticsDatabase extends RoomDatabase {
         }
     };
 
+    static final Migration MIGRATION_3_4 = new Migration(3, 4) {
+        private static final String TABLE_NAME = "events";
+
+        private static final String PRIORITY = "priority";
+        private static final String INDEX_PRIORITY = "index_events_priority";
+
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            // Existing events go in the normal priority lane.
+            db.execSQL("ALTER TABLE " + TABLE_NAME + " ADD COLUMN " + PRIORITY + " INTEGER NOT NULL DEFAULT 1");
+            db.execSQL("CREATE INDEX IF NOT EXISTS `" + INDEX_PRIORITY + "` "
+                + "ON `" + TABLE_NAME + "` (`" + PRIORITY + "`)");
+        }
+    };
+
+    static final Migration MIGRATION_4_5 = new Migration(4, 5) {
+        private static final String TABLE_NAME = "events";
+
+        private static final String SESSION_ID = "sessionId";
+        private static final String INDEX_SESSION_ID = "index_events_sessionId";
+
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("CREATE INDEX IF NOT EXISTS `" + INDEX_SESSION_ID + "` "
+                + "ON `" + TABLE_NAME + "` (`" + SESSION_ID + "`)");
+        }
+    };
+
     public static AnalyticsDatabase createDatabase(@NonNull Context context, @NonNull AirshipRuntimeConfig config) {
         // Attempt to migrate an existing analytics db by moving it to the new location. The 1 -> 2
         // migration will handle updating the events schema and records when it runs.
@@ -118,7 +146,9 @@ public abstract class AnalyticsDatabase extends RoomDatabase {
         return Room.databaseBuilder(context, AnalyticsDatabase.class, path)
                    .addMigrations(
                        MIGRATION_1_2,
-                       MIGRATION_2_3
+                       MIGRATION_2_3,
+                       MIGRATION_3_4,
+                       MIGRATION_4_5
                    )
                    .fallbackToDestructiveMigrationOnDowngrade()
                    .build();
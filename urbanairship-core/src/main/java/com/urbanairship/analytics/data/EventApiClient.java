@@ -7,6 +7,7 @@ import android.net.Uri;
 import com.urbanairship.Logger;
 import com.urbanairship.config.AirshipRuntimeConfig;
 import com.urbanairship.http.Request;
+import com.urbanairship.http.RequestBodyWriter;
 import com.urbanairship.http.RequestException;
 import com.urbanairship.http.RequestFactory;
 import com.urbanairship.http.Response;
@@ -68,23 +69,49 @@ public class EventApiClient {
     Response<EventResponse> sendEvents(@NonNull List<JsonValue> events,
                                        @NonNull @Size(min=1) Map<String, String> headers) throws RequestException {
 
+        String payload = JsonValue.wrapOpt(events).toString();
+        Request request = createRequest(headers).setRequestBody(payload, "application/json");
+
+        Logger.debug("Sending analytics events. Request: %s Events: %s", request, events);
+        return execute(request);
+    }
+
+    /**
+     * Sends a batch of events by streaming the JSON array to the connection.
+     *
+     * @param events The events body writer. Must write a JSON array of events.
+     * @param headers Headers
+     * @return eventResponse
+     */
+    @NonNull
+    Response<EventResponse> sendEvents(@NonNull RequestBodyWriter events,
+                                       @NonNull @Size(min=1) Map<String, String> headers) throws RequestException {
+
+        Request request = createRequest(headers).setRequestBody(events, "application/json");
+
+        Logger.debug("Sending analytics events. Request: %s Events: %s", request, events);
+        return execute(request);
+    }
+
+    @NonNull
+    private Request createRequest(@NonNull Map<String, String> headers) {
         Uri url = runtimeConfig.getUrlConfig()
                                .analyticsUrl()
                                .appendEncodedPath(WARP9_PATH)
                                .build();
 
-        String payload = JsonValue.wrapOpt(events).toString();
         double sentAt = System.currentTimeMillis() / 1000.0;
 
-        Request request = requestFactory.createRequest()
-                                        .setOperation("POST", url)
-                                        .setRequestBody(payload, "application/json")
-                                        .setCompressRequestBody(true)
-                                        .setHeader("X-UA-Sent-At", String.format(Locale.US, "%.3f", sentAt))
-                                        .setAirshipUserAgent(runtimeConfig)
-                                        .addHeaders(headers);
+        return requestFactory.createRequest()
+                             .setOperation("POST", url)
+                             .setCompressRequestBody(true)
+                             .setHeader("X-UA-Sent-At", String.format(Locale.US, "%.3f", sentAt))
+                             .setAirshipUserAgent(runtimeConfig)
+                             .addHeaders(headers);
+    }
 
-        Logger.debug("Sending analytics events. Request: %s Events: %s", request, events);
+    @NonNull
+    private Response<EventResponse> execute(@NonNull Request request) throws RequestException {
         Response<EventResponse> response = request.execute(new ResponseParser<EventResponse>() {
             @Override
             public EventResponse parseResponse(int status, @Nullable Map<String, List<String>> headers, @Nullable String responseBody) {
@@ -0,0 +1,98 @@
+/* Copyright Airship and Contributors */
+
+package com.urbanairship.analytics.data;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.RestrictTo;
+
+/**
+ * A batch of stored events assembled across priority lanes.
+ * <p>
+ * Each lane contributes its oldest events up to a max row ID. Events inserted after the batch was
+ * assembled always have a greater row ID, so the batch stays stable while it is uploaded and can
+ * be deleted afterwards with one range delete per lane.
+ *
+ * @hide
+ */
+@RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+public class EventBatch {
+
+    /**
+     * The events of a single lane in the batch.
+     */
+    public static class Lane {
+
+        public final int priority;
+        public final int maxId;
+        public final int count;
+        public final int size;
+
+        Lane(int priority, int maxId, int count, int size) {
+            this.priority = priority;
+            this.maxId = maxId;
+            this.count = count;
+            this.size = size;
+        }
+
+        @NonNull
+        @Override
+        public String toString() {
+            return "Lane{" +
+                    "priority=" + priority +
+                    ", maxId=" + maxId +
+                    ", count=" + count +
+                    ", size=" + size +
+                    '}';
+        }
+
+    }
+
+    private final List<Lane> lanes = new ArrayList<>();
+    private int count;
+
+    void add(int priority, int maxId, int count, int size) {
+        lanes.add(new Lane(priority, maxId, count, size));
+        this.count += count;
+    }
+
+    /**
+     * Gets the lanes in upload order.
+     *
+     * @return The lanes.
+     */
+    @NonNull
+    public List<Lane> getLanes() {
+        return Collections.unmodifiableList(lanes);
+    }
+
+    /**
+     * Gets the number of events in the batch.
+     *
+     * @return The event count.
+     */
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * Checks if the batch is empty.
+     *
+     * @return {@code true} if the batch has no events, otherwise {@code false}.
+     */
+    public boolean isEmpty() {
+        return count == 0;
+    }
+
+    @NonNull
+    @Override
+    public String toString() {
+        return "EventBatch{" +
+                "lanes=" + lanes +
+                '}';
+    }
+
+}
@@ -0,0 +1,73 @@
+/* Copyright Airship and Contributors */
+
+package com.urbanairship.analytics.data;
+
+import android.database.Cursor;
+
+import com.urbanairship.http.RequestBodyWriter;
+
+import java.io.IOException;
+import java.io.Writer;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Streams a batch of stored events as a JSON array. Rows are read one at a time from
+ * the event database, lane by lane in the batch's upload order, and their stored JSON
+ * is written as-is, so the batch is never held in memory as a whole.
+ */
+class EventBatchBodyWriter implements RequestBodyWriter {
+
+    private final EventDao eventDao;
+    private final EventBatch batch;
+
+    /**
+     * Default constructor.
+     *
+     * @param eventDao The event DAO.
+     * @param batch The batch.
+     */
+    EventBatchBodyWriter(@NonNull EventDao eventDao, @NonNull EventBatch batch) {
+        this.eventDao = eventDao;
+        this.batch = batch;
+    }
+
+    @Override
+    public void writeTo(@NonNull Writer writer) throws IOException {
+        writer.write('[');
+
+        boolean first = true;
+        for (EventBatch.Lane lane : batch.getLanes()) {
+            Cursor cursor = eventDao.getBatchData(lane.priority, lane.maxId);
+            if (cursor == null) {
+                continue;
+            }
+
+            try {
+                while (cursor.moveToNext()) {
+                    if (cursor.isNull(0)) {
+                        continue;
+                    }
+
+                    if (!first) {
+                        writer.write(',');
+                    }
+
+                    writer.write(cursor.getString(0));
+                    first = false;
+                }
+            } finally {
+                cursor.close();
+            }
+        }
+
+        writer.write(']');
+    }
+
+    @NonNull
+    @Override
+    public String toString() {
+        return "EventBatchBodyWriter{batch=" + batch + '}';
+    }
+
+}
@@ -1,10 +1,14 @@
 package com.urbanairship.analytics.data;
 
+import android.database.Cursor;
+
 import com.urbanairship.Logger;
+import com.urbanairship.analytics.Event;
 import com.urbanairship.util.UAStringUtil;
 
 import java.util.List;
 
+import androidx.annotation.NonNull;
 import androidx.annotation.RestrictTo;
 import androidx.room.Dao;
 import androidx.room.Delete;
@@ -20,60 +24,212 @@ import androidx.room.Transaction;
 @Dao
 public abstract class EventDao {
 
+    /**
+     * Priority lanes in upload order. Trimming drops events in the reverse order.
+     */
+    private static final int[] LANES = { Event.HIGH_PRIORITY, Event.NORMAL_PRIORITY, Event.LOW_PRIORITY };
+
+    /**
+     * Running total of the stored event sizes, or -1 if it has to be summed from the table.
+     */
+    private final Object sizeLock = new Object();
+    private int cachedDatabaseSize = -1;
+
     @Insert(onConflict = OnConflictStrategy.REPLACE)
-    public abstract void insert(EventEntity event);
+    abstract void insertEvent(EventEntity event);
+
+    @Query("SELECT eventSize FROM events WHERE eventId = :eventId")
+    abstract Integer getEventSize(String eventId);
+
+    @Transaction
+    public void insert(EventEntity event) {
+        // An event with the same ID is replaced
+        Integer replacedSize = getEventSize(event.eventId);
+        insertEvent(event);
+        adjustDatabaseSize(event.eventSize - (replacedSize == null ? 0 : replacedSize));
+    }
 
     @Transaction
     @Query("SELECT * FROM events ORDER BY id ASC")
     public abstract List<EventEntity> get();
 
+    /**
+     * Gets the row ID of the last event in a batch of the given size within a priority lane.
+     *
+     * @param priority The lane priority.
+     * @param limit The batch size.
+     * @return The max row ID of the batch, or 0 if the lane has no events.
+     */
+    @Query("SELECT MAX(id) FROM (SELECT id FROM events WHERE priority = :priority ORDER BY id ASC LIMIT :limit)")
+    abstract int getBatchMaxId(int priority, int limit);
+
+    @Query("SELECT COUNT(*) FROM events WHERE priority = :priority AND id <= :maxId")
+    abstract int count(int priority, int maxId);
+
+    @Query("SELECT SUM(eventSize) FROM events WHERE priority = :priority AND id <= :maxId")
+    abstract int sumEventSize(int priority, int maxId);
+
+    /**
+     * Gets a cursor over the raw data of a priority lane's events up to and including the given
+     * row ID. The caller is responsible for closing the cursor.
+     *
+     * @param priority The lane priority.
+     * @param maxId The max row ID.
+     * @return A cursor with a single {@code data} column.
+     */
+    @Query("SELECT data FROM events WHERE priority = :priority AND id <= :maxId ORDER BY id ASC")
+    public abstract Cursor getBatchData(int priority, int maxId);
+
+    @Query("DELETE FROM events WHERE priority = :priority AND id <= :maxId")
+    abstract int deleteBatch(int priority, int maxId);
+
+    /**
+     * Assembles a batch of up to {@code limit} events. Lanes are filled in priority order, so
+     * high priority events are uploaded ahead of any backlog of lower priority events.
+     *
+     * @param limit The max number of events.
+     * @return The batch.
+     */
     @Transaction
-    @Query("SELECT id, eventId, data FROM events ORDER BY id ASC LIMIT :limit")
-    public abstract List<EventEntity.EventIdAndData> getBatch(int limit);
+    @NonNull
+    public EventBatch getLaneBatch(int limit) {
+        EventBatch batch = new EventBatch();
+        for (int priority : LANES) {
+            int remaining = limit - batch.getCount();
+            if (remaining <= 0) {
+                break;
+            }
 
-    @Transaction
-    public void deleteBatch(List<EventEntity.EventIdAndData> events) {
-        for (EventEntity.EventIdAndData event : events) {
-            delete(event.eventId);
+            int maxId = getBatchMaxId(priority, remaining);
+            if (maxId > 0) {
+                batch.add(priority, maxId, count(priority, maxId), sumEventSize(priority, maxId));
+            }
         }
+        return batch;
     }
 
-    @Query("DELETE FROM events WHERE eventId = :eventId")
-    abstract void delete(String eventId);
+    /**
+     * Deletes the events in the batch.
+     *
+     * @param batch The batch.
+     * @return The number of deleted events.
+     */
+    @Transaction
+    public int deleteBatch(@NonNull EventBatch batch) {
+        int deleted = 0;
+        boolean sizeChanged = false;
+        for (EventBatch.Lane lane : batch.getLanes()) {
+            int laneDeleted = deleteBatch(lane.priority, lane.maxId);
+            if (laneDeleted == lane.count) {
+                adjustDatabaseSize(-lane.size);
+            } else {
+                // The lane was trimmed or replaced since the batch was assembled
+                sizeChanged = true;
+            }
+            deleted += laneDeleted;
+        }
+
+        if (sizeChanged) {
+            invalidateDatabaseSize();
+        }
+        return deleted;
+    }
 
     @Delete()
-    public abstract void delete(EventEntity... events);
+    abstract void deleteEvents(EventEntity... events);
+
+    public void delete(EventEntity... events) {
+        deleteEvents(events);
+        invalidateDatabaseSize();
+    }
 
     @Query("DELETE FROM events")
-    public abstract void deleteAll();
+    abstract void deleteAllEvents();
+
+    public void deleteAll() {
+        deleteAllEvents();
+        synchronized (sizeLock) {
+            cachedDatabaseSize = 0;
+        }
+    }
 
     @Query("SELECT COUNT(*) FROM events")
     public abstract int count();
 
     @Query("SELECT SUM(eventSize) FROM events")
-    public abstract int databaseSize();
+    abstract int sumEventSize();
+
+    /**
+     * Gets the total size of the stored events. The total is summed from the table once and then
+     * kept up to date by the inserts and deletes made through this DAO.
+     *
+     * @return The size in bytes.
+     */
+    public int databaseSize() {
+        synchronized (sizeLock) {
+            if (cachedDatabaseSize < 0) {
+                cachedDatabaseSize = sumEventSize();
+            }
+            return cachedDatabaseSize;
+        }
+    }
+
+    private void adjustDatabaseSize(int delta) {
+        synchronized (sizeLock) {
+            if (cachedDatabaseSize >= 0) {
+                cachedDatabaseSize += delta;
+            }
+        }
+    }
+
+    private void invalidateDatabaseSize() {
+        synchronized (sizeLock) {
+            cachedDatabaseSize = -1;
+        }
+    }
+
+    @Query("SELECT sessionId FROM events WHERE priority = :priority ORDER BY id ASC LIMIT 1")
+    abstract String oldestSessionId(int priority);
 
-    @Query("SELECT sessionId FROM events ORDER BY id ASC LIMIT 1")
-    abstract String oldestSessionId();
+    @Query("SELECT SUM(eventSize) FROM events WHERE priority = :priority AND sessionId = :sessionId")
+    abstract int sessionSize(int priority, String sessionId);
 
-    @Query("DELETE FROM events WHERE sessionId = :sessionId")
-    abstract int deleteSession(String sessionId);
+    @Query("DELETE FROM events WHERE priority = :priority AND sessionId = :sessionId")
+    abstract int deleteSession(int priority, String sessionId);
 
+    /**
+     * Deletes the oldest sessions until the database is under the max size. The lowest priority
+     * lane is emptied first, so high priority events are the last to be dropped.
+     *
+     * @param maxDatabaseSize The max database size in bytes.
+     */
     @Transaction
     public void trimDatabase(int maxDatabaseSize) {
-        while (databaseSize() > maxDatabaseSize) {
-            String sessionId = oldestSessionId();
-            if (UAStringUtil.isEmpty(sessionId)) {
-                return;
-            }
+        int size = databaseSize();
+        if (size <= maxDatabaseSize) {
+            return;
+        }
+
+        for (int i = LANES.length - 1; i >= 0 && size > maxDatabaseSize; i--) {
+            int priority = LANES[i];
+            while (size > maxDatabaseSize) {
+                String sessionId = oldestSessionId(priority);
+                if (UAStringUtil.isEmpty(sessionId)) {
+                    break;
+                }
+
+                Logger.debug("Event database size exceeded. Deleting oldest session: %s priority: %s", sessionId, priority);
 
-            Logger.debug("Event database size exceeded. Deleting oldest session: %s", sessionId);
+                int sessionSize = sessionSize(priority, sessionId);
+                int deleted = deleteSession(priority, sessionId);
+                Logger.debug("Deleted %d rows with session ID %s", deleted, sessionId);
 
-            int deleted = deleteSession(sessionId);
-            Logger.debug("Deleted %d rows with session ID %s", deleted, sessionId);
+                if (deleted == 0) {
+                    break;
+                }
 
-            if (deleted == 0) {
-                return;
+                size -= sessionSize;
+                adjustDatabaseSize(-sessionSize);
             }
         }
     }
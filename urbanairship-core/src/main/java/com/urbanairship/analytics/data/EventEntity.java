@@ -9,6 +9,7 @@ import java.nio.charset.StandardCharsets;
 import androidx.annotation.NonNull;
 import androidx.annotation.RestrictTo;
 import androidx.core.util.ObjectsCompat;
+import androidx.room.ColumnInfo;
 import androidx.room.Entity;
 import androidx.room.Ignore;
 import androidx.room.Index;
@@ -20,7 +21,9 @@ import androidx.room.PrimaryKey;
  * @hide
  */
 @Entity(tableName = "events", indices = {
-    @Index(value = { "eventId" }, unique = true)
+    @Index(value = { "eventId" }, unique = true),
+    @Index(value = { "priority" }),
+    @Index(value = { "sessionId" })
 })
 @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
 public class EventEntity {
@@ -35,13 +38,20 @@ public class EventEntity {
     public String sessionId;
     public int eventSize;
 
-    EventEntity(String type, String eventId, String time, JsonValue data, String sessionId, int eventSize) {
+    /**
+     * The event's priority lane, one of the {@link Event} priorities.
+     */
+    @ColumnInfo(defaultValue = "1")
+    public int priority;
+
+    EventEntity(String type, String eventId, String time, JsonValue data, String sessionId, int eventSize, int priority) {
         this.type = type;
         this.eventId = eventId;
         this.time = time;
         this.data = data;
         this.sessionId = sessionId;
         this.eventSize = eventSize;
+        this.priority = priority;
     }
 
     public static EventEntity create(@NonNull Event event, @NonNull String sessionId) throws JsonException {
@@ -54,7 +64,8 @@ public class EventEntity {
                 event.getTime(),
                 json,
                 sessionId,
-                payload.getBytes(StandardCharsets.UTF_8).length
+                payload.getBytes(StandardCharsets.UTF_8).length,
+                event.getPriority()
         );
     }
 
@@ -69,6 +80,7 @@ public class EventEntity {
                 ", data='" + data.toString() + '\'' +
                 ", sessionId='" + sessionId + '\'' +
                 ", eventSize=" + eventSize +
+                ", priority=" + priority +
                 '}';
     }
 
@@ -79,6 +91,7 @@ public class EventEntity {
         EventEntity entity = (EventEntity) o;
         return id == entity.id &&
                 eventSize == entity.eventSize &&
+                priority == entity.priority &&
                 ObjectsCompat.equals(type, entity.type) &&
                 ObjectsCompat.equals(eventId, entity.eventId) &&
                 ObjectsCompat.equals(time, entity.time) &&
@@ -88,7 +101,7 @@ public class EventEntity {
 
     @Override
     public int hashCode() {
-        return ObjectsCompat.hash(id, type, eventId, time, data, sessionId, eventSize);
+        return ObjectsCompat.hash(id, type, eventId, time, data, sessionId, eventSize, priority);
     }
 
     public boolean contentEquals(Object o) {
@@ -96,25 +109,11 @@ public class EventEntity {
         if (o == null || getClass() != o.getClass()) return false;
         EventEntity entity = (EventEntity) o;
         return eventSize == entity.eventSize &&
+                priority == entity.priority &&
                 ObjectsCompat.equals(type, entity.type) &&
                 ObjectsCompat.equals(eventId, entity.eventId) &&
                 ObjectsCompat.equals(time, entity.time) &&
                 ObjectsCompat.equals(data, entity.data) &&
                 ObjectsCompat.equals(sessionId, entity.sessionId);
     }
-
-    /**
-     * Minimal wrapper for queries that only need to return the event ID and data fields.
-     */
-    public static class EventIdAndData {
-        public int id;
-        public String eventId;
-        public JsonValue data;
-
-        public EventIdAndData(int id, String eventId, JsonValue data) {
-            this.id = id;
-            this.eventId = eventId;
-            this.data = data;
-        }
-    }
 }
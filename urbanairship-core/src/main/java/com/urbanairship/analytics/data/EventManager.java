@@ -14,10 +14,7 @@ import com.urbanairship.http.Response;
 import com.urbanairship.job.JobDispatcher;
 import com.urbanairship.job.JobInfo;
 import com.urbanairship.json.JsonException;
-import com.urbanairship.json.JsonValue;
 
-import java.util.ArrayList;
-import java.util.List;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
@@ -232,7 +229,7 @@ public class EventManager {
         }
 
         int eventCount;
-        List<EventEntity.EventIdAndData> events;
+        EventBatch batch;
 
         synchronized (eventLock) {
             eventCount = eventDao.count();
@@ -246,29 +243,26 @@ public class EventManager {
 
             //pull enough events to fill a batch (roughly)
             int batchEventCount = Math.min(MAX_BATCH_EVENT_COUNT, preferenceDataStore.getInt(MAX_BATCH_SIZE_KEY, EventResponse.MAX_BATCH_SIZE_BYTES) / avgSize);
-            events = eventDao.getBatch(batchEventCount);
+            batch = eventDao.getLaneBatch(batchEventCount);
         }
 
-        if (events.isEmpty()) {
+        if (batch.isEmpty()) {
             Logger.verbose("No analytics events to send.");
             return false;
         }
 
-        List<JsonValue> eventPayloads = new ArrayList<>(events.size());
-        for (EventEntity.EventIdAndData event : events) {
-            eventPayloads.add(event.data);
-        }
-
         try {
-            Response<EventResponse> response = apiClient.sendEvents(eventPayloads, headers);
+            // Stream the batch straight from the database to the connection
+            Response<EventResponse> response = apiClient.sendEvents(new EventBatchBodyWriter(eventDao, batch), headers);
             if (!response.isSuccessful()) {
                 Logger.debug("Analytic upload failed.");
                 return false;
             }
 
             Logger.debug("Analytic events uploaded.");
+            int deleted;
             synchronized (eventLock) {
-                eventDao.deleteBatch(events);
+                deleted = eventDao.deleteBatch(batch);
             }
 
             // Update preferences
@@ -277,7 +271,7 @@ public class EventManager {
             preferenceDataStore.put(MIN_BATCH_INTERVAL_KEY, response.getResult().getMinBatchInterval());
 
             // If there are still events left, schedule the next send
-            if (eventCount - events.size() > 0) {
+            if (eventCount - deleted > 0) {
                 scheduleEventUpload(MULTIPLE_BATCH_DELAY, TimeUnit.MILLISECONDS);
             }
 
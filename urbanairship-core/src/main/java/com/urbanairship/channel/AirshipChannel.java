@@ -48,7 +48,9 @@ import java.util.Locale;
 import java.util.Set;
 import java.util.TimeZone;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
 
 /**
  * Airship channel access.
@@ -66,6 +68,11 @@ public class AirshipChannel extends AirshipComponent {
      */
     private static final String ACTION_UPDATE_CHANNEL = "ACTION_UPDATE_CHANNEL";
 
+    /**
+     * Action to upload pending tag group, attribute and subscription list mutations.
+     */
+    private static final String ACTION_UPLOAD_PENDING_MUTATIONS = "ACTION_UPLOAD_PENDING_MUTATIONS";
+
     /**
      * Extra to force a full channel registration update.
      */
@@ -290,9 +297,27 @@ public class AirshipChannel extends AirshipComponent {
             return onUpdateChannel(forceFullUpdate);
         }
 
+        if (ACTION_UPLOAD_PENDING_MUTATIONS.equals(jobInfo.getAction())) {
+            return onUploadPendingMutations();
+        }
+
         return JobResult.SUCCESS;
     }
 
+    /**
+     * Channel registration and the mutation uploads use different endpoints and the uploads only
+     * need a channel ID, so each action gets its own ordering key. A slow tag group upload will not
+     * hold up channel registration.
+     *
+     * @hide
+     */
+    @Nullable
+    @Override
+    @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+    protected String getJobOrderingKey(@NonNull JobInfo jobInfo) {
+        return jobInfo.getAction();
+    }
+
     /**
      * @hide
      */
@@ -821,6 +846,9 @@ public class AirshipChannel extends AirshipComponent {
     private void setLastRegistrationPayload(ChannelRegistrationPayload channelPayload) {
         getDataStore().put(LAST_REGISTRATION_PAYLOAD_KEY, channelPayload);
         getDataStore().put(LAST_REGISTRATION_TIME_KEY, System.currentTimeMillis());
+
+        // Commit now, along with any new channel ID, so a restart does not register again
+        getDataStore().flush();
     }
 
     /**
@@ -927,24 +955,49 @@ public class AirshipChannel extends AirshipComponent {
         String channelId = getId();
         // Create or Update Channel Registration
         JobResult result = channelId == null ? onCreateChannel() : updateChannelRegistration(channelId, forceFullUpdate);
-        if (result != JobResult.SUCCESS) {
-            return result;
-        } else {
-            channelId = getId();
-            if (channelId != null && privacyManager.isEnabled(PrivacyManager.FEATURE_TAGS_AND_ATTRIBUTES)) {
-                // Update tag groups, attributes, and subscription lists
-                boolean attributeResult = attributeRegistrar.uploadPendingMutations();
-                boolean tagResult = tagGroupRegistrar.uploadPendingMutations();
-                boolean subscriptionListResult = subscriptionListRegistrar.uploadPendingMutations();
-
-                if (!attributeResult || !tagResult || !subscriptionListResult) {
-                    return JobResult.RETRY;
-                }
-            }
+        if (result == JobResult.SUCCESS && getId() != null && privacyManager.isEnabled(PrivacyManager.FEATURE_TAGS_AND_ATTRIBUTES)) {
+            // Tag groups, attributes, and subscription lists upload in their own job
+            dispatchUploadJob();
+        }
+        return result;
+    }
+
+    /**
+     * Handles the pending mutations upload job.
+     *
+     * @return The job result.
+     */
+    @WorkerThread
+    @NonNull
+    private JobResult onUploadPendingMutations() {
+        if (!isComponentEnabled() || getId() == null || !privacyManager.isEnabled(PrivacyManager.FEATURE_TAGS_AND_ATTRIBUTES)) {
+            return JobResult.SUCCESS;
+        }
+
+        // Each uses its own endpoint so the attribute and subscription list uploads run alongside
+        // the tag group upload.
+        Future<Boolean> attributeResult = AirshipExecutors.threadPoolExecutor().submit(attributeRegistrar::uploadPendingMutations);
+        Future<Boolean> subscriptionListResult = AirshipExecutors.threadPoolExecutor().submit(subscriptionListRegistrar::uploadPendingMutations);
+        boolean tagResult = tagGroupRegistrar.uploadPendingMutations();
+
+        if (!getUploadResult(attributeResult) || !tagResult || !getUploadResult(subscriptionListResult)) {
+            return JobResult.RETRY;
         }
         return JobResult.SUCCESS;
     }
 
+    private boolean getUploadResult(@NonNull Future<Boolean> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            Logger.error(e, "Interrupted while uploading pending mutations");
+        } catch (ExecutionException e) {
+            Logger.error(e, "Failed to upload pending mutations");
+        }
+        return false;
+    }
+
     /**
      * Handles Channel Registration update.
      *
@@ -1036,6 +1089,21 @@ public class AirshipChannel extends AirshipComponent {
         jobDispatcher.dispatch(jobInfo);
     }
 
+    /**
+     * Dispatches a job to upload pending mutations. Uses {@link JobInfo#REPLACE} so mutations added
+     * while an upload is running are picked up by a new run.
+     */
+    private void dispatchUploadJob() {
+        JobInfo jobInfo = JobInfo.newBuilder()
+                                 .setAction(ACTION_UPLOAD_PENDING_MUTATIONS)
+                                 .setNetworkAccessRequired(true)
+                                 .setAirshipComponent(AirshipChannel.class)
+                                 .setConflictStrategy(JobInfo.REPLACE)
+                                 .build();
+
+        jobDispatcher.dispatch(jobInfo);
+    }
+
     /**
      * @hide
      */
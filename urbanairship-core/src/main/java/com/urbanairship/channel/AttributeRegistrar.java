@@ -42,47 +42,56 @@ class AttributeRegistrar {
         }
     }
 
+    /**
+     * Uploads all pending mutations. Mutations that were added while a request was in flight are
+     * collapsed and uploaded in a following request.
+     *
+     * @return {@code true} if all mutations were uploaded or dropped, {@code false} if the upload should be retried.
+     */
     boolean uploadPendingMutations() {
-        List<AttributeMutation> mutations;
-        String identifier;
-        synchronized (idLock) {
-            mutationStore.collapseAndSaveMutations();
-            mutations = mutationStore.peek();
-            identifier = this.identifier;
-        }
+        while (true) {
+            List<AttributeMutation> mutations;
+            String identifier;
+            synchronized (idLock) {
+                mutationStore.collapseAndSaveMutations();
+                mutations = mutationStore.peek();
+                identifier = this.identifier;
+            }
 
-        if (identifier == null || mutations == null || mutations.isEmpty()) {
-            return true;
-        }
+            if (identifier == null || mutations == null || mutations.isEmpty()) {
+                return true;
+            }
 
-        Response<Void> response;
-        try {
-            response = apiClient.updateAttributes(identifier, mutations);
-        } catch (RequestException e) {
-            Logger.debug(e, "Failed to update attributes");
-            return false;
-        }
+            Response<Void> response;
+            try {
+                response = apiClient.updateAttributes(identifier, mutations);
+            } catch (RequestException e) {
+                Logger.debug(e, "Failed to update attributes");
+                return false;
+            }
 
-        Logger.debug("Updated attributes response: %s", response);
-        if (response.isServerError() || response.isTooManyRequestsError()) {
-            return false;
-        }
+            Logger.debug("Updated attributes response: %s", response);
+            if (response.isServerError() || response.isTooManyRequestsError()) {
+                return false;
+            }
 
-        if (response.isClientError()) {
-            Logger.error("Dropping attributes %s due to error: %s message: %s", mutations, response.getStatus(), response.getResponseBody());
-        } else {
-            for (AttributeListener listener : attributeListeners) {
-                listener.onAttributeMutationsUploaded(mutations);
+            if (response.isClientError()) {
+                Logger.error("Dropping attributes %s due to error: %s message: %s", mutations, response.getStatus(), response.getResponseBody());
+            } else {
+                for (AttributeListener listener : attributeListeners) {
+                    listener.onAttributeMutationsUploaded(mutations);
+                }
             }
-        }
 
-        synchronized (idLock) {
-            if (mutations.equals(mutationStore.peek()) && identifier.equals(this.identifier)) {
-                mutationStore.pop();
+            synchronized (idLock) {
+                if (mutations.equals(mutationStore.peek()) && identifier.equals(this.identifier)) {
+                    mutationStore.pop();
+                } else {
+                    // The store changed underneath the upload, avoid resending the same mutations
+                    return true;
+                }
             }
         }
-
-        return true;
     }
 
     void clearPendingMutations() {
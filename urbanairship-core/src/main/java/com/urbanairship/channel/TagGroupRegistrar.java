@@ -41,47 +41,64 @@ class TagGroupRegistrar {
         }
     }
 
+    /**
+     * Uploads all pending mutations. Pending mutations are collapsed once per batch and every
+     * request from the batch is sent before the store is collapsed again to pick up any mutations
+     * that were added during the upload.
+     *
+     * @return {@code true} if all mutations were uploaded or dropped, {@code false} if the upload should be retried.
+     */
     boolean uploadPendingMutations() {
         while (true) {
-            TagGroupsMutation mutation;
+            List<TagGroupsMutation> mutations;
             String identifier;
             synchronized (idLock) {
                 pendingTagGroupMutationStore.collapseAndSaveMutations();
-                mutation = pendingTagGroupMutationStore.peek();
+                mutations = pendingTagGroupMutationStore.getList();
                 identifier = this.identifier;
             }
 
-            if (UAStringUtil.isEmpty(identifier) || mutation == null) {
+            if (UAStringUtil.isEmpty(identifier) || mutations.isEmpty()) {
                 return true;
             }
 
-            Response<Void> response;
-            try {
-                response = apiClient.updateTags(identifier, mutation);
-            } catch (RequestException e) {
-                Logger.debug(e, "Failed to update tag groups");
-                return false;
+            for (TagGroupsMutation mutation : mutations) {
+                if (!uploadMutation(identifier, mutation)) {
+                    return false;
+                }
             }
+        }
+    }
 
-            Logger.debug("Updated tag group response: %s", response);
-            if (response.isServerError() || response.isTooManyRequestsError()) {
-                return false;
-            }
+    private boolean uploadMutation(@NonNull String identifier, @NonNull TagGroupsMutation mutation) {
+        Response<Void> response;
+        try {
+            response = apiClient.updateTags(identifier, mutation);
+        } catch (RequestException e) {
+            Logger.debug(e, "Failed to update tag groups");
+            return false;
+        }
 
-            if (response.isClientError()) {
-                Logger.error("Dropping tag group update %s due to error: %s message: %s", mutation, response.getStatus(), response.getResponseBody());
-            } else {
-                for (TagGroupListener listener : tagGroupListeners) {
-                    listener.onTagGroupsMutationUploaded(Collections.singletonList(mutation));
-                }
+        Logger.debug("Updated tag group response: %s", response);
+        if (response.isServerError() || response.isTooManyRequestsError()) {
+            return false;
+        }
+
+        if (response.isClientError()) {
+            Logger.error("Dropping tag group update %s due to error: %s message: %s", mutation, response.getStatus(), response.getResponseBody());
+        } else {
+            for (TagGroupListener listener : tagGroupListeners) {
+                listener.onTagGroupsMutationUploaded(Collections.singletonList(mutation));
             }
+        }
 
-            synchronized (idLock) {
-                if (mutation.equals(pendingTagGroupMutationStore.peek()) && identifier.equals(this.identifier)) {
-                    pendingTagGroupMutationStore.pop();
-                }
+        synchronized (idLock) {
+            if (mutation.equals(pendingTagGroupMutationStore.peek()) && identifier.equals(this.identifier)) {
+                pendingTagGroupMutationStore.pop();
             }
         }
+
+        return true;
     }
 
     void clearPendingMutations() {
@@ -41,6 +41,7 @@ import com.urbanairship.json.JsonException;
 import com.urbanairship.json.JsonValue;
 import com.urbanairship.util.CachedValue;
 import com.urbanairship.util.Clock;
+import com.urbanairship.util.JsonDataStoreQueue;
 import com.urbanairship.util.UAStringUtil;
 
 import java.util.ArrayList;
@@ -104,6 +105,7 @@ public class Contact extends AirshipComponent {
     private final CachedValue<Map<String, Set<Scope>>> subscriptionListCache;
     private final List<CachedValue<ScopedSubscriptionListMutation>> subscriptionListLocalHistory;
     private final Object operationLock = new Object();
+    private final JsonDataStoreQueue<ContactOperation> operationQueue;
     private final ContactApiClient contactApiClient;
     private boolean isContactIdRefreshed = false;
 
@@ -147,6 +149,14 @@ public class Contact extends AirshipComponent {
         this.subscriptionListCache = subscriptionListCache;
         this.subscriptionListLocalHistory = subscriptionListLocalHistory;
         this.executor = executor == null ? defaultExecutor : executor;
+        this.operationQueue = new JsonDataStoreQueue<>(preferenceDataStore, OPERATIONS_KEY, operation -> operation, json -> {
+            try {
+                return ContactOperation.fromJson(json);
+            } catch (JsonException e) {
+                Logger.error("Failed to parse contact operation", e);
+                return null;
+            }
+        });
     }
 
     @Override
@@ -512,42 +522,29 @@ public class Contact extends AirshipComponent {
 
     private void addOperation(@NonNull ContactOperation operation) {
         synchronized (operationLock) {
-            List<ContactOperation> operations = getOperations();
-            operations.add(operation);
-            storeOperations(operations);
+            operationQueue.add(operation);
         }
     }
 
     @NonNull
     private List<ContactOperation> getOperations() {
-        List<ContactOperation> operations = new ArrayList<>();
         synchronized (operationLock) {
-            for (JsonValue value : preferenceDataStore.getJsonValue(OPERATIONS_KEY).optList()) {
-                try {
-                    ContactOperation operation = ContactOperation.fromJson(value);
-                    operations.add(operation);
-                } catch (JsonException e) {
-                    Logger.error("Failed to parse contact operation", e);
-                }
-            }
+            return operationQueue.getList();
         }
-
-        return operations;
     }
 
     private void storeOperations(@NonNull List<ContactOperation> operations) {
         synchronized (operationLock) {
-            preferenceDataStore.put(OPERATIONS_KEY, JsonValue.wrapOpt(operations));
+            operationQueue.removeAll();
+            operationQueue.addAll(operations);
+            preferenceDataStore.flush();
         }
     }
 
     private void removeFirstOperation() {
         synchronized (operationLock) {
-            List<ContactOperation> operations = getOperations();
-            if (!operations.isEmpty()) {
-                operations.remove(0);
-                storeOperations(operations);
-            }
+            operationQueue.pop();
+            preferenceDataStore.flush();
         }
     }
 
@@ -646,7 +643,8 @@ public class Contact extends AirshipComponent {
         ContactOperation next = null;
 
         synchronized (operationLock) {
-            List<ContactOperation> operations = getOperations();
+            List<ContactOperation> storedOperations = getOperations();
+            List<ContactOperation> operations = new ArrayList<>(storedOperations);
 
             while (!operations.isEmpty()) {
                 ContactOperation first = operations.remove(0);
@@ -719,13 +717,15 @@ public class Contact extends AirshipComponent {
                 }
             }
 
+            List<ContactOperation> nextList = new ArrayList<>();
             if (next != null) {
-                ArrayList<ContactOperation> nextList = new ArrayList<>();
                 nextList.add(next);
-                nextList.addAll(operations);
+            }
+            nextList.addAll(operations);
+
+            // Only rewrite the queue if operations were skipped or collapsed
+            if (!nextList.equals(storedOperations)) {
                 storeOperations(nextList);
-            } else {
-                storeOperations(operations);
             }
         }
 
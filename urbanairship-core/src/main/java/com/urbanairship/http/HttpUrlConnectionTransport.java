@@ -0,0 +1,296 @@
+/* Copyright Airship and Contributors */
+
+package com.urbanairship.http;
+
+import com.urbanairship.Logger;
+import com.urbanairship.UAirship;
+import com.urbanairship.util.ConnectionUtils;
+
+import java.io.BufferedWriter;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.net.HttpURLConnection;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.RestrictTo;
+
+/**
+ * Default {@link RequestTransport} backed by {@link HttpURLConnection}.
+ * <p>
+ * Connections are not explicitly disconnected after a successful request. Instead the response
+ * is always read to the end and closed, which returns the underlying socket to the platform's
+ * per-host keep-alive pool so back-to-back requests to the same host skip the TLS handshake.
+ *
+ * @hide
+ */
+@RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+public class HttpUrlConnectionTransport implements RequestTransport {
+
+    private static final int NETWORK_TIMEOUT_MS = 60000;
+    private static final int BUFFER_SIZE = 8192;
+    private static final Charset DEFAULT_CHARSET = StandardCharsets.UTF_8;
+
+    @NonNull
+    @Override
+    public <T> Response<T> execute(@NonNull Request request, @NonNull ResponseParser<T> parser) throws RequestException {
+        HttpURLConnection conn = null;
+        try {
+            conn = connect(request);
+
+            Response.Builder<T> responseBuilder = new Response.Builder<T>(conn.getResponseCode())
+                    .setResponseHeaders(conn.getHeaderFields())
+                    .setLastModified(conn.getLastModified());
+
+            Charset charset = parseCharset(conn.getContentType());
+            String messageBody = readEntireStream(getResponseStream(conn), charset);
+
+            return responseBuilder.setResult(parser.parseResponse(conn.getResponseCode(), conn.getHeaderFields(), messageBody))
+                                  .setResponseBody(messageBody)
+                                  .build();
+        } catch (Exception e) {
+            throw handleFailure(request, conn, e);
+        }
+    }
+
+    @NonNull
+    @Override
+    public <T> Response<T> executeStreaming(@NonNull Request request, @NonNull StreamingResponseParser<T> parser) throws RequestException {
+        HttpURLConnection conn = null;
+        try {
+            conn = connect(request);
+
+            Response.Builder<T> responseBuilder = new Response.Builder<T>(conn.getResponseCode())
+                    .setResponseHeaders(conn.getHeaderFields())
+                    .setLastModified(conn.getLastModified());
+
+            InputStream input = getResponseStream(conn);
+            if (input == null) {
+                input = new ByteArrayInputStream(new byte[0]);
+            }
+
+            Charset charset = parseCharset(conn.getContentType());
+            Reader reader = new InputStreamReader(new LimitedInputStream(input, request.getMaxResponseBodySize()), charset);
+
+            T result;
+            try {
+                result = parser.parseResponse(conn.getResponseCode(), conn.getHeaderFields(), reader);
+
+                // Drain anything the parser did not consume so the connection can be reused
+                while (reader.skip(BUFFER_SIZE) > 0) {
+                    // skip
+                }
+            } finally {
+                closeQuietly(reader);
+            }
+
+            return responseBuilder.setResult(result).build();
+        } catch (Exception e) {
+            throw handleFailure(request, conn, e);
+        }
+    }
+
+    /**
+     * Opens the connection, writes the request and waits for the response.
+     *
+     * @param request The request.
+     * @return The connection.
+     * @throws IOException If the connection fails.
+     */
+    @NonNull
+    private HttpURLConnection connect(@NonNull Request request) throws IOException {
+        URL url = new URL(String.valueOf(request.getUrl()));
+        HttpURLConnection conn = (HttpURLConnection) ConnectionUtils.openSecureConnection(UAirship.getApplicationContext(), url);
+        conn.setRequestMethod(request.getRequestMethod());
+        conn.setConnectTimeout(NETWORK_TIMEOUT_MS);
+
+        if (request.hasRequestBody()) {
+            conn.setDoOutput(true);
+            conn.setRequestProperty("Content-Type", request.getContentType());
+
+            // Stream the body instead of letting the connection buffer it to compute the content length
+            if (request.isStreamingRequestBody()) {
+                conn.setChunkedStreamingMode(0);
+            }
+        }
+
+        conn.setDoInput(true);
+        conn.setUseCaches(false);
+        conn.setAllowUserInteraction(false);
+        conn.setInstanceFollowRedirects(request.getInstanceFollowRedirects());
+
+        if (request.getIfModifiedSince() > 0) {
+            conn.setIfModifiedSince(request.getIfModifiedSince());
+        }
+
+        for (Map.Entry<String, String> header : request.getRequestHeaders().entrySet()) {
+            conn.setRequestProperty(header.getKey(), header.getValue());
+        }
+
+        String authorization = request.getAuthorizationHeader();
+        if (authorization != null) {
+            conn.setRequestProperty("Authorization", authorization);
+        }
+
+        // Create the form content
+        if (request.hasRequestBody()) {
+            if (request.getCompressRequestBody()) {
+                conn.setRequestProperty("Content-Encoding", "gzip");
+            }
+
+            OutputStream out = conn.getOutputStream();
+            if (request.getCompressRequestBody()) {
+                out = new GZIPOutputStream(out);
+            }
+
+            Writer writer = new BufferedWriter(new OutputStreamWriter(out, "UTF-8"));
+            try {
+                request.writeRequestBody(writer);
+            } finally {
+                writer.close();
+            }
+        }
+
+        return conn;
+    }
+
+    @NonNull
+    private static RequestException handleFailure(@NonNull Request request, @Nullable HttpURLConnection conn, @NonNull Exception e) {
+        // Only tear down the socket on failure so it is not returned to the pool in a bad state
+        if (conn != null) {
+            conn.disconnect();
+        }
+
+        if (e instanceof MalformedURLException) {
+            return new RequestException("Failed to build URL", e);
+        }
+
+        return new RequestException(String.format(Locale.ROOT, "Request failed URL: %s method: %s", request.getUrl(), request.getRequestMethod()), e);
+    }
+
+    @Nullable
+    private static InputStream getResponseStream(@NonNull HttpURLConnection conn) {
+        try {
+            return conn.getInputStream();
+        } catch (IOException ex) {
+            return conn.getErrorStream();
+        }
+    }
+
+    /**
+     * Parses the charset parameter from a content type.
+     *
+     * @param contentType The content type header value.
+     * @return The charset, or UTF-8 if the content type is missing, has no charset or the charset is not supported.
+     */
+    @NonNull
+    static Charset parseCharset(@Nullable String contentType) {
+        if (contentType != null) {
+            for (String param : contentType.split(";")) {
+                String[] parts = param.trim().split("=", 2);
+                if (parts.length == 2 && "charset".equalsIgnoreCase(parts[0].trim())) {
+                    try {
+                        return Charset.forName(parts[1].trim().replace("\"", ""));
+                    } catch (IllegalArgumentException e) {
+                        Logger.debug("Unsupported response charset %s, using UTF-8", parts[1]);
+                    }
+                }
+            }
+        }
+
+        return DEFAULT_CHARSET;
+    }
+
+    @Nullable
+    private static String readEntireStream(@Nullable InputStream input, @NonNull Charset charset) throws IOException {
+        if (input == null) {
+            return null;
+        }
+
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int read;
+            while ((read = input.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+            }
+            return new String(out.toByteArray(), charset);
+        } finally {
+            closeQuietly(input);
+        }
+    }
+
+    private static void closeQuietly(@NonNull Closeable closeable) {
+        try {
+            closeable.close();
+        } catch (Exception e) {
+            Logger.error(e, "Failed to close streams");
+        }
+    }
+
+    /**
+     * Input stream that fails once more than a max number of bytes have been read.
+     */
+    private static class LimitedInputStream extends FilterInputStream {
+
+        private final long maxBytes;
+        private long count;
+
+        LimitedInputStream(@NonNull InputStream in, long maxBytes) {
+            super(in);
+            this.maxBytes = maxBytes;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int result = super.read();
+            if (result != -1) {
+                onRead(1);
+            }
+            return result;
+        }
+
+        @Override
+        public int read(@NonNull byte[] b, int off, int len) throws IOException {
+            int result = super.read(b, off, len);
+            if (result > 0) {
+                onRead(result);
+            }
+            return result;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long result = super.skip(n);
+            if (result > 0) {
+                onRead(result);
+            }
+            return result;
+        }
+
+        private void onRead(long bytes) throws IOException {
+            count += bytes;
+            if (maxBytes > 0 && count > maxBytes) {
+                throw new IOException("Response body exceeds max size of " + maxBytes + " bytes");
+            }
+        }
+
+    }
+
+}
@@ -5,29 +5,18 @@ package com.urbanairship.http;
 import android.net.Uri;
 import android.util.Base64;
 
-import com.urbanairship.Logger;
 import com.urbanairship.UAirship;
 import com.urbanairship.config.AirshipRuntimeConfig;
 import com.urbanairship.json.JsonSerializable;
-import com.urbanairship.util.ConnectionUtils;
 import com.urbanairship.util.PlatformUtils;
 import com.urbanairship.util.UAStringUtil;
 
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.InputStreamReader;
-import java.io.OutputStream;
-import java.io.OutputStreamWriter;
 import java.io.Writer;
-import java.net.HttpURLConnection;
-import java.net.MalformedURLException;
-import java.net.URL;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
-import java.util.zip.GZIPOutputStream;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
@@ -41,7 +30,13 @@ import androidx.annotation.RestrictTo;
 @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
 public class Request {
 
-    private static final int NETWORK_TIMEOUT_MS = 60000;
+    /**
+     * Default max response body size for streamed responses: 10 MB.
+     */
+    public static final long DEFAULT_MAX_RESPONSE_BODY_SIZE = 10 * 1024 * 1024;
+
+    @NonNull
+    private static volatile RequestTransport defaultTransport = new HttpUrlConnectionTransport();
 
     private static final ResponseParser<Void> EMPTY_RESPONSE_PARSER = new ResponseParser<Void>() {
         @Override
@@ -65,6 +60,9 @@ public class Request {
     @Nullable
     protected String body;
 
+    @Nullable
+    protected RequestBodyWriter bodyWriter;
+
     @Nullable
     protected String contentType;
 
@@ -74,9 +72,14 @@ public class Request {
 
     protected boolean followRedirects = true;
 
+    protected long maxResponseBodySize = DEFAULT_MAX_RESPONSE_BODY_SIZE;
+
     @NonNull
     protected final Map<String, String> responseProperties;
 
+    @Nullable
+    private final RequestTransport transport;
+
     private static final String USER_AGENT_FORMAT = "(UrbanAirshipLib-%s/%s; %s)";
 
     /**
@@ -86,12 +89,22 @@ public class Request {
      * @param uri The request URL.
      */
     public Request(@Nullable String requestMethod, @Nullable Uri uri) {
-        this();
+        this((RequestTransport) null);
         this.requestMethod = requestMethod;
         this.uri = uri;
     }
 
     public Request() {
+        this((RequestTransport) null);
+    }
+
+    /**
+     * Request constructor.
+     *
+     * @param transport The transport, or {@code null} to use the default transport.
+     */
+    public Request(@Nullable RequestTransport transport) {
+        this.transport = transport;
         responseProperties = new HashMap<>();
     }
 
@@ -156,6 +169,22 @@ public class Request {
     @NonNull
     public Request setRequestBody(@Nullable String body, @Nullable String contentType) {
         this.body = body;
+        this.bodyWriter = null;
+        this.contentType = contentType;
+        return this;
+    }
+
+    /**
+     * Sets a request body that is streamed to the connection when the request executes.
+     *
+     * @param bodyWriter The body writer.
+     * @param contentType The string content type.
+     * @return The request.
+     */
+    @NonNull
+    public Request setRequestBody(@NonNull RequestBodyWriter bodyWriter, @Nullable String contentType) {
+        this.body = null;
+        this.bodyWriter = bodyWriter;
         this.contentType = contentType;
         return this;
     }
@@ -240,6 +269,18 @@ public class Request {
         return this;
     }
 
+    /**
+     * Sets the max response body size for streamed responses.
+     *
+     * @param maxResponseBodySize The max size in bytes.
+     * @return The request.
+     */
+    @NonNull
+    public Request setMaxResponseBodySize(long maxResponseBodySize) {
+        this.maxResponseBodySize = maxResponseBodySize;
+        return this;
+    }
+
     public Response<Void> execute() throws RequestException {
         return execute(EMPTY_RESPONSE_PARSER);
     }
@@ -251,120 +292,169 @@ public class Request {
      */
     @NonNull
     public <T> Response<T> execute(@NonNull ResponseParser<T> parser) throws RequestException {
+        validate();
+        return getTransport().execute(this, parser);
+    }
+
+    /**
+     * Executes the request and parses the response body directly from the connection without
+     * buffering it into a String. The returned response will not contain the response body.
+     *
+     * @param parser The streaming response parser.
+     * @return The request response.
+     */
+    @NonNull
+    public <T> Response<T> executeStreaming(@NonNull StreamingResponseParser<T> parser) throws RequestException {
+        validate();
+        return getTransport().executeStreaming(this, parser);
+    }
+
+    private void validate() throws RequestException {
         if (uri == null) {
             throw new RequestException("Unable to perform request: missing URL");
         }
 
-        URL url;
-        try {
-            url = new URL(uri.toString());
-        } catch (MalformedURLException e) {
-            throw new RequestException("Failed to build URL", e);
-        }
-
         if (requestMethod == null) {
             throw new RequestException("Unable to perform request: missing request method");
         }
+    }
 
-        HttpURLConnection conn = null;
-
-        try {
-            conn = (HttpURLConnection) ConnectionUtils.openSecureConnection(UAirship.getApplicationContext(), url);
-            conn.setRequestMethod(requestMethod);
-            conn.setConnectTimeout(NETWORK_TIMEOUT_MS);
-
-            if (body != null) {
-                conn.setDoOutput(true);
-                conn.setRequestProperty("Content-Type", contentType);
-            }
-
-            conn.setDoInput(true);
-            conn.setUseCaches(false);
-            conn.setAllowUserInteraction(false);
-            conn.setInstanceFollowRedirects(followRedirects);
-
-            if (ifModifiedSince > 0) {
-                conn.setIfModifiedSince(ifModifiedSince);
-            }
-
-            for (String key : responseProperties.keySet()) {
-                conn.setRequestProperty(key, responseProperties.get(key));
-            }
-
-            if (!UAStringUtil.isEmpty(user) && !UAStringUtil.isEmpty(password)) {
-                String credentials = user + ":" + password;
-                conn.setRequestProperty("Authorization", "Basic " + Base64.encodeToString(credentials.getBytes(), Base64.NO_WRAP));
-            }
-
-            // Create the form content
-            if (body != null) {
-
-                if (compressRequestBody) {
-                    conn.setRequestProperty("Content-Encoding", "gzip");
-                    OutputStream out = conn.getOutputStream();
-                    GZIPOutputStream gos = new GZIPOutputStream(out);
-                    Writer writer = new OutputStreamWriter(gos, "UTF-8");
-                    writer.write(body);
-                    writer.close();
-                    gos.close();
-                    out.close();
-                } else {
-                    OutputStream out = conn.getOutputStream();
-                    Writer writer = new OutputStreamWriter(out, "UTF-8");
-                    writer.write(body);
-                    writer.close();
-                    out.close();
-                }
-            }
-
-            Response.Builder<T> responseBuilder = new Response.Builder<T>(conn.getResponseCode())
-                    .setResponseHeaders(conn.getHeaderFields())
-                    .setLastModified(conn.getLastModified());
-
-            String messageBody;
-            try {
-                messageBody = readEntireStream(conn.getInputStream());
-            } catch (IOException ex) {
-                messageBody = readEntireStream(conn.getErrorStream());
-            }
-
-            return responseBuilder.setResult(parser.parseResponse(conn.getResponseCode(), conn.getHeaderFields(), messageBody))
-                                  .setResponseBody(messageBody)
-                                  .build();
-        } catch (Exception e) {
-            throw new RequestException(String.format(Locale.ROOT, "Request failed URL: %s method: %s", url, requestMethod), e);
-        } finally {
-            if (conn != null) {
-                conn.disconnect();
-            }
-        }
+    @NonNull
+    private RequestTransport getTransport() {
+        return transport == null ? defaultTransport : transport;
+    }
+
+    /**
+     * Gets the request URL.
+     *
+     * @return The request URL.
+     */
+    @Nullable
+    public Uri getUrl() {
+        return uri;
     }
 
+    /**
+     * Gets the request method.
+     *
+     * @return The request method.
+     */
     @Nullable
-    private String readEntireStream(@Nullable InputStream input) throws IOException {
-        if (input == null) {
+    public String getRequestMethod() {
+        return requestMethod;
+    }
+
+    /**
+     * Gets the request headers, excluding the content type and authorization headers.
+     *
+     * @return The request headers.
+     */
+    @NonNull
+    public Map<String, String> getRequestHeaders() {
+        return responseProperties;
+    }
+
+    /**
+     * Gets the basic authorization header value.
+     *
+     * @return The authorization header value, or {@code null} if no credentials are set.
+     */
+    @Nullable
+    public String getAuthorizationHeader() {
+        if (UAStringUtil.isEmpty(user) || UAStringUtil.isEmpty(password)) {
             return null;
         }
 
-        BufferedReader br = new BufferedReader(new InputStreamReader(input));
-        StringBuilder sb = new StringBuilder();
-
-        try {
-            String inputLine;
-            while ((inputLine = br.readLine()) != null) {
-                sb.append(inputLine).append("\n");
-            }
-            br.close();
-        } finally {
-            try {
-                input.close();
-                br.close();
-            } catch (Exception e) {
-                Logger.error(e, "Failed to close streams");
-            }
+        String credentials = user + ":" + password;
+        return "Basic " + Base64.encodeToString(credentials.getBytes(), Base64.NO_WRAP);
+    }
+
+    /**
+     * Gets the content type.
+     *
+     * @return The content type.
+     */
+    @Nullable
+    public String getContentType() {
+        return contentType;
+    }
+
+    /**
+     * Gets the if modified since value.
+     *
+     * @return The if modified since time in milliseconds, or 0 if not set.
+     */
+    public long getIfModifiedSince() {
+        return ifModifiedSince;
+    }
+
+    /**
+     * Checks if the request body should be compressed with gzip.
+     *
+     * @return {@code true} to compress the request body, otherwise {@code false}.
+     */
+    public boolean getCompressRequestBody() {
+        return compressRequestBody;
+    }
+
+    /**
+     * Checks if the request should follow redirects.
+     *
+     * @return {@code true} to follow redirects, otherwise {@code false}.
+     */
+    public boolean getInstanceFollowRedirects() {
+        return followRedirects;
+    }
+
+    /**
+     * Gets the max response body size for streamed responses.
+     *
+     * @return The max size in bytes.
+     */
+    public long getMaxResponseBodySize() {
+        return maxResponseBodySize;
+    }
+
+    /**
+     * Checks if the request has a body.
+     *
+     * @return {@code true} if the request has a body, otherwise {@code false}.
+     */
+    public boolean hasRequestBody() {
+        return body != null || bodyWriter != null;
+    }
+
+    /**
+     * Checks if the request body is streamed with a {@link RequestBodyWriter}. Streamed bodies
+     * have an unknown length until written.
+     *
+     * @return {@code true} if the request body is streamed, otherwise {@code false}.
+     */
+    public boolean isStreamingRequestBody() {
+        return bodyWriter != null;
+    }
+
+    /**
+     * Writes the request body.
+     *
+     * @param writer The writer.
+     * @throws IOException If the body fails to write.
+     */
+    public void writeRequestBody(@NonNull Writer writer) throws IOException {
+        if (bodyWriter != null) {
+            bodyWriter.writeTo(writer);
+        } else if (body != null) {
+            writer.write(body);
         }
+    }
 
-        return sb.toString();
+    /**
+     * Sets the transport used by requests that were not created with an explicit transport.
+     *
+     * @param transport The transport, or {@code null} to restore the default {@link HttpUrlConnectionTransport}.
+     */
+    public static void setDefaultTransport(@Nullable RequestTransport transport) {
+        defaultTransport = transport == null ? new HttpUrlConnectionTransport() : transport;
     }
 
 }
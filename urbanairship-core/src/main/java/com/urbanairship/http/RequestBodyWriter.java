@@ -0,0 +1,27 @@
+/* Copyright Airship and Contributors */
+
+package com.urbanairship.http;
+
+import java.io.IOException;
+import java.io.Writer;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.RestrictTo;
+
+/**
+ * Writes a request body directly to the connection instead of building it as a single string.
+ *
+ * @hide
+ */
+@RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+public interface RequestBodyWriter {
+
+    /**
+     * Writes the body.
+     *
+     * @param writer The writer. The writer will be closed by the request.
+     * @throws IOException If the body fails to write.
+     */
+    void writeTo(@NonNull Writer writer) throws IOException;
+
+}
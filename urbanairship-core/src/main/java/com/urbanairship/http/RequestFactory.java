@@ -3,6 +3,7 @@
 package com.urbanairship.http;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 import androidx.annotation.RestrictTo;
 
 /**
@@ -19,6 +20,25 @@ public class RequestFactory {
     @NonNull
     public static final RequestFactory DEFAULT_REQUEST_FACTORY = new RequestFactory();
 
+    @Nullable
+    private final RequestTransport transport;
+
+    /**
+     * Default constructor. Requests will use the default transport.
+     */
+    public RequestFactory() {
+        this(null);
+    }
+
+    /**
+     * Creates a request factory whose requests execute on the given transport.
+     *
+     * @param transport The transport, or {@code null} to use the default transport.
+     */
+    public RequestFactory(@Nullable RequestTransport transport) {
+        this.transport = transport;
+    }
+
     /**
      * Creates the request.
      *
@@ -26,7 +46,7 @@ public class RequestFactory {
      */
     @NonNull
     public Request createRequest() {
-        return new Request();
+        return new Request(transport);
     }
 
 }
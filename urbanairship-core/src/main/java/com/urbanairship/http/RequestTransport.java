@@ -0,0 +1,46 @@
+/* Copyright Airship and Contributors */
+
+package com.urbanairship.http;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.RestrictTo;
+
+/**
+ * Performs the network I/O for a {@link Request}.
+ * <p>
+ * The default transport is {@link HttpUrlConnectionTransport}. Apps that already ship a pooled
+ * HTTP client (e.g. one with HTTP/2 multiplexing) can provide their own transport with
+ * {@link com.urbanairship.AirshipConfigOptions.Builder#setRequestTransport(RequestTransport)}.
+ * Implementations must be thread safe.
+ *
+ * @hide
+ */
+@RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+public interface RequestTransport {
+
+    /**
+     * Executes the request.
+     *
+     * @param request The request. The URL and request method are guaranteed to be set.
+     * @param parser The response parser.
+     * @param <T> The result type.
+     * @return The request response.
+     * @throws RequestException If the request fails.
+     */
+    @NonNull
+    <T> Response<T> execute(@NonNull Request request, @NonNull ResponseParser<T> parser) throws RequestException;
+
+    /**
+     * Executes the request and parses the response body as it is read. The returned response
+     * does not contain the response body.
+     *
+     * @param request The request. The URL and request method are guaranteed to be set.
+     * @param parser The streaming response parser.
+     * @param <T> The result type.
+     * @return The request response.
+     * @throws RequestException If the request fails or the body exceeds {@link Request#getMaxResponseBodySize()}.
+     */
+    @NonNull
+    <T> Response<T> executeStreaming(@NonNull Request request, @NonNull StreamingResponseParser<T> parser) throws RequestException;
+
+}
@@ -0,0 +1,27 @@
+/* Copyright Airship and Contributors */
+
+package com.urbanairship.http;
+
+import java.io.Reader;
+import java.util.List;
+import java.util.Map;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.RestrictTo;
+
+/**
+ * Parses a response directly from the response body stream.
+ * <p>
+ * Unlike {@link ResponseParser}, the body is never buffered into a String. The reader is decoded
+ * with the charset from the response {@code Content-Type} header (UTF-8 if missing) and is
+ * limited to {@link Request#setMaxResponseBodySize(long)} bytes. The reader is closed by the
+ * request after parsing.
+ *
+ * @param <T> The result type.
+ * @hide
+ */
+@RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+public interface StreamingResponseParser<T> {
+    T parseResponse(int status, @Nullable Map<String, List<String>> headers, @NonNull Reader responseBody) throws Exception;
+}
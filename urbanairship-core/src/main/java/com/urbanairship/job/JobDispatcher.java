@@ -8,9 +8,22 @@ import android.os.Handler;
 import android.os.Looper;
 
 import com.urbanairship.Logger;
+import com.urbanairship.app.ActivityMonitor;
+import com.urbanairship.app.GlobalActivityMonitor;
+import com.urbanairship.json.JsonException;
+import com.urbanairship.json.JsonList;
+import com.urbanairship.json.JsonMap;
+import com.urbanairship.json.JsonValue;
+import com.urbanairship.util.Clock;
+import com.urbanairship.util.Network;
 
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.TimeUnit;
 
 import androidx.annotation.IntRange;
@@ -21,6 +34,21 @@ import androidx.core.util.Consumer;
 
 /**
  * Dispatches jobs.
+ * <p>
+ * When the in-process lane is enabled, jobs that have no delay, are not rate limited and have
+ * their constraints met while the app is in the foreground run directly in the process instead of
+ * going through the scheduler. Jobs with the same component and action run one at a time on the
+ * lane and follow the job's conflict strategy. Delayed, constrained and retried jobs still go
+ * through the scheduler, as do jobs whose unique name already has work waiting in the scheduler
+ * so the scheduler's unique work policy decides between them.
+ * <p>
+ * When a coalescing window is set, network jobs that would be scheduled without a delay are
+ * collected into a single coalesced job that starts at the end of the window. The coalesced job is
+ * scheduled when the first job joins the window and rescheduled as others join, so collected jobs
+ * survive process death. It runs the jobs back-to-back in one worker, so jobs dispatched close
+ * together share a single wake-up and a warm connection. A job whose unique name is already
+ * waiting in the scheduler or in an earlier coalesced job keeps its conflict strategy: KEEP drops
+ * it, REPLACE schedules it on its own and the earlier one is skipped, and APPEND joins the window.
  *
  * @hide
  */
@@ -31,6 +59,10 @@ public class JobDispatcher {
     static final long RESCHEDULE_RETRY_DELAY_MS = TimeUnit.HOURS.toMillis(1);
     private static final long RETRY_DELAY_MS = 1000;
 
+    static final String ACTION_RUN_COALESCED_JOBS = "ACTION_RUN_COALESCED_JOBS";
+    private static final String COALESCED_JOBS_KEY = "jobs";
+    private static final String COALESCED_WINDOW_START_KEY = "window_start";
+
     @SuppressLint("StaticFieldLeak")
     private static JobDispatcher instance;
 
@@ -38,6 +70,30 @@ public class JobDispatcher {
     private final JobRunner jobRunner;
     private final RateLimiter rateLimiter;
     private final Scheduler scheduler;
+    private final ActivityMonitor activityMonitor;
+    private final Network network;
+    private final Clock clock;
+    private final JobMetrics metrics = new JobMetrics();
+
+    private volatile boolean isInProcessDispatchEnabled;
+    private final Map<String, InProcessJobs> inProcessJobs = new HashMap<>();
+    private final Map<String, Long> scheduledStartTimes = new HashMap<>();
+
+    // Unique names of jobs started by the scheduler that have not finished, guarded by scheduledStartTimes
+    private final Set<String> runningScheduledJobs = new HashSet<>();
+
+    private volatile long coalescingWindowMs;
+
+    // Jobs in the open coalescing window, guarded by itself
+    private final List<JobInfo> coalescedJobs = new ArrayList<>();
+    private long coalescingWindowStartMs;
+    private final Runnable closeCoalescingWindowRunnable = this::closeCoalescingWindow;
+
+    // Unique names replaced after they joined a coalesced job, with the time they were replaced
+    private final Map<String, Long> replacedCoalescedJobs = new HashMap<>();
+
+    // Start times of coalescing windows whose job has not run yet, guarded by replacedCoalescedJobs
+    private final List<Long> pendingWindowStarts = new ArrayList<>();
 
     private final List<Pending> pendingJobInfos = new ArrayList<>();
     private final Runnable retryPendingRunnable = () -> {
@@ -89,10 +145,54 @@ public class JobDispatcher {
                          @NonNull Scheduler scheduler,
                          @NonNull JobRunner jobRunner,
                          @NonNull RateLimiter rateLimiter) {
+        this(context, scheduler, jobRunner, rateLimiter, GlobalActivityMonitor.shared(context), Network.shared(), Clock.DEFAULT_CLOCK);
+    }
+
+    @VisibleForTesting
+    JobDispatcher(@NonNull Context context,
+                  @NonNull Scheduler scheduler,
+                  @NonNull JobRunner jobRunner,
+                  @NonNull RateLimiter rateLimiter,
+                  @NonNull ActivityMonitor activityMonitor,
+                  @NonNull Network network,
+                  @NonNull Clock clock) {
         this.context = context.getApplicationContext();
         this.scheduler = scheduler;
         this.jobRunner = jobRunner;
         this.rateLimiter = rateLimiter;
+        this.activityMonitor = activityMonitor;
+        this.network = network;
+        this.clock = clock;
+    }
+
+    /**
+     * Enables or disables the in-process lane for immediately runnable jobs.
+     *
+     * @param enabled {@code true} to run immediately runnable jobs in process, {@code false} to
+     * schedule every job.
+     */
+    public void setInProcessDispatchEnabled(boolean enabled) {
+        this.isInProcessDispatchEnabled = enabled;
+    }
+
+    /**
+     * Sets the coalescing window for network jobs. A duration of 0 disables coalescing.
+     *
+     * @param duration The window duration.
+     * @param unit The duration unit.
+     */
+    public void setCoalescingWindow(long duration, @NonNull TimeUnit unit) {
+        this.coalescingWindowMs = unit.toMillis(duration);
+    }
+
+    /**
+     * Gets the job metrics.
+     *
+     * @return The job metrics.
+     */
+    @NonNull
+    public JobMetrics getMetrics() {
+        return metrics;
     }
 
     /**
@@ -113,10 +213,33 @@ public class JobDispatcher {
      * @param jobInfo The jobInfo.
      */
     public void dispatch(@NonNull JobInfo jobInfo) {
-       dispatch(jobInfo, getDelay(jobInfo));
+        long rateLimitDelay = getRateLimitDelay(jobInfo);
+        if (rateLimitDelay > 0) {
+            metrics.recordRateLimited(jobInfo, rateLimitDelay);
+        }
+
+        long delayMs = Math.max(jobInfo.getMinDelayMs(), rateLimitDelay);
+        if (delayMs == 0 && canRunInProcess(jobInfo)) {
+            dispatchInProcess(jobInfo);
+        } else if (delayMs == 0 && coalescingWindowMs > 0 && jobInfo.isNetworkAccessRequired()) {
+            coalesce(jobInfo);
+        } else {
+            dispatch(jobInfo, delayMs);
+        }
     }
 
     private void dispatch(@NonNull JobInfo jobInfo, long delayMs) {
+        String name = jobInfo.getUniqueName();
+        synchronized (scheduledStartTimes) {
+            // The scheduler drops a KEEP job while one with the same name is waiting or running,
+            // so only the job that will actually start is tracked
+            boolean isDropped = jobInfo.getConflictStrategy() == JobInfo.KEEP
+                    && (runningScheduledJobs.contains(name) || scheduledStartTimes.containsKey(name));
+            if (!isDropped) {
+                scheduledStartTimes.put(name, clock.currentTimeMillis() + delayMs);
+            }
+        }
+
         try {
             dispatchPending();
             scheduler.schedule(context, jobInfo, delayMs);
@@ -147,31 +270,369 @@ public class JobDispatcher {
     protected void onStartJob(@NonNull JobInfo jobInfo, long runAttempt, @NonNull Consumer<JobResult> callback) {
         Logger.verbose("Running job: %s, run attempt: %s", jobInfo, runAttempt);
 
+        if (ACTION_RUN_COALESCED_JOBS.equals(jobInfo.getAction())) {
+            runCoalescedJobs(jobInfo, callback);
+            return;
+        }
+
         long rateLimitDelay = getRateLimitDelay(jobInfo);
         if (rateLimitDelay > 0) {
+            metrics.recordRateLimited(jobInfo, rateLimitDelay);
             callback.accept(JobResult.FAILURE);
             dispatch(jobInfo, rateLimitDelay);
             return;
         }
 
+        metrics.recordStart(jobInfo, removeDispatchLatency(jobInfo), false);
+        synchronized (scheduledStartTimes) {
+            runningScheduledJobs.add(jobInfo.getUniqueName());
+        }
+
         for (String rateLimitID : jobInfo.getRateLimitIds()) {
             rateLimiter.track(rateLimitID);
         }
 
+        long startTime = clock.currentTimeMillis();
         jobRunner.run(jobInfo, (result) -> {
             Logger.verbose("Job finished. Job info: %s, result: %s", jobInfo, result);
-            if (result == JobResult.RETRY && runAttempt >= RESCHEDULE_RETRY_COUNT) {
+            metrics.recordFinish(jobInfo, result, clock.currentTimeMillis() - startTime);
+            boolean isRescheduled = result == JobResult.RETRY && runAttempt >= RESCHEDULE_RETRY_COUNT;
+            if (isRescheduled) {
                 Logger.verbose("Job retry limit reached. Rescheduling for a later time. Job info: %s, work Id: %s", jobInfo);
+                metrics.recordReschedule(jobInfo, RESCHEDULE_RETRY_DELAY_MS);
                 dispatch(jobInfo, RESCHEDULE_RETRY_DELAY_MS);
-                callback.accept(JobResult.FAILURE);
-            } else {
-                callback.accept(result);
             }
+
+            synchronized (scheduledStartTimes) {
+                runningScheduledJobs.remove(jobInfo.getUniqueName());
+            }
+
+            callback.accept(isRescheduled ? JobResult.FAILURE : result);
         });
     }
 
-    private long getDelay(@NonNull JobInfo jobInfo) {
-        return Math.max(jobInfo.getMinDelayMs(), getRateLimitDelay(jobInfo));
+    private long removeDispatchLatency(@NonNull JobInfo jobInfo) {
+        Long scheduledStartTime;
+        synchronized (scheduledStartTimes) {
+            scheduledStartTime = scheduledStartTimes.remove(jobInfo.getUniqueName());
+        }
+        return scheduledStartTime == null ? 0 : Math.max(0, clock.currentTimeMillis() - scheduledStartTime);
+    }
+
+    /**
+     * Checks if a job with the unique name was handed to the scheduler and has not started yet.
+     *
+     * @param uniqueName The job's unique name.
+     * @return {@code true} if the job is waiting in the scheduler, otherwise {@code false}.
+     */
+    private boolean isScheduled(@NonNull String uniqueName) {
+        synchronized (scheduledStartTimes) {
+            return scheduledStartTimes.containsKey(uniqueName);
+        }
+    }
+
+    private void coalesce(@NonNull JobInfo jobInfo) {
+        String name = jobInfo.getUniqueName();
+        JobInfo coalescedJob;
+        long delayMs;
+
+        synchronized (coalescedJobs) {
+            long now = clock.currentTimeMillis();
+            if (!coalescedJobs.isEmpty() && now >= coalescingWindowStartMs + coalescingWindowMs) {
+                // The window ended but has not been closed yet, never reschedule a started job
+                closeCoalescingWindow();
+            }
+
+            boolean isInWindow = false;
+            for (JobInfo coalesced : coalescedJobs) {
+                if (coalesced.getUniqueName().equals(name)) {
+                    isInWindow = true;
+                    break;
+                }
+            }
+
+            // Scheduled on its own or in the job of an earlier window
+            boolean isScheduledOutsideWindow = !isInWindow && isScheduled(name);
+
+            switch (jobInfo.getConflictStrategy()) {
+                case JobInfo.KEEP:
+                    if (isInWindow || isScheduledOutsideWindow) {
+                        Logger.verbose("Job already pending, dropping: %s", jobInfo);
+                        return;
+                    }
+                    break;
+                case JobInfo.REPLACE:
+                    if (isScheduledOutsideWindow) {
+                        // The scheduler replaces a job scheduled on its own, an earlier coalesced
+                        // job skips it when it runs
+                        synchronized (replacedCoalescedJobs) {
+                            replacedCoalescedJobs.put(name, now);
+                        }
+                        break;
+                    }
+                    for (int i = coalescedJobs.size() - 1; i >= 0; i--) {
+                        if (coalescedJobs.get(i).getUniqueName().equals(name)) {
+                            coalescedJobs.remove(i);
+                        }
+                    }
+                    break;
+                case JobInfo.APPEND:
+                default:
+                    break;
+            }
+
+            if (jobInfo.getConflictStrategy() == JobInfo.REPLACE && isScheduledOutsideWindow) {
+                coalescedJob = null;
+                delayMs = 0;
+            } else {
+                if (coalescedJobs.isEmpty()) {
+                    coalescingWindowStartMs = now;
+                    synchronized (replacedCoalescedJobs) {
+                        pendingWindowStarts.add(now);
+                    }
+                    new Handler(Looper.getMainLooper()).postDelayed(closeCoalescingWindowRunnable, coalescingWindowMs);
+                }
+
+                long windowEndMs = coalescingWindowStartMs + coalescingWindowMs;
+                coalescedJobs.add(jobInfo);
+                synchronized (scheduledStartTimes) {
+                    scheduledStartTimes.put(name, windowEndMs);
+                }
+
+                coalescedJob = createCoalescedJob(coalescingWindowStartMs, coalescedJobs);
+                delayMs = Math.max(0, windowEndMs - now);
+            }
+        }
+
+        if (coalescedJob == null) {
+            dispatch(jobInfo, 0);
+        } else {
+            Logger.verbose("Scheduling coalesced job: %s", coalescedJob);
+            dispatch(coalescedJob, delayMs);
+        }
+    }
+
+    /**
+     * Creates the coalesced job for a window. Each window has its own unique name so rescheduling
+     * the open window never replaces the job of a window that already started.
+     *
+     * @param windowStartMs The window start time.
+     * @param jobs The jobs in the window.
+     * @return The coalesced job.
+     */
+    @NonNull
+    private static JobInfo createCoalescedJob(long windowStartMs, @NonNull List<JobInfo> jobs) {
+        List<JsonValue> jobsJson = new ArrayList<>();
+        for (JobInfo job : jobs) {
+            jobsJson.add(WorkUtils.convertToJson(job));
+        }
+
+        return JobInfo.newBuilder()
+                      .setAction(ACTION_RUN_COALESCED_JOBS)
+                      .setAirshipComponent(String.valueOf(windowStartMs))
+                      .setNetworkAccessRequired(true)
+                      .setConflictStrategy(JobInfo.REPLACE)
+                      .setExtras(JsonMap.newBuilder()
+                                        .put(COALESCED_JOBS_KEY, new JsonList(jobsJson))
+                                        .put(COALESCED_WINDOW_START_KEY, windowStartMs)
+                                        .build())
+                      .build();
+    }
+
+    /**
+     * Closes the open coalescing window. Its coalesced job is already scheduled, so later jobs
+     * start a new window.
+     */
+    @VisibleForTesting
+    void closeCoalescingWindow() {
+        synchronized (coalescedJobs) {
+            coalescedJobs.clear();
+        }
+        new Handler(Looper.getMainLooper()).removeCallbacks(closeCoalescingWindowRunnable);
+    }
+
+    private void runCoalescedJobs(@NonNull JobInfo coalescedJob, @NonNull Consumer<JobResult> callback) {
+        removeDispatchLatency(coalescedJob);
+        long windowStartMs = coalescedJob.getExtras().opt(COALESCED_WINDOW_START_KEY).getLong(0);
+
+        List<JobInfo> jobs = new ArrayList<>();
+        for (JsonValue json : coalescedJob.getExtras().opt(COALESCED_JOBS_KEY).optList()) {
+            try {
+                JobInfo jobInfo = WorkUtils.convertToJobInfo(json);
+                if (isReplacedSince(jobInfo.getUniqueName(), windowStartMs)) {
+                    Logger.verbose("Coalesced job was replaced, skipping: %s", jobInfo);
+                    continue;
+                }
+                jobs.add(jobInfo);
+            } catch (JsonException e) {
+                Logger.error(e, "Failed to parse coalesced job: %s", json);
+            }
+        }
+
+        removePendingWindow(windowStartMs);
+        runCoalescedJobs(jobs, 0, callback);
+    }
+
+    /**
+     * Removes a window whose job is running and drops the replaced names that no pending window
+     * can still skip. A window only skips names replaced at or after its start.
+     *
+     * @param windowStartMs The window start time.
+     */
+    private void removePendingWindow(long windowStartMs) {
+        synchronized (replacedCoalescedJobs) {
+            pendingWindowStarts.remove(Long.valueOf(windowStartMs));
+
+            long oldestStartMs = Long.MAX_VALUE;
+            for (long startMs : pendingWindowStarts) {
+                oldestStartMs = Math.min(oldestStartMs, startMs);
+            }
+
+            Iterator<Long> iterator = replacedCoalescedJobs.values().iterator();
+            while (iterator.hasNext()) {
+                if (iterator.next() < oldestStartMs) {
+                    iterator.remove();
+                }
+            }
+        }
+    }
+
+    @VisibleForTesting
+    int getReplacedCoalescedJobCount() {
+        synchronized (replacedCoalescedJobs) {
+            return replacedCoalescedJobs.size();
+        }
+    }
+
+    private boolean isReplacedSince(@NonNull String uniqueName, long timeMs) {
+        synchronized (replacedCoalescedJobs) {
+            Long replacedTime = replacedCoalescedJobs.get(uniqueName);
+            return replacedTime != null && replacedTime >= timeMs;
+        }
+    }
+
+    private void runCoalescedJobs(@NonNull List<JobInfo> jobs, int index, @NonNull Consumer<JobResult> callback) {
+        // Jobs that are rate limited or need a retry leave the batch and go back to the scheduler
+        while (index < jobs.size()) {
+            JobInfo jobInfo = jobs.get(index);
+            long rateLimitDelay = getRateLimitDelay(jobInfo);
+            if (rateLimitDelay > 0) {
+                metrics.recordRateLimited(jobInfo, rateLimitDelay);
+                dispatch(jobInfo, rateLimitDelay);
+                index++;
+                continue;
+            }
+
+            for (String rateLimitID : jobInfo.getRateLimitIds()) {
+                rateLimiter.track(rateLimitID);
+            }
+
+            metrics.recordStart(jobInfo, removeDispatchLatency(jobInfo), false);
+
+            int nextIndex = index + 1;
+            long startTime = clock.currentTimeMillis();
+            jobRunner.run(jobInfo, (result) -> {
+                Logger.verbose("Coalesced job finished. Job info: %s, result: %s", jobInfo, result);
+                metrics.recordFinish(jobInfo, result, clock.currentTimeMillis() - startTime);
+                if (result == JobResult.RETRY) {
+                    metrics.recordReschedule(jobInfo, jobInfo.getInitialBackOffMs());
+                    dispatch(jobInfo, jobInfo.getInitialBackOffMs());
+                }
+                runCoalescedJobs(jobs, nextIndex, callback);
+            });
+            return;
+        }
+
+        callback.accept(JobResult.SUCCESS);
+    }
+
+    private boolean canRunInProcess(@NonNull JobInfo jobInfo) {
+        if (!isInProcessDispatchEnabled || !activityMonitor.isAppForegrounded()) {
+            return false;
+        }
+
+        // The lane's conflict strategy can not see work already handed to the scheduler
+        if (isScheduled(jobInfo.getUniqueName())) {
+            return false;
+        }
+
+        return !jobInfo.isNetworkAccessRequired() || network.isConnected(context);
+    }
+
+    private void dispatchInProcess(@NonNull JobInfo jobInfo) {
+        String name = jobInfo.getUniqueName();
+        synchronized (inProcessJobs) {
+            InProcessJobs jobs = inProcessJobs.get(name);
+            if (jobs == null) {
+                jobs = new InProcessJobs();
+                inProcessJobs.put(name, jobs);
+            }
+
+            switch (jobInfo.getConflictStrategy()) {
+                case JobInfo.KEEP:
+                    if (jobs.isRunning || !jobs.queued.isEmpty()) {
+                        Logger.verbose("Job already pending, dropping: %s", jobInfo);
+                        return;
+                    }
+                    break;
+                case JobInfo.REPLACE:
+                    jobs.queued.clear();
+                    break;
+                case JobInfo.APPEND:
+                default:
+                    break;
+            }
+
+            jobs.queued.add(new QueuedJob(jobInfo, clock.currentTimeMillis()));
+            if (jobs.isRunning) {
+                return;
+            }
+            jobs.isRunning = true;
+        }
+
+        runNextInProcess(name);
+    }
+
+    private void runNextInProcess(@NonNull String name) {
+        QueuedJob next;
+        synchronized (inProcessJobs) {
+            InProcessJobs jobs = inProcessJobs.get(name);
+            if (jobs == null || jobs.queued.isEmpty()) {
+                inProcessJobs.remove(name);
+                return;
+            }
+            next = jobs.queued.remove(0);
+        }
+
+        JobInfo jobInfo = next.jobInfo;
+
+        // Another job with the same name may have used up the rate limit while this one was queued
+        long rateLimitDelay = getRateLimitDelay(jobInfo);
+        if (rateLimitDelay > 0) {
+            metrics.recordRateLimited(jobInfo, rateLimitDelay);
+            dispatch(jobInfo, rateLimitDelay);
+            runNextInProcess(name);
+            return;
+        }
+
+        for (String rateLimitID : jobInfo.getRateLimitIds()) {
+            rateLimiter.track(rateLimitID);
+        }
+
+        Logger.verbose("Running job in process: %s", jobInfo);
+        long startTime = clock.currentTimeMillis();
+        metrics.recordStart(jobInfo, Math.max(0, startTime - next.dispatchTimeMs), true);
+
+        jobRunner.run(jobInfo, (result) -> {
+            Logger.verbose("Job finished. Job info: %s, result: %s", jobInfo, result);
+            metrics.recordFinish(jobInfo, result, clock.currentTimeMillis() - startTime);
+            if (result == JobResult.RETRY) {
+                // Retries are handed to the scheduler so they get its backoff
+                metrics.recordReschedule(jobInfo, jobInfo.getInitialBackOffMs());
+                dispatch(jobInfo, jobInfo.getInitialBackOffMs());
+            }
+            runNextInProcess(name);
+        });
     }
 
     private long getRateLimitDelay(@NonNull JobInfo jobInfo) {
@@ -187,6 +648,21 @@ public class JobDispatcher {
         return delay;
     }
 
+    private static class InProcessJobs {
+        private final List<QueuedJob> queued = new ArrayList<>();
+        private boolean isRunning;
+    }
+
+    private static class QueuedJob {
+        @NonNull
+        private final JobInfo jobInfo;
+        private final long dispatchTimeMs;
+        QueuedJob(@NonNull JobInfo jobInfo, long dispatchTimeMs) {
+            this.jobInfo = jobInfo;
+            this.dispatchTimeMs = dispatchTimeMs;
+        }
+    }
+
     private static class Pending {
         @NonNull
         private final JobInfo jobInfo;
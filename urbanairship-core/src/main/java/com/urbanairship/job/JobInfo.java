@@ -129,6 +129,16 @@ public class JobInfo {
         return initialBackOffMs;
     }
 
+    /**
+     * The name used to identify conflicting jobs.
+     *
+     * @return The unique job name.
+     */
+    @NonNull
+    String getUniqueName() {
+        return airshipComponentName + ":" + action;
+    }
+
     @Override
     public String toString() {
         return "JobInfo{" +
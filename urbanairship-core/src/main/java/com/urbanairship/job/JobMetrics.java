@@ -0,0 +1,402 @@
+/* Copyright Airship and Contributors */
+
+package com.urbanairship.job;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * In memory job metrics, keyed by job action.
+ * <p>
+ * Records how long jobs wait to start, how long they run, their results, rate limit deferrals
+ * and reschedules. Counters can be read as snapshots with {@link #getActionMetrics(String)}, and
+ * {@link Listener}s receive each event as it happens so they can be forwarded elsewhere. The
+ * shared instance is available from {@link com.urbanairship.UAirship#getJobMetrics()}.
+ */
+public class JobMetrics {
+
+    /**
+     * Job metrics listener. Called on the thread that recorded the event, so implementations
+     * should return quickly.
+     */
+    public interface Listener {
+
+        /**
+         * Called when a job starts.
+         *
+         * @param action The job action.
+         * @param dispatchLatencyMs The time between when the job was due and when it started.
+         * @param inProcess {@code true} if the job ran on the in-process lane.
+         */
+        void onJobStarted(@NonNull String action, long dispatchLatencyMs, boolean inProcess);
+
+        /**
+         * Called when a job finishes.
+         *
+         * @param action The job action.
+         * @param result The job result.
+         * @param runDurationMs The time the job took to run.
+         */
+        void onJobFinished(@NonNull String action, @NonNull JobResult result, long runDurationMs);
+
+        /**
+         * Called when a job is deferred by a rate limit.
+         *
+         * @param action The job action.
+         * @param delayMs The deferral.
+         */
+        void onJobRateLimited(@NonNull String action, long delayMs);
+
+        /**
+         * Called when a job is handed back to the scheduler to run again later.
+         *
+         * @param action The job action.
+         * @param delayMs The reschedule delay.
+         */
+        void onJobRescheduled(@NonNull String action, long delayMs);
+
+    }
+
+    private final Map<String, Counters> counters = new HashMap<>();
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+
+    JobMetrics() {}
+
+    /**
+     * Adds a listener.
+     *
+     * @param listener The listener.
+     */
+    public void addListener(@NonNull Listener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Removes a listener.
+     *
+     * @param listener The listener.
+     */
+    public void removeListener(@NonNull Listener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Records a job start.
+     *
+     * @param jobInfo The job.
+     * @param dispatchLatencyMs The time between when the job was due and when it started.
+     * @param inProcess {@code true} if the job ran on the in-process lane, {@code false} if it was started by the scheduler.
+     */
+    void recordStart(@NonNull JobInfo jobInfo, long dispatchLatencyMs, boolean inProcess) {
+        synchronized (counters) {
+            Counters actionCounters = getCounters(jobInfo.getAction());
+            actionCounters.startCount++;
+            if (inProcess) {
+                actionCounters.inProcessStartCount++;
+            }
+            actionCounters.totalDispatchLatencyMs += dispatchLatencyMs;
+            actionCounters.maxDispatchLatencyMs = Math.max(actionCounters.maxDispatchLatencyMs, dispatchLatencyMs);
+        }
+
+        for (Listener listener : listeners) {
+            listener.onJobStarted(jobInfo.getAction(), dispatchLatencyMs, inProcess);
+        }
+    }
+
+    /**
+     * Records a job result.
+     *
+     * @param jobInfo The job.
+     * @param result The result.
+     * @param runDurationMs The time the job took to run.
+     */
+    void recordFinish(@NonNull JobInfo jobInfo, @NonNull JobResult result, long runDurationMs) {
+        synchronized (counters) {
+            Counters actionCounters = getCounters(jobInfo.getAction());
+            switch (result) {
+                case SUCCESS:
+                    actionCounters.successCount++;
+                    break;
+                case RETRY:
+                    actionCounters.retryCount++;
+                    break;
+                case FAILURE:
+                    actionCounters.failureCount++;
+                    break;
+            }
+            actionCounters.totalRunDurationMs += runDurationMs;
+            actionCounters.maxRunDurationMs = Math.max(actionCounters.maxRunDurationMs, runDurationMs);
+        }
+
+        for (Listener listener : listeners) {
+            listener.onJobFinished(jobInfo.getAction(), result, runDurationMs);
+        }
+    }
+
+    /**
+     * Records a rate limit deferral.
+     *
+     * @param jobInfo The job.
+     * @param delayMs The deferral.
+     */
+    void recordRateLimited(@NonNull JobInfo jobInfo, long delayMs) {
+        synchronized (counters) {
+            getCounters(jobInfo.getAction()).rateLimitedCount++;
+        }
+
+        for (Listener listener : listeners) {
+            listener.onJobRateLimited(jobInfo.getAction(), delayMs);
+        }
+    }
+
+    /**
+     * Records a reschedule.
+     *
+     * @param jobInfo The job.
+     * @param delayMs The reschedule delay.
+     */
+    void recordReschedule(@NonNull JobInfo jobInfo, long delayMs) {
+        synchronized (counters) {
+            getCounters(jobInfo.getAction()).rescheduleCount++;
+        }
+
+        for (Listener listener : listeners) {
+            listener.onJobRescheduled(jobInfo.getAction(), delayMs);
+        }
+    }
+
+    /**
+     * Gets the metrics for an action.
+     *
+     * @param action The job action.
+     * @return The metrics, or {@code null} if nothing was recorded for the action.
+     */
+    @Nullable
+    public ActionMetrics getActionMetrics(@NonNull String action) {
+        synchronized (counters) {
+            Counters actionCounters = counters.get(action);
+            return actionCounters == null ? null : new ActionMetrics(action, actionCounters);
+        }
+    }
+
+    /**
+     * Gets the metrics for every recorded action.
+     *
+     * @return A map of action to metrics.
+     */
+    @NonNull
+    public Map<String, ActionMetrics> getAllActionMetrics() {
+        synchronized (counters) {
+            Map<String, ActionMetrics> metrics = new HashMap<>();
+            for (Map.Entry<String, Counters> entry : counters.entrySet()) {
+                metrics.put(entry.getKey(), new ActionMetrics(entry.getKey(), entry.getValue()));
+            }
+            return metrics;
+        }
+    }
+
+    /**
+     * Clears all recorded metrics.
+     */
+    public void reset() {
+        synchronized (counters) {
+            counters.clear();
+        }
+    }
+
+    @NonNull
+    private Counters getCounters(@NonNull String action) {
+        Counters actionCounters = counters.get(action);
+        if (actionCounters == null) {
+            actionCounters = new Counters();
+            counters.put(action, actionCounters);
+        }
+        return actionCounters;
+    }
+
+    /**
+     * Metrics snapshot for a single job action.
+     */
+    public static final class ActionMetrics {
+
+        private final String action;
+        private final long startCount;
+        private final long inProcessStartCount;
+        private final long totalDispatchLatencyMs;
+        private final long maxDispatchLatencyMs;
+        private final long successCount;
+        private final long retryCount;
+        private final long failureCount;
+        private final long totalRunDurationMs;
+        private final long maxRunDurationMs;
+        private final long rateLimitedCount;
+        private final long rescheduleCount;
+
+        private ActionMetrics(@NonNull String action, @NonNull Counters counters) {
+            this.action = action;
+            this.startCount = counters.startCount;
+            this.inProcessStartCount = counters.inProcessStartCount;
+            this.totalDispatchLatencyMs = counters.totalDispatchLatencyMs;
+            this.maxDispatchLatencyMs = counters.maxDispatchLatencyMs;
+            this.successCount = counters.successCount;
+            this.retryCount = counters.retryCount;
+            this.failureCount = counters.failureCount;
+            this.totalRunDurationMs = counters.totalRunDurationMs;
+            this.maxRunDurationMs = counters.maxRunDurationMs;
+            this.rateLimitedCount = counters.rateLimitedCount;
+            this.rescheduleCount = counters.rescheduleCount;
+        }
+
+        /**
+         * The job action.
+         *
+         * @return The action.
+         */
+        @NonNull
+        public String getAction() {
+            return action;
+        }
+
+        /**
+         * The number of times the job started.
+         *
+         * @return The start count.
+         */
+        public long getStartCount() {
+            return startCount;
+        }
+
+        /**
+         * The number of starts that ran on the in-process lane instead of the scheduler.
+         *
+         * @return The in-process start count.
+         */
+        public long getInProcessStartCount() {
+            return inProcessStartCount;
+        }
+
+        /**
+         * The average time between when the job was due and when it started.
+         *
+         * @return The average dispatch latency in milliseconds.
+         */
+        public long getAverageDispatchLatencyMs() {
+            return startCount == 0 ? 0 : totalDispatchLatencyMs / startCount;
+        }
+
+        /**
+         * The longest time between when the job was due and when it started.
+         *
+         * @return The max dispatch latency in milliseconds.
+         */
+        public long getMaxDispatchLatencyMs() {
+            return maxDispatchLatencyMs;
+        }
+
+        /**
+         * The number of runs that returned {@link JobResult#SUCCESS}.
+         *
+         * @return The success count.
+         */
+        public long getSuccessCount() {
+            return successCount;
+        }
+
+        /**
+         * The number of runs that returned {@link JobResult#RETRY}.
+         *
+         * @return The retry count.
+         */
+        public long getRetryCount() {
+            return retryCount;
+        }
+
+        /**
+         * The number of runs that returned {@link JobResult#FAILURE}.
+         *
+         * @return The failure count.
+         */
+        public long getFailureCount() {
+            return failureCount;
+        }
+
+        /**
+         * The average run duration of finished runs.
+         *
+         * @return The average run duration in milliseconds.
+         */
+        public long getAverageRunDurationMs() {
+            long finishCount = successCount + retryCount + failureCount;
+            return finishCount == 0 ? 0 : totalRunDurationMs / finishCount;
+        }
+
+        /**
+         * The longest run duration.
+         *
+         * @return The max run duration in milliseconds.
+         */
+        public long getMaxRunDurationMs() {
+            return maxRunDurationMs;
+        }
+
+        /**
+         * The number of times the job was deferred by a rate limit.
+         *
+         * @return The rate limited count.
+         */
+        public long getRateLimitedCount() {
+            return rateLimitedCount;
+        }
+
+        /**
+         * The number of times the job was handed back to the scheduler to run later.
+         *
+         * @return The reschedule count.
+         */
+        public long getRescheduleCount() {
+            return rescheduleCount;
+        }
+
+        @NonNull
+        @Override
+        public String toString() {
+            return "ActionMetrics{" +
+                    "action='" + action + '\'' +
+                    ", startCount=" + startCount +
+                    ", inProcessStartCount=" + inProcessStartCount +
+                    ", averageDispatchLatencyMs=" + getAverageDispatchLatencyMs() +
+                    ", maxDispatchLatencyMs=" + maxDispatchLatencyMs +
+                    ", successCount=" + successCount +
+                    ", retryCount=" + retryCount +
+                    ", failureCount=" + failureCount +
+                    ", averageRunDurationMs=" + getAverageRunDurationMs() +
+                    ", maxRunDurationMs=" + maxRunDurationMs +
+                    ", rateLimitedCount=" + rateLimitedCount +
+                    ", rescheduleCount=" + rescheduleCount +
+                    '}';
+        }
+
+    }
+
+    private static final class Counters {
+
+        long startCount;
+        long inProcessStartCount;
+        long totalDispatchLatencyMs;
+        long maxDispatchLatencyMs;
+        long successCount;
+        long retryCount;
+        long failureCount;
+        long totalRunDurationMs;
+        long maxRunDurationMs;
+        long rateLimitedCount;
+        long rescheduleCount;
+
+    }
+
+}
@@ -4,10 +4,8 @@ package com.urbanairship.job;
 
 import com.urbanairship.util.Clock;
 
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 
 import androidx.annotation.IntRange;
@@ -18,14 +16,19 @@ import androidx.annotation.VisibleForTesting;
 
 /**
  * Rate limit tracker.
+ * <p>
+ * Each limit keeps the time of its last {@code rate} hits in a ring buffer. The limit is over when
+ * the oldest of those hits is still within the duration, so checking the status is constant time
+ * and does not allocate while under the limit. Limits are guarded individually so checks for
+ * different limits never contend.
  */
 @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
 public class RateLimiter {
 
+    private static final Status UNDER_STATUS = new Status(LimitStatus.UNDER, 0);
+
     private final Clock clock;
-    private final Map<String, List<Long>> hits = new HashMap<>();
-    private final Map<String, Rule> rules = new HashMap<>();
-    private final Object lock = new Object();
+    private final Map<String, Limit> limits = new ConcurrentHashMap<>();
 
     public RateLimiter() {
         this(Clock.DEFAULT_CLOCK);
@@ -42,14 +45,9 @@ public class RateLimiter {
      * @param limitId The limit Id.
      */
     public void track(@NonNull String limitId) {
-        synchronized (lock) {
-            List<Long> hits = this.hits.get(limitId);
-            Rule rule = this.rules.get(limitId);
-            long currentTime = clock.currentTimeMillis();
-            if (hits != null && rule != null) {
-                hits.add(currentTime);
-                filter(hits, rule, currentTime);
-            }
+        Limit limit = this.limits.get(limitId);
+        if (limit != null) {
+            limit.track(clock.currentTimeMillis());
         }
     }
 
@@ -61,23 +59,16 @@ public class RateLimiter {
      */
     @Nullable
     public Status status(@NonNull String limitId) {
-        synchronized (lock) {
-            List<Long> hits = this.hits.get(limitId);
-            Rule rule = this.rules.get(limitId);
-            long currentTime = clock.currentTimeMillis();
-
-            if (hits == null || rule == null) {
-                return null;
-            }
-
-            filter(hits, rule, currentTime);
+        Limit limit = this.limits.get(limitId);
+        if (limit == null) {
+            return null;
+        }
 
-            if (hits.size() >= rule.rate) {
-                long nextExpired = rule.durationMs - (currentTime - hits.get(hits.size() - rule.rate));
-                return new Status(LimitStatus.OVER, nextExpired);
-            } else {
-                return new Status(LimitStatus.UNDER, 0);
-            }
+        long nextAvailableMs = limit.nextAvailable(clock.currentTimeMillis());
+        if (nextAvailableMs > 0) {
+            return new Status(LimitStatus.OVER, nextAvailableMs);
+        } else {
+            return UNDER_STATUS;
         }
     }
 
@@ -90,18 +81,7 @@ public class RateLimiter {
      * @param durationUnit The duration unit.
      */
     public void setLimit(@NonNull String limitId, @IntRange(from = 1) int rate, long duration, @NonNull TimeUnit durationUnit) {
-        synchronized (lock) {
-            this.rules.put(limitId, new Rule(rate, durationUnit.toMillis(duration)));
-            this.hits.put(limitId, new ArrayList<>());
-        }
-    }
-
-    private void filter(@NonNull List<Long> hits, @NonNull Rule rule, long currentTimeMs) {
-        for (long hit : new ArrayList<>(hits)) {
-            if (currentTimeMs >= (hit + rule.durationMs)) {
-                hits.remove(hit);
-            }
-        }
+        this.limits.put(limitId, new Limit(rate, durationUnit.toMillis(duration)));
     }
 
     /**
@@ -153,14 +133,40 @@ public class RateLimiter {
         }
     }
 
-    private static final class Rule {
+    private static final class Limit {
 
-        final long durationMs;
-        final int rate;
+        private final long durationMs;
+        private final long[] hits;
+        private int next;
+        private int count;
 
-        Rule(int rate, long durationMs) {
-            this.rate = rate;
+        Limit(int rate, long durationMs) {
             this.durationMs = durationMs;
+            this.hits = new long[rate];
+        }
+
+        synchronized void track(long timeMs) {
+            hits[next] = timeMs;
+            next = (next + 1) % hits.length;
+            if (count < hits.length) {
+                count++;
+            }
+        }
+
+        /**
+         * Gets the time until the limit is under.
+         *
+         * @param currentTimeMs The current time.
+         * @return The time in milliseconds, or 0 if the limit is under.
+         */
+        synchronized long nextAvailable(long currentTimeMs) {
+            if (count < hits.length) {
+                return 0;
+            }
+
+            // Once full, the next slot holds the oldest of the last rate hits
+            long oldest = hits[next];
+            return Math.max(0, oldest + durationMs - currentTimeMs);
         }
 
     }
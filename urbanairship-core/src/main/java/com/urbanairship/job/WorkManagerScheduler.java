@@ -24,9 +24,8 @@ class WorkManagerScheduler implements Scheduler {
         try {
             OneTimeWorkRequest workRequest = createWorkRequest(jobInfo, delayMs);
             ExistingWorkPolicy workPolicy = convertConflict(jobInfo.getConflictStrategy());
-            String uniqueName = jobInfo.getAirshipComponentName() + ":" + jobInfo.getAction();
             WorkManager.getInstance(context)
-                       .enqueueUniqueWork(uniqueName, workPolicy, workRequest);
+                       .enqueueUniqueWork(jobInfo.getUniqueName(), workPolicy, workRequest);
         } catch (Exception e) {
             throw new SchedulerException("Failed to schedule job", e);
         }
@@ -1,6 +1,7 @@
 package com.urbanairship.job;
 
 import com.urbanairship.json.JsonException;
+import com.urbanairship.json.JsonMap;
 import com.urbanairship.json.JsonValue;
 
 import java.util.concurrent.TimeUnit;
@@ -51,4 +52,38 @@ abstract class WorkUtils {
         return builder.build();
     }
 
+    @NonNull
+    static JsonValue convertToJson(@NonNull JobInfo jobInfo) {
+        return JsonMap.newBuilder()
+                      .put(ACTION, jobInfo.getAction())
+                      .put(EXTRAS, jobInfo.getExtras())
+                      .put(COMPONENT, jobInfo.getAirshipComponentName())
+                      .put(NETWORK_REQUIRED, jobInfo.isNetworkAccessRequired())
+                      .put(MIN_DELAY, jobInfo.getMinDelayMs())
+                      .put(INITIAL_BACKOFF, jobInfo.getInitialBackOffMs())
+                      .put(CONFLICT_STRATEGY, jobInfo.getConflictStrategy())
+                      .put(RATE_LIMIT_IDS, JsonValue.wrapOpt(jobInfo.getRateLimitIds()))
+                      .build()
+                      .toJsonValue();
+    }
+
+    @NonNull
+    static JobInfo convertToJobInfo(@NonNull JsonValue json) throws JsonException {
+        JsonMap map = json.optMap();
+        JobInfo.Builder builder = JobInfo.newBuilder()
+                                         .setAction(map.opt(ACTION).requireString())
+                                         .setExtras(map.opt(EXTRAS).optMap())
+                                         .setMinDelay(map.opt(MIN_DELAY).getLong(0), TimeUnit.MILLISECONDS)
+                                         .setInitialBackOff(map.opt(INITIAL_BACKOFF).getLong(0), TimeUnit.MILLISECONDS)
+                                         .setNetworkAccessRequired(map.opt(NETWORK_REQUIRED).getBoolean(false))
+                                         .setAirshipComponent(map.opt(COMPONENT).getString())
+                                         .setConflictStrategy(map.opt(CONFLICT_STRATEGY).getInt(JobInfo.REPLACE));
+
+        for (JsonValue value : map.opt(RATE_LIMIT_IDS).optList()) {
+            builder.addRateLimit(value.requireString());
+        }
+
+        return builder.build();
+    }
+
 }
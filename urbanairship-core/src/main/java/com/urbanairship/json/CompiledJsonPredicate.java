@@ -0,0 +1,128 @@
+/* Copyright Airship and Contributors */
+
+package com.urbanairship.json;
+
+import com.urbanairship.Predicate;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.RestrictTo;
+
+/**
+ * A {@link JsonPredicate} compiled into a flat evaluator.
+ * <p>
+ * Compiling resolves everything that does not depend on the evaluated value up front: logical
+ * operators become array backed nodes, matcher scopes and keys are combined into a single interned
+ * key path, and value matchers precompute their state (see {@link ValueMatcher#compile(boolean)}).
+ * Evaluating does not allocate.
+ *
+ * @hide
+ */
+@RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+public final class CompiledJsonPredicate implements Predicate<JsonSerializable> {
+
+    private final Predicate<JsonValue> root;
+
+    CompiledJsonPredicate(@NonNull Predicate<JsonValue> root) {
+        this.root = root;
+    }
+
+    @Override
+    public boolean apply(@Nullable JsonSerializable value) {
+        return root.apply(value == null ? JsonValue.NULL : value.toJsonValue());
+    }
+
+    /**
+     * Compiles a logical predicate.
+     *
+     * @param type The predicate type.
+     * @param items The compiled child items.
+     * @return The compiled node.
+     */
+    @NonNull
+    static Predicate<JsonValue> compileLogical(@NonNull String type, @NonNull final Predicate<JsonValue>[] items) {
+        if (items.length == 0) {
+            return new Predicate<JsonValue>() {
+                @Override
+                public boolean apply(JsonValue value) {
+                    return true;
+                }
+            };
+        }
+
+        switch (type) {
+            case JsonPredicate.NOT_PREDICATE_TYPE:
+                final Predicate<JsonValue> item = items[0];
+                return new Predicate<JsonValue>() {
+                    @Override
+                    public boolean apply(JsonValue value) {
+                        return !item.apply(value);
+                    }
+                };
+
+            case JsonPredicate.AND_PREDICATE_TYPE:
+                return new Predicate<JsonValue>() {
+                    @Override
+                    public boolean apply(JsonValue value) {
+                        for (Predicate<JsonValue> item : items) {
+                            if (!item.apply(value)) {
+                                return false;
+                            }
+                        }
+                        return true;
+                    }
+                };
+
+            case JsonPredicate.OR_PREDICATE_TYPE:
+            default:
+                if (items.length == 1) {
+                    return items[0];
+                }
+
+                return new Predicate<JsonValue>() {
+                    @Override
+                    public boolean apply(JsonValue value) {
+                        for (Predicate<JsonValue> item : items) {
+                            if (item.apply(value)) {
+                                return true;
+                            }
+                        }
+                        return false;
+                    }
+                };
+        }
+    }
+
+    /**
+     * Compiles a matcher that selects a value by key path before applying a value matcher.
+     *
+     * @param path The key path, scopes followed by the key.
+     * @param valueMatcher The compiled value matcher.
+     * @return The compiled node.
+     */
+    @NonNull
+    static Predicate<JsonValue> compileMatcher(@NonNull String[] path, @NonNull final Predicate<JsonValue> valueMatcher) {
+        if (path.length == 0) {
+            return valueMatcher;
+        }
+
+        final String[] keys = new String[path.length];
+        for (int i = 0; i < path.length; i++) {
+            keys[i] = path[i] == null ? null : path[i].intern();
+        }
+
+        return new Predicate<JsonValue>() {
+            @Override
+            public boolean apply(JsonValue value) {
+                for (String key : keys) {
+                    value = value.optMap().opt(key);
+                    if (value.isNull()) {
+                        break;
+                    }
+                }
+                return valueMatcher.apply(value);
+            }
+        };
+    }
+
+}
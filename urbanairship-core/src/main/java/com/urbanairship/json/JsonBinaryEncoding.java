@@ -0,0 +1,342 @@
+/* Copyright Airship and Contributors */
+
+package com.urbanairship.json;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.RestrictTo;
+
+/**
+ * Compact binary encoding for persisted {@link JsonValue}s.
+ * <p>
+ * Values are written as a type tag followed by their payload. Strings, lists and maps are
+ * length-prefixed with a varint and integers use zigzag varints. Map keys are interned per
+ * encoded value: the first occurrence of a key is written inline and later occurrences are
+ * written as a reference into the key table, so repeated object shapes cost a byte or two per key.
+ * <p>
+ * Encoded data starts with a magic header that can never begin a JSON text, so readers can use
+ * {@link #isEncoded(byte[])} to support both the binary and the legacy text format.
+ *
+ * @hide
+ */
+@RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+public final class JsonBinaryEncoding {
+
+    private static final byte MAGIC = (byte) 0xB5;
+    private static final byte VERSION = 1;
+
+    private static final int TAG_NULL = 0;
+    private static final int TAG_TRUE = 1;
+    private static final int TAG_FALSE = 2;
+    private static final int TAG_INT = 3;
+    private static final int TAG_LONG = 4;
+    private static final int TAG_DOUBLE = 5;
+    private static final int TAG_STRING = 6;
+    private static final int TAG_LIST = 7;
+    private static final int TAG_MAP = 8;
+
+    private JsonBinaryEncoding() {}
+
+    /**
+     * Checks if the data is in the binary encoding.
+     *
+     * @param data The data.
+     * @return {@code true} if the data starts with the binary header, otherwise {@code false}.
+     */
+    public static boolean isEncoded(@Nullable byte[] data) {
+        return data != null && data.length >= 2 && data[0] == MAGIC && data[1] == VERSION;
+    }
+
+    /**
+     * Encodes a value.
+     *
+     * @param value The value.
+     * @return The encoded bytes.
+     */
+    @NonNull
+    public static byte[] encode(@NonNull JsonSerializable value) {
+        Encoder encoder = new Encoder();
+        encoder.writeByte(MAGIC);
+        encoder.writeByte(VERSION);
+        encoder.writeValue(value.toJsonValue());
+        return encoder.toByteArray();
+    }
+
+    /**
+     * Decodes a value.
+     *
+     * @param data The encoded bytes.
+     * @return The decoded value.
+     * @throws JsonException If the data is not in the binary encoding or is malformed.
+     */
+    @NonNull
+    public static JsonValue decode(@NonNull byte[] data) throws JsonException {
+        if (!isEncoded(data)) {
+            throw new JsonException("Invalid binary json header");
+        }
+
+        Decoder decoder = new Decoder(data, 2);
+        try {
+            JsonValue value = decoder.readValue();
+            if (decoder.position != data.length) {
+                throw new JsonException("Unexpected trailing data in binary json");
+            }
+            return value;
+        } catch (ArrayIndexOutOfBoundsException e) {
+            throw new JsonException("Truncated binary json", e);
+        }
+    }
+
+    /**
+     * Decodes a value that is either in the binary encoding or JSON text encoded as UTF-8.
+     *
+     * @param data The data.
+     * @return The decoded value.
+     * @throws JsonException If the data is malformed.
+     */
+    @NonNull
+    public static JsonValue decodeOrParse(@Nullable byte[] data) throws JsonException {
+        if (data == null) {
+            return JsonValue.NULL;
+        }
+
+        if (isEncoded(data)) {
+            return decode(data);
+        }
+
+        return JsonValue.parseString(new String(data, StandardCharsets.UTF_8));
+    }
+
+    private static final class Encoder {
+
+        private byte[] buffer = new byte[256];
+        private int position;
+        private final Map<String, Integer> keys = new HashMap<>();
+
+        void writeValue(@NonNull JsonValue value) {
+            Object raw = value.getValue();
+            if (raw == null) {
+                writeByte(TAG_NULL);
+            } else if (raw instanceof Boolean) {
+                writeByte((Boolean) raw ? TAG_TRUE : TAG_FALSE);
+            } else if (raw instanceof Integer) {
+                writeByte(TAG_INT);
+                writeVarLong(zigzag((Integer) raw));
+            } else if (raw instanceof Long) {
+                writeByte(TAG_LONG);
+                writeVarLong(zigzag((Long) raw));
+            } else if (raw instanceof Number) {
+                writeByte(TAG_DOUBLE);
+                writeDouble(((Number) raw).doubleValue());
+            } else if (raw instanceof String) {
+                writeByte(TAG_STRING);
+                writeString((String) raw);
+            } else if (raw instanceof JsonList) {
+                JsonList list = (JsonList) raw;
+                writeByte(TAG_LIST);
+                writeVarLong(list.size());
+                for (JsonValue item : list) {
+                    writeValue(item);
+                }
+            } else if (raw instanceof JsonMap) {
+                JsonMap map = (JsonMap) raw;
+                writeByte(TAG_MAP);
+                writeVarLong(map.size());
+                for (Map.Entry<String, JsonValue> entry : map) {
+                    writeKey(entry.getKey());
+                    writeValue(entry.getValue());
+                }
+            } else {
+                writeByte(TAG_STRING);
+                writeString(String.valueOf(raw));
+            }
+        }
+
+        private void writeKey(@NonNull String key) {
+            Integer index = keys.get(key);
+            if (index != null) {
+                writeVarLong(index + 1);
+                return;
+            }
+
+            keys.put(key, keys.size());
+            writeVarLong(0);
+            writeString(key);
+        }
+
+        private void writeString(@NonNull String value) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarLong(bytes.length);
+            ensureCapacity(bytes.length);
+            System.arraycopy(bytes, 0, buffer, position, bytes.length);
+            position += bytes.length;
+        }
+
+        private void writeDouble(double value) {
+            long bits = Double.doubleToLongBits(value);
+            ensureCapacity(8);
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                buffer[position++] = (byte) (bits >>> shift);
+            }
+        }
+
+        private void writeVarLong(long value) {
+            ensureCapacity(10);
+            while ((value & ~0x7FL) != 0) {
+                buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buffer[position++] = (byte) value;
+        }
+
+        void writeByte(int value) {
+            ensureCapacity(1);
+            buffer[position++] = (byte) value;
+        }
+
+        private void ensureCapacity(int count) {
+            if (position + count > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, position + count));
+            }
+        }
+
+        @NonNull
+        byte[] toByteArray() {
+            return Arrays.copyOf(buffer, position);
+        }
+
+        private static long zigzag(long value) {
+            return (value << 1) ^ (value >> 63);
+        }
+
+    }
+
+    private static final class Decoder {
+
+        private final byte[] data;
+        private int position;
+        private final List<String> keys = new ArrayList<>();
+
+        Decoder(@NonNull byte[] data, int position) {
+            this.data = data;
+            this.position = position;
+        }
+
+        @NonNull
+        JsonValue readValue() throws JsonException {
+            int tag = data[position++];
+            switch (tag) {
+                case TAG_NULL:
+                    return JsonValue.NULL;
+                case TAG_TRUE:
+                    return new JsonValue(Boolean.TRUE);
+                case TAG_FALSE:
+                    return new JsonValue(Boolean.FALSE);
+                case TAG_INT:
+                    return new JsonValue((int) unzigzag(readVarLong()));
+                case TAG_LONG:
+                    return new JsonValue(unzigzag(readVarLong()));
+                case TAG_DOUBLE:
+                    return new JsonValue(readDouble());
+                case TAG_STRING:
+                    return new JsonValue(readString());
+                case TAG_LIST:
+                    int listSize = readElementCount();
+                    List<JsonValue> list = new ArrayList<>(listSize);
+                    for (int i = 0; i < listSize; i++) {
+                        list.add(readValue());
+                    }
+                    return new JsonValue(new JsonList(list, false));
+                case TAG_MAP:
+                    int mapSize = readElementCount();
+                    Map<String, JsonValue> map = new HashMap<>(Math.max(4, (int) (mapSize / .75f) + 1));
+                    for (int i = 0; i < mapSize; i++) {
+                        String key = readKey();
+                        map.put(key, readValue());
+                    }
+                    return new JsonValue(new JsonMap(map, false));
+                default:
+                    throw new JsonException("Invalid binary json tag: " + tag);
+            }
+        }
+
+        @NonNull
+        private String readKey() throws JsonException {
+            int reference = readLength();
+            if (reference == 0) {
+                String key = readString();
+                keys.add(key);
+                return key;
+            }
+
+            if (reference > keys.size()) {
+                throw new JsonException("Invalid binary json key reference: " + reference);
+            }
+            return keys.get(reference - 1);
+        }
+
+        @NonNull
+        private String readString() throws JsonException {
+            int length = readLength();
+            if (length > data.length - position) {
+                throw new JsonException("Truncated binary json string");
+            }
+            String value = new String(data, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return value;
+        }
+
+        private double readDouble() {
+            long bits = 0;
+            for (int i = 0; i < 8; i++) {
+                bits = (bits << 8) | (data[position++] & 0xFF);
+            }
+            return Double.longBitsToDouble(bits);
+        }
+
+        /**
+         * Reads a list or map size. Every element takes at least one byte, so a size larger than
+         * the remaining data is corrupt and is rejected before anything is allocated for it.
+         */
+        private int readElementCount() throws JsonException {
+            int count = readLength();
+            if (count > data.length - position) {
+                throw new JsonException("Invalid binary json element count: " + count);
+            }
+            return count;
+        }
+
+        private int readLength() throws JsonException {
+            long value = readVarLong();
+            if (value < 0 || value > Integer.MAX_VALUE) {
+                throw new JsonException("Invalid binary json length: " + value);
+            }
+            return (int) value;
+        }
+
+        private long readVarLong() throws JsonException {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                byte b = data[position++];
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new JsonException("Malformed binary json varint");
+        }
+
+        private static long unzigzag(long value) {
+            return (value >>> 1) ^ -(value & 1);
+        }
+
+    }
+
+}
@@ -4,10 +4,10 @@ package com.urbanairship.json;
 
 import com.urbanairship.Logger;
 
-import org.json.JSONException;
-import org.json.JSONStringer;
-
+import java.io.IOException;
+import java.io.StringWriter;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 
@@ -27,6 +27,9 @@ public class JsonList implements Iterable<JsonValue>, JsonSerializable {
 
     private final List<JsonValue> list;
 
+    // Lazily computed, 0 means not yet computed
+    private int hash;
+
     /**
      * Default Constructor.
      *
@@ -36,6 +39,16 @@ public class JsonList implements Iterable<JsonValue>, JsonSerializable {
         this.list = list == null ? new ArrayList<JsonValue>() : new ArrayList<>(list);
     }
 
+    /**
+     * Creates a JsonList that optionally takes ownership of the list instead of copying it.
+     *
+     * @param list A list of JsonValues.
+     * @param copy {@code true} to copy the list, {@code false} if the caller hands off the list and will not modify it.
+     */
+    JsonList(@NonNull List<JsonValue> list, boolean copy) {
+        this.list = copy ? new ArrayList<>(list) : list;
+    }
+
     /**
      * Tests whether this {@code List} contains the specified JSON value.
      *
@@ -90,7 +103,7 @@ public class JsonList implements Iterable<JsonValue>, JsonSerializable {
      */
     @NonNull
     public Iterator<JsonValue> iterator() {
-        return list.iterator();
+        return Collections.unmodifiableList(list).iterator();
     }
 
     /**
@@ -131,7 +144,11 @@ public class JsonList implements Iterable<JsonValue>, JsonSerializable {
         }
 
         if ((object instanceof JsonList)) {
-            return list.equals(((JsonList) object).list);
+            JsonList other = (JsonList) object;
+            if (list.size() != other.list.size() || hashCode() != other.hashCode()) {
+                return false;
+            }
+            return list.equals(other.list);
         }
 
         return false;
@@ -139,7 +156,12 @@ public class JsonList implements Iterable<JsonValue>, JsonSerializable {
 
     @Override
     public int hashCode() {
-        return list.hashCode();
+        int result = hash;
+        if (result == 0) {
+            result = list.hashCode();
+            hash = result;
+        }
+        return result;
     }
 
     /**
@@ -150,29 +172,15 @@ public class JsonList implements Iterable<JsonValue>, JsonSerializable {
     @NonNull
     @Override
     public String toString() {
+        StringWriter writer = new StringWriter();
         try {
-            JSONStringer stringer = new JSONStringer();
-            write(stringer);
-            return stringer.toString();
-        } catch (JSONException | StringIndexOutOfBoundsException e) {
+            JsonWriter.write(this, writer);
+        } catch (IOException e) {
             // Should never happen
             Logger.error(e, "JsonList - Failed to create JSON String.");
             return "";
         }
-    }
-
-    /**
-     * Helper method that is used to write the list as a JSON String.
-     *
-     * @param stringer The JSONStringer object.
-     * @throws org.json.JSONException If the value is unable to be written as JSON.
-     */
-    void write(@NonNull JSONStringer stringer) throws JSONException {
-        stringer.array();
-        for (JsonValue actionValue : this) {
-            actionValue.write(stringer);
-        }
-        stringer.endArray();
+        return writer.toString();
     }
 
     @NonNull
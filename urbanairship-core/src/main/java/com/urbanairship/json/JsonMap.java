@@ -4,11 +4,11 @@ package com.urbanairship.json;
 
 import com.urbanairship.Logger;
 
-import org.json.JSONException;
-import org.json.JSONStringer;
-
+import java.io.IOException;
+import java.io.StringWriter;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
@@ -27,6 +27,9 @@ public class JsonMap implements Iterable<Map.Entry<String, JsonValue>>, JsonSeri
 
     private final Map<String, JsonValue> map;
 
+    // Lazily computed, 0 means not yet computed
+    private int hash;
+
     /**
      * Creates a JsonMap from a Map.
      *
@@ -36,6 +39,16 @@ public class JsonMap implements Iterable<Map.Entry<String, JsonValue>>, JsonSeri
         this.map = map == null ? new HashMap<String, JsonValue>() : new HashMap<>(map);
     }
 
+    /**
+     * Creates a JsonMap that optionally takes ownership of the map instead of copying it.
+     *
+     * @param map A map of strings to JsonValues.
+     * @param copy {@code true} to copy the map, {@code false} if the caller hands off the map and will not modify it.
+     */
+    JsonMap(@NonNull Map<String, JsonValue> map, boolean copy) {
+        this.map = copy ? new HashMap<>(map) : map;
+    }
+
     /**
      * Factory method to create a new JSON map builder.
      *
@@ -43,7 +56,22 @@ public class JsonMap implements Iterable<Map.Entry<String, JsonValue>>, JsonSeri
      */
     @NonNull
     public static Builder newBuilder() {
-        return new JsonMap.Builder();
+        return new JsonMap.Builder(null);
+    }
+
+    /**
+     * Factory method to create a new JSON map builder that starts with the entries of an
+     * existing map.
+     * <p>
+     * The built map shares the unchanged entries with the source map instead of copying them,
+     * making small edits to large maps cheap.
+     *
+     * @param map The map to start from.
+     * @return A JSON map builder.
+     */
+    @NonNull
+    public static Builder newBuilder(@NonNull JsonMap map) {
+        return new JsonMap.Builder(map);
     }
 
     /**
@@ -70,14 +98,13 @@ public class JsonMap implements Iterable<Map.Entry<String, JsonValue>>, JsonSeri
 
     /**
      * Returns a set containing all of the mappings in this map. Each mapping is
-     * an instance of {@link Map.Entry}. As the set is backed by this map,
-     * changes in one will be reflected in the other.
+     * an instance of {@link Map.Entry}. The set does not support modification.
      *
      * @return a set of the mappings.
      */
     @NonNull
     public Set<Map.Entry<String, JsonValue>> entrySet() {
-        return map.entrySet();
+        return Collections.unmodifiableMap(map).entrySet();
     }
 
     /**
@@ -137,15 +164,14 @@ public class JsonMap implements Iterable<Map.Entry<String, JsonValue>>, JsonSeri
     }
 
     /**
-     * Returns a set of the keys contained in this map. The set is backed by
-     * this map so changes to one are reflected by the other. The set does not
-     * support adding.
+     * Returns a set of the keys contained in this map. The set does not
+     * support modification.
      *
      * @return a set of the keys.
      */
     @NonNull
     public Set<String> keySet() {
-        return map.keySet();
+        return Collections.unmodifiableSet(map.keySet());
     }
 
     /**
@@ -184,19 +210,36 @@ public class JsonMap implements Iterable<Map.Entry<String, JsonValue>>, JsonSeri
         }
 
         if (object instanceof JsonMap) {
-            return map.equals(((JsonMap) object).map);
+            return contentEquals((JsonMap) object);
         }
 
         if (object instanceof JsonValue) {
-            return map.equals(((JsonValue) object).optMap().map);
+            return contentEquals(((JsonValue) object).optMap());
         }
 
         return false;
     }
 
+    private boolean contentEquals(@NonNull JsonMap other) {
+        if (other == this) {
+            return true;
+        }
+
+        if (map.size() != other.map.size() || hashCode() != other.hashCode()) {
+            return false;
+        }
+
+        return map.equals(other.map);
+    }
+
     @Override
     public int hashCode() {
-        return map.hashCode();
+        int result = hash;
+        if (result == 0) {
+            result = map.hashCode();
+            hash = result;
+        }
+        return result;
     }
 
     /**
@@ -207,30 +250,15 @@ public class JsonMap implements Iterable<Map.Entry<String, JsonValue>>, JsonSeri
     @NonNull
     @Override
     public String toString() {
+        StringWriter writer = new StringWriter();
         try {
-            JSONStringer stringer = new JSONStringer();
-            write(stringer);
-            return stringer.toString();
-        } catch (JSONException | StringIndexOutOfBoundsException e) {
+            JsonWriter.write(this, writer);
+        } catch (IOException e) {
             // Should never happen
             Logger.error(e, "JsonMap - Failed to create JSON String.");
             return "";
         }
-    }
-
-    /**
-     * Helper method that is used to write the value as a JSON String.
-     *
-     * @param stringer The JSONStringer object.
-     * @throws org.json.JSONException If the value is unable to be written as JSON.
-     */
-    void write(@NonNull JSONStringer stringer) throws JSONException {
-        stringer.object();
-        for (Map.Entry<String, JsonValue> entry : entrySet()) {
-            stringer.key(entry.getKey());
-            entry.getValue().write(stringer);
-        }
-        stringer.endObject();
+        return writer.toString();
     }
 
     @NonNull
@@ -252,7 +280,11 @@ public class JsonMap implements Iterable<Map.Entry<String, JsonValue>>, JsonSeri
 
         private final Map<String, JsonValue> map = new HashMap<>();
 
-        private Builder() {
+        @Nullable
+        private final JsonMap base;
+
+        private Builder(@Nullable JsonMap base) {
+            this.base = base;
         }
 
         /**
@@ -280,11 +312,11 @@ public class JsonMap implements Iterable<Map.Entry<String, JsonValue>>, JsonSeri
         @NonNull
         public Builder put(@NonNull String key, @Nullable JsonSerializable value) {
             if (value == null) {
-                map.remove(key);
+                remove(key);
             } else {
                 JsonValue jsonValue = value.toJsonValue();
                 if (jsonValue.isNull()) {
-                    map.remove(key);
+                    remove(key);
                 } else {
                     map.put(key, jsonValue);
                 }
@@ -319,7 +351,7 @@ public class JsonMap implements Iterable<Map.Entry<String, JsonValue>>, JsonSeri
             if (value != null) {
                 put(key, JsonValue.wrap(value));
             } else {
-                map.remove(key);
+                remove(key);
             }
 
             return this;
@@ -392,7 +424,24 @@ public class JsonMap implements Iterable<Map.Entry<String, JsonValue>>, JsonSeri
          */
         @NonNull
         public JsonMap build() {
-            return new JsonMap(map);
+            if (base == null) {
+                return new JsonMap(map);
+            }
+
+            if (map.isEmpty()) {
+                return base;
+            }
+
+            return new JsonMap(OverlayMap.apply(base.map, new HashMap<>(map)), false);
+        }
+
+        private void remove(@NonNull String key) {
+            if (base != null && base.containsKey(key)) {
+                // Null marks a removed base entry
+                map.put(key, null);
+            } else {
+                map.remove(key);
+            }
         }
 
     }
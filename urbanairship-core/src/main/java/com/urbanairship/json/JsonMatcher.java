@@ -69,6 +69,17 @@ public class JsonMatcher implements JsonSerializable, Predicate<JsonSerializable
         return value.apply(jsonValue, (ignoreCase != null) && ignoreCase);
     }
 
+    @NonNull
+    Predicate<JsonValue> compileNode() {
+        String[] path = new String[scopeList.size() + (key == null ? 0 : 1)];
+        scopeList.toArray(path);
+        if (key != null) {
+            path[path.length - 1] = key;
+        }
+
+        return CompiledJsonPredicate.compileMatcher(path, value.compile(ignoreCase != null && ignoreCase));
+    }
+
     /**
      * Parses a JsonValue object into a JsonMatcher.
      *
@@ -0,0 +1,326 @@
+/* Copyright Airship and Contributors */
+
+package com.urbanairship.json;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * Single pass JSON pull parser.
+ * <p>
+ * Characters are pulled from the reader through a fixed size buffer and values are built directly
+ * into {@link JsonMap} and {@link JsonList} instances, avoiding the intermediate
+ * {@code JSONObject}/{@code JSONArray} tree. The produced values follow the same rules as
+ * {@link JsonValue#wrap(Object)}: integral numbers become an Integer or a Long, other numbers a
+ * Double, and {@code null} entries are dropped from maps and lists.
+ */
+class JsonParser {
+
+    private static final int BUFFER_SIZE = 1024;
+
+    private final Reader reader;
+    private final char[] buffer;
+    private int position;
+    private int limit;
+
+    private final StringBuilder scratch = new StringBuilder();
+
+    JsonParser(@NonNull Reader reader) {
+        this(reader, BUFFER_SIZE);
+    }
+
+    JsonParser(@NonNull String json) {
+        this(new StringReader(json), Math.max(1, Math.min(json.length(), BUFFER_SIZE)));
+    }
+
+    private JsonParser(@NonNull Reader reader, int bufferSize) {
+        this.reader = reader;
+        this.buffer = new char[bufferSize];
+    }
+
+    /**
+     * Parses a single JSON document. The whole input must be consumed, only whitespace is
+     * allowed after the value. Empty input is parsed as {@link JsonValue#NULL}.
+     *
+     * @return The parsed value.
+     * @throws JsonException If the input is not valid JSON.
+     */
+    @NonNull
+    JsonValue parse() throws JsonException {
+        try {
+            int c = nextNonWhitespace();
+            if (c == -1) {
+                return JsonValue.NULL;
+            }
+
+            JsonValue value = nextValue(c);
+            c = nextNonWhitespace();
+            if (c != -1) {
+                throw syntaxError("Unexpected trailing character '" + (char) c + "'");
+            }
+            return value;
+        } catch (IOException e) {
+            throw new JsonException("Unable to read json", e);
+        }
+    }
+
+    @NonNull
+    private JsonValue nextValue(int c) throws IOException, JsonException {
+        switch (c) {
+            case '{':
+                return new JsonValue(nextMap());
+            case '[':
+                return new JsonValue(nextList());
+            case '"':
+                return new JsonValue(nextString());
+            case 't':
+                expectLiteral("rue");
+                return new JsonValue(Boolean.TRUE);
+            case 'f':
+                expectLiteral("alse");
+                return new JsonValue(Boolean.FALSE);
+            case 'n':
+                expectLiteral("ull");
+                return JsonValue.NULL;
+            case -1:
+                throw syntaxError("Unexpected end of input");
+            default:
+                if (c == '-' || (c >= '0' && c <= '9')) {
+                    return nextNumber(c);
+                }
+                throw syntaxError("Unexpected character '" + (char) c + "'");
+        }
+    }
+
+    @NonNull
+    private JsonMap nextMap() throws IOException, JsonException {
+        Map<String, JsonValue> map = new HashMap<>();
+
+        int c = nextNonWhitespace();
+        if (c == '}') {
+            return new JsonMap(map, false);
+        }
+
+        while (true) {
+            if (c != '"') {
+                throw syntaxError("Expected a key");
+            }
+            String key = nextString();
+
+            if (nextNonWhitespace() != ':') {
+                throw syntaxError("Expected ':' after key " + key);
+            }
+
+            JsonValue value = nextValue(nextNonWhitespace());
+            if (value.isNull()) {
+                map.remove(key);
+            } else {
+                map.put(key, value);
+            }
+
+            c = nextNonWhitespace();
+            if (c == '}') {
+                return new JsonMap(map, false);
+            }
+
+            if (c != ',') {
+                throw syntaxError("Expected ',' or '}'");
+            }
+            c = nextNonWhitespace();
+        }
+    }
+
+    @NonNull
+    private JsonList nextList() throws IOException, JsonException {
+        List<JsonValue> list = new ArrayList<>();
+
+        int c = nextNonWhitespace();
+        if (c == ']') {
+            return new JsonList(list, false);
+        }
+
+        while (true) {
+            JsonValue value = nextValue(c);
+            if (!value.isNull()) {
+                list.add(value);
+            }
+
+            c = nextNonWhitespace();
+            if (c == ']') {
+                return new JsonList(list, false);
+            }
+
+            if (c != ',') {
+                throw syntaxError("Expected ',' or ']'");
+            }
+            c = nextNonWhitespace();
+        }
+    }
+
+    @NonNull
+    private String nextString() throws IOException, JsonException {
+        scratch.setLength(0);
+
+        while (true) {
+            // Copy runs of unescaped characters straight from the buffer
+            int start = position;
+            while (position < limit) {
+                char c = buffer[position];
+                if (c == '"' || c == '\\') {
+                    break;
+                }
+                position++;
+            }
+            scratch.append(buffer, start, position - start);
+
+            if (position == limit) {
+                if (!fill()) {
+                    throw syntaxError("Unterminated string");
+                }
+                continue;
+            }
+
+            char c = buffer[position++];
+            if (c == '"') {
+                return scratch.toString();
+            }
+
+            scratch.append(nextEscapedCharacter());
+        }
+    }
+
+    private char nextEscapedCharacter() throws IOException, JsonException {
+        int c = read();
+        switch (c) {
+            case 'u':
+                int value = 0;
+                for (int i = 0; i < 4; i++) {
+                    int digit = Character.digit(read(), 16);
+                    if (digit == -1) {
+                        throw syntaxError("Invalid unicode escape");
+                    }
+                    value = (value << 4) | digit;
+                }
+                return (char) value;
+            case 't':
+                return '\t';
+            case 'b':
+                return '\b';
+            case 'n':
+                return '\n';
+            case 'r':
+                return '\r';
+            case 'f':
+                return '\f';
+            case '"':
+            case '\\':
+            case '/':
+                return (char) c;
+            case -1:
+                throw syntaxError("Unterminated escape sequence");
+            default:
+                throw syntaxError("Invalid escape sequence '\\" + (char) c + "'");
+        }
+    }
+
+    @NonNull
+    private JsonValue nextNumber(int first) throws IOException, JsonException {
+        scratch.setLength(0);
+        scratch.append((char) first);
+
+        boolean integral = true;
+        while (true) {
+            int c = peek();
+            if ((c >= '0' && c <= '9') || c == '-' || c == '+') {
+                scratch.append((char) c);
+            } else if (c == '.' || c == 'e' || c == 'E') {
+                integral = false;
+                scratch.append((char) c);
+            } else {
+                break;
+            }
+            position++;
+        }
+
+        String literal = scratch.toString();
+        if (integral) {
+            try {
+                long longValue = Long.parseLong(literal);
+                if (longValue <= Integer.MAX_VALUE && longValue >= Integer.MIN_VALUE) {
+                    return new JsonValue((int) longValue);
+                }
+                return new JsonValue(longValue);
+            } catch (NumberFormatException e) {
+                // Too large for a long, fall back to a double
+            }
+        }
+
+        double doubleValue;
+        try {
+            doubleValue = Double.parseDouble(literal);
+        } catch (NumberFormatException e) {
+            throw syntaxError("Invalid number " + literal);
+        }
+
+        if (Double.isInfinite(doubleValue) || Double.isNaN(doubleValue)) {
+            throw new JsonException("Invalid Double value: " + doubleValue);
+        }
+
+        return new JsonValue(doubleValue);
+    }
+
+    private void expectLiteral(@NonNull String remaining) throws IOException, JsonException {
+        for (int i = 0; i < remaining.length(); i++) {
+            if (read() != remaining.charAt(i)) {
+                throw syntaxError("Invalid literal");
+            }
+        }
+    }
+
+    private int nextNonWhitespace() throws IOException {
+        while (true) {
+            int c = read();
+            if (c != ' ' && c != '\n' && c != '\r' && c != '\t') {
+                return c;
+            }
+        }
+    }
+
+    private int read() throws IOException {
+        if (position == limit && !fill()) {
+            return -1;
+        }
+        return buffer[position++];
+    }
+
+    private int peek() throws IOException {
+        if (position == limit && !fill()) {
+            return -1;
+        }
+        return buffer[position];
+    }
+
+    private boolean fill() throws IOException {
+        int read = reader.read(buffer, 0, buffer.length);
+        if (read <= 0) {
+            return false;
+        }
+        position = 0;
+        limit = read;
+        return true;
+    }
+
+    @NonNull
+    private JsonException syntaxError(@Nullable String message) {
+        return new JsonException("Unable to parse json: " + message);
+    }
+
+}
@@ -11,6 +11,7 @@ import java.util.List;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
+import androidx.annotation.RestrictTo;
 import androidx.annotation.StringDef;
 
 /**
@@ -49,6 +50,7 @@ public class JsonPredicate implements JsonSerializable, Predicate<JsonSerializab
 
     private final List<Predicate<JsonSerializable>> items;
     private final String type;
+    private volatile CompiledJsonPredicate compiled;
 
     private JsonPredicate(Builder builder) {
         this.items = builder.items;
@@ -119,6 +121,47 @@ public class JsonPredicate implements JsonSerializable, Predicate<JsonSerializab
         }
     }
 
+    /**
+     * Gets the compiled form of the predicate. The predicate is compiled on first use and the
+     * result is cached, so it should be used with predicates that are evaluated many times.
+     *
+     * @return The compiled predicate.
+     * @hide
+     */
+    @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+    @NonNull
+    public CompiledJsonPredicate compile() {
+        CompiledJsonPredicate result = compiled;
+        if (result == null) {
+            result = new CompiledJsonPredicate(compileNode());
+            compiled = result;
+        }
+        return result;
+    }
+
+    @NonNull
+    @SuppressWarnings("unchecked")
+    Predicate<JsonValue> compileNode() {
+        Predicate<JsonValue>[] compiledItems = new Predicate[items.size()];
+        for (int i = 0; i < compiledItems.length; i++) {
+            final Predicate<JsonSerializable> item = items.get(i);
+            if (item instanceof JsonPredicate) {
+                compiledItems[i] = ((JsonPredicate) item).compileNode();
+            } else if (item instanceof JsonMatcher) {
+                compiledItems[i] = ((JsonMatcher) item).compileNode();
+            } else {
+                compiledItems[i] = new Predicate<JsonValue>() {
+                    @Override
+                    public boolean apply(JsonValue value) {
+                        return item.apply(value);
+                    }
+                };
+            }
+        }
+
+        return CompiledJsonPredicate.compileLogical(type, compiledItems);
+    }
+
     @PredicateType
     @Nullable
     private static String getPredicateType(@NonNull JsonMap jsonMap) {
@@ -1,5 +1,7 @@
 package com.urbanairship.json;
 
+import android.util.LruCache;
+
 import com.urbanairship.Logger;
 
 import androidx.annotation.RestrictTo;
@@ -11,6 +13,12 @@ import androidx.room.TypeConverter;
  */
 @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
 public class JsonTypeConverters {
+
+    // Parsed predicates keyed by their stored JSON. Predicates are immutable, so sharing them
+    // lets repeated loads skip parsing and reuse the compiled form.
+    private static final int PREDICATE_CACHE_SIZE = 1000;
+    private static final LruCache<String, JsonPredicate> predicateCache = new LruCache<>(PREDICATE_CACHE_SIZE);
+
     @TypeConverter
     public JsonValue jsonValueFromString(String value) {
         if (value == null) {
@@ -60,8 +68,15 @@ public class JsonTypeConverters {
             return null;
         }
 
+        JsonPredicate cached = predicateCache.get(value);
+        if (cached != null) {
+            return cached;
+        }
+
         try {
-            return JsonPredicate.parse(JsonValue.parseString(value));
+            JsonPredicate predicate = JsonPredicate.parse(JsonValue.parseString(value));
+            predicateCache.put(value, predicate);
+            return predicate;
         } catch (JsonException e) {
             Logger.error(e, "Unable to parse trigger context: " + value);
             return null;
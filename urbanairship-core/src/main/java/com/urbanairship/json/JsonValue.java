@@ -11,10 +11,17 @@ import com.urbanairship.util.UAStringUtil;
 import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
-import org.json.JSONStringer;
 import org.json.JSONTokener;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.StringWriter;
+import java.io.Writer;
 import java.lang.reflect.Array;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
@@ -48,7 +55,7 @@ public class JsonValue implements Parcelable, JsonSerializable {
      *
      * @param value The wrapped value.
      */
-    private JsonValue(@Nullable Object value) {
+    JsonValue(@Nullable Object value) {
         this.value = value;
     }
 
@@ -499,17 +506,42 @@ public class JsonValue implements Parcelable, JsonSerializable {
             return JsonValue.NULL;
         }
 
-        JSONTokener tokener = new JSONTokener(jsonString);
-
         try {
-            return JsonValue.wrap(tokener.nextValue());
-        } catch (JSONException e) {
-            throw new JsonException("Unable to parse string", e);
+            return new JsonParser(jsonString).parse();
+        } catch (JsonException e) {
+            // Fallback to the lenient org.json tokener for input that is not strictly valid JSON
+            JSONTokener tokener = new JSONTokener(jsonString);
+
+            try {
+                return JsonValue.wrap(tokener.nextValue());
+            } catch (JSONException jsonException) {
+                throw new JsonException("Unable to parse string", jsonException);
+            }
         }
     }
 
+    /**
+     * Parse JSON from a reader. The reader is consumed but not closed.
+     * <p>
+     * Unlike {@link #parseString(String)}, the input must be strictly valid JSON. The reader is
+     * streamed, so there is no lenient fallback for input such as single quoted strings or
+     * unquoted keys. Use {@link #parseString(String)} for input that may not be strict JSON.
+     *
+     * @param reader The reader.
+     * @return A JsonValue from the reader.
+     * @throws JsonException If the JSON was unable to be read or parsed.
+     */
+    @NonNull
+    public static JsonValue parse(@NonNull Reader reader) throws JsonException {
+        return new JsonParser(reader).parse();
+    }
+
     @Override
     public boolean equals(@Nullable Object object) {
+        if (object == this) {
+            return true;
+        }
+
         if (!(object instanceof JsonValue)) {
             return false;
         }
@@ -538,7 +570,11 @@ public class JsonValue implements Parcelable, JsonSerializable {
     @Override
     public int hashCode() {
         int result = 17;
-        if (value != null) {
+        if (value instanceof Number) {
+            // Numbers of different types can be equal, so hash them by their double value
+            long bits = Double.doubleToLongBits(((Number) value).doubleValue());
+            result = 31 * result + (int) (bits ^ (bits >>> 32));
+        } else if (value != null) {
             result = 31 * result + value.hashCode();
         }
         return result;
@@ -556,46 +592,46 @@ public class JsonValue implements Parcelable, JsonSerializable {
             return "null";
         }
 
-        try {
-            if (value instanceof String) {
-                return JSONObject.quote((String) value);
-            }
-
-            if (value instanceof Number) {
-                return JSONObject.numberToString((Number) value);
-            }
-
-            if (value instanceof JsonMap || value instanceof JsonList) {
-                return value.toString();
-            }
+        if (value instanceof Number) {
+            return JsonWriter.numberToString((Number) value);
+        }
 
+        if (value instanceof Boolean) {
             return String.valueOf(value);
-        } catch (JSONException e) {
+        }
+
+        StringWriter writer = new StringWriter();
+        try {
+            write(writer);
+        } catch (IOException e) {
             // Should never happen
             Logger.error(e, "JsonValue - Failed to create JSON String.");
             return "";
         }
+        return writer.toString();
     }
 
     /**
-     * Helper method that is used to write the value as a JSON String.
+     * Writes the JsonValue as JSON directly to a writer, without building the JSON String.
      *
-     * @param stringer The JSONStringer object.
-     * @throws JSONException If the value is unable to be written as JSON.
+     * @param writer The writer.
+     * @throws IOException If the writer fails.
      */
-    void write(@NonNull JSONStringer stringer) throws JSONException {
-        if (isNull()) {
-            stringer.value(null);
-            return;
-        }
+    public void write(@NonNull Writer writer) throws IOException {
+        JsonWriter.write(this, writer);
+    }
 
-        if (value instanceof JsonList) {
-            ((JsonList) value).write(stringer);
-        } else if (value instanceof JsonMap) {
-            ((JsonMap) value).write(stringer);
-        } else {
-            stringer.value(value);
-        }
+    /**
+     * Writes the JsonValue as UTF-8 encoded JSON directly to an output stream. The stream is
+     * flushed but not closed.
+     *
+     * @param outputStream The output stream.
+     * @throws IOException If the stream fails.
+     */
+    public void write(@NonNull OutputStream outputStream) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        write(writer);
+        writer.flush();
     }
 
     /**
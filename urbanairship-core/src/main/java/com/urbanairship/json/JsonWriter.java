@@ -0,0 +1,144 @@
+/* Copyright Airship and Contributors */
+
+package com.urbanairship.json;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Map;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Serializes JSON values directly to a {@link Writer}.
+ * <p>
+ * The output matches {@code org.json.JSONStringer}: strings escape {@code "}, {@code \}, {@code /}
+ * and control characters, and doubles with an integral value are written without a fraction.
+ */
+class JsonWriter {
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+    private static final Double NEGATIVE_ZERO = -0d;
+
+    private JsonWriter() {}
+
+    static void write(@NonNull JsonValue value, @NonNull Writer writer) throws IOException {
+        Object raw = value.getValue();
+        if (raw == null) {
+            writer.write("null");
+        } else if (raw instanceof JsonMap) {
+            write((JsonMap) raw, writer);
+        } else if (raw instanceof JsonList) {
+            write((JsonList) raw, writer);
+        } else if (raw instanceof String) {
+            writeString((String) raw, writer);
+        } else if (raw instanceof Number) {
+            writer.write(numberToString((Number) raw));
+        } else {
+            writer.write(String.valueOf(raw));
+        }
+    }
+
+    static void write(@NonNull JsonMap map, @NonNull Writer writer) throws IOException {
+        writer.write('{');
+        boolean first = true;
+        for (Map.Entry<String, JsonValue> entry : map) {
+            if (!first) {
+                writer.write(',');
+            }
+            writeString(entry.getKey(), writer);
+            writer.write(':');
+            write(entry.getValue(), writer);
+            first = false;
+        }
+        writer.write('}');
+    }
+
+    static void write(@NonNull JsonList list, @NonNull Writer writer) throws IOException {
+        writer.write('[');
+        boolean first = true;
+        for (JsonValue value : list) {
+            if (!first) {
+                writer.write(',');
+            }
+            write(value, writer);
+            first = false;
+        }
+        writer.write(']');
+    }
+
+    static void writeString(@NonNull String value, @NonNull Writer writer) throws IOException {
+        writer.write('"');
+
+        int length = value.length();
+        int start = 0;
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            String replacement;
+            switch (c) {
+                case '"':
+                    replacement = "\\\"";
+                    break;
+                case '\\':
+                    replacement = "\\\\";
+                    break;
+                case '/':
+                    replacement = "\\/";
+                    break;
+                case '\t':
+                    replacement = "\\t";
+                    break;
+                case '\b':
+                    replacement = "\\b";
+                    break;
+                case '\n':
+                    replacement = "\\n";
+                    break;
+                case '\r':
+                    replacement = "\\r";
+                    break;
+                case '\f':
+                    replacement = "\\f";
+                    break;
+                default:
+                    if (c > 0x1F) {
+                        continue;
+                    }
+                    replacement = "\\u00" + HEX[c >> 4] + HEX[c & 0xF];
+                    break;
+            }
+
+            // Write the unescaped run before the escaped character in one call
+            if (start < i) {
+                writer.write(value, start, i - start);
+            }
+            writer.write(replacement);
+            start = i + 1;
+        }
+
+        if (start < length) {
+            writer.write(value, start, length - start);
+        }
+
+        writer.write('"');
+    }
+
+    @NonNull
+    static String numberToString(@NonNull Number number) {
+        if (number instanceof Integer || number instanceof Long) {
+            return number.toString();
+        }
+
+        if (number.equals(NEGATIVE_ZERO)) {
+            return "-0";
+        }
+
+        double doubleValue = number.doubleValue();
+        long longValue = number.longValue();
+        if (doubleValue == (double) longValue) {
+            return Long.toString(longValue);
+        }
+
+        return number.toString();
+    }
+
+}
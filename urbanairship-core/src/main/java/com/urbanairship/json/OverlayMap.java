@@ -0,0 +1,173 @@
+/* Copyright Airship and Contributors */
+
+package com.urbanairship.json;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * Read-only map that layers a small set of changes over a shared base map.
+ * <p>
+ * Used by {@link JsonMap.Builder} so an edited copy of a large map only holds the changed
+ * entries. A {@code null} change value marks a removed base entry. Overlays never stack: applying
+ * changes to an overlay merges both change sets over the original base, and once the changes
+ * grow past a fraction of the base the result is flattened into a plain map.
+ */
+final class OverlayMap extends AbstractMap<String, JsonValue> {
+
+    // Flatten once the changes exceed 1/MAX_CHANGE_RATIO of the base size
+    private static final int MAX_CHANGE_RATIO = 4;
+
+    private final Map<String, JsonValue> base;
+    private final Map<String, JsonValue> changes;
+    private final int size;
+    private Set<Map.Entry<String, JsonValue>> entrySet;
+
+    private OverlayMap(@NonNull Map<String, JsonValue> base, @NonNull Map<String, JsonValue> changes) {
+        this.base = base;
+        this.changes = changes;
+
+        int size = base.size();
+        for (Map.Entry<String, JsonValue> entry : changes.entrySet()) {
+            boolean inBase = base.containsKey(entry.getKey());
+            if (entry.getValue() == null) {
+                if (inBase) {
+                    size--;
+                }
+            } else if (!inBase) {
+                size++;
+            }
+        }
+        this.size = size;
+    }
+
+    /**
+     * Applies changes to a map.
+     *
+     * @param map The map. It will not be modified.
+     * @param changes The changes, owned by the returned map. Null values remove entries.
+     * @return A map with the changes applied.
+     */
+    @NonNull
+    static Map<String, JsonValue> apply(@NonNull Map<String, JsonValue> map, @NonNull Map<String, JsonValue> changes) {
+        Map<String, JsonValue> base = map;
+        if (map instanceof OverlayMap) {
+            OverlayMap overlay = (OverlayMap) map;
+            Map<String, JsonValue> merged = new HashMap<>(overlay.changes);
+            merged.putAll(changes);
+            base = overlay.base;
+            changes = merged;
+        }
+
+        if (changes.size() * MAX_CHANGE_RATIO > base.size()) {
+            Map<String, JsonValue> flattened = new HashMap<>(base);
+            for (Map.Entry<String, JsonValue> entry : changes.entrySet()) {
+                if (entry.getValue() == null) {
+                    flattened.remove(entry.getKey());
+                } else {
+                    flattened.put(entry.getKey(), entry.getValue());
+                }
+            }
+            return flattened;
+        }
+
+        return new OverlayMap(base, changes);
+    }
+
+    @Nullable
+    @Override
+    public JsonValue get(@Nullable Object key) {
+        if (changes.containsKey(key)) {
+            return changes.get(key);
+        }
+        return base.get(key);
+    }
+
+    @Override
+    public boolean containsKey(@Nullable Object key) {
+        if (changes.containsKey(key)) {
+            return changes.get(key) != null;
+        }
+        return base.containsKey(key);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @NonNull
+    @Override
+    public Set<Map.Entry<String, JsonValue>> entrySet() {
+        if (entrySet == null) {
+            entrySet = new AbstractSet<Map.Entry<String, JsonValue>>() {
+                @NonNull
+                @Override
+                public Iterator<Map.Entry<String, JsonValue>> iterator() {
+                    return new EntryIterator();
+                }
+
+                @Override
+                public int size() {
+                    return size;
+                }
+            };
+        }
+        return entrySet;
+    }
+
+    /**
+     * Iterates the non-removed changes followed by the base entries that were not changed.
+     */
+    private final class EntryIterator implements Iterator<Map.Entry<String, JsonValue>> {
+
+        private final Iterator<Map.Entry<String, JsonValue>> changesIterator = changes.entrySet().iterator();
+        private final Iterator<Map.Entry<String, JsonValue>> baseIterator = base.entrySet().iterator();
+        private Map.Entry<String, JsonValue> next;
+
+        @Override
+        public boolean hasNext() {
+            if (next != null) {
+                return true;
+            }
+
+            while (changesIterator.hasNext()) {
+                Map.Entry<String, JsonValue> entry = changesIterator.next();
+                if (entry.getValue() != null) {
+                    next = new SimpleImmutableEntry<>(entry);
+                    return true;
+                }
+            }
+
+            while (baseIterator.hasNext()) {
+                Map.Entry<String, JsonValue> entry = baseIterator.next();
+                if (!changes.containsKey(entry.getKey())) {
+                    next = new SimpleImmutableEntry<>(entry);
+                    return true;
+                }
+            }
+
+            return false;
+        }
+
+        @Override
+        public Map.Entry<String, JsonValue> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Map.Entry<String, JsonValue> entry = next;
+            next = null;
+            return entry;
+        }
+
+    }
+
+}
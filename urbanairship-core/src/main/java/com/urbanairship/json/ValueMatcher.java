@@ -12,6 +12,7 @@ import com.urbanairship.util.IvyVersionMatcher;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
+import androidx.annotation.RestrictTo;
 
 /**
  * Class representing the field matching type and values contained in a JsonMatcher.
@@ -193,6 +194,25 @@ public abstract class ValueMatcher implements JsonSerializable, Predicate<JsonSe
      */
     protected abstract boolean apply(@NonNull JsonValue jsonValue, boolean ignoreCase);
 
+    /**
+     * Creates the evaluator used by {@link CompiledJsonPredicate}. Matchers can override this to
+     * precompute anything that does not depend on the matched value.
+     *
+     * @param ignoreCase {@code true} to ignore case when checking String values, {@code false} to check case.
+     * @return The evaluator.
+     * @hide
+     */
+    @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+    @NonNull
+    protected Predicate<JsonValue> compile(final boolean ignoreCase) {
+        return new Predicate<JsonValue>() {
+            @Override
+            public boolean apply(JsonValue value) {
+                return ValueMatcher.this.apply(value, ignoreCase);
+            }
+        };
+    }
+
     @NonNull
     @Override
     public String toString() {
@@ -2,6 +2,8 @@
 
 package com.urbanairship.json.matchers;
 
+import com.urbanairship.Predicate;
+import com.urbanairship.json.CompiledJsonPredicate;
 import com.urbanairship.json.JsonList;
 import com.urbanairship.json.JsonMap;
 import com.urbanairship.json.JsonPredicate;
@@ -81,6 +83,35 @@ public class ArrayContainsMatcher extends ValueMatcher {
         return false;
     }
 
+    @NonNull
+    @Override
+    protected Predicate<JsonValue> compile(boolean ignoreCase) {
+        final CompiledJsonPredicate compiled = predicate.compile();
+        final int itemIndex = index == null ? -1 : index;
+        final boolean hasIndex = index != null;
+
+        return new Predicate<JsonValue>() {
+            @Override
+            public boolean apply(JsonValue value) {
+                if (!value.isJsonList()) {
+                    return false;
+                }
+
+                JsonList list = value.optList();
+                if (hasIndex) {
+                    return itemIndex >= 0 && itemIndex < list.size() && compiled.apply(list.get(itemIndex));
+                }
+
+                for (int i = 0; i < list.size(); i++) {
+                    if (compiled.apply(list.get(i))) {
+                        return true;
+                    }
+                }
+                return false;
+            }
+        };
+    }
+
     @Override
     public boolean equals(@Nullable Object o) {
         if (this == o) {
@@ -2,6 +2,7 @@
 
 package com.urbanairship.json.matchers;
 
+import com.urbanairship.Predicate;
 import com.urbanairship.json.JsonList;
 import com.urbanairship.json.JsonMap;
 import com.urbanairship.json.JsonValue;
@@ -49,6 +50,31 @@ public class ExactValueMatcher extends ValueMatcher {
         return isEquals(expected, value, ignoreCase);
     }
 
+    @NonNull
+    @Override
+    protected Predicate<JsonValue> compile(final boolean ignoreCase) {
+        if (!ignoreCase || expected.isNumber() || expected.isBoolean() || expected.isNull()) {
+            return new Predicate<JsonValue>() {
+                @Override
+                public boolean apply(JsonValue value) {
+                    return expected.equals(value);
+                }
+            };
+        }
+
+        if (expected.isString()) {
+            final String expectedString = expected.optString();
+            return new Predicate<JsonValue>() {
+                @Override
+                public boolean apply(JsonValue value) {
+                    return value.isString() && expectedString.equalsIgnoreCase(value.optString());
+                }
+            };
+        }
+
+        return super.compile(ignoreCase);
+    }
+
     public boolean isEquals(@Nullable JsonValue valueOne, @Nullable JsonValue valueTwo, boolean ignoreCase) {
         valueOne = valueOne == null ? JsonValue.NULL : valueOne;
         valueTwo = valueTwo == null ? JsonValue.NULL : valueTwo;
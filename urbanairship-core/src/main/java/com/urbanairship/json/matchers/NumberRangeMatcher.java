@@ -2,6 +2,7 @@
 
 package com.urbanairship.json.matchers;
 
+import com.urbanairship.Predicate;
 import com.urbanairship.json.JsonMap;
 import com.urbanairship.json.JsonValue;
 import com.urbanairship.json.ValueMatcher;
@@ -75,6 +76,27 @@ public class NumberRangeMatcher extends ValueMatcher {
         return max == null || (value.isNumber() && !(value.getDouble(0) > max));
     }
 
+    @NonNull
+    @Override
+    protected Predicate<JsonValue> compile(boolean ignoreCase) {
+        final boolean hasMin = min != null;
+        final boolean hasMax = max != null;
+        final double minValue = hasMin ? min : 0;
+        final double maxValue = hasMax ? max : 0;
+
+        return new Predicate<JsonValue>() {
+            @Override
+            public boolean apply(JsonValue value) {
+                if (!value.isNumber()) {
+                    return !hasMin && !hasMax;
+                }
+
+                double number = value.getDouble(0);
+                return !(hasMin && number < minValue) && !(hasMax && number > maxValue);
+            }
+        };
+    }
+
     @NonNull
     @Override
     public JsonValue toJsonValue() {
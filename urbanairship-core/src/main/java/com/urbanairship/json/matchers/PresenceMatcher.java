@@ -2,6 +2,7 @@
 
 package com.urbanairship.json.matchers;
 
+import com.urbanairship.Predicate;
 import com.urbanairship.json.JsonMap;
 import com.urbanairship.json.JsonValue;
 import com.urbanairship.json.ValueMatcher;
@@ -50,6 +51,17 @@ public class PresenceMatcher extends ValueMatcher {
         }
     }
 
+    @NonNull
+    @Override
+    protected Predicate<JsonValue> compile(boolean ignoreCase) {
+        return new Predicate<JsonValue>() {
+            @Override
+            public boolean apply(JsonValue value) {
+                return isPresent != value.isNull();
+            }
+        };
+    }
+
     @Override
     public boolean equals(@Nullable Object o) {
         if (this == o) {
@@ -2,6 +2,7 @@
 
 package com.urbanairship.json.matchers;
 
+import com.urbanairship.Predicate;
 import com.urbanairship.json.JsonMap;
 import com.urbanairship.json.JsonValue;
 import com.urbanairship.json.ValueMatcher;
@@ -50,6 +51,44 @@ public class VersionMatcher extends ValueMatcher {
         return value.isString() && versionMatcher.apply(value.getString());
     }
 
+    @NonNull
+    @Override
+    protected Predicate<JsonValue> compile(boolean ignoreCase) {
+        return new Predicate<JsonValue>() {
+            // The same version string is usually matched repeatedly, remember the last result
+            private volatile LastMatch lastMatch;
+
+            @Override
+            public boolean apply(JsonValue value) {
+                if (!value.isString()) {
+                    return false;
+                }
+
+                String version = value.optString();
+                LastMatch last = lastMatch;
+                if (last != null && last.version.equals(version)) {
+                    return last.result;
+                }
+
+                boolean result = versionMatcher.apply(version);
+                lastMatch = new LastMatch(version, result);
+                return result;
+            }
+        };
+    }
+
+    private static final class LastMatch {
+
+        final String version;
+        final boolean result;
+
+        LastMatch(@NonNull String version, boolean result) {
+            this.version = version;
+            this.result = result;
+        }
+
+    }
+
     @Override
     public boolean equals(@Nullable Object o) {
         if (this == o) {
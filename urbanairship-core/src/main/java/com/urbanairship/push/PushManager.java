@@ -478,6 +478,19 @@ public class PushManager extends AirshipComponent {
         updateManagerEnablement();
     }
 
+    /**
+     * Push registration and notification display are independent, so each action gets its own
+     * ordering key. A slow token refresh will not hold up displaying notifications.
+     *
+     * @hide
+     */
+    @Nullable
+    @Override
+    @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+    protected String getJobOrderingKey(@NonNull JobInfo jobInfo) {
+        return jobInfo.getAction();
+    }
+
     /**
      * @hide
      */
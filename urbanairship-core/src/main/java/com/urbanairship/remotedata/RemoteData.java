@@ -213,7 +213,8 @@ public class RemoteData extends AirshipComponent {
                @NonNull Clock clock, @NonNull RemoteDataApiClient apiClient, @NonNull Network network) {
         super(context, preferenceDataStore);
         this.jobDispatcher = dispatcher;
-        this.dataStore = new RemoteDataStore(context, configOptions.getConfigOptions().appKey, DATABASE_NAME);
+        this.dataStore = new RemoteDataStore(context, configOptions.getConfigOptions().appKey, DATABASE_NAME,
+                configOptions.getConfigOptions().remoteDataBinaryEncodingEnabled);
         this.preferenceDataStore = preferenceDataStore;
         this.privacyManager = privacyManager;
         this.backgroundThread = new AirshipHandlerThread("remote data store");
@@ -124,9 +124,10 @@ public class RemoteDataApiClient {
             request.setHeader("If-Modified-Since", lastModified);
         }
 
-        return request.execute((status, headers, responseBody) -> {
+        // Remote data can be several hundred KB, parse it off the connection instead of buffering it
+        return request.executeStreaming((status, headers, responseBody) -> {
             if (status == 200) {
-                JsonList payloads = JsonValue.parseString(responseBody).optMap().opt("payloads").getList();
+                JsonList payloads = JsonValue.parse(responseBody).optMap().opt("payloads").getList();
                 if (payloads == null) {
                     throw new JsonException("Response does not contain payloads");
                 }
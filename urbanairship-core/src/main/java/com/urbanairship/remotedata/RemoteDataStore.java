@@ -9,6 +9,7 @@ import android.database.SQLException;
 import android.database.sqlite.SQLiteDatabase;
 
 import com.urbanairship.Logger;
+import com.urbanairship.json.JsonBinaryEncoding;
 import com.urbanairship.json.JsonException;
 import com.urbanairship.json.JsonValue;
 import com.urbanairship.util.DataManager;
@@ -41,10 +42,10 @@ public class RemoteDataStore extends DataManager {
     // The timestamp as a long integer of milliseconds
     private static final String COLUMN_NAME_TIMESTAMP = "time";
 
-    // Arbitrary JSON-serialized data
+    // Arbitrary JSON data, either JSON text or a JsonBinaryEncoding blob
     private static final String COLUMN_NAME_DATA = "data";
 
-    // Metadata JSON-serialized data.
+    // Metadata JSON data, either JSON text or a JsonBinaryEncoding blob
     private static final String COLUMN_NAME_METADATA = "metadata";
 
     /**
@@ -52,6 +53,8 @@ public class RemoteDataStore extends DataManager {
      */
     private static final int DATABASE_VERSION = 2;
 
+    private final boolean binaryEncodingEnabled;
+
     /**
      * RemoteDataStore constructor.
      *
@@ -60,7 +63,23 @@ public class RemoteDataStore extends DataManager {
      * @param dbName The database name.
      */
     public RemoteDataStore(@NonNull Context context, @NonNull String appKey, @NonNull String dbName) {
+        this(context, appKey, dbName, false);
+    }
+
+    /**
+     * RemoteDataStore constructor.
+     *
+     * @param context The app context.
+     * @param appKey The app key.
+     * @param dbName The database name.
+     * @param binaryEncodingEnabled {@code true} to write payloads in the compact binary encoding,
+     * {@code false} to write JSON text. Both formats are always readable, but binary rows can not be
+     * read by older SDK versions.
+     */
+    public RemoteDataStore(@NonNull Context context, @NonNull String appKey, @NonNull String dbName,
+                           boolean binaryEncodingEnabled) {
         super(context, appKey, dbName, DATABASE_VERSION);
+        this.binaryEncodingEnabled = binaryEncodingEnabled;
     }
 
     @Override
@@ -118,8 +137,13 @@ public class RemoteDataStore extends DataManager {
                 ContentValues value = new ContentValues();
                 value.put(COLUMN_NAME_TYPE, payload.getType());
                 value.put(COLUMN_NAME_TIMESTAMP, payload.getTimestamp());
-                value.put(COLUMN_NAME_DATA, payload.getData().toString());
-                value.put(COLUMN_NAME_METADATA, payload.getMetadata().toString());
+                if (binaryEncodingEnabled) {
+                    value.put(COLUMN_NAME_DATA, JsonBinaryEncoding.encode(payload.getData()));
+                    value.put(COLUMN_NAME_METADATA, JsonBinaryEncoding.encode(payload.getMetadata()));
+                } else {
+                    value.put(COLUMN_NAME_DATA, payload.getData().toString());
+                    value.put(COLUMN_NAME_METADATA, payload.getMetadata().toString());
+                }
                 try {
                     long id = db.insert(TABLE_NAME, null, value);
                     if (id == -1) {
@@ -208,15 +232,20 @@ public class RemoteDataStore extends DataManager {
     private Set<RemoteDataPayload> generatePayloadEntries(@NonNull Cursor cursor) {
         cursor.moveToFirst();
 
+        int typeIndex = cursor.getColumnIndex(COLUMN_NAME_TYPE);
+        int timestampIndex = cursor.getColumnIndex(COLUMN_NAME_TIMESTAMP);
+        int metadataIndex = cursor.getColumnIndex(COLUMN_NAME_METADATA);
+        int dataIndex = cursor.getColumnIndex(COLUMN_NAME_DATA);
+
         Set<RemoteDataPayload> entries = new HashSet<>();
         while (!cursor.isAfterLast()) {
 
             try {
                 RemoteDataPayload payload = RemoteDataPayload.newBuilder()
-                                                             .setType(cursor.getString(cursor.getColumnIndex(COLUMN_NAME_TYPE)))
-                                                             .setTimeStamp(cursor.getLong(cursor.getColumnIndex(COLUMN_NAME_TIMESTAMP)))
-                                                             .setMetadata(JsonValue.parseString(cursor.getString(cursor.getColumnIndex(COLUMN_NAME_METADATA))).optMap())
-                                                             .setData(JsonValue.parseString(cursor.getString(cursor.getColumnIndex(COLUMN_NAME_DATA))).optMap())
+                                                             .setType(cursor.getString(typeIndex))
+                                                             .setTimeStamp(cursor.getLong(timestampIndex))
+                                                             .setMetadata(readJson(cursor, metadataIndex).optMap())
+                                                             .setData(readJson(cursor, dataIndex).optMap())
                                                              .build();
                 entries.add(payload);
             } catch (IllegalArgumentException | JsonException e) {
@@ -229,4 +258,20 @@ public class RemoteDataStore extends DataManager {
         return entries;
     }
 
+    /**
+     * Reads a JSON column that may hold either a binary encoded blob or legacy JSON text.
+     *
+     * @param cursor The cursor.
+     * @param index The column index.
+     * @return The parsed value.
+     * @throws JsonException If the column cannot be parsed.
+     */
+    @NonNull
+    private static JsonValue readJson(@NonNull Cursor cursor, int index) throws JsonException {
+        if (cursor.getType(index) == Cursor.FIELD_TYPE_BLOB) {
+            return JsonBinaryEncoding.decodeOrParse(cursor.getBlob(index));
+        }
+        return JsonValue.parseString(cursor.getString(index));
+    }
+
 }
@@ -0,0 +1,78 @@
+/* Copyright Airship and Contributors */
+
+package com.urbanairship.util;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.Executor;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.RestrictTo;
+
+/**
+ * Executor that executes {@link Runnable}s in order on another executor, running at most a fixed
+ * number of them at the same time.
+ *
+ * @hide
+ */
+@RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+public class BoundedExecutor implements Executor {
+
+    private final Executor executor;
+    private final int maxConcurrent;
+    private final ArrayDeque<Runnable> runnables = new ArrayDeque<>();
+    private int executingCount = 0;
+
+    /**
+     * Default constructor.
+     *
+     * @param executor The executor that performs the runnables.
+     * @param maxConcurrent The max number of runnables executing at the same time.
+     */
+    public BoundedExecutor(@NonNull Executor executor, int maxConcurrent) {
+        Checks.checkArgument(maxConcurrent > 0, "maxConcurrent must be greater than 0");
+        this.executor = executor;
+        this.maxConcurrent = maxConcurrent;
+    }
+
+    @Override
+    public void execute(@Nullable final Runnable runnable) {
+        if (runnable == null) {
+            return;
+        }
+
+        Runnable wrapped = new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    runnable.run();
+                } finally {
+                    synchronized (runnables) {
+                        executingCount--;
+                    }
+                    next();
+                }
+            }
+        };
+
+        synchronized (runnables) {
+            runnables.offer(wrapped);
+        }
+
+        next();
+    }
+
+    private void next() {
+        synchronized (runnables) {
+            while (executingCount < maxConcurrent) {
+                Runnable next = runnables.pollFirst();
+                if (next == null) {
+                    return;
+                }
+                executingCount++;
+                executor.execute(next);
+            }
+        }
+    }
+
+}
@@ -3,20 +3,27 @@
 package com.urbanairship.util;
 
 import com.urbanairship.PreferenceDataStore;
+import com.urbanairship.json.JsonList;
 import com.urbanairship.json.JsonSerializable;
 import com.urbanairship.json.JsonValue;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.annotation.RestrictTo;
+import androidx.annotation.VisibleForTesting;
 import androidx.arch.core.util.Function;
 
 /**
  * JsonDataStoreQueue is a thread safe storage queue for json serializable items
  * backed by the preference data store.
+ * <p>
+ * Each item is stored under its own key, {@code <storeKey>.item.<index>}, between a head and a tail
+ * index so adding and popping an item only writes that item and one index. Queues stored by older
+ * versions as a single json list under {@code storeKey} are moved to the per item layout on first access.
  *
  * @param <T> The value to be stored.
  * @hide
@@ -26,16 +33,21 @@ public class JsonDataStoreQueue<T> {
 
     private final PreferenceDataStore dataStore;
     private final String storeKey;
+    private final String headKey;
+    private final String tailKey;
     private final Function<JsonValue, T> deserializer;
     private final Function<T, ? extends JsonSerializable> serializer;
 
+    private boolean isMigrated;
+
     /**
      * Default constructor.
      *
      * @param dataStore The preference data store.
      * @param storeKey The store key.
      * @param serializer The value serializer.
-     * @param deserializer The value deserializer.
+     * @param deserializer The value deserializer. Values that can't be deserialized should return
+     * {@code null} and will be dropped from the queue.
      */
     public JsonDataStoreQueue(@NonNull PreferenceDataStore dataStore,
                               @NonNull String storeKey,
@@ -44,6 +56,8 @@ public class JsonDataStoreQueue<T> {
 
         this.dataStore = dataStore;
         this.storeKey = storeKey;
+        this.headKey = storeKey + ".head";
+        this.tailKey = storeKey + ".tail";
         this.serializer = serializer;
         this.deserializer = deserializer;
     }
@@ -53,7 +67,8 @@ public class JsonDataStoreQueue<T> {
      */
     public void removeAll() {
         synchronized (storeKey) {
-            dataStore.remove(storeKey);
+            migrateIfNeeded();
+            clear();
         }
     }
 
@@ -68,12 +83,12 @@ public class JsonDataStoreQueue<T> {
         }
 
         synchronized (storeKey) {
-            List<JsonValue> jsonValues = dataStore.getJsonValue(storeKey).optList().getList();
+            migrateIfNeeded();
+            long tail = getTail();
             for (T value : values) {
-                jsonValues.add(serializer.apply(value).toJsonValue());
+                dataStore.put(itemKey(tail++), serializer.apply(value).toJsonValue());
             }
-            dataStore.put(storeKey, JsonValue.wrapOpt(jsonValues));
-
+            dataStore.put(tailKey, tail);
         }
     }
 
@@ -83,11 +98,7 @@ public class JsonDataStoreQueue<T> {
      * @param value The value.
      */
     public void add(@NonNull T value) {
-        synchronized (storeKey) {
-            List<JsonValue> jsonValues = dataStore.getJsonValue(storeKey).optList().getList();
-            jsonValues.add(serializer.apply(value).toJsonValue());
-            dataStore.put(storeKey, JsonValue.wrapOpt(jsonValues));
-        }
+        addAll(Collections.singletonList(value));
     }
 
     /**
@@ -98,19 +109,24 @@ public class JsonDataStoreQueue<T> {
     @Nullable
     public T pop() {
         synchronized (storeKey) {
-            List<JsonValue> jsonValues = dataStore.getJsonValue(storeKey).optList().getList();
-            if (jsonValues.isEmpty()) {
-                return null;
-            }
+            migrateIfNeeded();
+            long head = getHead();
+            long tail = getTail();
+
+            while (head < tail) {
+                String key = itemKey(head++);
+                JsonValue json = dataStore.getJsonValue(key);
+                dataStore.remove(key);
 
-            JsonValue value = jsonValues.remove(0);
-            if (jsonValues.isEmpty()) {
-                dataStore.remove(storeKey);
-            } else {
-                dataStore.put(storeKey, JsonValue.wrapOpt(jsonValues));
+                T value = json.isNull() ? null : deserializer.apply(json);
+                if (value != null) {
+                    setHead(head, tail);
+                    return value;
+                }
             }
 
-            return deserializer.apply(value);
+            setHead(head, tail);
+            return null;
         }
     }
 
@@ -121,13 +137,30 @@ public class JsonDataStoreQueue<T> {
      */
     @Nullable
     public T peek() {
-        List<JsonValue> jsonValues = dataStore.getJsonValue(storeKey).optList().getList();
-        if (jsonValues.isEmpty()) {
-            return null;
-        }
+        List<T> values = peek(1);
+        return values.isEmpty() ? null : values.get(0);
+    }
 
-        JsonValue value = jsonValues.get(0);
-        return deserializer.apply(value);
+    /**
+     * Peeks up to the given number of values from the front of the queue without removing them.
+     *
+     * @param count The max number of values.
+     * @return The values in queue order.
+     */
+    @NonNull
+    public List<T> peek(int count) {
+        synchronized (storeKey) {
+            migrateIfNeeded();
+            List<T> values = new ArrayList<>();
+            long tail = getTail();
+            for (long index = getHead(); index < tail && values.size() < count; index++) {
+                T value = readItem(index);
+                if (value != null) {
+                    values.add(value);
+                }
+            }
+            return values;
+        }
     }
 
     /**
@@ -137,30 +170,115 @@ public class JsonDataStoreQueue<T> {
      */
     @NonNull
     public List<T> getList() {
+        return peek(Integer.MAX_VALUE);
+    }
+
+    /**
+     * Gets the number of stored items.
+     *
+     * @return The queue size.
+     */
+    public int size() {
         synchronized (storeKey) {
-            List<T> values = new ArrayList<>();
-            for (JsonValue value : dataStore.getJsonValue(storeKey).optList()) {
-                values.add(deserializer.apply(value));
-            }
-            return values;
+            migrateIfNeeded();
+            return (int) (getTail() - getHead());
         }
     }
 
     /**
-     * Applies an operation to the queue.
+     * Applies an operation to the queue. Rewrites the queue unless the operation returns
+     * an equal list.
      *
      * @param listOperation The operation.
      */
     public void apply(Function<List<T>, List<T>> listOperation) {
         synchronized (storeKey) {
             List<T> values = getList();
-            values = listOperation.apply(values);
-            if (values.isEmpty()) {
-                dataStore.remove(storeKey);
-            } else {
-                dataStore.put(storeKey, JsonValue.wrapOpt(values));
+            List<T> result = listOperation.apply(new ArrayList<>(values));
+            if (values.equals(result)) {
+                return;
             }
+
+            clear();
+            addAll(result);
+        }
+    }
+
+    @VisibleForTesting
+    @NonNull
+    String itemKey(long index) {
+        return storeKey + ".item." + index;
+    }
+
+    @Nullable
+    private T readItem(long index) {
+        JsonValue json = dataStore.getJsonValue(itemKey(index));
+        return json.isNull() ? null : deserializer.apply(json);
+    }
+
+    private long getHead() {
+        return dataStore.getLong(headKey, 0);
+    }
+
+    private long getTail() {
+        return dataStore.getLong(tailKey, 0);
+    }
+
+    private void setHead(long head, long tail) {
+        if (head >= tail) {
+            // Reset the indexes once empty so they never grow unbounded
+            dataStore.remove(headKey);
+            dataStore.remove(tailKey);
+        } else {
+            dataStore.put(headKey, head);
+        }
+    }
+
+    private void clear() {
+        long tail = getTail();
+        for (long index = getHead(); index < tail; index++) {
+            dataStore.remove(itemKey(index));
+        }
+        dataStore.remove(headKey);
+        dataStore.remove(tailKey);
+    }
+
+    /**
+     * Moves a queue stored as a single json list under the store key to the per item layout.
+     */
+    private void migrateIfNeeded() {
+        if (isMigrated) {
+            return;
+        }
+        isMigrated = true;
+
+        if (!dataStore.isSet(storeKey)) {
+            return;
+        }
+
+        JsonList legacy = dataStore.getJsonValue(storeKey).optList();
+        long head = getHead();
+        long tail = getTail();
+
+        // Legacy items are older than anything already in the queue
+        long start;
+        if (head >= tail) {
+            start = 0;
+            tail = legacy.size();
+        } else {
+            start = head - legacy.size();
+        }
+
+        long index = start;
+        for (JsonValue json : legacy) {
+            dataStore.put(itemKey(index++), json);
+        }
+
+        setHead(start, tail);
+        if (start < tail) {
+            dataStore.put(tailKey, tail);
         }
+        dataStore.remove(storeKey);
     }
 
 }
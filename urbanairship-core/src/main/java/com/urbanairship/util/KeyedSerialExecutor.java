@@ -0,0 +1,114 @@
+/* Copyright Airship and Contributors */
+
+package com.urbanairship.util;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.RestrictTo;
+import androidx.annotation.VisibleForTesting;
+
+/**
+ * Executor that executes {@link Runnable}s serially per key on another executor. Runnables with
+ * different keys may run concurrently.
+ *
+ * @hide
+ */
+@RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+public class KeyedSerialExecutor {
+
+    private final Executor executor;
+    private final Map<String, ArrayDeque<Runnable>> queues = new HashMap<>();
+
+    /**
+     * Default constructor.
+     *
+     * @param executor The executor that performs the runnables.
+     */
+    public KeyedSerialExecutor(@NonNull Executor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Executes a runnable after any previously submitted runnables with the same key.
+     *
+     * @param key The ordering key.
+     * @param runnable The runnable.
+     */
+    public void execute(@NonNull final String key, @Nullable final Runnable runnable) {
+        if (runnable == null) {
+            return;
+        }
+
+        Runnable wrapped = new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    runnable.run();
+                } finally {
+                    next(key);
+                }
+            }
+        };
+
+        synchronized (queues) {
+            ArrayDeque<Runnable> queue = queues.get(key);
+            if (queue != null) {
+                queue.offer(wrapped);
+                return;
+            }
+
+            // The queue only exists while a runnable for the key is executing
+            queues.put(key, new ArrayDeque<Runnable>());
+        }
+
+        executor.execute(wrapped);
+    }
+
+    /**
+     * Gets an executor that executes runnables with the given key.
+     *
+     * @param key The ordering key.
+     * @return The executor.
+     */
+    @NonNull
+    public Executor getExecutor(@NonNull final String key) {
+        return new Executor() {
+            @Override
+            public void execute(@Nullable Runnable runnable) {
+                KeyedSerialExecutor.this.execute(key, runnable);
+            }
+        };
+    }
+
+    /**
+     * Gets the number of keys with a runnable executing.
+     *
+     * @return The active key count.
+     */
+    @VisibleForTesting
+    int getActiveKeyCount() {
+        synchronized (queues) {
+            return queues.size();
+        }
+    }
+
+    private void next(@NonNull String key) {
+        Runnable next;
+        synchronized (queues) {
+            ArrayDeque<Runnable> queue = queues.get(key);
+            next = queue == null ? null : queue.pollFirst();
+            if (next == null) {
+                queues.remove(key);
+                return;
+            }
+        }
+
+        executor.execute(next);
+    }
+
+}
@@ -59,6 +59,10 @@ public class RetryingExecutor implements Executor {
         return new RetryingExecutor(new Handler(looper), AirshipExecutors.newSerialExecutor());
     }
 
+    public static RetryingExecutor newBoundedExecutor(Looper looper, int maxConcurrent) {
+        return new RetryingExecutor(new Handler(looper), AirshipExecutors.newBoundedExecutor(maxConcurrent));
+    }
+
     public static Result retryResult() {
         return new Result(Status.RETRY, -1);
     }
@@ -12,8 +12,12 @@ import org.junit.Before;
 import org.junit.Test;
 import org.robolectric.RuntimeEnvironment;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
 
 import androidx.annotation.NonNull;
 
@@ -148,4 +152,115 @@ public class PreferenceDataStoreTest extends BaseTestCase {
         assertTrue(testPrefs.getJsonValue("value").isNull());
     }
 
+    /**
+     * Test repeated writes are coalesced into a single commit.
+     */
+    @Test
+    public void testWritesCoalesced() {
+        PreferenceDataDatabase db = PreferenceDataDatabase.createInMemoryDatabase(context);
+        PreferenceDataStore dataStore = new PreferenceDataStore(db);
+
+        final List<Runnable> scheduled = new ArrayList<>();
+        dataStore.executor = new Executor() {
+            @Override
+            public void execute(Runnable runnable) {
+                scheduled.add(runnable);
+            }
+        };
+
+        dataStore.put("count", 1);
+        dataStore.put("count", 2);
+        dataStore.put("count", 3);
+        dataStore.put("other", "value");
+        dataStore.put("other", (String) null);
+
+        // Values are available before the commit
+        assertEquals(3, dataStore.getInt("count", -1));
+        assertTrue(scheduled.isEmpty());
+        assertTrue(db.getDao().getPreferences().isEmpty());
+
+        // The commit is scheduled after the flush delay
+        shadowBackgroundLooper().idleFor(PreferenceDataStore.FLUSH_DELAY_MS, TimeUnit.MILLISECONDS);
+        assertEquals(1, scheduled.size());
+
+        scheduled.get(0).run();
+
+        List<PreferenceData> stored = db.getDao().getPreferences();
+        assertEquals(1, stored.size());
+        assertEquals("count", stored.get(0).getKey());
+        assertEquals("3", stored.get(0).getValue());
+
+        // A new commit is scheduled for later writes
+        dataStore.put("count", 4);
+        shadowBackgroundLooper().idleFor(PreferenceDataStore.FLUSH_DELAY_MS, TimeUnit.MILLISECONDS);
+        assertEquals(2, scheduled.size());
+
+        dataStore.tearDown();
+    }
+
+    /**
+     * Test flush commits pending writes.
+     */
+    @Test
+    public void testFlush() {
+        PreferenceDataDatabase db = PreferenceDataDatabase.createInMemoryDatabase(context);
+        PreferenceDataStore dataStore = new PreferenceDataStore(db);
+        dataStore.executor = new Executor() {
+            @Override
+            public void execute(Runnable runnable) {
+                // Never runs
+            }
+        };
+
+        dataStore.put("key", "value");
+        assertTrue(db.getDao().getPreferences().isEmpty());
+
+        dataStore.flush();
+        assertEquals("value", db.getDao().queryValue("key").getValue());
+
+        dataStore.remove("key");
+        dataStore.flush();
+        assertTrue(db.getDao().getPreferences().isEmpty());
+
+        dataStore.tearDown();
+    }
+
+    /**
+     * Test long values are only read when accessed.
+     */
+    @Test
+    public void testDeferredLoading() {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < 2000; i++) {
+            builder.append('x');
+        }
+        String longValue = builder.toString();
+
+        PreferenceDataDatabase db = PreferenceDataDatabase.createInMemoryDatabase(context);
+        db.getDao().upsert(new PreferenceData("short", "value"));
+        db.getDao().upsert(new PreferenceData("long", longValue));
+        db.getDao().upsert(new PreferenceData("other long", longValue));
+
+        PreferenceDataStore dataStore = new PreferenceDataStore(db);
+        dataStore.loadPreferences();
+
+        PreferenceDataStore.LoadStats stats = dataStore.getLoadStats();
+        assertEquals(1, stats.getLoadedCount());
+        assertEquals(2, stats.getDeferredCount());
+
+        assertEquals("value", dataStore.getString("short", null));
+        assertEquals(longValue, dataStore.getString("long", null));
+        assertEquals(1, dataStore.getLoadStats().getDeferredLoadCount());
+        assertEquals(1, dataStore.getLoadStats().getDeferredCount());
+
+        // Removing a deferred key does not read it
+        dataStore.remove("other long");
+        dataStore.flush();
+        assertFalse(dataStore.isSet("other long"));
+        assertEquals(1, dataStore.getLoadStats().getDeferredLoadCount());
+        assertEquals(2, db.getDao().getPreferences().size());
+
+        dataStore.tearDown();
+    }
+
 }
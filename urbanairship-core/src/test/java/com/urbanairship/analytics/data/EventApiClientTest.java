@@ -6,6 +6,7 @@ import com.urbanairship.BaseTestCase;
 import com.urbanairship.TestAirshipRuntimeConfig;
 import com.urbanairship.TestRequest;
 import com.urbanairship.config.AirshipUrlConfig;
+import com.urbanairship.http.RequestBodyWriter;
 import com.urbanairship.http.RequestException;
 import com.urbanairship.http.RequestFactory;
 import com.urbanairship.http.Response;
@@ -16,12 +17,16 @@ import org.junit.Before;
 import org.junit.Test;
 import org.mockito.Mockito;
 
+import java.io.IOException;
+import java.io.Writer;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import androidx.annotation.NonNull;
+
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
 import static org.mockito.Mockito.when;
@@ -77,6 +82,29 @@ public class EventApiClientTest extends BaseTestCase {
         assertNull(response.getResponseHeaders());
     }
 
+    /**
+     * Test sending a streamed batch of events.
+     */
+    @Test
+    public void testSendStreamedEvents() throws RequestException, JsonException {
+        testRequest.responseBody = "";
+        testRequest.responseStatus = 200;
+
+        RequestBodyWriter bodyWriter = new RequestBodyWriter() {
+            @Override
+            public void writeTo(@NonNull Writer writer) throws IOException {
+                writer.write("[{\"some\":\"json\"}]");
+            }
+        };
+
+        Response<EventResponse> response = client.sendEvents(bodyWriter, Collections.<String, String>emptyMap());
+
+        assertEquals(200, response.getStatus());
+        assertEquals("POST", testRequest.getRequestMethod());
+        assertEquals("http://example.com/warp9/", testRequest.getUrl().toString());
+        assertEquals(JsonValue.wrapOpt(events), JsonValue.parseString(testRequest.getRequestBody()));
+    }
+
     /**
      * Test sending a request with a null URL will return an exception
      */
@@ -0,0 +1,163 @@
+/* Copyright Airship and Contributors */
+
+package com.urbanairship.analytics.data;
+
+import android.database.Cursor;
+
+import com.urbanairship.BaseTestCase;
+import com.urbanairship.TestBenchmark;
+import com.urbanairship.json.JsonMap;
+import com.urbanairship.json.JsonValue;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import androidx.sqlite.db.SupportSQLiteDatabase;
+import androidx.test.core.app.ApplicationProvider;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertTrue;
+
+/**
+ * Measures trimming and batch deletion on a large event table, comparing the previous per-row
+ * and re-summing queries with the set based ones.
+ */
+public class EventDaoBenchmarkTest extends BaseTestCase {
+
+    private static final int EVENT_COUNT = 50000;
+    private static final int EVENTS_PER_SESSION = 100;
+    private static final int EVENT_SIZE = 200;
+    private static final int BATCH_SIZE = 500;
+
+    private AnalyticsDatabase db;
+    private EventDao eventDao;
+
+    @Before
+    public void setUp() {
+        TestBenchmark.assumeEnabled();
+        db = AnalyticsDatabase.createInMemoryDatabase(ApplicationProvider.getApplicationContext());
+        eventDao = db.getEventDao();
+    }
+
+    @After
+    public void tearDown() {
+        if (db != null) {
+            db.close();
+        }
+    }
+
+    @Test
+    public void testTrim() throws Exception {
+        final int maxSize = EVENT_COUNT * EVENT_SIZE / 2;
+
+        populate();
+        TestBenchmark.measure("trim 50k events (re-sum per session)", 0, 1, new TestBenchmark.Operation() {
+            @Override
+            public void run() {
+                legacyTrim(maxSize);
+            }
+        });
+        assertEquals(EVENT_COUNT / 2, eventDao.count());
+
+        eventDao.deleteAll();
+        populate();
+        TestBenchmark.measure("trim 50k events (running total)", 0, 1, new TestBenchmark.Operation() {
+            @Override
+            public void run() {
+                eventDao.trimDatabase(maxSize);
+            }
+        });
+        assertEquals(EVENT_COUNT / 2, eventDao.count());
+        assertEquals(maxSize, eventDao.databaseSize());
+    }
+
+    @Test
+    public void testDeleteBatches() throws Exception {
+        final int batches = EVENT_COUNT / BATCH_SIZE;
+
+        populate();
+        TestBenchmark.measure("delete 500 event batch (per event id)", 0, batches, new TestBenchmark.Operation() {
+            @Override
+            public void run() {
+                legacyDeleteBatch(BATCH_SIZE);
+            }
+        });
+        assertEquals(0, eventDao.count());
+
+        populate();
+        TestBenchmark.measure("delete 500 event batch (id range)", 0, batches, new TestBenchmark.Operation() {
+            @Override
+            public void run() {
+                EventBatch batch = eventDao.getLaneBatch(BATCH_SIZE);
+                assertTrue(eventDao.deleteBatch(batch) > 0);
+            }
+        });
+        assertEquals(0, eventDao.count());
+    }
+
+    private void populate() {
+        final JsonValue data = JsonMap.newBuilder().put("payload", "x").build().toJsonValue();
+
+        db.runInTransaction(new Runnable() {
+            @Override
+            public void run() {
+                for (int i = 0; i < EVENT_COUNT; i++) {
+                    String sessionId = "session-" + (i / EVENTS_PER_SESSION);
+                    eventDao.insert(new EventEntity("type", "event-" + i + "-" + System.nanoTime(), "0", data, sessionId, EVENT_SIZE, 1));
+                }
+            }
+        });
+    }
+
+    /**
+     * The trim loop before the running total and the session ID index.
+     */
+    private void legacyTrim(int maxSize) {
+        SupportSQLiteDatabase database = db.getOpenHelper().getWritableDatabase();
+        while (true) {
+            Cursor cursor = database.query("SELECT SUM(eventSize) FROM events");
+            cursor.moveToFirst();
+            int size = cursor.getInt(0);
+            cursor.close();
+
+            if (size <= maxSize) {
+                break;
+            }
+
+            cursor = database.query("SELECT sessionId FROM events ORDER BY id ASC LIMIT 1");
+            cursor.moveToFirst();
+            String sessionId = cursor.getString(0);
+            cursor.close();
+
+            database.execSQL("DELETE FROM events WHERE sessionId = ?", new Object[] { sessionId });
+        }
+    }
+
+    /**
+     * The batch delete before set based deletes, one statement per event.
+     */
+    private void legacyDeleteBatch(int limit) {
+        final SupportSQLiteDatabase database = db.getOpenHelper().getWritableDatabase();
+        final List<String> eventIds = new ArrayList<>();
+
+        Cursor cursor = database.query("SELECT eventId FROM events ORDER BY id ASC LIMIT ?", new Object[] { limit });
+        while (cursor.moveToNext()) {
+            eventIds.add(cursor.getString(0));
+        }
+        cursor.close();
+
+        db.runInTransaction(new Runnable() {
+            @Override
+            public void run() {
+                for (String eventId : eventIds) {
+                    database.execSQL("DELETE FROM events WHERE eventId = ?", new Object[] { eventId });
+                }
+            }
+        });
+    }
+
+}
@@ -3,14 +3,19 @@ package com.urbanairship.analytics.data;
 import com.urbanairship.BaseTestCase;
 import com.urbanairship.analytics.Event;
 import com.urbanairship.json.JsonException;
+import com.urbanairship.json.JsonList;
 import com.urbanairship.json.JsonMap;
+import com.urbanairship.json.JsonValue;
 
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 
+import java.io.IOException;
+import java.io.StringWriter;
 import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import java.util.List;
 
 import androidx.annotation.NonNull;
@@ -49,8 +54,7 @@ public class EventDaoTest extends BaseTestCase {
         eventDao.insert(ENTITY);
         assertEquals(1, eventDao.count());
 
-        List<EventEntity.EventIdAndData> batch = eventDao.getBatch(1);
-        EventEntity.EventIdAndData event = batch.get(0);
+        EventEntity event = eventDao.get().get(0);
         assertNotNull(event);
 
         assertEquals(ENTITY.eventId, event.eventId);
@@ -69,19 +73,85 @@ public class EventDaoTest extends BaseTestCase {
         eventDao.insert(entity2);
         assertEquals(2, eventDao.count());
 
-        List<EventEntity.EventIdAndData> batch = eventDao.getBatch(10);
-        assertEquals(2, batch.size());
+        EventBatch batch = eventDao.getLaneBatch(10);
+        assertEquals(2, batch.getCount());
+        assertEquals(1, batch.getLanes().size());
 
-        assertEquals(entity1.eventId, batch.get(0).eventId);
-        assertEquals(entity1.data, batch.get(0).data);
+        EventBatch.Lane lane = batch.getLanes().get(0);
+        assertEquals(Event.NORMAL_PRIORITY, lane.priority);
+        assertEquals(entity1.eventSize + entity2.eventSize, lane.size);
 
-        assertEquals(entity2.eventId, batch.get(1).eventId);
-        assertEquals(entity2.data, batch.get(1).data);
-
-        eventDao.deleteBatch(batch);
+        assertEquals(2, eventDao.deleteBatch(batch));
         assertEquals(0, eventDao.count());
     }
 
+    @Test
+    public void testStreamAndDeleteBatch() throws JsonException, IOException {
+        Event event1 = new TestEvent("event-1");
+        Event event2 = new TestEvent("event-2");
+        Event event3 = new TestEvent("event-3");
+
+        EventEntity entity1 = EventEntity.create(event1, "session-1");
+        EventEntity entity2 = EventEntity.create(event2, "session-2");
+        EventEntity entity3 = EventEntity.create(event3, "session-3");
+
+        eventDao.insert(entity1);
+        eventDao.insert(entity2);
+        eventDao.insert(entity3);
+
+        EventBatch batch = eventDao.getLaneBatch(2);
+        assertEquals(2, batch.getCount());
+
+        StringWriter writer = new StringWriter();
+        new EventBatchBodyWriter(eventDao, batch).writeTo(writer);
+
+        JsonList expected = new JsonList(Arrays.asList(entity1.data, entity2.data));
+        assertEquals(expected, JsonValue.parseString(writer.toString()).optList());
+
+        assertEquals(2, eventDao.deleteBatch(batch));
+        assertEquals(1, eventDao.count());
+        assertEquals(entity3.eventId, eventDao.get().get(0).eventId);
+    }
+
+    @Test
+    public void testLaneBatchEmpty() {
+        assertTrue(eventDao.getLaneBatch(10).isEmpty());
+    }
+
+    @Test
+    public void testLaneBatchPriorityOrder() throws JsonException, IOException {
+        EventEntity low = EventEntity.create(new TestEvent("low", Event.LOW_PRIORITY), "session-1");
+        EventEntity normal = EventEntity.create(new TestEvent("normal", Event.NORMAL_PRIORITY), "session-1");
+        EventEntity high1 = EventEntity.create(new TestEvent("high-1", Event.HIGH_PRIORITY), "session-1");
+        EventEntity high2 = EventEntity.create(new TestEvent("high-2", Event.HIGH_PRIORITY), "session-1");
+
+        eventDao.insert(low);
+        eventDao.insert(normal);
+        eventDao.insert(high1);
+        eventDao.insert(high2);
+
+        // High priority events jump ahead of older events
+        EventBatch batch = eventDao.getLaneBatch(3);
+        assertEquals(3, batch.getCount());
+
+        StringWriter writer = new StringWriter();
+        new EventBatchBodyWriter(eventDao, batch).writeTo(writer);
+
+        JsonList expected = new JsonList(Arrays.asList(high1.data, high2.data, normal.data));
+        assertEquals(expected, JsonValue.parseString(writer.toString()).optList());
+
+        // Events added after the batch was assembled are not deleted with it
+        EventEntity high3 = EventEntity.create(new TestEvent("high-3", Event.HIGH_PRIORITY), "session-1");
+        eventDao.insert(high3);
+
+        assertEquals(3, eventDao.deleteBatch(batch));
+        assertEquals(2, eventDao.count());
+
+        List<EventEntity> remaining = eventDao.get();
+        assertEquals(low.eventId, remaining.get(0).eventId);
+        assertEquals(high3.eventId, remaining.get(1).eventId);
+    }
+
     @Test
     public void testDatabaseSize() {
         assertEquals(0, eventDao.databaseSize());
@@ -90,6 +160,37 @@ public class EventDaoTest extends BaseTestCase {
         assertEquals(ENTITY.eventSize, eventDao.databaseSize());
     }
 
+    @Test
+    public void testDatabaseSizeRunningTotal() throws JsonException {
+        EventEntity entity1 = EventEntity.create(new TestEvent("event-1"), "session-1");
+        EventEntity entity2 = EventEntity.create(new TestEvent("event-2"), "session-2");
+
+        eventDao.insert(entity1);
+        eventDao.insert(entity2);
+        assertEquals(entity1.eventSize + entity2.eventSize, eventDao.databaseSize());
+
+        // Replacing an event does not count it twice
+        eventDao.insert(EventEntity.create(new TestEvent("event-1"), "session-1"));
+        assertEquals(entity1.eventSize + entity2.eventSize, eventDao.databaseSize());
+        assertEquals(2, eventDao.count());
+
+        eventDao.deleteBatch(eventDao.getLaneBatch(1));
+        assertEquals(entity2.eventSize, eventDao.databaseSize());
+
+        // A batch whose events were replaced before it is deleted does not skew the total
+        EventBatch batch = eventDao.getLaneBatch(1);
+        eventDao.insert(EventEntity.create(new TestEvent("event-1"), "session-1"));
+        assertEquals(0, eventDao.deleteBatch(batch));
+        assertEquals(entity1.eventSize, eventDao.databaseSize());
+
+        eventDao.trimDatabase(0);
+        assertEquals(0, eventDao.databaseSize());
+
+        eventDao.insert(entity1);
+        eventDao.deleteAll();
+        assertEquals(0, eventDao.databaseSize());
+    }
+
     @Test
     public void testTrim() throws JsonException {
         Event event1 = new TestEvent("event-1");
@@ -103,7 +204,7 @@ public class EventDaoTest extends BaseTestCase {
         assertEquals(2, eventDao.count());
         int combinedSize = entity1.eventSize + entity2.eventSize;
         assertEquals(combinedSize, eventDao.databaseSize());
-        assertEquals("session-1", eventDao.oldestSessionId());
+        assertEquals("session-1", eventDao.oldestSessionId(Event.NORMAL_PRIORITY));
 
         eventDao.trimDatabase(200);
         assertEquals(1, eventDao.count());
@@ -113,6 +214,27 @@ public class EventDaoTest extends BaseTestCase {
         assertEquals(0, eventDao.count());
     }
 
+    @Test
+    public void testTrimLowPriorityFirst() throws JsonException {
+        EventEntity high = EventEntity.create(new TestEvent("high", Event.HIGH_PRIORITY), "session-1");
+        EventEntity normal = EventEntity.create(new TestEvent("normal", Event.NORMAL_PRIORITY), "session-2");
+        EventEntity low = EventEntity.create(new TestEvent("low", Event.LOW_PRIORITY), "session-3");
+
+        eventDao.insert(high);
+        eventDao.insert(normal);
+        eventDao.insert(low);
+
+        // Drops the newer low priority session before the older sessions
+        eventDao.trimDatabase(high.eventSize + normal.eventSize);
+        assertEquals(2, eventDao.count());
+        assertEquals(high.eventId, eventDao.get().get(0).eventId);
+        assertEquals(normal.eventId, eventDao.get().get(1).eventId);
+
+        eventDao.trimDatabase(high.eventSize);
+        assertEquals(1, eventDao.count());
+        assertEquals(high.eventId, eventDao.get().get(0).eventId);
+    }
+
     @Test
     public void testTrimWithNullSessionId() {
         ENTITY.sessionId = null;
@@ -149,6 +271,7 @@ public class EventDaoTest extends BaseTestCase {
     private static class TestEvent extends Event {
         String id;
         String eventType;
+        int priority = NORMAL_PRIORITY;
 
         public TestEvent(String id) {
             this(id, "TEST EVENT");
@@ -159,6 +282,16 @@ public class EventDaoTest extends BaseTestCase {
             this.eventType = eventType;
         }
 
+        public TestEvent(String id, int priority) {
+            this(id);
+            this.priority = priority;
+        }
+
+        @Override
+        public int getPriority() {
+            return priority;
+        }
+
         @NonNull
         @Override
         public String getType() {
@@ -5,14 +5,15 @@ import com.urbanairship.PreferenceDataStore;
 import com.urbanairship.TestAirshipRuntimeConfig;
 import com.urbanairship.TestApplication;
 import com.urbanairship.analytics.CustomEvent;
+import com.urbanairship.analytics.Event;
 import com.urbanairship.analytics.location.RegionEvent;
 import com.urbanairship.app.ActivityMonitor;
+import com.urbanairship.http.RequestBodyWriter;
 import com.urbanairship.http.RequestException;
 import com.urbanairship.http.Response;
 import com.urbanairship.job.JobDispatcher;
 import com.urbanairship.job.JobInfo;
 import com.urbanairship.json.JsonException;
-import com.urbanairship.json.JsonValue;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -23,13 +24,15 @@ import org.mockito.internal.verification.Times;
 import java.net.HttpURLConnection;
 import java.util.Collections;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 
 import static com.urbanairship.analytics.data.EventManager.MIN_BATCH_INTERVAL_KEY;
 import static junit.framework.Assert.assertEquals;
 import static junit.framework.Assert.assertFalse;
 import static junit.framework.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
@@ -109,12 +112,7 @@ public class EventManagerTest extends BaseTestCase {
      * Tests sending events
      */
     @Test
-    public void testSendingEvents() throws RequestException, JsonException {
-        JsonValue data = JsonValue.parseString("{ \"body\": \"firstEventBody\" }");
-        EventEntity.EventIdAndData payload = new EventEntity.EventIdAndData(1, "firstEvent", data);
-        List<EventEntity.EventIdAndData> events = Collections.singletonList(payload);
-        List<JsonValue> eventPayloads = Collections.singletonList(payload.data);
-
+    public void testSendingEvents() throws RequestException {
         Map<String, String> headers = new HashMap<>();
         headers.put("foo", "bar");
 
@@ -127,8 +125,11 @@ public class EventManagerTest extends BaseTestCase {
         // the first event.
         when(mockEventDao.databaseSize()).thenReturn(200);
 
-        // Return the event when it asks for 1
-        when(mockEventDao.getBatch(1)).thenReturn(events);
+        // Return a batch with the event's row ID when it asks for 1
+        EventBatch batch = new EventBatch();
+        batch.add(Event.NORMAL_PRIORITY, 1, 1, 100);
+        when(mockEventDao.getLaneBatch(1)).thenReturn(batch);
+        when(mockEventDao.deleteBatch(batch)).thenReturn(1);
 
         // Set the max batch size to 100
         dataStore.put(EventManager.MAX_BATCH_SIZE_KEY, 100);
@@ -140,7 +141,7 @@ public class EventManagerTest extends BaseTestCase {
         when(eventResponse.getMinBatchInterval()).thenReturn(100);
 
         // Return the response
-        when(mockClient.sendEvents(eventPayloads, headers))
+        when(mockClient.sendEvents(any(RequestBodyWriter.class), eq(headers)))
                 .thenReturn(new Response.Builder<EventResponse>(HttpURLConnection.HTTP_OK)
                         .setResult(eventResponse)
                         .build());
@@ -149,10 +150,10 @@ public class EventManagerTest extends BaseTestCase {
         assertTrue(eventManager.uploadEvents(headers));
 
         // Check mockClients receives the events
-        verify(mockClient).sendEvents(eventPayloads, headers);
+        verify(mockClient).sendEvents(any(RequestBodyWriter.class), eq(headers));
 
         // Check data manager deletes events
-        verify(mockEventDao).deleteBatch(events);
+        verify(mockEventDao).deleteBatch(batch);
 
         // Verify responses are being saved
         assertEquals(200, dataStore.getInt(EventManager.MAX_TOTAL_DB_SIZE_KEY, 0));
@@ -179,35 +180,33 @@ public class EventManagerTest extends BaseTestCase {
         // Fake the resolver to act like it has more than 500 events
         when(mockEventDao.databaseSize()).thenReturn(100000);
         when(mockEventDao.count()).thenReturn(1000);
+        when(mockEventDao.getLaneBatch(anyInt())).thenReturn(new EventBatch());
 
         eventManager.uploadEvents(Collections.<String, String>emptyMap());
 
         // Verify it only asked for 500
-        verify(mockEventDao).getBatch(500);
+        verify(mockEventDao).getLaneBatch(500);
     }
 
     /**
      * Test sending events when the upload fails.
      */
     @Test
-    public void testSendEventsFails() throws RequestException, JsonException {
-        JsonValue data = JsonValue.parseString("{ \"body\": \"firstEventBody\" }");
-        EventEntity.EventIdAndData payload = new EventEntity.EventIdAndData(1, "firstEvent", data);
-        List<EventEntity.EventIdAndData> events = Collections.singletonList(payload);
-        List<JsonValue> eventPayloads = Collections.singletonList(payload.data);
-
+    public void testSendEventsFails() throws RequestException {
         Map<String, String> headers = new HashMap<>();
         headers.put("foo", "bar");
 
         when(mockEventDao.count()).thenReturn(1);
         when(mockEventDao.databaseSize()).thenReturn(100);
-        when(mockEventDao.getBatch(1)).thenReturn(events);
+        EventBatch batch = new EventBatch();
+        batch.add(Event.NORMAL_PRIORITY, 1, 1, 100);
+        when(mockEventDao.getLaneBatch(1)).thenReturn(batch);
 
         dataStore.put(EventManager.MAX_BATCH_SIZE_KEY, 100);
 
         EventResponse eventResponse = mock(EventResponse.class);
 
-        when(mockClient.sendEvents(eventPayloads, headers))
+        when(mockClient.sendEvents(any(RequestBodyWriter.class), eq(headers)))
                 .thenReturn(new Response.Builder<EventResponse>(HttpURLConnection.HTTP_BAD_REQUEST)
                         .setResult(eventResponse)
                         .build());
@@ -215,10 +214,10 @@ public class EventManagerTest extends BaseTestCase {
         assertFalse(eventManager.uploadEvents(headers));
 
         // Check mockClient receives the events
-        verify(mockClient).sendEvents(eventPayloads, headers);
+        verify(mockClient).sendEvents(any(RequestBodyWriter.class), eq(headers));
 
         // If it fails, it should skip deleting events
-        verify(mockEventDao, never()).deleteBatch(events);
+        verify(mockEventDao, never()).deleteBatch(any(EventBatch.class));
     }
 
     /**
@@ -5,6 +5,7 @@ package com.urbanairship.channel;
 import static android.os.Looper.getMainLooper;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
@@ -95,6 +96,10 @@ public class AirshipChannelTests extends BaseTestCase {
                                                              .setAction("ACTION_UPDATE_CHANNEL")
                                                              .build();
 
+    private static final JobInfo UPLOAD_PENDING_MUTATIONS_JOB = JobInfo.newBuilder()
+                                                                       .setAction("ACTION_UPLOAD_PENDING_MUTATIONS")
+                                                                       .build();
+
     @Before
     public void setUp() {
         mockDispatcher = mock(JobDispatcher.class);
@@ -268,10 +273,11 @@ public class AirshipChannelTests extends BaseTestCase {
         JobResult result = airshipChannel.onPerformJob(UAirship.shared(), UPDATE_CHANNEL_JOB);
 
         verify(mockClient, times(1)).updateChannelWithPayload(eq(airshipChannel.getId()), any(ChannelRegistrationPayload.class));
-        // Should be called 2 times, one after onCreateChannel, the other after onUpdateChannel
-        verify(mockAttributeRegistrar, times(2)).uploadPendingMutations();
-        verify(mockTagGroupRegistrar, times(2)).uploadPendingMutations();
-        verify(mockSubscriptionListRegistrar, times(2)).uploadPendingMutations();
+        // Uploads are dispatched as their own job, one after onCreateChannel, the other after onUpdateChannel
+        verify(mockDispatcher, times(2)).dispatch(Mockito.argThat(jobInfo -> jobInfo.getAction().equals("ACTION_UPLOAD_PENDING_MUTATIONS")));
+        verify(mockAttributeRegistrar, never()).uploadPendingMutations();
+        verify(mockTagGroupRegistrar, never()).uploadPendingMutations();
+        verify(mockSubscriptionListRegistrar, never()).uploadPendingMutations();
         assertEquals(JobResult.SUCCESS, result);
         assertTrue(listener.onChannelUpdatedCalled);
     }
@@ -447,7 +453,7 @@ public class AirshipChannelTests extends BaseTestCase {
         when(mockSubscriptionListRegistrar.uploadPendingMutations()).thenReturn(true);
 
         // Update the tags
-        JobResult result = airshipChannel.onPerformJob(UAirship.shared(), UPDATE_CHANNEL_JOB);
+        JobResult result = airshipChannel.onPerformJob(UAirship.shared(), UPLOAD_PENDING_MUTATIONS_JOB);
         assertEquals(JobResult.SUCCESS, result);
     }
 
@@ -471,7 +477,7 @@ public class AirshipChannelTests extends BaseTestCase {
         when(mockSubscriptionListRegistrar.uploadPendingMutations()).thenReturn(true);
 
         // Update the tags
-        JobResult result = airshipChannel.onPerformJob(UAirship.shared(), UPDATE_CHANNEL_JOB);
+        JobResult result = airshipChannel.onPerformJob(UAirship.shared(), UPLOAD_PENDING_MUTATIONS_JOB);
         assertEquals(JobResult.RETRY, result);
     }
 
@@ -489,7 +495,7 @@ public class AirshipChannelTests extends BaseTestCase {
         when(mockTagGroupRegistrar.uploadPendingMutations()).thenReturn(true);
         when(mockSubscriptionListRegistrar.uploadPendingMutations()).thenReturn(true);
 
-        JobResult result = airshipChannel.onPerformJob(UAirship.shared(), UPDATE_CHANNEL_JOB);
+        JobResult result = airshipChannel.onPerformJob(UAirship.shared(), UPLOAD_PENDING_MUTATIONS_JOB);
         assertEquals(JobResult.SUCCESS, result);
     }
 
@@ -512,7 +518,7 @@ public class AirshipChannelTests extends BaseTestCase {
         when(mockTagGroupRegistrar.uploadPendingMutations()).thenReturn(true);
         when(mockSubscriptionListRegistrar.uploadPendingMutations()).thenReturn(true);
 
-        JobResult result = airshipChannel.onPerformJob(UAirship.shared(), UPDATE_CHANNEL_JOB);
+        JobResult result = airshipChannel.onPerformJob(UAirship.shared(), UPLOAD_PENDING_MUTATIONS_JOB);
         assertEquals(JobResult.RETRY, result);
     }
 
@@ -538,8 +544,93 @@ public class AirshipChannelTests extends BaseTestCase {
         when(mockTagGroupRegistrar.uploadPendingMutations()).thenReturn(true);
         when(mockSubscriptionListRegistrar.uploadPendingMutations()).thenReturn(false);
 
-        JobResult result = airshipChannel.onPerformJob(UAirship.shared(), UPDATE_CHANNEL_JOB);
+        JobResult result = airshipChannel.onPerformJob(UAirship.shared(), UPLOAD_PENDING_MUTATIONS_JOB);
+        assertEquals(JobResult.RETRY, result);
+    }
+
+    /**
+     * Test the upload retries when the attribute upload throws.
+     */
+    @Test
+    public void testUpdateAttributesUploadThrows() throws RequestException {
+        testCreateChannel();
+        clearInvocations(mockAttributeRegistrar, mockTagGroupRegistrar, mockSubscriptionListRegistrar);
+
+        // Setup responses
+        when(mockClient.updateChannelWithPayload(eq("channel"), any(ChannelRegistrationPayload.class)))
+                .thenReturn(AirshipChannelTests.<Void>createResponse(null, 200));
+        when(mockAttributeRegistrar.uploadPendingMutations()).thenThrow(new IllegalStateException("failed"));
+        when(mockTagGroupRegistrar.uploadPendingMutations()).thenReturn(true);
+        when(mockSubscriptionListRegistrar.uploadPendingMutations()).thenReturn(true);
+
+        JobResult result = airshipChannel.onPerformJob(UAirship.shared(), UPLOAD_PENDING_MUTATIONS_JOB);
         assertEquals(JobResult.RETRY, result);
+
+        // The other uploads still run
+        verify(mockTagGroupRegistrar).uploadPendingMutations();
+        verify(mockSubscriptionListRegistrar).uploadPendingMutations();
+    }
+
+    /**
+     * Test the upload retries when the subscription list upload throws.
+     */
+    @Test
+    public void testUpdateSubscriptionListsUploadThrows() throws RequestException {
+        testCreateChannel();
+        clearInvocations(mockAttributeRegistrar, mockTagGroupRegistrar, mockSubscriptionListRegistrar);
+
+        // Setup responses
+        when(mockClient.updateChannelWithPayload(eq("channel"), any(ChannelRegistrationPayload.class)))
+                .thenReturn(AirshipChannelTests.<Void>createResponse(null, 200));
+        when(mockAttributeRegistrar.uploadPendingMutations()).thenReturn(true);
+        when(mockTagGroupRegistrar.uploadPendingMutations()).thenReturn(true);
+        when(mockSubscriptionListRegistrar.uploadPendingMutations()).thenThrow(new IllegalStateException("failed"));
+
+        JobResult result = airshipChannel.onPerformJob(UAirship.shared(), UPLOAD_PENDING_MUTATIONS_JOB);
+        assertEquals(JobResult.RETRY, result);
+
+        // The other uploads still run
+        verify(mockAttributeRegistrar).uploadPendingMutations();
+        verify(mockTagGroupRegistrar).uploadPendingMutations();
+    }
+
+    /**
+     * Test registration and uploads run with different ordering keys, so a slow upload does not
+     * block registration.
+     */
+    @Test
+    public void testRegistrationDoesNotWaitForUploads() throws RequestException {
+        assertNotEquals(airshipChannel.getJobOrderingKey(UPDATE_CHANNEL_JOB), airshipChannel.getJobOrderingKey(UPLOAD_PENDING_MUTATIONS_JOB));
+
+        testCreateChannel();
+        clearInvocations(mockDispatcher);
+
+        // Modify the payload so it actually updates the registration
+        airshipChannel.editTags().addTag("cool").apply();
+
+        when(mockClient.updateChannelWithPayload(eq("channel"), any(ChannelRegistrationPayload.class)))
+                .thenReturn(AirshipChannelTests.<Void>createResponse(null, 200));
+        when(mockTagGroupRegistrar.uploadPendingMutations()).thenThrow(new AssertionError("Registration waited for an upload"));
+
+        JobResult result = airshipChannel.onPerformJob(UAirship.shared(), UPDATE_CHANNEL_JOB);
+        assertEquals(JobResult.SUCCESS, result);
+
+        verify(mockDispatcher).dispatch(Mockito.argThat(jobInfo -> jobInfo.getAction().equals("ACTION_UPLOAD_PENDING_MUTATIONS") && jobInfo.getConflictStrategy() == JobInfo.REPLACE));
+    }
+
+    /**
+     * Test the upload job does nothing without a channel.
+     */
+    @Test
+    public void testUploadWithoutChannel() {
+        assertNull(airshipChannel.getId());
+
+        JobResult result = airshipChannel.onPerformJob(UAirship.shared(), UPLOAD_PENDING_MUTATIONS_JOB);
+        assertEquals(JobResult.SUCCESS, result);
+
+        verify(mockAttributeRegistrar, never()).uploadPendingMutations();
+        verify(mockTagGroupRegistrar, never()).uploadPendingMutations();
+        verify(mockSubscriptionListRegistrar, never()).uploadPendingMutations();
     }
 
     /**
@@ -9,6 +9,10 @@ import com.urbanairship.util.UAHttpStatusUtil;
 
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.InOrder;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
 
 import java.util.Collections;
 import java.util.List;
@@ -17,7 +21,10 @@ import static junit.framework.Assert.assertEquals;
 import static junit.framework.Assert.assertFalse;
 import static junit.framework.Assert.assertNull;
 import static junit.framework.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -94,6 +101,63 @@ public class AttributeRegistrarTest extends BaseTestCase {
         verifyRequest(400, true);
     }
 
+    @Test
+    public void testUploadDrainsMutationsAddedDuringUpload() throws RequestException {
+        registrar.setId("identifier", true);
+
+        final List<AttributeMutation> first = Collections.singletonList(
+                AttributeMutation.newSetAttributeMutation("first", JsonValue.wrapOpt("value"), 100));
+        final List<AttributeMutation> second = Collections.singletonList(
+                AttributeMutation.newSetAttributeMutation("second", JsonValue.wrapOpt("value"), 200));
+
+        registrar.addPendingMutations(first);
+
+        when(mockClient.updateAttributes("identifier", first)).then(new Answer<Response<Void>>() {
+            @Override
+            public Response<Void> answer(InvocationOnMock invocation) {
+                // Added while the first request is in flight
+                registrar.addPendingMutations(second);
+                return new Response.Builder<Void>(200).build();
+            }
+        });
+        when(mockClient.updateAttributes("identifier", second)).thenReturn(new Response.Builder<Void>(200).build());
+
+        assertTrue(registrar.uploadPendingMutations());
+
+        InOrder inOrder = inOrder(mockClient);
+        inOrder.verify(mockClient).updateAttributes("identifier", first);
+        inOrder.verify(mockClient).updateAttributes("identifier", second);
+        assertTrue(store.getList().isEmpty());
+    }
+
+    @Test
+    public void testUploadStopsWhenStoreChangesDuringUpload() throws RequestException {
+        registrar.setId("identifier", true);
+
+        final List<AttributeMutation> first = Collections.singletonList(
+                AttributeMutation.newSetAttributeMutation("first", JsonValue.wrapOpt("value"), 100));
+        final List<AttributeMutation> second = Collections.singletonList(
+                AttributeMutation.newSetAttributeMutation("second", JsonValue.wrapOpt("value"), 200));
+
+        registrar.addPendingMutations(first);
+
+        when(mockClient.updateAttributes("identifier", first)).then(new Answer<Response<Void>>() {
+            @Override
+            public Response<Void> answer(InvocationOnMock invocation) {
+                // The store is replaced while the request is in flight
+                registrar.clearPendingMutations();
+                registrar.addPendingMutations(second);
+                return new Response.Builder<Void>(200).build();
+            }
+        });
+
+        assertTrue(registrar.uploadPendingMutations());
+
+        // The new mutations are left for the next upload
+        verify(mockClient, times(1)).updateAttributes(anyString(), ArgumentMatchers.<AttributeMutation>anyList());
+        assertEquals(second, store.peek());
+    }
+
     private void verifyRequest(int status, boolean expectedResult) throws RequestException {
         final Response<Void> response = new Response.Builder<Void>(status)
                 .build();
@@ -26,7 +26,11 @@ import static junit.framework.Assert.assertEquals;
 import static junit.framework.Assert.assertFalse;
 import static junit.framework.Assert.assertNull;
 import static junit.framework.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 /**
@@ -140,6 +144,26 @@ public class TagGroupRegistrarTests extends BaseTestCase {
         assertEquals(mutation, listener.mutations.get(0));
     }
 
+    @Test
+    public void testUploadCollapsesPendingMutations() throws RequestException {
+        Response<Void> response = new Response.Builder<Void>(200).build();
+        when(mockClient.updateTags(eq("identifier"), any(TagGroupsMutation.class))).thenReturn(response);
+
+        List<TagGroupsMutation> mutations = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            mutations.add(TagGroupsMutation.newAddTagsMutation("group-" + i, new HashSet<>(Lists.newArrayList("tag"))));
+        }
+        mutations.add(TagGroupsMutation.newSetTagsMutation("set-group", new HashSet<>(Lists.newArrayList("tag"))));
+        registrar.addPendingMutations(mutations);
+
+        registrar.setId("identifier", false);
+        assertTrue(registrar.uploadPendingMutations());
+
+        // One set request and one add/remove request
+        verify(mockClient, times(2)).updateTags(eq("identifier"), any(TagGroupsMutation.class));
+        assertTrue(registrar.getPendingMutations().isEmpty());
+    }
+
     private void verifyRequest(int status, boolean expectedResult) throws RequestException {
         final Response<Void> response = new Response.Builder<Void>(status)
                 .build();
@@ -0,0 +1,24 @@
+/* Copyright Airship and Contributors */
+
+package com.urbanairship.http;
+
+import com.urbanairship.BaseTestCase;
+
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static junit.framework.TestCase.assertEquals;
+
+public class HttpUrlConnectionTransportTest extends BaseTestCase {
+
+    @Test
+    public void testParseCharset() {
+        assertEquals(StandardCharsets.UTF_8, HttpUrlConnectionTransport.parseCharset(null));
+        assertEquals(StandardCharsets.UTF_8, HttpUrlConnectionTransport.parseCharset("application/json"));
+        assertEquals(StandardCharsets.ISO_8859_1, HttpUrlConnectionTransport.parseCharset("text/plain; charset=ISO-8859-1"));
+        assertEquals(StandardCharsets.UTF_16, HttpUrlConnectionTransport.parseCharset("application/json;CHARSET=\"utf-16\""));
+        assertEquals(StandardCharsets.UTF_8, HttpUrlConnectionTransport.parseCharset("application/json; charset=not-a-charset"));
+    }
+
+}
@@ -0,0 +1,109 @@
+/* Copyright Airship and Contributors */
+
+package com.urbanairship.http;
+
+import android.net.Uri;
+
+import com.urbanairship.BaseTestCase;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+
+import androidx.annotation.NonNull;
+
+import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertFalse;
+import static junit.framework.TestCase.assertNull;
+import static junit.framework.TestCase.assertSame;
+import static junit.framework.TestCase.assertTrue;
+
+public class RequestTest extends BaseTestCase {
+
+    @After
+    public void tearDown() {
+        Request.setDefaultTransport(null);
+    }
+
+    @Test
+    public void testFactoryTransport() throws RequestException {
+        RecordingTransport transport = new RecordingTransport();
+        Request request = new RequestFactory(transport).createRequest()
+                                                       .setOperation("GET", Uri.parse("https://example.com"));
+
+        Response<Void> response = request.execute();
+        assertEquals(200, response.getStatus());
+        assertSame(request, transport.lastRequest);
+    }
+
+    @Test
+    public void testDefaultTransport() throws RequestException {
+        RecordingTransport transport = new RecordingTransport();
+        Request.setDefaultTransport(transport);
+
+        Request request = RequestFactory.DEFAULT_REQUEST_FACTORY.createRequest()
+                                                                .setOperation("GET", Uri.parse("https://example.com"));
+        request.execute();
+        assertSame(request, transport.lastRequest);
+    }
+
+    @Test(expected = RequestException.class)
+    public void testMissingUrl() throws RequestException {
+        new RequestFactory(new RecordingTransport()).createRequest().execute();
+    }
+
+    @Test
+    public void testRequestBody() throws IOException {
+        Request request = new Request().setCredentials("user", "password")
+                                       .setRequestBody("body", "text/plain");
+
+        assertTrue(request.hasRequestBody());
+        assertFalse(request.isStreamingRequestBody());
+        assertEquals("text/plain", request.getContentType());
+        assertEquals("Basic dXNlcjpwYXNzd29yZA==", request.getAuthorizationHeader());
+
+        StringWriter writer = new StringWriter();
+        request.writeRequestBody(writer);
+        assertEquals("body", writer.toString());
+
+        request.setRequestBody(new RequestBodyWriter() {
+            @Override
+            public void writeTo(@NonNull Writer writer) throws IOException {
+                writer.write("streamed");
+            }
+        }, "text/plain");
+
+        assertTrue(request.isStreamingRequestBody());
+        writer = new StringWriter();
+        request.writeRequestBody(writer);
+        assertEquals("streamed", writer.toString());
+    }
+
+    @Test
+    public void testNoCredentials() {
+        assertNull(new Request().getAuthorizationHeader());
+    }
+
+    private static class RecordingTransport implements RequestTransport {
+
+        Request lastRequest;
+
+        @NonNull
+        @Override
+        public <T> Response<T> execute(@NonNull Request request, @NonNull ResponseParser<T> parser) throws RequestException {
+            lastRequest = request;
+            try {
+                return new Response.Builder<T>(200)
+                        .setResult(parser.parseResponse(200, null, null))
+                        .build();
+            } catch (Exception e) {
+                throw new RequestException("parse error", e);
+            }
+        }
+
+    }
+
+}
@@ -3,11 +3,17 @@
 package com.urbanairship.job;
 
 import com.urbanairship.BaseTestCase;
+import com.urbanairship.TestActivityMonitor;
 import com.urbanairship.TestApplication;
+import com.urbanairship.TestClock;
 import com.urbanairship.push.PushManager;
+import com.urbanairship.util.Network;
 
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 
 import androidx.annotation.NonNull;
@@ -15,8 +21,13 @@ import androidx.core.util.Consumer;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
@@ -30,6 +41,10 @@ public class JobDispatcherTest extends BaseTestCase {
     private final JobDispatcher dispatcher = new JobDispatcher(context, mockScheduler, jobRunner, mockRateLimiter);
     private final Consumer<JobResult> mockConsumer = mock(Consumer.class);
 
+    private final TestActivityMonitor activityMonitor = new TestActivityMonitor();
+    private final Network mockNetwork = mock(Network.class);
+    private final TestClock clock = new TestClock();
+
     @Test
     public void testDispatch() throws SchedulerException {
         JobInfo jobInfo = JobInfo.newBuilder()
@@ -136,13 +151,517 @@ public class JobDispatcherTest extends BaseTestCase {
         verify(mockScheduler).schedule(context, jobInfo, 100);
     }
 
+    @Test
+    public void testDispatchInProcess() throws SchedulerException {
+        JobDispatcher inProcessDispatcher = createInProcessDispatcher(jobRunner);
+        activityMonitor.foreground();
+        when(mockNetwork.isConnected(any())).thenReturn(true);
+
+        JobInfo jobInfo = JobInfo.newBuilder()
+                                 .setAction("test_action")
+                                 .setAirshipComponent(PushManager.class)
+                                 .setNetworkAccessRequired(true)
+                                 .addRateLimit("rateOne")
+                                 .build();
+
+        inProcessDispatcher.dispatch(jobInfo);
+
+        assertEquals(jobInfo, jobRunner.lastJob);
+        verify(mockRateLimiter).track("rateOne");
+        verify(mockScheduler, never()).schedule(any(), any(), anyLong());
+
+        JobMetrics.ActionMetrics metrics = inProcessDispatcher.getMetrics().getActionMetrics("test_action");
+        assertEquals(1, metrics.getStartCount());
+        assertEquals(1, metrics.getInProcessStartCount());
+    }
+
+    @Test
+    public void testDispatchInProcessBackgroundSchedules() throws SchedulerException {
+        JobDispatcher inProcessDispatcher = createInProcessDispatcher(jobRunner);
+        activityMonitor.background();
+
+        JobInfo jobInfo = JobInfo.newBuilder()
+                                 .setAction("test_action")
+                                 .setAirshipComponent(PushManager.class)
+                                 .build();
+
+        inProcessDispatcher.dispatch(jobInfo);
+
+        assertNull(jobRunner.lastJob);
+        verify(mockScheduler).schedule(context, jobInfo, 0);
+    }
+
+    @Test
+    public void testDispatchInProcessNoNetworkSchedules() throws SchedulerException {
+        JobDispatcher inProcessDispatcher = createInProcessDispatcher(jobRunner);
+        activityMonitor.foreground();
+        when(mockNetwork.isConnected(any())).thenReturn(false);
+
+        JobInfo jobInfo = JobInfo.newBuilder()
+                                 .setAction("test_action")
+                                 .setAirshipComponent(PushManager.class)
+                                 .setNetworkAccessRequired(true)
+                                 .build();
+
+        inProcessDispatcher.dispatch(jobInfo);
+
+        assertNull(jobRunner.lastJob);
+        verify(mockScheduler).schedule(context, jobInfo, 0);
+    }
+
+    @Test
+    public void testDispatchInProcessDelayedSchedules() throws SchedulerException {
+        JobDispatcher inProcessDispatcher = createInProcessDispatcher(jobRunner);
+        activityMonitor.foreground();
+
+        JobInfo jobInfo = JobInfo.newBuilder()
+                                 .setAction("test_action")
+                                 .setAirshipComponent(PushManager.class)
+                                 .setMinDelay(10, TimeUnit.MILLISECONDS)
+                                 .build();
+
+        inProcessDispatcher.dispatch(jobInfo);
+
+        assertNull(jobRunner.lastJob);
+        verify(mockScheduler).schedule(context, jobInfo, 10);
+    }
+
+    @Test
+    public void testDispatchInProcessRetrySchedules() throws SchedulerException {
+        JobDispatcher inProcessDispatcher = createInProcessDispatcher(jobRunner);
+        activityMonitor.foreground();
+        jobRunner.result = JobResult.RETRY;
+
+        JobInfo jobInfo = JobInfo.newBuilder()
+                                 .setAction("test_action")
+                                 .setAirshipComponent(PushManager.class)
+                                 .setInitialBackOff(20, TimeUnit.SECONDS)
+                                 .build();
+
+        inProcessDispatcher.dispatch(jobInfo);
+
+        assertEquals(jobInfo, jobRunner.lastJob);
+        verify(mockScheduler).schedule(context, jobInfo, 20000);
+    }
+
+    @Test
+    public void testDispatchInProcessConflictStrategy() {
+        HoldingJobRunner holdingRunner = new HoldingJobRunner();
+        JobDispatcher inProcessDispatcher = createInProcessDispatcher(holdingRunner);
+        activityMonitor.foreground();
+
+        JobInfo keep = JobInfo.newBuilder()
+                              .setAction("test_action")
+                              .setAirshipComponent(PushManager.class)
+                              .setConflictStrategy(JobInfo.KEEP)
+                              .build();
+
+        JobInfo append = JobInfo.newBuilder()
+                                .setAction("test_action")
+                                .setAirshipComponent(PushManager.class)
+                                .setConflictStrategy(JobInfo.APPEND)
+                                .build();
+
+        inProcessDispatcher.dispatch(keep);
+        inProcessDispatcher.dispatch(keep);
+        inProcessDispatcher.dispatch(append);
+
+        // Only the first job runs until it finishes
+        assertEquals(1, holdingRunner.jobs.size());
+
+        clock.currentTimeMillis += 100;
+        holdingRunner.finish(0, JobResult.SUCCESS);
+        assertEquals(2, holdingRunner.jobs.size());
+        assertEquals(append, holdingRunner.jobs.get(1));
+
+        holdingRunner.finish(1, JobResult.SUCCESS);
+        assertEquals(2, holdingRunner.jobs.size());
+
+        JobMetrics.ActionMetrics metrics = inProcessDispatcher.getMetrics().getActionMetrics("test_action");
+        assertEquals(2, metrics.getInProcessStartCount());
+        assertEquals(100, metrics.getMaxDispatchLatencyMs());
+    }
+
+    @Test
+    public void testDispatchInProcessWithScheduledJob() throws SchedulerException {
+        JobDispatcher inProcessDispatcher = createInProcessDispatcher(jobRunner);
+        activityMonitor.foreground();
+
+        JobInfo delayed = JobInfo.newBuilder()
+                                 .setAction("test_action")
+                                 .setAirshipComponent(PushManager.class)
+                                 .setMinDelay(10, TimeUnit.MILLISECONDS)
+                                 .setConflictStrategy(JobInfo.KEEP)
+                                 .build();
+
+        JobInfo immediate = JobInfo.newBuilder()
+                                   .setAction("test_action")
+                                   .setAirshipComponent(PushManager.class)
+                                   .setConflictStrategy(JobInfo.KEEP)
+                                   .build();
+
+        inProcessDispatcher.dispatch(delayed);
+        verify(mockScheduler).schedule(context, delayed, 10);
+
+        // The same job is already scheduled, so the scheduler applies the conflict strategy
+        inProcessDispatcher.dispatch(immediate);
+        assertNull(jobRunner.lastJob);
+        verify(mockScheduler).schedule(context, immediate, 0);
+
+        // Once the scheduled job starts the lane is used again
+        inProcessDispatcher.onStartJob(delayed, 0, mockConsumer);
+        jobRunner.jobs.clear();
+
+        inProcessDispatcher.dispatch(immediate);
+        assertEquals(1, jobRunner.jobs.size());
+        assertEquals(immediate, jobRunner.jobs.get(0));
+        verify(mockScheduler, times(1)).schedule(context, immediate, 0);
+    }
+
+    @Test
+    public void testDispatchInProcessAfterDroppedKeepJob() throws SchedulerException {
+        HoldingJobRunner holdingRunner = new HoldingJobRunner();
+        JobDispatcher inProcessDispatcher = createInProcessDispatcher(holdingRunner);
+        activityMonitor.foreground();
+
+        JobInfo delayed = JobInfo.newBuilder()
+                                 .setAction("test_action")
+                                 .setAirshipComponent(PushManager.class)
+                                 .setMinDelay(10, TimeUnit.MILLISECONDS)
+                                 .setConflictStrategy(JobInfo.KEEP)
+                                 .build();
+
+        JobInfo immediate = JobInfo.newBuilder()
+                                   .setAction("test_action")
+                                   .setAirshipComponent(PushManager.class)
+                                   .setConflictStrategy(JobInfo.KEEP)
+                                   .build();
+
+        inProcessDispatcher.onStartJob(immediate, 0, mockConsumer);
+        assertEquals(1, holdingRunner.jobs.size());
+
+        // The scheduler drops the job since one with the same name is running
+        inProcessDispatcher.dispatch(delayed);
+        verify(mockScheduler).schedule(context, delayed, 10);
+
+        holdingRunner.finish(0, JobResult.SUCCESS);
+
+        // Nothing is waiting in the scheduler, so the lane is used
+        inProcessDispatcher.dispatch(immediate);
+        assertEquals(2, holdingRunner.jobs.size());
+        assertEquals(immediate, holdingRunner.jobs.get(1));
+        verify(mockScheduler, never()).schedule(context, immediate, 0);
+    }
+
+    @Test
+    public void testStartJobRecordsDispatchLatency() {
+        JobDispatcher inProcessDispatcher = createInProcessDispatcher(jobRunner);
+
+        JobInfo jobInfo = JobInfo.newBuilder()
+                                 .setAction("test_action")
+                                 .setAirshipComponent(PushManager.class)
+                                 .setMinDelay(10, TimeUnit.MILLISECONDS)
+                                 .build();
+
+        inProcessDispatcher.dispatch(jobInfo);
+        clock.currentTimeMillis += 50;
+        inProcessDispatcher.onStartJob(jobInfo, 0, mockConsumer);
+
+        JobMetrics.ActionMetrics metrics = inProcessDispatcher.getMetrics().getActionMetrics("test_action");
+        assertEquals(1, metrics.getStartCount());
+        assertEquals(0, metrics.getInProcessStartCount());
+        assertEquals(40, metrics.getAverageDispatchLatencyMs());
+    }
+
+    @Test
+    public void testCoalescedJobs() throws SchedulerException {
+        JobDispatcher coalescingDispatcher = createCoalescingDispatcher();
+
+        JobInfo first = JobInfo.newBuilder()
+                               .setAction("first")
+                               .setAirshipComponent(PushManager.class)
+                               .setNetworkAccessRequired(true)
+                               .build();
+
+        JobInfo second = JobInfo.newBuilder()
+                                .setAction("second")
+                                .setAirshipComponent(PushManager.class)
+                                .setNetworkAccessRequired(true)
+                                .build();
+
+        JobInfo noNetwork = JobInfo.newBuilder()
+                                   .setAction("no_network")
+                                   .setAirshipComponent(PushManager.class)
+                                   .build();
+
+        coalescingDispatcher.dispatch(first);
+        clock.currentTimeMillis += 100;
+        coalescingDispatcher.dispatch(second);
+        coalescingDispatcher.dispatch(second);
+        coalescingDispatcher.dispatch(noNetwork);
+
+        // Jobs without a network requirement are not coalesced
+        verify(mockScheduler).schedule(context, noNetwork, 0);
+        verify(mockScheduler, never()).schedule(eq(context), eq(first), anyLong());
+
+        // The coalesced job is scheduled for the end of the window as soon as a job joins
+        ArgumentCaptor<JobInfo> captor = ArgumentCaptor.forClass(JobInfo.class);
+        verify(mockScheduler).schedule(eq(context), captor.capture(), eq(500L));
+        verify(mockScheduler, times(2)).schedule(eq(context), captor.capture(), eq(400L));
+
+        JobInfo coalesced = captor.getValue();
+        assertEquals(JobDispatcher.ACTION_RUN_COALESCED_JOBS, coalesced.getAction());
+        assertEquals(JobInfo.REPLACE, coalesced.getConflictStrategy());
+        assertEquals(captor.getAllValues().get(0).getUniqueName(), coalesced.getUniqueName());
+
+        coalescingDispatcher.closeCoalescingWindow();
+
+        jobRunner.result = JobResult.SUCCESS;
+        coalescingDispatcher.onStartJob(coalesced, 0, mockConsumer);
+
+        // The duplicate REPLACE job collapses into one run
+        assertEquals(2, jobRunner.jobs.size());
+        assertEquals(first, jobRunner.jobs.get(0));
+        assertEquals(second, jobRunner.jobs.get(1));
+        verify(mockConsumer).accept(JobResult.SUCCESS);
+    }
+
+    @Test
+    public void testCoalescedJobRetry() throws SchedulerException {
+        JobDispatcher coalescingDispatcher = createCoalescingDispatcher();
+
+        JobInfo first = JobInfo.newBuilder()
+                               .setAction("first")
+                               .setAirshipComponent(PushManager.class)
+                               .setNetworkAccessRequired(true)
+                               .build();
+
+        JobInfo second = JobInfo.newBuilder()
+                                .setAction("second")
+                                .setAirshipComponent(PushManager.class)
+                                .setNetworkAccessRequired(true)
+                                .build();
+
+        coalescingDispatcher.dispatch(first);
+        coalescingDispatcher.dispatch(second);
+        coalescingDispatcher.closeCoalescingWindow();
+
+        ArgumentCaptor<JobInfo> captor = ArgumentCaptor.forClass(JobInfo.class);
+        verify(mockScheduler, times(2)).schedule(eq(context), captor.capture(), eq(500L));
+
+        jobRunner.result = JobResult.RETRY;
+        coalescingDispatcher.onStartJob(captor.getValue(), 0, mockConsumer);
+
+        // Each retried job goes back to the scheduler on its own
+        verify(mockScheduler).schedule(context, first, first.getInitialBackOffMs());
+        verify(mockScheduler).schedule(context, second, second.getInitialBackOffMs());
+        verify(mockConsumer).accept(JobResult.SUCCESS);
+    }
+
+    @Test
+    public void testCoalescedJobConflictStrategy() throws SchedulerException {
+        JobDispatcher coalescingDispatcher = createCoalescingDispatcher();
+
+        JobInfo keep = JobInfo.newBuilder()
+                              .setAction("test_action")
+                              .setAirshipComponent(PushManager.class)
+                              .setNetworkAccessRequired(true)
+                              .setConflictStrategy(JobInfo.KEEP)
+                              .build();
+
+        JobInfo replace = JobInfo.newBuilder()
+                                 .setAction("test_action")
+                                 .setAirshipComponent(PushManager.class)
+                                 .setNetworkAccessRequired(true)
+                                 .setConflictStrategy(JobInfo.REPLACE)
+                                 .build();
+
+        coalescingDispatcher.dispatch(keep);
+        clock.currentTimeMillis += 500;
+        coalescingDispatcher.closeCoalescingWindow();
+
+        ArgumentCaptor<JobInfo> captor = ArgumentCaptor.forClass(JobInfo.class);
+        verify(mockScheduler).schedule(eq(context), captor.capture(), eq(500L));
+        JobInfo coalesced = captor.getValue();
+
+        // Still pending in the earlier coalesced job
+        coalescingDispatcher.dispatch(keep);
+        verify(mockScheduler, times(1)).schedule(any(), any(), anyLong());
+
+        // Scheduled on its own, the earlier coalesced job skips the replaced job
+        coalescingDispatcher.dispatch(replace);
+        verify(mockScheduler).schedule(context, replace, 0);
+
+        coalescingDispatcher.onStartJob(coalesced, 0, mockConsumer);
+        assertTrue(jobRunner.jobs.isEmpty());
+        verify(mockConsumer).accept(JobResult.SUCCESS);
+    }
+
+    @Test
+    public void testReplacedCoalescedJobsPruned() throws SchedulerException {
+        JobDispatcher coalescingDispatcher = createCoalescingDispatcher();
+
+        JobInfo keep = JobInfo.newBuilder()
+                              .setAction("test_action")
+                              .setAirshipComponent(PushManager.class)
+                              .setNetworkAccessRequired(true)
+                              .setConflictStrategy(JobInfo.KEEP)
+                              .build();
+
+        JobInfo replace = JobInfo.newBuilder()
+                                 .setAction("test_action")
+                                 .setAirshipComponent(PushManager.class)
+                                 .setNetworkAccessRequired(true)
+                                 .setConflictStrategy(JobInfo.REPLACE)
+                                 .build();
+
+        JobInfo other = JobInfo.newBuilder()
+                               .setAction("other_action")
+                               .setAirshipComponent(PushManager.class)
+                               .setNetworkAccessRequired(true)
+                               .build();
+
+        coalescingDispatcher.dispatch(keep);
+        clock.currentTimeMillis += 500;
+        coalescingDispatcher.closeCoalescingWindow();
+
+        coalescingDispatcher.dispatch(replace);
+        coalescingDispatcher.dispatch(other);
+        assertEquals(1, coalescingDispatcher.getReplacedCoalescedJobCount());
+
+        clock.currentTimeMillis += 500;
+        coalescingDispatcher.closeCoalescingWindow();
+
+        ArgumentCaptor<JobInfo> captor = ArgumentCaptor.forClass(JobInfo.class);
+        verify(mockScheduler, times(3)).schedule(eq(context), captor.capture(), anyLong());
+        JobInfo firstWindow = captor.getAllValues().get(0);
+        JobInfo secondWindow = captor.getAllValues().get(2);
+        assertEquals(JobDispatcher.ACTION_RUN_COALESCED_JOBS, firstWindow.getAction());
+        assertEquals(JobDispatcher.ACTION_RUN_COALESCED_JOBS, secondWindow.getAction());
+
+        // The second window started when the job was replaced, so it still needs the entry
+        coalescingDispatcher.onStartJob(firstWindow, 0, mockConsumer);
+        assertTrue(jobRunner.jobs.isEmpty());
+        assertEquals(1, coalescingDispatcher.getReplacedCoalescedJobCount());
+
+        coalescingDispatcher.onStartJob(secondWindow, 0, mockConsumer);
+        assertEquals(1, jobRunner.jobs.size());
+        assertEquals(0, coalescingDispatcher.getReplacedCoalescedJobCount());
+    }
+
+    @Test
+    public void testMetricsRecordResultsAndReschedules() {
+        JobDispatcher inProcessDispatcher = createInProcessDispatcher(jobRunner);
+        JobMetrics.Listener mockListener = mock(JobMetrics.Listener.class);
+        inProcessDispatcher.getMetrics().addListener(mockListener);
+
+        JobInfo jobInfo = JobInfo.newBuilder()
+                                 .setAction("test_action")
+                                 .setAirshipComponent(PushManager.class)
+                                 .build();
+
+        jobRunner.result = JobResult.SUCCESS;
+        inProcessDispatcher.onStartJob(jobInfo, 0, mockConsumer);
+
+        jobRunner.result = JobResult.RETRY;
+        inProcessDispatcher.onStartJob(jobInfo, 5, mockConsumer);
+
+        JobMetrics.ActionMetrics metrics = inProcessDispatcher.getMetrics().getActionMetrics("test_action");
+        assertEquals(2, metrics.getStartCount());
+        assertEquals(1, metrics.getSuccessCount());
+        assertEquals(1, metrics.getRetryCount());
+        assertEquals(0, metrics.getFailureCount());
+        assertEquals(1, metrics.getRescheduleCount());
+
+        verify(mockListener).onJobFinished("test_action", JobResult.SUCCESS, 0);
+        verify(mockListener).onJobFinished("test_action", JobResult.RETRY, 0);
+        verify(mockListener).onJobRescheduled("test_action", JobDispatcher.RESCHEDULE_RETRY_DELAY_MS);
+    }
+
+    @Test
+    public void testMetricsRecordRunDuration() {
+        HoldingJobRunner holdingRunner = new HoldingJobRunner();
+        JobDispatcher inProcessDispatcher = createInProcessDispatcher(holdingRunner);
+
+        JobInfo jobInfo = JobInfo.newBuilder()
+                                 .setAction("test_action")
+                                 .setAirshipComponent(PushManager.class)
+                                 .build();
+
+        inProcessDispatcher.onStartJob(jobInfo, 0, mockConsumer);
+        clock.currentTimeMillis += 250;
+        holdingRunner.finish(0, JobResult.FAILURE);
+
+        JobMetrics.ActionMetrics metrics = inProcessDispatcher.getMetrics().getActionMetrics("test_action");
+        assertEquals(1, metrics.getFailureCount());
+        assertEquals(250, metrics.getAverageRunDurationMs());
+        assertEquals(250, metrics.getMaxRunDurationMs());
+    }
+
+    @Test
+    public void testMetricsRecordRateLimitDeferrals() {
+        JobDispatcher inProcessDispatcher = createInProcessDispatcher(jobRunner);
+        JobMetrics.Listener mockListener = mock(JobMetrics.Listener.class);
+        inProcessDispatcher.getMetrics().addListener(mockListener);
+
+        JobInfo jobInfo = JobInfo.newBuilder()
+                                 .setAction("test_action")
+                                 .setAirshipComponent(PushManager.class)
+                                 .addRateLimit("rateOne")
+                                 .build();
+
+        when(mockRateLimiter.status("rateOne")).thenReturn(new RateLimiter.Status(RateLimiter.LimitStatus.OVER, 100));
+
+        inProcessDispatcher.dispatch(jobInfo);
+        inProcessDispatcher.onStartJob(jobInfo, 0, mockConsumer);
+
+        JobMetrics.ActionMetrics metrics = inProcessDispatcher.getMetrics().getActionMetrics("test_action");
+        assertEquals(2, metrics.getRateLimitedCount());
+        assertEquals(0, metrics.getStartCount());
+        verify(mockListener, times(2)).onJobRateLimited("test_action", 100);
+
+        inProcessDispatcher.getMetrics().removeListener(mockListener);
+        inProcessDispatcher.dispatch(jobInfo);
+        verify(mockListener, times(2)).onJobRateLimited("test_action", 100);
+    }
+
+    private JobDispatcher createCoalescingDispatcher() {
+        JobDispatcher coalescingDispatcher = new JobDispatcher(context, mockScheduler, jobRunner, mockRateLimiter, activityMonitor, mockNetwork, clock);
+        coalescingDispatcher.setCoalescingWindow(500, TimeUnit.MILLISECONDS);
+        return coalescingDispatcher;
+    }
+
+    private JobDispatcher createInProcessDispatcher(@NonNull JobRunner runner) {
+        JobDispatcher inProcessDispatcher = new JobDispatcher(context, mockScheduler, runner, mockRateLimiter, activityMonitor, mockNetwork, clock);
+        inProcessDispatcher.setInProcessDispatchEnabled(true);
+        return inProcessDispatcher;
+    }
+
+    private static class HoldingJobRunner implements JobRunner {
+
+        final List<JobInfo> jobs = new ArrayList<>();
+        final List<Consumer<JobResult>> consumers = new ArrayList<>();
+
+        @Override
+        public void run(@NonNull JobInfo jobInfo, @NonNull Consumer<JobResult> resultConsumer) {
+            jobs.add(jobInfo);
+            consumers.add(resultConsumer);
+        }
+
+        void finish(int index, @NonNull JobResult result) {
+            consumers.get(index).accept(result);
+        }
+    }
+
     private static class TestJobRunner implements JobRunner {
 
         public JobResult result = JobResult.SUCCESS;
         public JobInfo lastJob;
+        public List<JobInfo> jobs = new ArrayList<>();
         @Override
         public void run(@NonNull JobInfo jobInfo, @NonNull Consumer<JobResult> resultConsumer) {
             lastJob = jobInfo;
+            jobs.add(jobInfo);
             resultConsumer.accept(result);
         }
     }
@@ -0,0 +1,195 @@
+/* Copyright Airship and Contributors */
+
+package com.urbanairship.job;
+
+import com.urbanairship.BaseTestCase;
+import com.urbanairship.TestBenchmark;
+import com.urbanairship.util.Clock;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertNotNull;
+
+/**
+ * Measures rate limit checks the way the job dispatcher makes them, comparing the previous
+ * globally locked list based tracker with the ring buffer one.
+ */
+public class RateLimiterBenchmarkTest extends BaseTestCase {
+
+    private static final String[] LIMIT_IDS = { "channel", "contact_update", "contact_identity", "remote_data" };
+    private static final int THREADS = 4;
+    private static final int OPERATIONS_PER_THREAD = 20000;
+
+    @Before
+    public void setup() {
+        TestBenchmark.assumeEnabled();
+    }
+
+    @Test
+    public void testStatus() throws Exception {
+        final LegacyRateLimiter legacy = new LegacyRateLimiter();
+        final RateLimiter rateLimiter = new RateLimiter();
+        for (String limitId : LIMIT_IDS) {
+            legacy.setLimit(limitId, 10, 1, TimeUnit.SECONDS);
+            rateLimiter.setLimit(limitId, 10, 1, TimeUnit.SECONDS);
+            for (int i = 0; i < 10; i++) {
+                legacy.track(limitId);
+                rateLimiter.track(limitId);
+            }
+        }
+
+        TestBenchmark.measure("rate limit status (list, global lock)", 10000, 100000, new TestBenchmark.Operation() {
+            @Override
+            public void run() {
+                legacy.status(LIMIT_IDS[0]);
+            }
+        });
+
+        TestBenchmark.measure("rate limit status (ring buffer)", 10000, 100000, new TestBenchmark.Operation() {
+            @Override
+            public void run() {
+                rateLimiter.status(LIMIT_IDS[0]);
+            }
+        });
+    }
+
+    @Test
+    public void testContendedDispatch() throws Exception {
+        final LegacyRateLimiter legacy = new LegacyRateLimiter();
+        final RateLimiter rateLimiter = new RateLimiter();
+        for (String limitId : LIMIT_IDS) {
+            legacy.setLimit(limitId, 5, 100, TimeUnit.MILLISECONDS);
+            rateLimiter.setLimit(limitId, 5, 100, TimeUnit.MILLISECONDS);
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            TestBenchmark.measure("contended dispatch x" + THREADS + " (list, global lock)", 1, 3, new TestBenchmark.Operation() {
+                @Override
+                public void run() throws Exception {
+                    runContended(executor, new DispatchOperation() {
+                        @Override
+                        public void run(int iteration) {
+                            String limitId = LIMIT_IDS[iteration % LIMIT_IDS.length];
+                            if (legacy.status(limitId) == LimitStatus.UNDER) {
+                                legacy.track(limitId);
+                            }
+                        }
+                    });
+                }
+            });
+
+            TestBenchmark.measure("contended dispatch x" + THREADS + " (ring buffer)", 1, 3, new TestBenchmark.Operation() {
+                @Override
+                public void run() throws Exception {
+                    runContended(executor, new DispatchOperation() {
+                        @Override
+                        public void run(int iteration) {
+                            String limitId = LIMIT_IDS[iteration % LIMIT_IDS.length];
+                            RateLimiter.Status status = rateLimiter.status(limitId);
+                            assertNotNull(status);
+                            if (status.getLimitStatus() == RateLimiter.LimitStatus.UNDER) {
+                                rateLimiter.track(limitId);
+                            }
+                        }
+                    });
+                }
+            });
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void runContended(ExecutorService executor, final DispatchOperation operation) throws Exception {
+        final CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int j = 0; j < OPERATIONS_PER_THREAD; j++) {
+                    operation.run(j);
+                }
+                return null;
+            }));
+        }
+
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+    }
+
+    private interface DispatchOperation {
+        void run(int iteration);
+    }
+
+    private enum LimitStatus {
+        OVER,
+        UNDER
+    }
+
+    /**
+     * The previous implementation, kept for comparison.
+     */
+    private static class LegacyRateLimiter {
+
+        private final Clock clock = Clock.DEFAULT_CLOCK;
+        private final Map<String, List<Long>> hits = new HashMap<>();
+        private final Map<String, long[]> rules = new HashMap<>();
+        private final Object lock = new Object();
+
+        void track(String limitId) {
+            synchronized (lock) {
+                List<Long> hits = this.hits.get(limitId);
+                long[] rule = this.rules.get(limitId);
+                long currentTime = clock.currentTimeMillis();
+                if (hits != null && rule != null) {
+                    hits.add(currentTime);
+                    filter(hits, rule, currentTime);
+                }
+            }
+        }
+
+        LimitStatus status(String limitId) {
+            synchronized (lock) {
+                List<Long> hits = this.hits.get(limitId);
+                long[] rule = this.rules.get(limitId);
+                long currentTime = clock.currentTimeMillis();
+                if (hits == null || rule == null) {
+                    return null;
+                }
+
+                filter(hits, rule, currentTime);
+                return hits.size() >= rule[0] ? LimitStatus.OVER : LimitStatus.UNDER;
+            }
+        }
+
+        void setLimit(String limitId, int rate, long duration, TimeUnit durationUnit) {
+            synchronized (lock) {
+                this.rules.put(limitId, new long[] { rate, durationUnit.toMillis(duration) });
+                this.hits.put(limitId, new ArrayList<Long>());
+            }
+        }
+
+        private void filter(List<Long> hits, long[] rule, long currentTimeMs) {
+            for (long hit : new ArrayList<>(hits)) {
+                if (currentTimeMs >= (hit + rule[1])) {
+                    hits.remove(hit);
+                }
+            }
+        }
+
+    }
+
+}
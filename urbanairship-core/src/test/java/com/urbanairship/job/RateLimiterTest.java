@@ -7,6 +7,12 @@ import com.urbanairship.TestClock;
 
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 
 import static org.junit.Assert.assertEquals;
@@ -108,4 +114,36 @@ public class RateLimiterTest extends BaseTestCase {
         assertEquals(RateLimiter.LimitStatus.OVER, rateLimiter.status("foo").getLimitStatus());
         assertEquals(1, rateLimiter.status("bar").getNextAvailable(TimeUnit.MILLISECONDS));
     }
+
+    @Test
+    public void testConcurrentTrack() throws Exception {
+        final int threads = 4;
+        final int tracksPerThread = 1000;
+        rateLimiter.setLimit("foo", threads * tracksPerThread, 1, TimeUnit.HOURS);
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        final CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (int i = 0; i < threads; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int j = 0; j < tracksPerThread; j++) {
+                        rateLimiter.track("foo");
+                    }
+                    return null;
+                }));
+            }
+
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Every hit must be recorded for the limit to be reached
+        assertEquals(RateLimiter.LimitStatus.OVER, rateLimiter.status("foo").getLimitStatus());
+    }
 }
@@ -37,4 +37,24 @@ public class WorkUtilsTest extends BaseTestCase {
         JobInfo converted = WorkUtils.convertToJobInfo(data);
         assertEquals(original, converted);
     }
+
+    @Test
+    public void testConvertJson() throws JsonException {
+        JobInfo original = JobInfo.newBuilder()
+                                  .setAction("some action")
+                                  .setAirshipComponent(PushManager.class)
+                                  .setConflictStrategy(JobInfo.KEEP)
+                                  .setExtras(JsonMap.newBuilder()
+                                                    .put("key", "value")
+                                                    .build())
+                                  .setMinDelay(10, TimeUnit.MILLISECONDS)
+                                  .setNetworkAccessRequired(true)
+                                  .setInitialBackOff(40, TimeUnit.SECONDS)
+                                  .addRateLimit("foo")
+                                  .addRateLimit("bar")
+                                  .build();
+
+        JobInfo converted = WorkUtils.convertToJobInfo(WorkUtils.convertToJson(original));
+        assertEquals(original, converted);
+    }
 }
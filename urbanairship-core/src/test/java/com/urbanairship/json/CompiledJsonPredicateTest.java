@@ -0,0 +1,129 @@
+/* Copyright Airship and Contributors */
+
+package com.urbanairship.json;
+
+import com.urbanairship.BaseTestCase;
+import com.urbanairship.TestBenchmark;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertFalse;
+import static junit.framework.Assert.assertSame;
+import static junit.framework.Assert.assertTrue;
+
+public class CompiledJsonPredicateTest extends BaseTestCase {
+
+    private static final String PREDICATE = "{\"and\":[" +
+            "{\"key\":\"event_name\",\"value\":{\"equals\":\"PURCHASE\"},\"ignore_case\":true}," +
+            "{\"scope\":[\"properties\",\"cart\"],\"key\":\"total\",\"value\":{\"at_least\":10,\"at_most\":100}}," +
+            "{\"key\":\"app_version\",\"value\":{\"version_matches\":\"[1.0,2.0]\"}}," +
+            "{\"not\":[{\"key\":\"interaction_type\",\"value\":{\"is_present\":true}}]}," +
+            "{\"scope\":\"properties\",\"key\":\"tags\",\"value\":{\"array_contains\":{\"value\":{\"equals\":\"sale\"}}}}," +
+            "{\"or\":[{\"key\":\"count\",\"value\":{\"equals\":1}},{\"key\":\"count\",\"value\":{\"at_least\":5}}]}" +
+            "]}";
+
+    /**
+     * Test compiled predicates match the interpreted predicate.
+     */
+    @Test
+    public void testMatchesPredicate() throws JsonException {
+        JsonPredicate predicate = JsonPredicate.parse(JsonValue.parseString(PREDICATE));
+
+        List<JsonValue> values = new ArrayList<>();
+        values.add(createEvent("purchase", 50, "1.5", 1, "sale"));
+        values.add(createEvent("Purchase", 50, "1.5", 6, "sale", "new"));
+        values.add(createEvent("purchase", 5, "1.5", 1, "sale"));
+        values.add(createEvent("purchase", 50, "3.0", 1, "sale"));
+        values.add(createEvent("purchase", 50, "1.5", 2, "sale"));
+        values.add(createEvent("purchase", 50, "1.5", 1, "new"));
+        values.add(createEvent("other", 50, "1.5", 1, "sale"));
+        values.add(JsonMap.newBuilder(createEvent("purchase", 50, "1.5", 1, "sale").optMap()).put("interaction_type", "push").build().toJsonValue());
+        values.add(JsonValue.wrap("purchase"));
+        values.add(JsonValue.NULL);
+
+        int matches = 0;
+        for (JsonValue value : values) {
+            boolean expected = predicate.apply(value);
+            assertEquals("Mismatch for " + value, expected, predicate.compile().apply(value));
+            if (expected) {
+                matches++;
+            }
+        }
+
+        assertEquals(2, matches);
+    }
+
+    /**
+     * Test matchers without a key or scope apply to the value itself.
+     */
+    @Test
+    public void testNoKey() throws JsonException {
+        JsonPredicate predicate = JsonPredicate.parse(JsonValue.parseString("{\"value\":{\"at_most\":5}}"));
+
+        assertTrue(predicate.compile().apply(JsonValue.wrap(3)));
+        assertFalse(predicate.compile().apply(JsonValue.wrap(6)));
+        assertFalse(predicate.compile().apply(JsonValue.wrap("3")));
+        assertFalse(predicate.compile().apply(null));
+    }
+
+    /**
+     * Test the compiled predicate is cached.
+     */
+    @Test
+    public void testCompileCached() throws JsonException {
+        JsonPredicate predicate = JsonPredicate.parse(JsonValue.parseString(PREDICATE));
+        assertSame(predicate.compile(), predicate.compile());
+    }
+
+    /**
+     * Compares evaluating a few thousand trigger predicates against a single event.
+     */
+    @Test
+    public void testBenchmark() throws Exception {
+        TestBenchmark.assumeEnabled();
+
+        final List<JsonPredicate> predicates = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            predicates.add(JsonPredicate.parse(JsonValue.parseString(PREDICATE.replace("PURCHASE", "event " + (i % 100)))));
+        }
+
+        final JsonValue event = createEvent("event 1", 50, "1.5", 1, "sale");
+
+        TestBenchmark.measure("predicate apply x" + predicates.size(), 20, 200, new TestBenchmark.Operation() {
+            @Override
+            public void run() {
+                for (JsonPredicate predicate : predicates) {
+                    predicate.apply(event);
+                }
+            }
+        });
+
+        TestBenchmark.measure("compiled predicate apply x" + predicates.size(), 20, 200, new TestBenchmark.Operation() {
+            @Override
+            public void run() {
+                for (JsonPredicate predicate : predicates) {
+                    predicate.compile().apply(event);
+                }
+            }
+        });
+    }
+
+    private static JsonValue createEvent(String name, double total, String appVersion, int count, String... tags) {
+        return JsonMap.newBuilder()
+                      .put("event_name", name)
+                      .put("app_version", appVersion)
+                      .put("count", count)
+                      .put("properties", JsonMap.newBuilder()
+                                                .put("cart", JsonMap.newBuilder().put("total", total).build())
+                                                .putOpt("tags", Arrays.asList(tags))
+                                                .build())
+                      .build()
+                      .toJsonValue();
+    }
+
+}
@@ -0,0 +1,143 @@
+/* Copyright Airship and Contributors */
+
+package com.urbanairship.json;
+
+import com.urbanairship.BaseTestCase;
+import com.urbanairship.TestBenchmark;
+
+import org.json.JSONTokener;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static junit.framework.Assert.assertEquals;
+
+/**
+ * Compares the org.json based parse and serialize paths against the native parser and writer
+ * on representative payloads.
+ */
+public class JsonBenchmarkTest extends BaseTestCase {
+
+    private static final int WARMUP = 200;
+    private static final int ITERATIONS = 1000;
+
+    @Before
+    public void setup() {
+        TestBenchmark.assumeEnabled();
+    }
+
+    @Test
+    public void testParse() throws Exception {
+        final String json = createPayload().toString();
+
+        // Sanity check both paths agree before timing them
+        assertEquals(JsonValue.wrap(new JSONTokener(json).nextValue()), JsonValue.parseString(json));
+
+        TestBenchmark.measure("json parse (JSONTokener)", WARMUP, ITERATIONS, new TestBenchmark.Operation() {
+            @Override
+            public void run() throws Exception {
+                JsonValue.wrap(new JSONTokener(json).nextValue());
+            }
+        });
+
+        TestBenchmark.measure("json parse (JsonParser)", WARMUP, ITERATIONS, new TestBenchmark.Operation() {
+            @Override
+            public void run() throws Exception {
+                JsonValue.parseString(json);
+            }
+        });
+    }
+
+    @Test
+    public void testSerialize() throws Exception {
+        final JsonValue value = createPayload();
+
+        assertEquals(JsonWriterTest.legacyToString(value), value.toString());
+
+        TestBenchmark.measure("json serialize (JSONStringer)", WARMUP, ITERATIONS, new TestBenchmark.Operation() {
+            @Override
+            public void run() throws Exception {
+                JsonWriterTest.legacyToString(value);
+            }
+        });
+
+        TestBenchmark.measure("json serialize (JsonWriter)", WARMUP, ITERATIONS, new TestBenchmark.Operation() {
+            @Override
+            public void run() {
+                value.toString();
+            }
+        });
+    }
+
+    @Test
+    public void testBinaryDecode() throws Exception {
+        final String json = createPayload().toString();
+        final byte[] encoded = JsonBinaryEncoding.encode(createPayload());
+
+        assertEquals(JsonValue.parseString(json), JsonBinaryEncoding.decode(encoded));
+
+        TestBenchmark.measure("json decode (JsonParser)", WARMUP, ITERATIONS, new TestBenchmark.Operation() {
+            @Override
+            public void run() throws Exception {
+                JsonValue.parseString(json);
+            }
+        });
+
+        TestBenchmark.measure("json decode (JsonBinaryEncoding)", WARMUP, ITERATIONS, new TestBenchmark.Operation() {
+            @Override
+            public void run() throws Exception {
+                JsonBinaryEncoding.decode(encoded);
+            }
+        });
+    }
+
+    /**
+     * Builds a remote-data like payload containing in-app messages with push style content.
+     */
+    private static JsonValue createPayload() {
+        List<JsonValue> messages = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            JsonValue trigger = JsonMap.newBuilder()
+                                       .put("type", "custom_event_count")
+                                       .put("goal", 1.0)
+                                       .put("predicate", JsonMap.newBuilder()
+                                                                .put("key", "event_name")
+                                                                .put("value", JsonMap.newBuilder().put("equals", "purchase").build())
+                                                                .build())
+                                       .build()
+                                       .toJsonValue();
+
+            JsonMap message = JsonMap.newBuilder()
+                                     .put("id", "message-" + i)
+                                     .put("created", "2020-01-01T00:00:00")
+                                     .put("priority", i)
+                                     .put("limit", 1)
+                                     .put("start", 1577836800000L + i)
+                                     .put("triggers", new JsonList(Collections.singletonList(trigger)))
+                                     .put("message", JsonMap.newBuilder()
+                                                            .put("display_type", "banner")
+                                                            .put("display", JsonMap.newBuilder()
+                                                                                   .put("body", JsonMap.newBuilder()
+                                                                                                       .put("text", "Hello \"world\" / welcome back é")
+                                                                                                       .put("color", "#000000")
+                                                                                                       .put("size", 14.5)
+                                                                                                       .build())
+                                                                                   .put("duration", 15000)
+                                                                                   .build())
+                                                            .put("actions", JsonMap.newBuilder().put("^d", "https://example.com/" + i).build())
+                                                            .build())
+                                     .build();
+            messages.add(message.toJsonValue());
+        }
+
+        return JsonMap.newBuilder()
+                      .put("in_app_messages", new JsonList(messages))
+                      .put("timestamp", "2020-01-01T00:00:00")
+                      .build()
+                      .toJsonValue();
+    }
+
+}
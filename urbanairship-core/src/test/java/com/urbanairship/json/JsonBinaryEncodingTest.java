@@ -0,0 +1,118 @@
+/* Copyright Airship and Contributors */
+
+package com.urbanairship.json;
+
+import com.urbanairship.BaseTestCase;
+
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertFalse;
+import static junit.framework.Assert.assertTrue;
+
+public class JsonBinaryEncodingTest extends BaseTestCase {
+
+    private static final String JSON = "{\"string\":\"valu\\u00e9\",\"int\":-1,\"long\":-12345678901,\"max\":9223372036854775807," +
+            "\"double\":1.5,\"true\":true,\"false\":false,\"empty_map\":{},\"empty_list\":[]," +
+            "\"list\":[{\"id\":1,\"name\":\"one\"},{\"id\":2,\"name\":\"two\"},{\"id\":3,\"name\":\"three\"}]}";
+
+    /**
+     * Test encoding and decoding preserves the value and number types.
+     */
+    @Test
+    public void testRoundTrip() throws JsonException {
+        JsonValue value = JsonValue.parseString(JSON);
+        JsonValue decoded = JsonBinaryEncoding.decode(JsonBinaryEncoding.encode(value));
+
+        assertEquals(value, decoded);
+        assertTrue(decoded.optMap().opt("int").isInteger());
+        assertTrue(decoded.optMap().opt("long").isLong());
+        assertTrue(decoded.optMap().opt("double").isDouble());
+    }
+
+    /**
+     * Test top level primitives.
+     */
+    @Test
+    public void testPrimitives() throws JsonException {
+        for (JsonValue value : Arrays.asList(JsonValue.NULL, JsonValue.wrap("string"), JsonValue.wrap(true), JsonValue.wrap(100), JsonValue.wrap(0.5))) {
+            assertEquals(value, JsonBinaryEncoding.decode(JsonBinaryEncoding.encode(value)));
+        }
+    }
+
+    /**
+     * Test repeated keys are only written once.
+     */
+    @Test
+    public void testKeysInterned() throws JsonException {
+        JsonValue value = JsonValue.parseString(JSON);
+        byte[] encoded = JsonBinaryEncoding.encode(value);
+
+        assertTrue(encoded.length < JSON.getBytes(StandardCharsets.UTF_8).length);
+        assertEquals(1, count(encoded, "name".getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * Test decoding legacy JSON text.
+     */
+    @Test
+    public void testDecodeOrParse() throws JsonException {
+        JsonValue value = JsonValue.parseString(JSON);
+
+        assertFalse(JsonBinaryEncoding.isEncoded(JSON.getBytes(StandardCharsets.UTF_8)));
+        assertEquals(value, JsonBinaryEncoding.decodeOrParse(JSON.getBytes(StandardCharsets.UTF_8)));
+        assertEquals(value, JsonBinaryEncoding.decodeOrParse(JsonBinaryEncoding.encode(value)));
+        assertEquals(JsonValue.NULL, JsonBinaryEncoding.decodeOrParse(null));
+    }
+
+    /**
+     * Test truncated data throws.
+     */
+    @Test(expected = JsonException.class)
+    public void testTruncated() throws JsonException {
+        byte[] encoded = JsonBinaryEncoding.encode(JsonValue.parseString(JSON));
+        JsonBinaryEncoding.decode(Arrays.copyOf(encoded, encoded.length - 4));
+    }
+
+    /**
+     * Test a corrupt list size throws instead of allocating the list.
+     */
+    @Test(expected = JsonException.class)
+    public void testCorruptListSize() throws JsonException {
+        // Header, list tag, Integer.MAX_VALUE size, one null element
+        byte[] data = { (byte) 0xB5, 1, 7, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 7, 0 };
+        JsonBinaryEncoding.decode(data);
+    }
+
+    /**
+     * Test a corrupt map size throws instead of allocating the map.
+     */
+    @Test(expected = JsonException.class)
+    public void testCorruptMapSize() throws JsonException {
+        // Header, map tag, Integer.MAX_VALUE size
+        byte[] data = { (byte) 0xB5, 1, 8, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 7 };
+        JsonBinaryEncoding.decode(data);
+    }
+
+    /**
+     * Test text data throws when decoded as binary.
+     */
+    @Test(expected = JsonException.class)
+    public void testInvalidHeader() throws JsonException {
+        JsonBinaryEncoding.decode(JSON.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static int count(byte[] data, byte[] pattern) {
+        int count = 0;
+        for (int i = 0; i <= data.length - pattern.length; i++) {
+            if (Arrays.equals(Arrays.copyOfRange(data, i, i + pattern.length), pattern)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+}
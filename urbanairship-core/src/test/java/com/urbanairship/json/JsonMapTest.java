@@ -14,8 +14,10 @@ import java.util.List;
 import java.util.Map;
 
 import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertFalse;
 import static junit.framework.Assert.assertNotNull;
 import static junit.framework.Assert.assertNull;
+import static junit.framework.Assert.assertSame;
 import static junit.framework.Assert.assertTrue;
 
 public class JsonMapTest extends BaseTestCase {
@@ -102,4 +104,69 @@ public class JsonMapTest extends BaseTestCase {
         assertEquals("c", jsonMap.get("list").getList().getList().get(4).getString());
     }
 
+    /**
+     * Test building a map from an existing map.
+     */
+    @Test
+    public void testBuilderFromMap() {
+        JsonMap.Builder builder = JsonMap.newBuilder();
+        for (int i = 0; i < 100; i++) {
+            builder.put("key" + i, i);
+        }
+        JsonMap base = builder.build();
+
+        JsonMap edited = JsonMap.newBuilder(base)
+                                .put("key1", "changed")
+                                .put("key2", (String) null)
+                                .put("added", true)
+                                .build();
+
+        Map<String, JsonValue> expected = base.getMap();
+        expected.put("key1", JsonValue.wrap("changed"));
+        expected.remove("key2");
+        expected.put("added", JsonValue.wrap(true));
+
+        assertEquals(new JsonMap(expected), edited);
+        assertEquals(new JsonMap(expected).hashCode(), edited.hashCode());
+        assertEquals(100, edited.size());
+        assertEquals(100, edited.entrySet().size());
+        assertFalse(edited.containsKey("key2"));
+
+        // Source map is untouched
+        assertEquals(100, base.size());
+        assertEquals(1, base.opt("key1").getInt(0));
+
+        // Editing an edited map
+        JsonMap reverted = JsonMap.newBuilder(edited)
+                                  .put("key1", 1)
+                                  .put("key2", 2)
+                                  .put("added", (String) null)
+                                  .build();
+        assertEquals(base, reverted);
+
+        // No changes returns the same map
+        assertSame(base, JsonMap.newBuilder(base).build());
+    }
+
+    /**
+     * Test equality across number types.
+     */
+    @Test
+    public void testEqualsNumberTypes() {
+        JsonMap intMap = JsonMap.newBuilder().put("number", 1).build();
+        JsonMap doubleMap = JsonMap.newBuilder().put("number", 1.0).build();
+
+        assertEquals(intMap, doubleMap);
+        assertEquals(intMap.hashCode(), doubleMap.hashCode());
+        assertFalse(intMap.equals(JsonMap.newBuilder().put("number", 2).build()));
+    }
+
+    /**
+     * Test the views do not allow modification.
+     */
+    @Test(expected = UnsupportedOperationException.class)
+    public void testKeySetImmutable() {
+        jsonMap.keySet().remove("some-key");
+    }
+
 }
@@ -0,0 +1,100 @@
+/* Copyright Airship and Contributors */
+
+package com.urbanairship.json;
+
+import com.urbanairship.BaseTestCase;
+
+import org.json.JSONTokener;
+import org.junit.Test;
+
+import java.io.StringReader;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertFalse;
+import static junit.framework.Assert.assertTrue;
+import static junit.framework.Assert.fail;
+
+public class JsonParserTest extends BaseTestCase {
+
+    private static final String JSON = "{\"string\":\"a\\\"b\\\\c\\/d\\u00e9\\n\",\"int\":1,\"long\":12345678901," +
+            "\"double\":1.5,\"exponent\":1e5,\"negative\":-2,\"true\":true,\"false\":false,\"null\":null," +
+            "\"list\":[1,null,\"two\",[],{}],\"map\":{\"nested\":{\"key\":\"value\"}}}";
+
+    /**
+     * Test the parser produces the same values as the org.json tokener.
+     */
+    @Test
+    public void testMatchesTokener() throws Exception {
+        JsonValue expected = JsonValue.wrap(new JSONTokener(JSON).nextValue());
+        assertEquals(expected, new JsonParser(JSON).parse());
+        assertEquals(expected, new JsonParser(new StringReader(JSON)).parse());
+    }
+
+    /**
+     * Test nulls are dropped from maps and lists.
+     */
+    @Test
+    public void testDropsNulls() throws JsonException {
+        JsonMap map = new JsonParser(JSON).parse().optMap();
+        assertFalse(map.containsKey("null"));
+        assertEquals(4, map.opt("list").optList().size());
+    }
+
+    /**
+     * Test number types.
+     */
+    @Test
+    public void testNumbers() throws JsonException {
+        JsonMap map = new JsonParser(JSON).parse().optMap();
+        assertTrue(map.opt("int").getValue() instanceof Integer);
+        assertTrue(map.opt("long").getValue() instanceof Long);
+        assertTrue(map.opt("double").getValue() instanceof Double);
+        assertTrue(map.opt("exponent").getValue() instanceof Double);
+        assertTrue(new JsonParser("123456789012345678901234567890").parse().getValue() instanceof Double);
+    }
+
+    /**
+     * Test parsing values larger than the read buffer.
+     */
+    @Test
+    public void testLargeInput() throws JsonException {
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < 1000; i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append("{\"key\":\"value \\\"").append(i).append("\\\"\"}");
+        }
+        sb.append(']');
+
+        JsonList list = new JsonParser(new StringReader(sb.toString())).parse().optList();
+        assertEquals(1000, list.size());
+        assertEquals("value \"999\"", list.get(999).optMap().opt("key").optString());
+    }
+
+    /**
+     * Test empty and whitespace only input parse as null.
+     */
+    @Test
+    public void testEmpty() throws JsonException {
+        assertEquals(JsonValue.NULL, new JsonParser("").parse());
+        assertEquals(JsonValue.NULL, new JsonParser(" \n ").parse());
+    }
+
+    /**
+     * Test invalid JSON throws.
+     */
+    @Test
+    public void testInvalid() {
+        String[] invalid = new String[] { "{", "[1,]", "{\"a\" 1}", "tru", "\"abc", "{} x", "\"\\x\"", "1e999" };
+        for (String json : invalid) {
+            try {
+                new JsonParser(json).parse();
+                fail("Expected exception for " + json);
+            } catch (JsonException expected) {
+                // expected
+            }
+        }
+    }
+
+}
@@ -14,6 +14,7 @@ import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
 
+import java.io.StringReader;
 import java.net.MalformedURLException;
 import java.net.URISyntaxException;
 import java.util.ArrayList;
@@ -28,6 +29,7 @@ import static junit.framework.Assert.assertEquals;
 import static junit.framework.Assert.assertFalse;
 import static junit.framework.Assert.assertNotNull;
 import static junit.framework.Assert.assertTrue;
+import static junit.framework.Assert.fail;
 
 public class JsonValueTest extends BaseTestCase {
 
@@ -299,6 +301,36 @@ public class JsonValueTest extends BaseTestCase {
         assertEquals(expected.getList(), JsonValue.wrap(list).getList());
     }
 
+    /**
+     * Test parsing JSON from a reader.
+     */
+    @Test
+    public void testParseReader() throws JsonException, JSONException {
+        JSONObject json = new JSONObject(primitiveMap);
+        json.put("map", new JSONObject(primitiveMap));
+        json.put("collection", new JSONArray(primitiveList));
+
+        assertEquals(JsonValue.wrap(json), JsonValue.parse(new StringReader(json.toString())));
+        assertEquals(JsonValue.NULL, JsonValue.parse(new StringReader("")));
+    }
+
+    /**
+     * Test parsing from a reader is strict while parsing a String falls back to the lenient parser.
+     */
+    @Test
+    public void testParseReaderStrict() throws JsonException {
+        String lenient = "{'key': 'value'}";
+        JsonValue expected = JsonMap.newBuilder().put("key", "value").build().toJsonValue();
+        assertEquals(expected, JsonValue.parseString(lenient));
+
+        try {
+            JsonValue.parse(new StringReader(lenient));
+            fail("Expected a JsonException");
+        } catch (JsonException expectedException) {
+            // expected
+        }
+    }
+
     /**
      * Test parsing a valid JSON String produces the equivalent JsonValue.
      */
@@ -0,0 +1,87 @@
+/* Copyright Airship and Contributors */
+
+package com.urbanairship.json;
+
+import com.urbanairship.BaseTestCase;
+
+import org.json.JSONException;
+import org.json.JSONStringer;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static junit.framework.Assert.assertEquals;
+
+public class JsonWriterTest extends BaseTestCase {
+
+    /**
+     * Test the writer output matches JSONStringer.
+     */
+    @Test
+    public void testMatchesStringer() throws JSONException {
+        JsonValue value = JsonMap.newBuilder()
+                                 .put("string", "quote \" slash / backslash \\ control \u0001 \t\n\r\b\f unicode \u00e9")
+                                 .put("int", 1)
+                                 .put("long", Long.MAX_VALUE)
+                                 .put("double", 1.5)
+                                 .put("integral double", 2.0)
+                                 .put("negative zero", -0.0)
+                                 .put("boolean", true)
+                                 .putOpt("list", new Object[] { 1, "two", 3.0 })
+                                 .put("map", JsonMap.newBuilder().put("key", "value").build())
+                                 .build()
+                                 .toJsonValue();
+
+        assertEquals(legacyToString(value), value.toString());
+        assertEquals(legacyToString(value.optMap().opt("list")), value.optMap().opt("list").toString());
+    }
+
+    /**
+     * Test writing to a writer and an output stream.
+     */
+    @Test
+    public void testWrite() throws IOException {
+        JsonValue value = JsonMap.newBuilder().put("key", "valu\u00e9").build().toJsonValue();
+
+        StringWriter writer = new StringWriter();
+        value.write(writer);
+        assertEquals(value.toString(), writer.toString());
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        value.write(outputStream);
+        assertEquals(value.toString(), new String(outputStream.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    /**
+     * The previous JSONStringer based serialization.
+     */
+    static String legacyToString(JsonValue value) throws JSONException {
+        JSONStringer stringer = new JSONStringer();
+        legacyWrite(value, stringer);
+        return stringer.toString();
+    }
+
+    private static void legacyWrite(JsonValue value, JSONStringer stringer) throws JSONException {
+        if (value.isJsonMap()) {
+            stringer.object();
+            for (Map.Entry<String, JsonValue> entry : value.optMap()) {
+                stringer.key(entry.getKey());
+                legacyWrite(entry.getValue(), stringer);
+            }
+            stringer.endObject();
+        } else if (value.isJsonList()) {
+            stringer.array();
+            for (JsonValue item : value.optList()) {
+                legacyWrite(item, stringer);
+            }
+            stringer.endArray();
+        } else {
+            stringer.value(value.getValue());
+        }
+    }
+
+}
@@ -253,7 +253,7 @@ public class RemoteDataApiClientTest extends BaseTestCase {
         assertNull("Headers should not contain timestamp", testRequest.getRequestHeaders().get("If-Modified-Since"));
         assertNotNull("Response should not be null", response);
         assertEquals("Response status should be 200", HttpURLConnection.HTTP_OK, response.getStatus());
-        assertEquals("Response should be the JSONMap", response.getResponseBody(), payload.toString());
+        assertNull("Streamed response should not retain the body", response.getResponseBody());
         assertEquals("Last-Modified should match with timestamp", responseTimestamp, response.getResponseHeader("Last-Modified"));
     }
 
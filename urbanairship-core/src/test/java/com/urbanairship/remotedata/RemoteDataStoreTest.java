@@ -12,6 +12,7 @@ import org.junit.Before;
 import org.junit.Test;
 
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.Set;
 
@@ -82,4 +83,42 @@ public class RemoteDataStoreTest extends BaseTestCase {
         Assert.assertTrue(dataStore.getPayloads(Arrays.asList("type", "otherType")).size() == 0);
     }
 
+    /**
+     * Test payloads written with binary encoding are readable by the default text store.
+     */
+    @Test
+    public void testReadBinaryPayloads() {
+        RemoteDataStore binaryDataStore = new RemoteDataStore(TestApplication.getApplication(), "appKey", "test", true);
+        binaryDataStore.savePayloads(payloads);
+        binaryDataStore.close();
+
+        Assert.assertEquals(payloads, dataStore.getPayloads());
+    }
+
+    /**
+     * Test enabling binary encoding keeps payloads already stored as JSON text readable.
+     */
+    @Test
+    public void testBinaryEncodingMigratesTextPayloads() {
+        dataStore.savePayloads(payloads);
+        dataStore.close();
+
+        RemoteDataStore binaryDataStore = new RemoteDataStore(TestApplication.getApplication(), "appKey", "test", true);
+        Assert.assertEquals(payloads, binaryDataStore.getPayloads());
+
+        RemoteDataPayload binaryPayload = RemoteDataPayload.newBuilder()
+                                                           .setType("binaryType")
+                                                           .setTimeStamp(345)
+                                                           .setData(JsonMap.newBuilder()
+                                                                           .put("qux", "quux")
+                                                                           .build())
+                                                           .build();
+        binaryDataStore.savePayloads(Collections.singleton(binaryPayload));
+
+        Set<RemoteDataPayload> expected = new HashSet<>(payloads);
+        expected.add(binaryPayload);
+        Assert.assertEquals(expected, binaryDataStore.getPayloads());
+        binaryDataStore.close();
+    }
+
 }
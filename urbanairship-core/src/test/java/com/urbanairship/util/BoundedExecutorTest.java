@@ -0,0 +1,82 @@
+package com.urbanairship.util;
+
+import com.urbanairship.BaseTestCase;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class BoundedExecutorTest extends BaseTestCase {
+
+    BoundedExecutor executor;
+
+    @Before
+    public void setup() {
+        executor = new BoundedExecutor(Executors.newFixedThreadPool(8), 2);
+    }
+
+    @Test
+    public void testMaxConcurrent() throws InterruptedException {
+        final AtomicInteger executing = new AtomicInteger();
+        final AtomicInteger maxExecuting = new AtomicInteger();
+        final CountDownLatch latch = new CountDownLatch(20);
+
+        for (int i = 0; i < 20; i++) {
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    int count = executing.incrementAndGet();
+                    synchronized (maxExecuting) {
+                        maxExecuting.set(Math.max(maxExecuting.get(), count));
+                    }
+
+                    try {
+                        Thread.sleep(5);
+                    } catch (InterruptedException ignored) {
+                    }
+
+                    executing.decrementAndGet();
+                    latch.countDown();
+                }
+            });
+        }
+
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertEquals(2, maxExecuting.get());
+    }
+
+    @Test
+    public void testRunsConcurrently() throws InterruptedException {
+        final CountDownLatch blocked = new CountDownLatch(1);
+        final CountDownLatch finished = new CountDownLatch(1);
+
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    blocked.await();
+                } catch (InterruptedException ignored) {
+                }
+            }
+        });
+
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                finished.countDown();
+            }
+        });
+
+        // The second runnable is not held up by the blocked one
+        assertTrue(finished.await(5, TimeUnit.SECONDS));
+        blocked.countDown();
+    }
+
+}
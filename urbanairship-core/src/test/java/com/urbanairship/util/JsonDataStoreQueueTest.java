@@ -3,6 +3,7 @@
 package com.urbanairship.util;
 
 import com.urbanairship.BaseTestCase;
+import com.urbanairship.PreferenceDataStore;
 import com.urbanairship.TestApplication;
 import com.urbanairship.json.JsonSerializable;
 import com.urbanairship.json.JsonValue;
@@ -16,16 +17,23 @@ import java.util.List;
 import androidx.arch.core.util.Function;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 public class JsonDataStoreQueueTest extends BaseTestCase {
 
     JsonDataStoreQueue<JsonValue> queue;
+    PreferenceDataStore dataStore;
 
     @Before
     public void setup() {
-        queue = new JsonDataStoreQueue<>(TestApplication.getApplication().preferenceDataStore, "some-key", new Function<JsonValue, JsonSerializable>() {
+        dataStore = TestApplication.getApplication().preferenceDataStore;
+        queue = createQueue();
+    }
+
+    private JsonDataStoreQueue<JsonValue> createQueue() {
+        return new JsonDataStoreQueue<>(dataStore, "some-key", new Function<JsonValue, JsonSerializable>() {
             @Override
             public JsonSerializable apply(JsonValue input) {
                 return input;
@@ -104,4 +112,66 @@ public class JsonDataStoreQueueTest extends BaseTestCase {
         assertEquals("what?", queue.peek().getString());
     }
 
+    @Test
+    public void testPeekCount() {
+        queue.addAll(Arrays.asList(JsonValue.wrapOpt("neat"), JsonValue.wrapOpt("rad"), JsonValue.wrapOpt("cool")));
+
+        assertEquals(Arrays.asList(JsonValue.wrapOpt("neat"), JsonValue.wrapOpt("rad")), queue.peek(2));
+        assertEquals(3, queue.peek(10).size());
+        assertEquals(3, queue.size());
+    }
+
+    @Test
+    public void testItemsStoredSeparately() {
+        queue.add(JsonValue.wrapOpt("neat"));
+        queue.add(JsonValue.wrapOpt("rad"));
+
+        assertFalse(dataStore.isSet("some-key"));
+        assertEquals("neat", dataStore.getJsonValue(queue.itemKey(0)).getString());
+        assertEquals("rad", dataStore.getJsonValue(queue.itemKey(1)).getString());
+
+        assertEquals("neat", queue.pop().getString());
+        assertFalse(dataStore.isSet(queue.itemKey(0)));
+        assertEquals("rad", dataStore.getJsonValue(queue.itemKey(1)).getString());
+
+        assertEquals("rad", queue.pop().getString());
+        assertFalse(dataStore.isSet(queue.itemKey(1)));
+        assertEquals(0, queue.size());
+    }
+
+    @Test
+    public void testMigratesLegacyList() {
+        dataStore.put("some-key", JsonValue.wrapOpt(Arrays.asList("neat", "rad")));
+
+        JsonDataStoreQueue<JsonValue> legacyQueue = createQueue();
+        legacyQueue.add(JsonValue.wrapOpt("cool"));
+
+        assertFalse(dataStore.isSet("some-key"));
+        assertEquals(Arrays.asList(JsonValue.wrapOpt("neat"), JsonValue.wrapOpt("rad"), JsonValue.wrapOpt("cool")), legacyQueue.getList());
+        assertEquals("neat", legacyQueue.pop().getString());
+    }
+
+    @Test
+    public void testSkipsUnreadableItems() {
+        JsonDataStoreQueue<String> stringQueue = new JsonDataStoreQueue<>(dataStore, "string-key", new Function<String, JsonSerializable>() {
+            @Override
+            public JsonSerializable apply(String input) {
+                return JsonValue.wrapOpt(input);
+            }
+        }, new Function<JsonValue, String>() {
+            @Override
+            public String apply(JsonValue input) {
+                return input.isString() ? input.getString() : null;
+            }
+        });
+
+        stringQueue.add("neat");
+        dataStore.put(stringQueue.itemKey(0), JsonValue.wrapOpt(100));
+        stringQueue.add("rad");
+
+        assertEquals(Arrays.asList("rad"), stringQueue.getList());
+        assertEquals("rad", stringQueue.pop());
+        assertNull(stringQueue.pop());
+    }
+
 }
@@ -0,0 +1,105 @@
+package com.urbanairship.util;
+
+import com.urbanairship.BaseTestCase;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class KeyedSerialExecutorTest extends BaseTestCase {
+
+    KeyedSerialExecutor executor;
+
+    @Before
+    public void setup() {
+        executor = new KeyedSerialExecutor(Executors.newFixedThreadPool(4));
+    }
+
+    @Test
+    public void testOrderPerKey() throws InterruptedException {
+        final List<Integer> actualFoo = Collections.synchronizedList(new ArrayList<Integer>());
+        final List<Integer> actualBar = Collections.synchronizedList(new ArrayList<Integer>());
+        final List<Integer> expected = new ArrayList<>();
+
+        final CountDownLatch latch = new CountDownLatch(200);
+
+        for (int i = 1; i <= 100; i++) {
+            final int count = i;
+            expected.add(count);
+            executor.execute("foo", new Runnable() {
+                @Override
+                public void run() {
+                    actualFoo.add(count);
+                    latch.countDown();
+                }
+            });
+            executor.getExecutor("bar").execute(new Runnable() {
+                @Override
+                public void run() {
+                    actualBar.add(count);
+                    latch.countDown();
+                }
+            });
+        }
+
+        latch.await();
+        assertEquals(expected, actualFoo);
+        assertEquals(expected, actualBar);
+    }
+
+    @Test
+    public void testKeysRunConcurrently() throws InterruptedException {
+        final CountDownLatch blocked = new CountDownLatch(1);
+        final CountDownLatch finished = new CountDownLatch(1);
+
+        executor.execute("slow", new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    blocked.await();
+                } catch (InterruptedException ignored) {
+                }
+            }
+        });
+
+        executor.execute("fast", new Runnable() {
+            @Override
+            public void run() {
+                finished.countDown();
+            }
+        });
+
+        // The fast key is not held up by the blocked one
+        assertTrue(finished.await(5, TimeUnit.SECONDS));
+        blocked.countDown();
+    }
+
+    @Test
+    public void testIdleKeysRemoved() throws InterruptedException {
+        final CountDownLatch latch = new CountDownLatch(1);
+        executor.execute("foo", new Runnable() {
+            @Override
+            public void run() {
+                latch.countDown();
+            }
+        });
+
+        latch.await();
+
+        long timeout = System.currentTimeMillis() + 5000;
+        while (executor.getActiveKeyCount() > 0 && System.currentTimeMillis() < timeout) {
+            Thread.sleep(10);
+        }
+        assertEquals(0, executor.getActiveKeyCount());
+    }
+
+}
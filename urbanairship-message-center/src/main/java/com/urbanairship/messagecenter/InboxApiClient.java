@@ -13,6 +13,7 @@ import com.urbanairship.http.RequestException;
 import com.urbanairship.http.RequestFactory;
 import com.urbanairship.http.Response;
 import com.urbanairship.http.ResponseParser;
+import com.urbanairship.http.StreamingResponseParser;
 import com.urbanairship.json.JsonException;
 import com.urbanairship.json.JsonList;
 import com.urbanairship.json.JsonMap;
@@ -20,6 +21,7 @@ import com.urbanairship.json.JsonValue;
 import com.urbanairship.util.UAHttpStatusUtil;
 import com.urbanairship.util.UAStringUtil;
 
+import java.io.Reader;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
@@ -69,13 +71,13 @@ public class InboxApiClient {
                              .setAirshipUserAgent(runtimeConfig)
                              .setHeader(CHANNEL_ID_HEADER, channelId)
                              .setIfModifiedSince(lastMessageRefreshTime)
-                             .execute(new ResponseParser<JsonList>() {
+                             .executeStreaming(new StreamingResponseParser<JsonList>() {
                                  @Override
-                                 public JsonList parseResponse(int status, @Nullable Map<String, List<String>> headers, @Nullable String responseBody) throws Exception {
+                                 public JsonList parseResponse(int status, @Nullable Map<String, List<String>> headers, @NonNull Reader responseBody) throws Exception {
                                      if (!UAHttpStatusUtil.inSuccessRange(status)) {
                                          return null;
                                      }
-                                     JsonList messageJson = JsonValue.parseString(responseBody).optMap().opt("messages").getList();
+                                     JsonList messageJson = JsonValue.parse(responseBody).optMap().opt("messages").getList();
                                      if (messageJson == null) {
                                          throw new JsonException("Invalid response, missing messages.");
                                      }
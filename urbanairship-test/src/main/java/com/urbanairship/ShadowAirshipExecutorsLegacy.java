@@ -1,6 +1,7 @@
 package com.urbanairship;
 
 import com.google.common.util.concurrent.MoreExecutors;
+import com.urbanairship.util.KeyedSerialExecutor;
 
 import org.robolectric.android.util.concurrent.RoboExecutorService;
 import org.robolectric.annotation.Implementation;
@@ -22,4 +23,14 @@ public class ShadowAirshipExecutorsLegacy {
     public static Executor newSerialExecutor() {
         return EXECUTOR;
     }
+
+    @Implementation
+    public static Executor newBoundedExecutor(int maxConcurrent) {
+        return EXECUTOR;
+    }
+
+    @Implementation
+    public static KeyedSerialExecutor newKeyedSerialExecutor() {
+        return new KeyedSerialExecutor(EXECUTOR);
+    }
 }
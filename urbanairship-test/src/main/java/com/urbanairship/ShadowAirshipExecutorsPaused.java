@@ -1,5 +1,7 @@
 package com.urbanairship;
 
+import com.urbanairship.util.KeyedSerialExecutor;
+
 import org.robolectric.android.util.concurrent.PausedExecutorService;
 import org.robolectric.android.util.concurrent.RoboExecutorService;
 import org.robolectric.annotation.Implementation;
@@ -23,4 +25,14 @@ public class ShadowAirshipExecutorsPaused {
     public static Executor newSerialExecutor() {
         return EXECUTOR;
     }
+
+    @Implementation
+    public static Executor newBoundedExecutor(int maxConcurrent) {
+        return EXECUTOR;
+    }
+
+    @Implementation
+    public static KeyedSerialExecutor newKeyedSerialExecutor() {
+        return new KeyedSerialExecutor(EXECUTOR);
+    }
 }
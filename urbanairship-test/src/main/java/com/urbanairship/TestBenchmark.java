@@ -0,0 +1,63 @@
+/* Copyright Airship and Contributors */
+
+package com.urbanairship;
+
+import org.junit.Assume;
+
+import java.util.Locale;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Minimal JMH-style micro benchmark runner for unit tests. Runs a warmup phase followed by
+ * measured iterations and reports the average time per operation to the test output.
+ * <p>
+ * Benchmarks are skipped unless the unit tests run with {@code -PairshipBenchmarks}. Numbers
+ * produced under Robolectric are only useful to compare alternatives within the same run, not as
+ * absolute device timings.
+ */
+public class TestBenchmark {
+
+    /**
+     * System property that enables benchmarks.
+     */
+    public static final String ENABLED_PROPERTY = "com.urbanairship.benchmarks";
+
+    public interface Operation {
+        void run() throws Exception;
+    }
+
+    private TestBenchmark() {}
+
+    /**
+     * Skips the calling test unless benchmarks are enabled.
+     */
+    public static void assumeEnabled() {
+        Assume.assumeTrue("Benchmarks are disabled", Boolean.getBoolean(ENABLED_PROPERTY));
+    }
+
+    /**
+     * Measures an operation and reports the result under the benchmark name.
+     *
+     * @param name The benchmark name.
+     * @param warmupIterations Iterations to run before measuring.
+     * @param iterations Measured iterations.
+     * @param operation The operation.
+     * @return The average time per operation in nanoseconds.
+     */
+    public static double measure(@NonNull String name, int warmupIterations, int iterations, @NonNull Operation operation) throws Exception {
+        for (int i = 0; i < warmupIterations; i++) {
+            operation.run();
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            operation.run();
+        }
+        double nsPerOp = (System.nanoTime() - start) / (double) iterations;
+
+        System.out.println(String.format(Locale.ROOT, "Benchmark %-50s %12.1f ns/op (%d ops)", name, nsPerOp, iterations));
+        return nsPerOp;
+    }
+
+}
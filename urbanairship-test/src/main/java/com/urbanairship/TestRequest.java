@@ -2,20 +2,22 @@
 
 package com.urbanairship;
 
-import android.net.Uri;
-
 import com.urbanairship.http.Request;
 import com.urbanairship.http.RequestException;
 import com.urbanairship.http.Response;
 import com.urbanairship.http.ResponseParser;
+import com.urbanairship.http.StreamingResponseParser;
 import com.urbanairship.util.Checks;
 
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.StringWriter;
 import java.net.URL;
 import java.util.List;
 import java.util.Map;
 
 import androidx.annotation.NonNull;
-import androidx.annotation.Nullable;
 
 /**
  * Request class used for testing.
@@ -49,35 +51,38 @@ public class TestRequest extends Request {
         }
     }
 
+    @NonNull
+    @Override
+    public <T> Response<T> executeStreaming(@NonNull StreamingResponseParser<T> parser) throws RequestException {
+        try {
+            Checks.checkNotNull(uri, "missing url");
+            Checks.checkNotNull(requestMethod, "missing request method");
+            Reader reader = new StringReader(responseBody == null ? "" : responseBody);
+            return new Response.Builder<T>(responseStatus)
+                    .setLastModified(responseLastModifiedTime)
+                    .setResponseHeaders(responseHeaders)
+                    .setResult(parser.parseResponse(responseStatus, responseHeaders, reader))
+                    .build();
+        } catch (Exception e) {
+            throw new RequestException("parse error", e);
+        }
+    }
+
     /**
      * Get the request body.
      *
      * @return The request body.
      */
     public String getRequestBody() {
+        if (bodyWriter != null) {
+            StringWriter writer = new StringWriter();
+            try {
+                bodyWriter.writeTo(writer);
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+            return writer.toString();
+        }
         return body;
     }
-
-    /**
-     * Get the request headers.
-     *
-     * @return The request headers.
-     */
-    public Map<String, String> getRequestHeaders() {
-        return responseProperties;
-    }
-
-    public long getIfModifiedSince() {
-        return ifModifiedSince;
-    }
-
-    @Nullable
-    public String getRequestMethod() {
-        return requestMethod;
-    }
-
-    @Nullable
-    public Uri getUrl() {
-        return uri;
-    }
 }